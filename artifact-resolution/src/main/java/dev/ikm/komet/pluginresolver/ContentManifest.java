@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The size, modification time and SHA-256 of every file in an unpacked data-store directory, as of
+ * the last time each file was hashed — kept in {@value #FILE_NAME} inside the directory.
+ *
+ * <p>It lets {@link MavenDataStoreDownloadTask#currentUnpackedContentSha256} recompute a store's
+ * content hash without reading it: a file whose size and modification time still match its entry
+ * contributes the recorded digest, and only the others are read and hashed again. The manifest is a
+ * cache, not the reference — the content checksum marker written at unpack time is what a recomputed
+ * hash is compared against, so rewriting the manifest after hashing a changed file never hides the
+ * change. {@link MavenDataStoreDownloadTask#deepUnpackedContentSha256} ignores it and reads every
+ * byte, for when an edit that preserved both size and modification time must be caught too.
+ *
+ * <p>The file is tab-separated: a header line, then one line per file holding its size, modification
+ * time in milliseconds, hex digest and path relative to the directory. Backslashes, line feeds and
+ * carriage returns in a path are escaped as {@code \\}, {@code \n} and {@code \r}, so every file
+ * has an entry and a manifest read back equals the one written. A missing, unreadable or
+ * unknown-format manifest is treated as empty.
+ */
+final class ContentManifest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContentManifest.class);
+
+    static final String FILE_NAME = ".ike-content-manifest";
+
+    private static final String FORMAT_HEADER = "komet-content-manifest 2";
+
+    private final Map<String, Entry> entries;
+
+    private ContentManifest(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @return a manifest with no entries, which every lookup misses
+     */
+    static ContentManifest empty() {
+        return new ContentManifest(Map.of());
+    }
+
+    /**
+     * @param directory the unpacked store directory
+     * @return the manifest stored in {@code directory}, or {@link #empty()} if there is no usable one
+     */
+    static ContentManifest load(Path directory) {
+        Path manifestFile = directory.resolve(FILE_NAME);
+        if (!Files.isRegularFile(manifestFile)) {
+            return empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(manifestFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !FORMAT_HEADER.equals(lines.getFirst())) {
+                LOG.info("Ignoring content manifest {} in an unknown format", manifestFile);
+                return empty();
+            }
+            Map<String, Entry> entries = new HashMap<>(lines.size());
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split("\t", 4);
+                entries.put(unescape(fields[3]), new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+            }
+            return new ContentManifest(entries);
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Ignoring unreadable content manifest {}", manifestFile, e);
+            return empty();
+        }
+    }
+
+    /**
+     * @param relativePath the file's path relative to the store directory
+     * @param attributes   the file's current attributes
+     * @return the recorded hex digest, if the file's size and modification time are unchanged since
+     */
+    Optional<String> digestIfUnchanged(String relativePath, BasicFileAttributes attributes) {
+        Entry entry = entries.get(relativePath);
+        if (entry == null || !entry.matches(attributes)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.sha256());
+    }
+
+    /**
+     * @return {@code true} if {@code others} records exactly the same files as this manifest
+     */
+    boolean sameEntries(Map<String, Entry> others) {
+        return entries.equals(others);
+    }
+
+    /**
+     * Replaces the manifest stored in {@code directory}. Failing to write it only costs the next
+     * check a rehash, so failures are logged rather than thrown.
+     *
+     * @param directory the unpacked store directory
+     * @param entries   the entry for every file, by path relative to {@code directory}
+     */
+    static void write(Path directory, Map<String, Entry> entries) {
+        Path manifestFile = directory.resolve(FILE_NAME);
+        Path temporaryFile = directory.resolve(FILE_NAME + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(FORMAT_HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    writer.write(Long.toString(entry.size()));
+                    writer.write('\t');
+                    writer.write(Long.toString(entry.lastModifiedMillis()));
+                    writer.write('\t');
+                    writer.write(entry.sha256());
+                    writer.write('\t');
+                    writer.write(escape(mapEntry.getKey()));
+                    writer.newLine();
+                }
+            }
+            Files.move(temporaryFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Unable to write content manifest {}", manifestFile, e);
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    private static String escape(String relativePath) {
+        StringBuilder escaped = new StringBuilder(relativePath.length());
+        for (int i = 0; i < relativePath.length(); i++) {
+            char c = relativePath.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String escapedPath) {
+        StringBuilder relativePath = new StringBuilder(escapedPath.length());
+        for (int i = 0; i < escapedPath.length(); i++) {
+            char c = escapedPath.charAt(i);
+            if (c != '\\') {
+                relativePath.append(c);
+                continue;
+            }
+            char escapedChar = escapedPath.charAt(++i);
+            relativePath.append(switch (escapedChar) {
+                case '\\' -> '\\';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> throw new IllegalArgumentException("Unknown escape \\" + escapedChar + " in " + escapedPath);
+            });
+        }
+        return relativePath.toString();
+    }
+
+    /**
+     * @param size               the file's size in bytes
+     * @param lastModifiedMillis the file's modification time when it was hashed
+     * @param sha256             the hex-encoded SHA-256 of the file's content
+     */
+    record Entry(long size, long lastModifiedMillis, String sha256) {
+
+        static Entry of(BasicFileAttributes attributes, String sha256) {
+            return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), sha256);
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModifiedMillis == attributes.lastModifiedTime().toMillis();
+        }
+    }
+}
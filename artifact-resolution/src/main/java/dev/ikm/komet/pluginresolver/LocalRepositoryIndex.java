@@ -0,0 +1,523 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory index of every directory in a local Maven repository (e.g. {@code ~/.m2/repository}),
+ * recording for each one its subdirectories, its modification time, and — read as a version directory
+ * of its parent — whether it holds a published version, which classifiers it publishes, and the
+ * resolved file version of a {@code -SNAPSHOT}. {@link LocalRepositorySearch} and
+ * {@link LocalVersionResolver} answer queries from this index instead of walking and listing the
+ * repository each time, which takes tens of seconds on a large repository.
+ *
+ * <p>The index is persisted to {@value #INDEX_FILE_NAME} in the repository root after every full
+ * refresh, so a new session starts from the previous one's index. It is kept current by modification
+ * time: creating, deleting or renaming an entry changes its directory's modification time, so a
+ * refresh only {@code stat}s the directories it already knows and lists just those whose time moved.
+ * Directories modified within {@link #RACY_WINDOW_MILLIS} of being listed are re-listed on the next
+ * refresh, since a change in the same clock tick would otherwise go unnoticed. A {@code WatchService}
+ * was not used: it needs one registration per directory, which exhausts the platform's watch limits
+ * on a repository with hundreds of thousands of directories.
+ *
+ * <p>Lookups for one artifact or one group refresh just that part of the tree before answering, so
+ * they always reflect what is on disk. A whole-repository search answers from memory and refreshes
+ * the full index on a background thread once it is older than
+ * {@code ike.artifact.index.refresh.seconds} (default {@value #DEFAULT_REFRESH_SECONDS}); only the very
+ * first search on a repository with no persisted index builds it synchronously. Performs no network
+ * I/O.
+ *
+ * <p>A full refresh walks a copy of the index without holding the index's monitor and then publishes
+ * the copy, so lookups are not held up by it. Updates a targeted lookup makes to the published index
+ * while the walk runs are replaced when the copy is published; that costs nothing but a re-list, since
+ * every targeted lookup checks its part of the tree against the disk again.
+ */
+public final class LocalRepositoryIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalRepositoryIndex.class);
+
+    /**
+     * The file, in the repository root, the index is persisted to.
+     */
+    public static final String INDEX_FILE_NAME = ".komet-artifact-index";
+
+    static final int DEFAULT_REFRESH_SECONDS = 30;
+
+    private static final String FORMAT_HEADER = "komet-artifact-index 1";
+    private static final long REFRESH_INTERVAL_NANOS =
+            TimeUnit.SECONDS.toNanos(Integer.getInteger("ike.artifact.index.refresh.seconds", DEFAULT_REFRESH_SECONDS));
+    private static final long RACY_WINDOW_MILLIS = 2_000;
+    private static final long UNKNOWN_MODIFIED = Long.MIN_VALUE;
+
+    private static final ConcurrentMap<Path, LocalRepositoryIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path localRepositoryRoot;
+    private final Path indexFile;
+    private final AtomicBoolean backgroundRefreshRunning = new AtomicBoolean(false);
+    // Held for the whole of a full refresh, so only one walks the repository at a time
+    private final Object fullRefreshLock = new Object();
+
+    /**
+     * Keyed by the directory's path relative to the repository root, {@code /}-separated; the root
+     * itself is the empty string. Guarded by {@code this}; a full refresh replaces the whole map.
+     */
+    private Map<String, DirectoryEntry> directories = new HashMap<>();
+    // Guarded by this
+    private boolean loaded = false;
+    private volatile long lastFullRefreshNanos;
+
+    private LocalRepositoryIndex(Path localRepositoryRoot) {
+        this.localRepositoryRoot = localRepositoryRoot;
+        this.indexFile = localRepositoryRoot.resolve(INDEX_FILE_NAME);
+    }
+
+    /**
+     * The shared index of {@code localRepositoryRoot}; every caller over the same repository shares
+     * one index.
+     *
+     * @param localRepositoryRoot the local repository root directory (e.g. {@code ~/.m2/repository})
+     * @return the index of that repository, loaded lazily on first use
+     * @throws NullPointerException if {@code localRepositoryRoot} is {@code null}
+     */
+    public static LocalRepositoryIndex forRoot(Path localRepositoryRoot) {
+        Objects.requireNonNull(localRepositoryRoot, "localRepositoryRoot");
+        return INDEXES.computeIfAbsent(localRepositoryRoot.toAbsolutePath().normalize(), LocalRepositoryIndex::new);
+    }
+
+    /**
+     * Brings the whole index up to date with the repository and persists it.
+     *
+     * @throws UncheckedIOException if a directory of the repository cannot be listed
+     */
+    public void refresh() {
+        synchronized (fullRefreshLock) {
+            if (!Files.isDirectory(localRepositoryRoot)) {
+                publish(new HashMap<>());
+                return;
+            }
+            Map<String, DirectoryEntry> refreshed;
+            synchronized (this) {
+                refreshed = loaded ? new HashMap<>(directories) : null;
+            }
+            if (refreshed == null) {
+                refreshed = Objects.requireNonNullElseGet(load(), HashMap::new);
+            }
+            refreshSubtree(refreshed, "");
+            persist(refreshed);
+            publish(refreshed);
+            lastFullRefreshNanos = System.nanoTime();
+        }
+    }
+
+    private synchronized void publish(Map<String, DirectoryEntry> refreshed) {
+        directories = refreshed;
+        loaded = true;
+    }
+
+    /**
+     * Starts {@link #refresh()} on a background thread, unless one is already running. Useful to warm
+     * the index before the first whole-repository search.
+     */
+    public void refreshInBackground() {
+        if (!backgroundRefreshRunning.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("local-repository-index").start(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to refresh the local repository index for {}", localRepositoryRoot, e);
+            } finally {
+                backgroundRefreshRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Every artifact in the repository with at least one published version that passes
+     * {@code versionFilter}, answered from memory; see the class documentation for when the index is
+     * refreshed.
+     *
+     * @param versionFilter tests each published version directory of a candidate artifact
+     * @return the matching artifacts
+     * @throws UncheckedIOException if the index has to be built and the repository cannot be walked
+     */
+    Set<ArtifactCoordinates> artifacts(Predicate<VersionDirectory> versionFilter) {
+        boolean build;
+        synchronized (this) {
+            if (!loaded) {
+                Map<String, DirectoryEntry> persisted = load();
+                if (persisted != null) {
+                    publish(persisted);
+                }
+            }
+            build = !loaded;
+        }
+        if (build) {
+            refresh();
+        }
+        long lastRefresh = lastFullRefreshNanos;
+        if (System.nanoTime() - lastRefresh > REFRESH_INTERVAL_NANOS || lastRefresh == 0) {
+            refreshInBackground();
+        }
+        synchronized (this) {
+            return artifactsUnder(directories, null, versionFilter);
+        }
+    }
+
+    /**
+     * The artifacts directly under {@code groupId}, refreshing that group's part of the index first.
+     *
+     * @param groupId       the group to list
+     * @param versionFilter tests each published version directory of a candidate artifact
+     * @return the matching artifacts of that group
+     * @throws UncheckedIOException if the group's directories cannot be listed
+     */
+    synchronized Set<ArtifactCoordinates> artifactsInGroup(String groupId, Predicate<VersionDirectory> versionFilter) {
+        String groupKey = groupId.replace('.', '/');
+        if (!refreshTarget(groupKey)) {
+            return Set.of();
+        }
+        return artifactsUnder(directories, groupKey, versionFilter);
+    }
+
+    /**
+     * The version directories of {@code coordinates}, published or not, refreshing that artifact's
+     * part of the index first.
+     *
+     * @param coordinates the artifact to look up
+     * @return the artifact's version directories; empty if the artifact's directory does not exist
+     * @throws UncheckedIOException if the artifact's directories cannot be listed
+     */
+    synchronized List<VersionDirectory> versionDirectories(ArtifactCoordinates coordinates) {
+        String artifactKey = coordinates.groupPath() + "/" + coordinates.artifactId();
+        if (!refreshTarget(artifactKey)) {
+            return List.of();
+        }
+        List<VersionDirectory> versions = new ArrayList<>();
+        for (String version : directories.get(artifactKey).subdirectories()) {
+            DirectoryEntry entry = directories.get(childKey(artifactKey, version));
+            if (entry != null) {
+                versions.add(entry.asVersion(version));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * One version directory of {@code coordinates}, refreshing just that directory first.
+     *
+     * @param coordinates the artifact to look up
+     * @param version     the version directory name
+     * @return the version directory, or empty if it does not exist
+     * @throws UncheckedIOException if the version directory cannot be listed
+     */
+    synchronized Optional<VersionDirectory> versionDirectory(ArtifactCoordinates coordinates, String version) {
+        String versionKey = coordinates.groupPath() + "/" + coordinates.artifactId() + "/" + version;
+        if (!refreshTarget(versionKey)) {
+            return Optional.empty();
+        }
+        return Optional.of(directories.get(versionKey).asVersion(version));
+    }
+
+    /**
+     * Refreshes the part of the index rooted at {@code key}. A directory that is not yet linked into
+     * its parent's entry — a new download, say — is picked up by refreshing from the nearest ancestor
+     * that does know it, so removals beneath that ancestor are seen as well.
+     *
+     * @return {@code true} if the directory exists
+     */
+    private boolean refreshTarget(String key) {
+        if (!Files.isDirectory(resolve(key), LinkOption.NOFOLLOW_LINKS)) {
+            removeSubtree(directories, key);
+            return false;
+        }
+        String refreshKey = key;
+        while (!refreshKey.isEmpty()) {
+            String parentKey = parentKey(refreshKey);
+            DirectoryEntry parent = directories.get(parentKey);
+            if (parent != null && parent.subdirectories().contains(fileName(refreshKey))) {
+                break;
+            }
+            refreshKey = parentKey;
+        }
+        refreshSubtree(directories, refreshKey);
+        return directories.containsKey(key);
+    }
+
+    private void refreshSubtree(Map<String, DirectoryEntry> directories, String key) {
+        Path directory = resolve(key);
+        long modified;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (!attributes.isDirectory()) {
+                removeSubtree(directories, key);
+                return;
+            }
+            modified = attributes.lastModifiedTime().toMillis();
+        } catch (NoSuchFileException e) {
+            removeSubtree(directories, key);
+            return;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + directory, e);
+        }
+        DirectoryEntry entry = directories.get(key);
+        if (entry == null || entry.modified() == UNKNOWN_MODIFIED || entry.modified() != modified) {
+            DirectoryEntry scanned = scan(key, directory, modified);
+            if (entry != null) {
+                Set<String> kept = new HashSet<>(scanned.subdirectories());
+                for (String subdirectory : entry.subdirectories()) {
+                    if (!kept.contains(subdirectory)) {
+                        removeSubtree(directories, childKey(key, subdirectory));
+                    }
+                }
+            }
+            directories.put(key, scanned);
+            entry = scanned;
+        }
+        for (String subdirectory : entry.subdirectories()) {
+            refreshSubtree(directories, childKey(key, subdirectory));
+        }
+    }
+
+    private DirectoryEntry scan(String key, Path directory, long modified) {
+        List<String> subdirectories = new ArrayList<>();
+        List<String> fileNames = new ArrayList<>();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+            for (Path child : children) {
+                String name = child.getFileName().toString();
+                if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                    subdirectories.add(name);
+                } else {
+                    fileNames.add(name);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return new DirectoryEntry(UNKNOWN_MODIFIED, List.of(), false, Set.of(), null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + directory, e);
+        }
+        if (System.currentTimeMillis() - modified < RACY_WINDOW_MILLIS) {
+            modified = UNKNOWN_MODIFIED;
+        }
+        String parentKey = key.isEmpty() ? null : parentKey(key);
+        if (parentKey == null || parentKey.isEmpty()) {
+            // The root and its direct children cannot be version directories: a version needs an artifact above it.
+            return new DirectoryEntry(modified, List.copyOf(subdirectories), false, Set.of(), null);
+        }
+        return versionEntry(modified, subdirectories, fileNames, fileName(parentKey), fileName(key));
+    }
+
+    private static DirectoryEntry versionEntry(long modified, List<String> subdirectories, Collection<String> fileNames,
+                                               String artifactId, String version) {
+        return new DirectoryEntry(modified, List.copyOf(subdirectories),
+                LocalVersionResolver.isPublishedVersion(fileNames, artifactId, version),
+                LocalVersionResolver.classifiersFromFileNames(fileNames, artifactId, version),
+                LocalVersionResolver.snapshotFileVersion(fileNames, artifactId).orElse(null));
+    }
+
+    private static void removeSubtree(Map<String, DirectoryEntry> directories, String key) {
+        DirectoryEntry entry = directories.remove(key);
+        if (entry != null) {
+            for (String subdirectory : entry.subdirectories()) {
+                removeSubtree(directories, childKey(key, subdirectory));
+            }
+        }
+    }
+
+    /**
+     * @param groupKey the group to restrict the result to, or {@code null} for the whole repository
+     */
+    private static Set<ArtifactCoordinates> artifactsUnder(Map<String, DirectoryEntry> directories, String groupKey,
+                                                           Predicate<VersionDirectory> versionFilter) {
+        Set<ArtifactCoordinates> results = new LinkedHashSet<>();
+        for (Map.Entry<String, DirectoryEntry> mapEntry : directories.entrySet()) {
+            DirectoryEntry entry = mapEntry.getValue();
+            if (!entry.published()) {
+                continue;
+            }
+            String versionKey = mapEntry.getKey();
+            String artifactKey = parentKey(versionKey);
+            String artifactGroupKey = parentKey(artifactKey);
+            if (groupKey != null && !groupKey.equals(artifactGroupKey)) {
+                continue;
+            }
+            DirectoryEntry artifact = directories.get(artifactKey);
+            if (artifact == null || !artifact.subdirectories().contains(fileName(versionKey))) {
+                continue;
+            }
+            if (versionFilter.test(entry.asVersion(fileName(versionKey)))) {
+                results.add(new ArtifactCoordinates(artifactGroupKey.replace('/', '.'), fileName(artifactKey)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the persisted index, or {@code null} if there is none or it cannot be read
+     */
+    private Map<String, DirectoryEntry> load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        Map<String, DirectoryEntry> loadedDirectories = new HashMap<>();
+        Map<String, List<String>> subdirectories = new HashMap<>();
+        try {
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !FORMAT_HEADER.equals(lines.getFirst())) {
+                LOG.info("Ignoring local repository index {} in an unknown format", indexFile);
+                return null;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split("\t", -1);
+                String key = fields[0];
+                Set<String> classifiers = fields[4].isEmpty() ? Set.of() : Set.of(fields[4].split(","));
+                loadedDirectories.put(key, new DirectoryEntry(Long.parseLong(fields[1]), List.of(),
+                        "1".equals(fields[2]), classifiers, fields[3].isEmpty() ? null : fields[3]));
+                if (!key.isEmpty()) {
+                    subdirectories.computeIfAbsent(parentKey(key), parent -> new ArrayList<>()).add(fileName(key));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Ignoring unreadable local repository index {}", indexFile, e);
+            return null;
+        }
+        Map<String, DirectoryEntry> directories = new HashMap<>();
+        loadedDirectories.forEach((key, entry) -> directories.put(key,
+                entry.withSubdirectories(List.copyOf(subdirectories.getOrDefault(key, List.of())))));
+        LOG.debug("Loaded {} directories from local repository index {}", directories.size(), indexFile);
+        return directories;
+    }
+
+    private void persist(Map<String, DirectoryEntry> directories) {
+        Path temporaryFile = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(FORMAT_HEADER);
+                writer.newLine();
+                for (Map.Entry<String, DirectoryEntry> mapEntry : directories.entrySet()) {
+                    String key = mapEntry.getKey();
+                    DirectoryEntry entry = mapEntry.getValue();
+                    if (!isPersistable(key) || !entry.classifiers().stream().allMatch(LocalRepositoryIndex::isPersistable)) {
+                        // Left out; the parent's modification time will differ next session and re-list it.
+                        continue;
+                    }
+                    writer.write(key);
+                    writer.write('\t');
+                    writer.write(Long.toString(entry.modified()));
+                    writer.write('\t');
+                    writer.write(entry.published() ? "1" : "0");
+                    writer.write('\t');
+                    writer.write(entry.snapshotFileVersion() == null ? "" : entry.snapshotFileVersion());
+                    writer.write('\t');
+                    writer.write(String.join(",", entry.classifiers()));
+                    writer.newLine();
+                }
+            }
+            Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.debug("Unable to persist local repository index {}", indexFile, e);
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    private static boolean isPersistable(String name) {
+        return name.indexOf('\t') < 0 && name.indexOf('\n') < 0 && name.indexOf('\r') < 0 && name.indexOf(',') < 0;
+    }
+
+    private Path resolve(String key) {
+        return key.isEmpty() ? localRepositoryRoot : localRepositoryRoot.resolve(key);
+    }
+
+    private static String childKey(String key, String name) {
+        return key.isEmpty() ? name : key + "/" + name;
+    }
+
+    private static String parentKey(String key) {
+        int slash = key.lastIndexOf('/');
+        return slash < 0 ? "" : key.substring(0, slash);
+    }
+
+    private static String fileName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * One directory of the repository.
+     *
+     * @param modified            the directory's modification time in epoch milliseconds, or
+     *                            {@link #UNKNOWN_MODIFIED} to force a re-list on the next refresh
+     * @param subdirectories      the names of the directory's subdirectories
+     * @param published           whether, as a version directory of its parent, it holds a published version
+     * @param classifiers         the classifiers of its classified {@code .zip} files
+     * @param snapshotFileVersion the resolved file version of its snapshot {@code .zip} files, or {@code null}
+     */
+    private record DirectoryEntry(long modified, List<String> subdirectories, boolean published,
+                                  Set<String> classifiers, String snapshotFileVersion) {
+        DirectoryEntry withSubdirectories(List<String> subdirectories) {
+            return new DirectoryEntry(modified, subdirectories, published, classifiers, snapshotFileVersion);
+        }
+
+        VersionDirectory asVersion(String version) {
+            return new VersionDirectory(version, published, classifiers, Optional.ofNullable(snapshotFileVersion));
+        }
+    }
+
+    /**
+     * One version directory of an artifact, as last seen on disk.
+     *
+     * @param version             the directory name
+     * @param published           whether it holds a published version — see
+     *                            {@link LocalVersionResolver#isPublishedVersion}
+     * @param classifiers         the classifiers present as {@code .zip} files
+     * @param snapshotFileVersion for a {@code -SNAPSHOT}, the resolved file version its files carry
+     */
+    record VersionDirectory(String version, boolean published, Set<String> classifiers,
+                            Optional<String> snapshotFileVersion) {
+    }
+}
@@ -15,7 +15,6 @@
  */
 package dev.ikm.komet.pluginresolver;
 
-import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -25,13 +24,13 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Browses {@code groupId:artifactId} pairs already present in a local Maven repository
  * directory (e.g. {@code ~/.m2/repository}), mirroring {@link NexusSearchClient#search}'s
- * {@code groupId:artifactPattern} / free-text query shape but by walking the repository layout
- * directly rather than querying a REST API. Performs no network I/O.
+ * {@code groupId:artifactPattern} / free-text query shape but by reading the repository layout
+ * directly rather than querying a REST API. The layout is read through the repository's shared
+ * {@link LocalRepositoryIndex} rather than walked on every query. Performs no network I/O.
  */
 public final class LocalRepositorySearch {
 
@@ -48,15 +47,16 @@ private LocalRepositorySearch() {
      * directory matches, regardless of what it publishes).
      *
      * <p>A {@code groupId:artifactPattern} query (colon-separated) is scoped to exactly that
-     * group's directory — fast, since it never walks the rest of the repository — and matches
+     * group's directory — fast, since it only refreshes that group's part of the index — and matches
      * artifact directories whose name contains {@code artifactPattern} (or every artifact under
      * the group, if the pattern half is blank). A query with no colon is matched as a
      * case-insensitive substring against every real {@code groupId:artifactId} found anywhere
-     * under {@code localRepositoryRoot}.
+     * under {@code localRepositoryRoot}, answered from the index in memory (which may lag a change
+     * made since its last background refresh by up to {@code ike.artifact.index.refresh.seconds}).
      *
      * <p>A directory is only considered a real artifact directory — as opposed to just another
      * segment of a dotted groupId path — when at least one of its subdirectories is a real
-     * published version by {@link LocalVersionResolver#isPublishedVersionDirectory}'s test (a
+     * published version by {@link LocalVersionResolver#isPublishedVersion}'s test (a
      * {@code .pom}/{@code .jar}, or a classified {@code .zip} for an artifact fetched with no
      * accompanying POM) <em>and</em>, when {@code classifierCandidates} is non-empty, that
      * version publishes at least one of them.
@@ -65,7 +65,7 @@ private LocalRepositorySearch() {
      * @param query the search term — {@code groupId:artifactPattern}, or free text
      * @param classifierCandidates the classifiers an artifact must publish at least one of to
      *         be included, or empty to not filter by classifier at all
-     * @return the matching groupId:artifactId pairs, in directory-walk order
+     * @return the matching groupId:artifactId pairs
      * @throws NullPointerException if any argument is {@code null}
      * @throws UncheckedIOException if the repository cannot be walked
      */
@@ -92,66 +92,27 @@ public static Set<ArtifactCoordinates> search(Path localRepositoryRoot, String q
 
     private static Set<ArtifactCoordinates> searchWithinGroup(Path localRepositoryRoot, String groupId, String artifactPattern,
                                                                 List<String> classifierCandidates) {
-        Path groupDirectory = localRepositoryRoot.resolve(groupId.replace('.', '/'));
-        if (!Files.isDirectory(groupDirectory)) {
-            return Set.of();
-        }
-        try (Stream<Path> children = Files.list(groupDirectory)) {
-            return children
-                    .filter(Files::isDirectory)
-                    .filter(dir -> artifactPattern.isBlank()
-                            || dir.getFileName().toString().toLowerCase(Locale.ROOT).contains(artifactPattern))
-                    .filter(dir -> isArtifactDirectory(dir, classifierCandidates))
-                    .map(dir -> new ArtifactCoordinates(groupId, dir.getFileName().toString()))
-                    .collect(Collectors.toCollection(LinkedHashSet::new));
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to list " + groupDirectory, e);
-        }
+        return LocalRepositoryIndex.forRoot(localRepositoryRoot)
+                .artifactsInGroup(groupId, version -> isCompatible(version, classifierCandidates))
+                .stream()
+                .filter(coordinates -> artifactPattern.isBlank()
+                        || coordinates.artifactId().toLowerCase(Locale.ROOT).contains(artifactPattern))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private static Set<ArtifactCoordinates> searchWholeRepository(Path localRepositoryRoot, String query, List<String> classifierCandidates) {
         if (!Files.isDirectory(localRepositoryRoot)) {
             return Set.of();
         }
-        Set<ArtifactCoordinates> results = new LinkedHashSet<>();
-        try (Stream<Path> allDirectories = Files.walk(localRepositoryRoot)) {
-            allDirectories
-                    .filter(Files::isDirectory)
-                    .filter(dir -> !dir.equals(localRepositoryRoot))
-                    .filter(dir -> isArtifactDirectory(dir, classifierCandidates))
-                    .forEach(dir -> {
-                        String artifactId = dir.getFileName().toString();
-                        String groupId = localRepositoryRoot.relativize(dir.getParent()).toString().replace('/', '.');
-                        if (groupId.toLowerCase(Locale.ROOT).contains(query)
-                                || artifactId.toLowerCase(Locale.ROOT).contains(query)) {
-                            results.add(new ArtifactCoordinates(groupId, artifactId));
-                        }
-                    });
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to walk " + localRepositoryRoot, e);
-        }
-        return Set.copyOf(results);
+        return LocalRepositoryIndex.forRoot(localRepositoryRoot)
+                .artifacts(version -> isCompatible(version, classifierCandidates))
+                .stream()
+                .filter(coordinates -> coordinates.groupId().toLowerCase(Locale.ROOT).contains(query)
+                        || coordinates.artifactId().toLowerCase(Locale.ROOT).contains(query))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
-    private static boolean isArtifactDirectory(Path candidate, List<String> classifierCandidates) {
-        String artifactId = candidate.getFileName().toString();
-        try (Stream<Path> versionDirs = Files.list(candidate)) {
-            return versionDirs.anyMatch(versionDir -> {
-                if (!Files.isDirectory(versionDir)) {
-                    return false;
-                }
-                String version = versionDir.getFileName().toString();
-                if (!LocalVersionResolver.isPublishedVersionDirectory(versionDir, artifactId, version)) {
-                    return false;
-                }
-                if (classifierCandidates.isEmpty()) {
-                    return true;
-                }
-                Set<String> published = LocalVersionResolver.classifiersInDirectory(versionDir, artifactId, version);
-                return classifierCandidates.stream().anyMatch(published::contains);
-            });
-        } catch (IOException e) {
-            return false;
-        }
+    private static boolean isCompatible(LocalRepositoryIndex.VersionDirectory version, List<String> classifierCandidates) {
+        return classifierCandidates.isEmpty() || classifierCandidates.stream().anyMatch(version.classifiers()::contains);
     }
 }
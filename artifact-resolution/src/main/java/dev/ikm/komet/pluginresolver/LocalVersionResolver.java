@@ -15,10 +15,9 @@
  */
 package dev.ikm.komet.pluginresolver;
 
-import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -26,13 +25,13 @@
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Lists artifact versions already present in a local Maven repository directory
- * (e.g. {@code ~/.m2/repository}), by walking the repository layout directly rather than
- * trusting {@code maven-metadata-local.xml} (which can be stale or absent). Performs no
- * network I/O.
+ * (e.g. {@code ~/.m2/repository}), from the repository layout itself rather than trusting
+ * {@code maven-metadata-local.xml} (which can be stale or absent). The layout is read through the
+ * repository's shared {@link LocalRepositoryIndex}, which re-lists only the directories of the
+ * artifact being looked up whose modification time has changed. Performs no network I/O.
  */
 public final class LocalVersionResolver {
 
@@ -55,6 +54,7 @@ public final class LocalVersionResolver {
             Pattern.compile("^(.+-\\d{8}\\.\\d{6}-\\d+)-(.+)$");
 
     private final Path localRepositoryRoot;
+    private final LocalRepositoryIndex index;
 
     /**
      * Creates a resolver over the given local repository root.
@@ -64,6 +64,7 @@ public final class LocalVersionResolver {
      */
     public LocalVersionResolver(Path localRepositoryRoot) {
         this.localRepositoryRoot = Objects.requireNonNull(localRepositoryRoot, "localRepositoryRoot");
+        this.index = LocalRepositoryIndex.forRoot(localRepositoryRoot);
     }
 
     /**
@@ -80,20 +81,11 @@ public LocalVersionResolver(Path localRepositoryRoot) {
      */
     public List<String> localVersions(ArtifactCoordinates coordinates) {
         Objects.requireNonNull(coordinates, "coordinates");
-        Path artifactDirectory = artifactDirectory(coordinates);
-        if (!Files.isDirectory(artifactDirectory)) {
-            return List.of();
-        }
-        try (Stream<Path> children = Files.list(artifactDirectory)) {
-            return children
-                    .filter(Files::isDirectory)
-                    .map(path -> path.getFileName().toString())
-                    .filter(version -> isPublishedVersion(artifactDirectory, coordinates.artifactId(), version))
-                    .sorted()
-                    .toList();
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to list local versions under " + artifactDirectory, e);
-        }
+        return index.versionDirectories(coordinates).stream()
+                .filter(LocalRepositoryIndex.VersionDirectory::published)
+                .map(LocalRepositoryIndex.VersionDirectory::version)
+                .sorted()
+                .toList();
     }
 
     /**
@@ -122,24 +114,14 @@ public List<String> localVersions(ArtifactCoordinates coordinates) {
     public List<String> compatibleVersions(ArtifactCoordinates coordinates, List<String> classifierCandidates) {
         Objects.requireNonNull(coordinates, "coordinates");
         Objects.requireNonNull(classifierCandidates, "classifierCandidates");
-        return localVersions(coordinates).stream()
-                .filter(version -> hasCompatibleClassifier(coordinates, version, classifierCandidates))
+        return index.versionDirectories(coordinates).stream()
+                .filter(LocalRepositoryIndex.VersionDirectory::published)
+                .filter(version -> classifierCandidates.stream().anyMatch(version.classifiers()::contains))
+                .map(LocalRepositoryIndex.VersionDirectory::version)
+                .sorted()
                 .toList();
     }
 
-    /**
-     * Whether {@code version} has at least one of {@code classifierCandidates} present on disk.
-     *
-     * @param coordinates the artifact
-     * @param version the exact version directory to inspect
-     * @param classifierCandidates the classifiers considered compatible
-     * @return {@code true} if any candidate classifier is present for {@code version}
-     */
-    private boolean hasCompatibleClassifier(ArtifactCoordinates coordinates, String version, List<String> classifierCandidates) {
-        Set<String> present = availableClassifiers(coordinates, version);
-        return classifierCandidates.stream().anyMatch(present::contains);
-    }
-
     /**
      * The directory a given artifact's version subdirectories live under, following the
      * standard Maven 2 repository layout ({@code <root>/<groupPath>/<artifactId>}).
@@ -151,44 +133,29 @@ public Path artifactDirectory(ArtifactCoordinates coordinates) {
         return localRepositoryRoot.resolve(coordinates.groupPath()).resolve(coordinates.artifactId());
     }
 
-    private boolean isPublishedVersion(Path artifactDirectory, String artifactId, String version) {
-        return isPublishedVersionDirectory(artifactDirectory.resolve(version), artifactId, version);
-    }
-
     /**
-     * Whether {@code versionDirectory} really holds a published version of {@code artifactId} —
-     * either the standard {@code .pom}/{@code .jar} signal, or (since a store-snapshot/changeset
-     * artifact fetched via {@code MavenDataStoreDownloadTask} has no accompanying {@code .pom},
-     * only its classified {@code .zip}) any classified {@code .zip} matching the release or
-     * snapshot filename shape. Shared with {@link LocalRepositorySearch}, which needs the exact
-     * same "is this a real artifact/version" test while walking the repository tree.
+     * Whether a version directory holding {@code fileNames} really holds a published version of
+     * {@code artifactId} — either the standard {@code .pom}/{@code .jar} signal, or (since a
+     * store-snapshot/changeset artifact fetched via {@code MavenDataStoreDownloadTask} has no
+     * accompanying {@code .pom}, only its classified {@code .zip}) any classified {@code .zip}
+     * matching the release or snapshot filename shape. Applied by {@link LocalRepositoryIndex} to
+     * every directory it lists, so {@link LocalRepositorySearch} gets the exact same "is this a real
+     * artifact/version" test.
      *
-     * @param versionDirectory the candidate version directory
+     * @param fileNames the names of the files in the candidate version directory
      * @param artifactId the artifact id this directory is expected to belong to
      * @param version the version this directory is named after
      * @return {@code true} if this looks like a real published version
      */
-    static boolean isPublishedVersionDirectory(Path versionDirectory, String artifactId, String version) {
-        Path pom = versionDirectory.resolve(artifactId + "-" + version + ".pom");
-        Path jar = versionDirectory.resolve(artifactId + "-" + version + ".jar");
-        if (Files.exists(pom) || Files.exists(jar)) {
+    static boolean isPublishedVersion(Collection<String> fileNames, String artifactId, String version) {
+        if (fileNames.contains(artifactId + "-" + version + ".pom") || fileNames.contains(artifactId + "-" + version + ".jar")) {
             return true;
         }
-        if (!Files.isDirectory(versionDirectory)) {
-            return false;
-        }
-        try (Stream<Path> children = Files.list(versionDirectory)) {
-            List<String> zipNames = children.map(path -> path.getFileName().toString())
-                    .filter(name -> name.endsWith(".zip"))
-                    .toList();
-            if (isSnapshot(version)) {
-                return zipNames.stream().anyMatch(name -> snapshotFileVersionAndClassifier(name, artifactId).isPresent());
-            }
-            String classifiedPrefix = artifactId + "-" + version + "-";
-            return zipNames.stream().anyMatch(name -> name.startsWith(classifiedPrefix));
-        } catch (IOException e) {
-            return false;
+        if (isSnapshot(version)) {
+            return fileNames.stream().anyMatch(name -> snapshotFileVersionAndClassifier(name, artifactId).isPresent());
         }
+        String classifiedPrefix = artifactId + "-" + version + "-";
+        return fileNames.stream().anyMatch(name -> name.endsWith(".zip") && name.startsWith(classifiedPrefix));
     }
 
     /**
@@ -215,34 +182,28 @@ static boolean isPublishedVersionDirectory(Path versionDirectory, String artifac
     public Set<String> availableClassifiers(ArtifactCoordinates coordinates, String version) {
         Objects.requireNonNull(coordinates, "coordinates");
         Objects.requireNonNull(version, "version");
-        return classifiersInDirectory(artifactDirectory(coordinates).resolve(version), coordinates.artifactId(), version);
+        return index.versionDirectory(coordinates, version)
+                .map(LocalRepositoryIndex.VersionDirectory::classifiers)
+                .orElse(Set.of());
     }
 
     /**
-     * As {@link #availableClassifiers(ArtifactCoordinates, String)}, but taking the version
-     * directory directly rather than deriving it from a {@link #localRepositoryRoot} — shared
-     * with {@link LocalRepositorySearch}, which walks directories it hasn't wrapped in an
-     * {@code ArtifactCoordinates} yet.
+     * The classifiers of the classified {@code .zip} files among {@code fileNames}, read in the
+     * release or snapshot filename shape as {@link #availableClassifiers} describes — applied by
+     * {@link LocalRepositoryIndex} to every directory it lists.
      *
-     * @param versionDirectory the candidate version directory
+     * @param fileNames the names of the files in the version directory
      * @param artifactId the artifact id this directory is expected to belong to
      * @param version the version this directory is named after
      * @return the classifiers present in that version's directory
      */
-    static Set<String> classifiersInDirectory(Path versionDirectory, String artifactId, String version) {
-        if (!Files.isDirectory(versionDirectory)) {
-            return Set.of();
-        }
-        try (Stream<Path> children = Files.list(versionDirectory)) {
-            List<String> fileNames = children.map(path -> path.getFileName().toString())
-                    .filter(name -> name.endsWith(".zip"))
-                    .toList();
-            return isSnapshot(version)
-                    ? classifiersFromSnapshotFileNames(fileNames, artifactId)
-                    : classifiersFromReleaseFileNames(fileNames, artifactId, version);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to list classifiers under " + versionDirectory, e);
-        }
+    static Set<String> classifiersFromFileNames(Collection<String> fileNames, String artifactId, String version) {
+        List<String> zipNames = fileNames.stream()
+                .filter(name -> name.endsWith(".zip"))
+                .toList();
+        return isSnapshot(version)
+                ? classifiersFromSnapshotFileNames(zipNames, artifactId)
+                : classifiersFromReleaseFileNames(zipNames, artifactId, version);
     }
 
     private static Set<String> classifiersFromReleaseFileNames(List<String> fileNames, String artifactId, String version) {
@@ -278,20 +239,24 @@ private static Set<String> classifiersFromSnapshotFileNames(List<String> fileNam
     public Optional<String> resolveSnapshotFileVersion(ArtifactCoordinates coordinates, String version) {
         Objects.requireNonNull(coordinates, "coordinates");
         Objects.requireNonNull(version, "version");
-        Path versionDirectory = artifactDirectory(coordinates).resolve(version);
-        if (!Files.isDirectory(versionDirectory)) {
-            return Optional.empty();
-        }
-        try (Stream<Path> children = Files.list(versionDirectory)) {
-            return children.map(path -> path.getFileName().toString())
-                    .filter(name -> name.endsWith(".zip"))
-                    .map(name -> snapshotFileVersionAndClassifier(name, coordinates.artifactId()))
-                    .flatMap(Optional::stream)
-                    .findFirst()
-                    .map(match -> match[0]);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to list " + versionDirectory, e);
-        }
+        return index.versionDirectory(coordinates, version)
+                .flatMap(LocalRepositoryIndex.VersionDirectory::snapshotFileVersion);
+    }
+
+    /**
+     * The resolved snapshot file version of the first classified {@code .zip} among
+     * {@code fileNames} in the snapshot filename shape — see {@link #resolveSnapshotFileVersion}.
+     *
+     * @param fileNames the names of the files in the version directory
+     * @param artifactId the artifact id this directory is expected to belong to
+     * @return the resolved file version, or empty if no file has the snapshot shape
+     */
+    static Optional<String> snapshotFileVersion(Collection<String> fileNames, String artifactId) {
+        return fileNames.stream()
+                .map(name -> snapshotFileVersionAndClassifier(name, artifactId))
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(match -> match[0]);
     }
 
     /**
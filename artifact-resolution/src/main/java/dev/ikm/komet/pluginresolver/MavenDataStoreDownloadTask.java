@@ -27,16 +27,23 @@
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Enumeration;
 import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -161,6 +168,15 @@ public record PomFetch(URI pomUri, Path localPomCacheFile, Optional<String> expe
      */
     private static final String CONTENT_CHECKSUM_MARKER_FILENAME = ".ike-content-sha256";
 
+    /**
+     * Prefix of a {@link #CONTENT_CHECKSUM_MARKER_FILENAME} value that hashes each file's path with
+     * that file's own SHA-256, rather than every file's bytes in one stream — the form
+     * {@link ParallelUnpack} can produce while extracting files concurrently. A marker without it was
+     * written by an earlier unpack that hashed the concatenated content, and is still recomputed that
+     * way by {@link #currentUnpackedContentSha256}, so existing stores don't show up as drifted.
+     */
+    private static final String PER_FILE_CONTENT_PREFIX = "per-file:";
+
     private final HttpClient httpClient;
     private final Optional<URI> downloadUri;
     private final Path localRepositoryCacheFile;
@@ -474,18 +490,23 @@ public static java.util.OptionalLong headContentLength(HttpClient httpClient, UR
      *         checksum doesn't match {@link AssetVerification#zipSha256}
      * @throws InterruptedException if the download is interrupted
      * @throws CancellationException if {@link #cancel()} was called before the operation
-     *         completed; no partial file is left at {@link #localRepositoryCacheFile}, though
+     *         completed; no partial file is left at {@link #localRepositoryCacheFile} — a partial
+     *         download is kept beside it, to be resumed by the next download — though
      *         {@link #destination} may hold a partially-materialized result if cancelled mid-unpack
      */
     @Override
     protected Path compute() throws Exception {
         boolean needsDownload = !Files.exists(localRepositoryCacheFile);
+        // the zip's SHA-256 once known from verifying or downloading it, so unpacking needn't hash it again
+        Optional<String> sourceSha256 = Optional.empty();
         if (!needsDownload && verification.zipSha256().isPresent()) {
             updateTitle("Verifying cached copy at " + localRepositoryCacheFile);
             String actualSha256 = sha256Hex(localRepositoryCacheFile);
             if (!actualSha256.equalsIgnoreCase(verification.zipSha256().get())) {
                 LOG.info("Cached copy no longer matches the repository's reported checksum — refetching: {}", localRepositoryCacheFile);
                 needsDownload = true;
+            } else {
+                sourceSha256 = Optional.of(actualSha256);
             }
         }
 
@@ -496,11 +517,11 @@ protected Path compute() throws Exception {
                 throw new IOException("No local copy at " + localRepositoryCacheFile + " and no download URI provided");
             }
             updateTitle("Downloading " + downloadUri.get());
-            boolean verified = downloadToCache(downloadUri.get(), localRepositoryCacheFile, verification.zipSha256(), downloadWeight);
-            if (isCancelled()) {
+            sourceSha256 = downloadToCache(downloadUri.get(), localRepositoryCacheFile, verification.zipSha256(), downloadWeight);
+            if (isCancelled() || sourceSha256.isEmpty()) {
                 throw new CancellationException("Download cancelled: " + downloadUri.get());
             }
-            verificationNote = verified
+            verificationNote = verification.zipSha256().isPresent()
                     ? " (SHA-256 checksum verified ✓)"
                     : " (no checksum reported by the repository to verify against)";
         } else {
@@ -516,7 +537,7 @@ protected Path compute() throws Exception {
         Path result = switch (mode) {
             case UNPACK -> {
                 updateTitle("Unpacking " + destination);
-                yield unpack(localRepositoryCacheFile, destination, materializeBase, materializeWeight);
+                yield unpack(localRepositoryCacheFile, destination, sourceSha256, materializeBase, materializeWeight);
             }
             case PLACE_AS_FILE -> {
                 updateTitle("Copying " + destination);
@@ -539,67 +560,27 @@ private void reportProgress(double overallFraction) {
     }
 
     /**
-     * Downloads {@code uri} to {@code cacheFile} (via a same-directory temp file, so a crash or
-     * cancellation never leaves a partial file at {@code cacheFile} itself), verifying against
-     * {@code expectedSha256} once the download completes if a value was given. Reports progress
-     * scaled into {@code [0, progressWeight]} of the overall bar.
+     * Downloads {@code uri} to {@code cacheFile} through a {@link RangedDownload} — parallel
+     * {@code Range} requests when the server supports them, resuming any partial download an
+     * earlier failure or cancellation left next to {@code cacheFile} — verifying against
+     * {@code expectedSha256} if a value was given. A partial download is never left at
+     * {@code cacheFile} itself. Reports progress scaled into {@code [0, progressWeight]} of the
+     * overall bar.
      *
-     * @return {@code true} if a checksum was verified successfully; {@code false} if there was
-     *         none to check against ({@code expectedSha256} was empty) — the caller surfaces
-     *         this distinction to the user rather than treating both as silently equivalent
+     * @return the downloaded content's SHA-256 — verified, if {@code expectedSha256} was given —
+     *         or empty if the download was cancelled
      * @throws IOException if the request fails, or the downloaded content's SHA-256 doesn't
      *         match {@code expectedSha256} — a corrupted or tampered download must never be used
      */
-    private boolean downloadToCache(URI uri, Path cacheFile, Optional<String> expectedSha256, double progressWeight)
+    private Optional<String> downloadToCache(URI uri, Path cacheFile, Optional<String> expectedSha256, double progressWeight)
             throws IOException, InterruptedException {
-        Files.createDirectories(cacheFile.getParent());
-        Path tempFile = Files.createTempFile(cacheFile.getParent(), "maven-datastore-download", ".zip.tmp");
-        try {
-            MessageDigest digest = expectedSha256.isPresent() ? sha256Digest() : null;
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).GET();
-            credentials.ifPresent(creds -> requestBuilder.header("Authorization", BasicAuth.header(creds)));
-            HttpResponse<InputStream> response = httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
-            if (response.statusCode() != 200) {
-                throw new IOException("Unexpected HTTP " + response.statusCode() + " downloading " + uri);
-            }
-            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
-            long bytesRead = 0;
-            byte[] buffer = new byte[BUFFER_SIZE];
-            try (InputStream in = response.body(); OutputStream out = Files.newOutputStream(tempFile)) {
-                int n = in.read(buffer);
-                while (n != -1) {
-                    if (isCancelled()) {
-                        return false;
+        RangedDownload download = new RangedDownload(httpClient, uri, credentials, cacheFile, this::isCancelled,
+                (bytes, length) -> {
+                    if (length > 0) {
+                        reportProgress(progressWeight * (bytes / (double) length));
                     }
-                    out.write(buffer, 0, n);
-                    if (digest != null) {
-                        digest.update(buffer, 0, n);
-                    }
-                    bytesRead += n;
-                    if (contentLength > 0) {
-                        reportProgress(progressWeight * (bytesRead / (double) contentLength));
-                    }
-                    n = in.read(buffer);
-                }
-            }
-            if (isCancelled()) {
-                return false;
-            }
-            boolean verified = false;
-            if (digest != null) {
-                String actualSha256 = HexFormat.of().formatHex(digest.digest());
-                if (!actualSha256.equalsIgnoreCase(expectedSha256.get())) {
-                    throw new IOException("SHA-256 checksum mismatch downloading " + uri + " — expected "
-                            + expectedSha256.get() + " but got " + actualSha256
-                            + "; refusing to use a download that doesn't match what the repository reported");
-                }
-                verified = true;
-            }
-            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
-            return verified;
-        } finally {
-            Files.deleteIfExists(tempFile);
-        }
+                });
+        return download.download(expectedSha256);
     }
 
     /**
@@ -649,7 +630,7 @@ private void fetchPomBestEffort(AssetVerification.PomFetch pomFetch) {
         }
     }
 
-    private static MessageDigest sha256Digest() {
+    static MessageDigest sha256Digest() {
         try {
             return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
@@ -723,39 +704,90 @@ public static Optional<String> existingUnpackedContentSha256(Path destinationDir
     /**
      * Recomputes {@code destinationDirectory}'s content hash right now, from what's actually on
      * disk — for comparing against {@link #existingUnpackedContentSha256}'s stored value to tell
-     * whether the directory has drifted since it was last {@link #unpack}ped. Reads every regular
-     * file under {@code destinationDirectory} (excluding the marker files themselves), so this is
-     * proportional to the directory's total size — expect it to take real time for a large store.
+     * whether the directory has drifted since it was last {@link #unpack}ped. Only files whose size
+     * or modification time differ from the directory's {@link ContentManifest} are read, so for an
+     * untouched store this costs a directory walk rather than a read of every byte; an edit that
+     * preserves both size and modification time goes unnoticed — use
+     * {@link #deepUnpackedContentSha256} when that matters. A directory whose marker predates
+     * per-file hashing has no manifest and is always read in full.
      *
      * @param destinationDirectory a {@code -sa}/{@code -rkb} destination directory
-     * @return the current content hash
+     * @return the current content hash, in the same form as the recorded one
      * @throws IOException if the directory can't be walked or a file can't be read
      */
     public static String currentUnpackedContentSha256(Path destinationDirectory) throws IOException {
-        return hashDirectoryContent(destinationDirectory);
+        if (hasConcatenatedContentMarker(destinationDirectory)) {
+            return hashConcatenatedContent(destinationDirectory);
+        }
+        return hashPerFileContent(destinationDirectory, Map.of(), ContentManifest.load(destinationDirectory));
+    }
+
+    /**
+     * As {@link #currentUnpackedContentSha256}, but reads and hashes every regular file under
+     * {@code destinationDirectory} regardless of its {@link ContentManifest}, which it then
+     * refreshes — proportional to the directory's total size, so expect it to take real time for a
+     * large store. For an explicit, on-demand integrity check.
+     *
+     * @param destinationDirectory a {@code -sa}/{@code -rkb} destination directory
+     * @return the current content hash, in the same form as the recorded one
+     * @throws IOException if the directory can't be walked or a file can't be read
+     */
+    public static String deepUnpackedContentSha256(Path destinationDirectory) throws IOException {
+        if (hasConcatenatedContentMarker(destinationDirectory)) {
+            return hashConcatenatedContent(destinationDirectory);
+        }
+        return hashPerFileContent(destinationDirectory, Map.of(), ContentManifest.empty());
+    }
+
+    private static boolean hasConcatenatedContentMarker(Path destinationDirectory) {
+        return existingUnpackedContentSha256(destinationDirectory)
+                .filter(marker -> !marker.startsWith(PER_FILE_CONTENT_PREFIX))
+                .isPresent();
     }
 
     /**
      * Hashes {@code directory}'s current on-disk content: every regular file's path (relative to
-     * {@code directory}) and bytes, visited in a fixed sorted order so the result depends only on
-     * what's actually there, not filesystem iteration order. Skips
-     * {@link #SOURCE_CHECKSUM_MARKER_FILENAME} and {@link #CONTENT_CHECKSUM_MARKER_FILENAME}
-     * themselves — this hashes the payload, not its own provenance markers.
+     * {@code directory}) and that file's own SHA-256, visited in a fixed sorted order so the result
+     * depends only on what's actually there, not filesystem iteration order. Digests already in
+     * {@code knownFileDigests} — computed by {@link ParallelUnpack} while writing the files — are
+     * used as they are, as are those {@code manifest} records for files whose size and modification
+     * time are unchanged; only the remaining files are read. The directory's manifest is rewritten
+     * whenever it doesn't already record exactly the digests used.
+     *
+     * @return the hash, prefixed with {@link #PER_FILE_CONTENT_PREFIX}
      */
-    private static String hashDirectoryContent(Path directory) throws IOException {
+    private static String hashPerFileContent(Path directory, Map<Path, byte[]> knownFileDigests,
+                                             ContentManifest manifest) throws IOException {
         MessageDigest digest = sha256Digest();
-        byte[] buffer = new byte[BUFFER_SIZE];
-        List<Path> files;
-        try (var walk = Files.walk(directory)) {
-            files = walk.filter(Files::isRegularFile)
-                    .filter(path -> {
-                        String name = path.getFileName().toString();
-                        return !name.equals(SOURCE_CHECKSUM_MARKER_FILENAME) && !name.equals(CONTENT_CHECKSUM_MARKER_FILENAME);
-                    })
-                    .sorted()
-                    .toList();
+        Map<String, ContentManifest.Entry> entries = new LinkedHashMap<>();
+        for (Map.Entry<Path, BasicFileAttributes> file : payloadFiles(directory).entrySet()) {
+            String relativePath = directory.relativize(file.getKey()).toString();
+            byte[] knownDigest = knownFileDigests.get(file.getKey());
+            String fileSha256 = knownDigest != null
+                    ? HexFormat.of().formatHex(knownDigest)
+                    : manifest.digestIfUnchanged(relativePath, file.getValue()).orElse(null);
+            if (fileSha256 == null) {
+                fileSha256 = sha256Hex(file.getKey());
+            }
+            entries.put(relativePath, ContentManifest.Entry.of(file.getValue(), fileSha256));
+            digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(HexFormat.of().parseHex(fileSha256));
+        }
+        if (!manifest.sameEntries(entries)) {
+            ContentManifest.write(directory, entries);
         }
-        for (Path file : files) {
+        return PER_FILE_CONTENT_PREFIX + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes {@code directory}'s current on-disk content in the form markers were written in before
+     * {@link #PER_FILE_CONTENT_PREFIX}: every regular file's relative path and bytes, in one stream.
+     */
+    private static String hashConcatenatedContent(Path directory) throws IOException {
+        MessageDigest digest = sha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Path file : payloadFiles(directory).keySet()) {
             digest.update(directory.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
             digest.update((byte) 0);
             try (InputStream in = Files.newInputStream(file)) {
@@ -769,6 +801,30 @@ private static String hashDirectoryContent(Path directory) throws IOException {
         return HexFormat.of().formatHex(digest.digest());
     }
 
+    /**
+     * Every regular file under {@code directory} in sorted order, with its attributes, skipping
+     * {@link #SOURCE_CHECKSUM_MARKER_FILENAME}, {@link #CONTENT_CHECKSUM_MARKER_FILENAME} and the
+     * {@link ContentManifest} themselves — the content hashes cover the payload, not its own
+     * provenance markers.
+     */
+    private static SortedMap<Path, BasicFileAttributes> payloadFiles(Path directory) throws IOException {
+        SortedMap<Path, BasicFileAttributes> files = new TreeMap<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String name = file.getFileName().toString();
+                if (attributes.isRegularFile()
+                        && !name.equals(SOURCE_CHECKSUM_MARKER_FILENAME)
+                        && !name.equals(CONTENT_CHECKSUM_MARKER_FILENAME)
+                        && !name.startsWith(ContentManifest.FILE_NAME)) {
+                    files.put(file, attributes);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
     /**
      * Unpacks {@code zipFile} into {@code destinationDirectory}.
      *
@@ -785,14 +841,25 @@ private static String hashDirectoryContent(Path directory) throws IOException {
      * would; a zip with no single common top-level directory (e.g. this class's own test
      * fixtures, entries like {@code nidToPatternNidMap/.keep} directly at the root) is extracted
      * as-is, unchanged from before.
+     *
+     * <p>The entries are planned here, on the calling thread — wrapper stripping, the check that no
+     * entry escapes {@code destinationDirectory}, directory creation — and the files then extracted
+     * concurrently by a {@link ParallelUnpack}, which hashes each file as it writes it. Both checksum
+     * markers are written from those digests and {@code knownSourceSha256}; the only files read back
+     * are ones that were already in {@code destinationDirectory} rather than written by this unpack.
+     *
+     * @param knownSourceSha256 {@code zipFile}'s SHA-256 if already computed while downloading or
+     *         verifying it; empty only for a cached copy with no reported checksum, which is then
+     *         read a second time to hash it alongside the extraction
      */
-    private Path unpack(Path zipFile, Path destinationDirectory, double progressBase, double progressWeight) throws IOException {
+    private Path unpack(Path zipFile, Path destinationDirectory, Optional<String> knownSourceSha256,
+                        double progressBase, double progressWeight) throws IOException, InterruptedException {
         Files.createDirectories(destinationDirectory);
         Path normalizedDestination = destinationDirectory.normalize();
+        // keyed by target, so a name the zip repeats is extracted once rather than by two racing workers
+        Map<Path, ParallelUnpack.Entry> files = new LinkedHashMap<>();
         try (ZipFile zip = new ZipFile(zipFile.toFile())) {
             Optional<String> wrapperDirectory = commonTopLevelDirectory(zip);
-            long totalUncompressedBytes = totalUncompressedBytes(zip);
-            long bytesExtracted = 0;
             Enumeration<? extends ZipEntry> entries = zip.entries();
             while (entries.hasMoreElements()) {
                 if (isCancelled()) {
@@ -811,36 +878,27 @@ private Path unpack(Path zipFile, Path destinationDirectory, double progressBase
                 if (entry.isDirectory()) {
                     Files.createDirectories(target);
                 } else {
-                    Files.createDirectories(target.getParent());
-                    try (InputStream in = zip.getInputStream(entry)) {
-                        Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
-                    }
-                    bytesExtracted += Math.max(entry.getSize(), 0);
-                    if (totalUncompressedBytes > 0) {
-                        reportProgress(progressBase + progressWeight * (bytesExtracted / (double) totalUncompressedBytes));
-                    }
+                    files.put(target, new ParallelUnpack.Entry(entry.getName(), target, entry.getSize()));
                 }
             }
         }
-        Files.writeString(destinationDirectory.resolve(SOURCE_CHECKSUM_MARKER_FILENAME), sha256Hex(zipFile));
-        Files.writeString(destinationDirectory.resolve(CONTENT_CHECKSUM_MARKER_FILENAME), hashDirectoryContent(destinationDirectory));
+        ParallelUnpack extraction = new ParallelUnpack(zipFile, List.copyOf(files.values()), this::isCancelled,
+                (bytes, total) -> {
+                    if (total > 0) {
+                        reportProgress(progressBase + progressWeight * (bytes / (double) total));
+                    }
+                });
+        Optional<ParallelUnpack.Result> result = extraction.extract(knownSourceSha256);
+        if (result.isEmpty()) {
+            return destinationDirectory;
+        }
+        Files.writeString(destinationDirectory.resolve(SOURCE_CHECKSUM_MARKER_FILENAME), result.get().sourceSha256());
+        Files.writeString(destinationDirectory.resolve(CONTENT_CHECKSUM_MARKER_FILENAME),
+                hashPerFileContent(normalizedDestination, result.get().fileDigests(), ContentManifest.empty()));
         reportProgress(progressBase + progressWeight);
         return destinationDirectory;
     }
 
-    /** The sum of every non-directory entry's uncompressed size — the "total work" for {@link #unpack}'s progress. */
-    private static long totalUncompressedBytes(ZipFile zip) {
-        long total = 0;
-        Enumeration<? extends ZipEntry> entries = zip.entries();
-        while (entries.hasMoreElements()) {
-            ZipEntry entry = entries.nextElement();
-            if (!entry.isDirectory()) {
-                total += Math.max(entry.getSize(), 0);
-            }
-        }
-        return total;
-    }
-
     /**
      * The single top-level directory every entry in {@code zip} is nested under, if there is
      * one — e.g. {@code "loinc"} for a zip whose every entry starts with {@code loinc/}. Empty
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts a planned set of zip entries on several threads at once, hashing every file as it is
+ * written so no extracted byte has to be read back afterwards.
+ *
+ * <p>Up to {@code ike.unpack.threads} (default: the number of available processors) workers each open
+ * their own {@link ZipFile} — so inflating never contends on one shared file handle — and take entries
+ * largest first from a shared queue, which keeps one huge spine file from being left to run alone at
+ * the end. Each worker feeds the bytes it writes through a per-file SHA-256, recorded in
+ * {@link Result#fileDigests()}. The source zip's own SHA-256 is normally passed in, computed while
+ * downloading or verifying it. The exception is a copy that was already cached and for which the
+ * repository reports no checksum: nothing has hashed it, so one more task reads the whole zip a
+ * second time and hashes it alongside the extraction. That read overlaps the workers' and mostly
+ * finds the zip's pages in the cache, but it is a full extra pass over the file.
+ *
+ * <p>The calling thread only waits: it polls the workers and reports the bytes written so far, so
+ * progress advances per buffer rather than per entry. Cancellation and the failure of another worker
+ * are checked once per buffer; a failure stops the remaining workers and is rethrown.
+ */
+final class ParallelUnpack {
+
+    private static final int THREADS = Math.max(1,
+            Integer.getInteger("ike.unpack.threads", Runtime.getRuntime().availableProcessors()));
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path zipFile;
+    private final List<Entry> entries;
+    private final BooleanSupplier cancelled;
+    private final Progress progress;
+    private final long totalBytes;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicInteger nextEntry = new AtomicInteger();
+    private final Map<Path, byte[]> fileDigests = new ConcurrentHashMap<>();
+    private volatile boolean stopping = false;
+
+    /**
+     * @param zipFile   the zip to extract from
+     * @param entries   the file entries to extract, each to a distinct target
+     * @param cancelled polled once per buffer; extraction stops once it returns {@code true}
+     * @param progress  receives the number of bytes written so far
+     */
+    ParallelUnpack(Path zipFile, List<Entry> entries, BooleanSupplier cancelled, Progress progress) {
+        this.zipFile = Objects.requireNonNull(zipFile, "zipFile");
+        this.entries = entries.stream().sorted(Comparator.comparingLong(Entry::size).reversed()).toList();
+        this.cancelled = Objects.requireNonNull(cancelled, "cancelled");
+        this.progress = Objects.requireNonNull(progress, "progress");
+        this.totalBytes = this.entries.stream().mapToLong(entry -> Math.max(entry.size(), 0)).sum();
+    }
+
+    /**
+     * Extracts every entry, creating missing parent directories.
+     *
+     * @param knownSourceSha256 the zip's SHA-256, if already computed while downloading or verifying it
+     * @return the source and per-file digests, or empty if cancelled — in which case some entries
+     *         may already have been extracted
+     * @throws IOException if an entry can't be read or written
+     */
+    Optional<Result> extract(Optional<String> knownSourceSha256) throws IOException, InterruptedException {
+        int workers = (int) Math.min(THREADS, Math.max(1, entries.size()));
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers + 1,
+                Thread.ofPlatform().name("komet-unpack-", 0).daemon().factory())) {
+            List<Future<?>> futures = new ArrayList<>();
+            Future<String> sourceSha256 = knownSourceSha256.isPresent()
+                    ? null
+                    : executor.submit(this::hashSource);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    extractEntries();
+                    return null;
+                }));
+            }
+            if (sourceSha256 != null) {
+                futures.add(sourceSha256);
+            }
+            boolean done = false;
+            try {
+                while (!done) {
+                    done = awaitAll(futures);
+                    progress.bytesWritten(bytesWritten.get(), totalBytes);
+                }
+            } finally {
+                if (!done) {
+                    // Closing the executor waits for the workers; have them stop at their next buffer.
+                    stopping = true;
+                }
+            }
+            if (cancelled.getAsBoolean()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Result(sourceSha256 == null ? knownSourceSha256.get() : sourceSha256.resultNow(),
+                    Map.copyOf(fileDigests)));
+        }
+    }
+
+    private void extractEntries() throws IOException {
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int i = nextEntry.getAndIncrement(); i < entries.size(); i = nextEntry.getAndIncrement()) {
+                if (isStopped()) {
+                    return;
+                }
+                Entry entry = entries.get(i);
+                var zipEntry = zip.getEntry(entry.name());
+                if (zipEntry == null) {
+                    throw new IOException("Zip entry disappeared from " + zipFile + ": " + entry.name());
+                }
+                Files.createDirectories(entry.target().getParent());
+                MessageDigest digest = MavenDataStoreDownloadTask.sha256Digest();
+                try (InputStream in = zip.getInputStream(zipEntry); OutputStream out = Files.newOutputStream(entry.target())) {
+                    int n = in.read(buffer);
+                    while (n != -1) {
+                        if (isStopped()) {
+                            return;
+                        }
+                        out.write(buffer, 0, n);
+                        digest.update(buffer, 0, n);
+                        bytesWritten.addAndGet(n);
+                        n = in.read(buffer);
+                    }
+                }
+                fileDigests.put(entry.target(), digest.digest());
+            }
+        } catch (IOException | RuntimeException e) {
+            stopping = true;
+            throw e;
+        }
+    }
+
+    private String hashSource() throws IOException {
+        MessageDigest digest = MavenDataStoreDownloadTask.sha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(zipFile)) {
+            int n = in.read(buffer);
+            while (n != -1) {
+                if (isStopped()) {
+                    return null;
+                }
+                digest.update(buffer, 0, n);
+                n = in.read(buffer);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private boolean isStopped() {
+        return stopping || cancelled.getAsBoolean();
+    }
+
+    /**
+     * Waits briefly for the workers.
+     *
+     * @return {@code true} once all of them have finished
+     * @throws IOException the first failure of any of them
+     */
+    private static boolean awaitAll(List<? extends Future<?>> futures) throws IOException, InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One file entry to extract.
+     *
+     * @param name   the entry's name within the zip
+     * @param target the file to write it to
+     * @param size   the entry's uncompressed size, or {@code -1} if the zip doesn't record it
+     */
+    record Entry(String name, Path target, long size) {
+    }
+
+    /**
+     * @param sourceSha256 the hex-encoded SHA-256 of the zip itself
+     * @param fileDigests  the SHA-256 of every extracted file, by target path
+     */
+    record Result(String sourceSha256, Map<Path, byte[]> fileDigests) {
+    }
+
+    /**
+     * Receives extraction progress.
+     */
+    @FunctionalInterface
+    interface Progress {
+        /**
+         * @param bytes the number of uncompressed bytes written so far
+         * @param total the sum of the entries' recorded uncompressed sizes
+         */
+        void bytesWritten(long bytes, long total);
+    }
+}
@@ -0,0 +1,562 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads one artifact to a file with HTTP {@code Range} requests, fetching several segments of it
+ * in parallel and resuming an interrupted download rather than starting over.
+ *
+ * <p>The bytes land in a {@code .part} file next to the target, with a {@code .part.properties}
+ * sidecar recording the URI, total length, the server's validator ({@code ETag} or
+ * {@code Last-Modified}) and how far each segment got. Both are left in place when the download fails
+ * or is cancelled, and the next download of the same URI to the same target continues from there —
+ * provided the total length is unchanged and, when the server reported a validator, it confirms
+ * through {@code If-Range} that the artifact hasn't changed since.
+ * Neither is ever left at the target path itself: the {@code .part} file is only moved there once it
+ * is complete and, if a checksum was given, verified.
+ *
+ * <p>The first request asks for a single byte. A server that honors it with {@code 206 Partial Content}
+ * reports the total length, and the rest is fetched as up to {@code ike.download.segments} (default
+ * {@value #DEFAULT_SEGMENTS}) parallel ranges of at least {@value #MIN_SEGMENT_BYTES} bytes each; a
+ * segment whose connection drops is re-requested from where it stopped, up to
+ * {@value #MAX_ATTEMPTS} times. A server that ignores {@code Range} — or whose artifact changed since a
+ * partial download — answers {@code 200} with the whole body, which is then streamed from the start
+ * exactly as a plain {@code GET} would be, so no request is wasted.
+ *
+ * <p>The SHA-256 has to consume the file in order, so while downloading the calling thread hashes
+ * only the contiguous prefix: the bytes of the first segment as they arrive and, once it completes,
+ * those the next segment has fetched so far, and so on. Since the segments run in parallel and finish
+ * at about the same time, most of every segment after the first is still unhashed when the last byte
+ * arrives and is then read back from the partial file. A resumed download re-hashes the bytes it
+ * already has from disk. Fetches run on virtual threads and are never interrupted; cancellation and
+ * failure are checked once per buffer.
+ *
+ * <p>The partial file is forced to disk before each save of the sidecar, so the progress it records
+ * never runs ahead of the bytes that would survive a crash.
+ */
+final class RangedDownload {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RangedDownload.class);
+
+    static final int DEFAULT_SEGMENTS = 4;
+    static final long MIN_SEGMENT_BYTES = 8L * 1024 * 1024;
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final int SEGMENTS = Math.max(1, Integer.getInteger("ike.download.segments", DEFAULT_SEGMENTS));
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long SIDECAR_SAVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Pattern CONTENT_RANGE_TOTAL = Pattern.compile("^bytes\\s+\\d+-\\d+/(\\d+)$");
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Optional<Credentials> credentials;
+    private final Path target;
+    private final Path partialFile;
+    private final Path sidecarFile;
+    private final BooleanSupplier cancelled;
+    private final Progress progress;
+    private volatile boolean stopping = false;
+
+    /**
+     * @param httpClient      the HTTP client to download with
+     * @param uri             the artifact's direct download URI
+     * @param credentials     the credentials to authenticate with, if any
+     * @param target          where the completed download is moved to
+     * @param cancelled       polled once per buffer; the download stops, resumable, once it returns {@code true}
+     * @param progress        receives the number of bytes present so far
+     */
+    RangedDownload(HttpClient httpClient, URI uri, Optional<Credentials> credentials, Path target,
+                   BooleanSupplier cancelled, Progress progress) {
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        this.uri = Objects.requireNonNull(uri, "uri");
+        this.credentials = Objects.requireNonNull(credentials, "credentials");
+        this.target = Objects.requireNonNull(target, "target");
+        this.partialFile = target.resolveSibling(target.getFileName() + ".part");
+        this.sidecarFile = target.resolveSibling(target.getFileName() + ".part.properties");
+        this.cancelled = Objects.requireNonNull(cancelled, "cancelled");
+        this.progress = Objects.requireNonNull(progress, "progress");
+    }
+
+    /**
+     * @return the file the download is written to until it completes
+     */
+    Path partialFile() {
+        return partialFile;
+    }
+
+    /**
+     * @return the file recording the progress of a partial download
+     */
+    Path sidecarFile() {
+        return sidecarFile;
+    }
+
+    /**
+     * Downloads the artifact to the target, verifying it against {@code expectedSha256} if given.
+     *
+     * @param expectedSha256 the artifact's expected SHA-256, if known
+     * @return the hex-encoded SHA-256 of the download, or empty if it was cancelled; nothing is moved
+     *         to the target in that case
+     * @throws IOException if the download fails — its partial state is kept for the next attempt — or
+     *         the download doesn't match {@code expectedSha256}, in which case its partial state is
+     *         discarded
+     * @throws InterruptedException if interrupted while waiting on the server
+     */
+    Optional<String> download(Optional<String> expectedSha256) throws IOException, InterruptedException {
+        Files.createDirectories(target.getParent());
+        Optional<Sidecar> previous = Sidecar.load(sidecarFile)
+                .filter(sidecar -> sidecar.uri().equals(uri.toString()))
+                .filter(sidecar -> isPartialFileOfLength(sidecar.length()));
+
+        HttpRequest.Builder probe = request().header("Range", "bytes=0-0");
+        previous.flatMap(Sidecar::validator).ifPresent(validator -> probe.header("If-Range", validator));
+        HttpResponse<InputStream> response = httpClient.send(probe.build(), HttpResponse.BodyHandlers.ofInputStream());
+        Optional<String> sha256;
+        if (response.statusCode() == 206) {
+            long total;
+            Optional<String> validator;
+            try (InputStream ignored = response.body()) {
+                total = totalLength(response.headers());
+                validator = validator(response.headers());
+            }
+            Sidecar sidecar = previous
+                    .filter(p -> p.length() == total && p.validator().equals(validator))
+                    .orElseGet(() -> Sidecar.fresh(uri.toString(), total, validator, SEGMENTS));
+            if (previous.isPresent() && sidecar != previous.get()) {
+                LOG.info("Discarding partial download of {}: the artifact changed since it was started", uri);
+            } else if (previous.isPresent()) {
+                LOG.info("Resuming download of {} at {} of {} bytes", uri, sidecar.bytesPresent(), total);
+            }
+            sha256 = downloadSegments(sidecar);
+        } else if (response.statusCode() == 200) {
+            sha256 = stream(response);
+        } else if (response.statusCode() == 416) {
+            // Range not satisfiable: an empty artifact has no byte 0 to ask for.
+            response.body().close();
+            sha256 = stream(httpClient.send(request().build(), HttpResponse.BodyHandlers.ofInputStream()));
+        } else {
+            response.body().close();
+            throw new IOException("Unexpected HTTP " + response.statusCode() + " downloading " + uri);
+        }
+        if (sha256.isEmpty()) {
+            return Optional.empty();
+        }
+        if (expectedSha256.isPresent() && !sha256.get().equalsIgnoreCase(expectedSha256.get())) {
+            discardPartial();
+            throw new IOException("SHA-256 checksum mismatch downloading " + uri + " — expected "
+                    + expectedSha256.get() + " but got " + sha256.get()
+                    + "; refusing to use a download that doesn't match what the repository reported");
+        }
+        Files.move(partialFile, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(sidecarFile);
+        return sha256;
+    }
+
+    /**
+     * Deletes any partial download of the target.
+     */
+    void discardPartial() throws IOException {
+        Files.deleteIfExists(partialFile);
+        Files.deleteIfExists(sidecarFile);
+    }
+
+    private Optional<String> downloadSegments(Sidecar sidecar) throws IOException, InterruptedException {
+        if (!isPartialFileOfLength(sidecar.length())) {
+            try (FileChannel channel = FileChannel.open(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (sidecar.length() > 0) {
+                    channel.write(ByteBuffer.allocate(1), sidecar.length() - 1);
+                }
+            }
+        }
+        sidecar.save(sidecarFile);
+        MessageDigest digest = MavenDataStoreDownloadTask.sha256Digest();
+        long hashed = 0;
+        ByteBuffer hashBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(partialFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Segment segment : sidecar.segments()) {
+                if (!segment.isComplete()) {
+                    futures.add(executor.submit(() -> {
+                        fetchSegment(sidecar, segment, channel);
+                        return null;
+                    }));
+                }
+            }
+            long lastSave = System.nanoTime();
+            boolean done = false;
+            try {
+                while (!done) {
+                    done = awaitAll(futures);
+                    long frontier = sidecar.contiguousFrontier();
+                    while (hashed < frontier) {
+                        hashBuffer.clear().limit((int) Math.min(hashBuffer.capacity(), frontier - hashed));
+                        int n = channel.read(hashBuffer, hashed);
+                        if (n < 0) {
+                            throw new IOException("Unexpected end of " + partialFile + " at " + hashed);
+                        }
+                        digest.update(hashBuffer.flip());
+                        hashed += n;
+                    }
+                    progress.bytesPresent(sidecar.bytesPresent(), sidecar.length());
+                    if (System.nanoTime() - lastSave > SIDECAR_SAVE_INTERVAL_NANOS) {
+                        saveProgress(sidecar, channel);
+                        lastSave = System.nanoTime();
+                    }
+                }
+            } finally {
+                if (!done) {
+                    // Closing the executor waits for the fetches; have them stop at their next buffer.
+                    stopping = true;
+                }
+                saveProgress(sidecar, channel);
+            }
+        }
+        if (isStopped() || !sidecar.isComplete()) {
+            return Optional.empty();
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Persists how far each segment got. The positions are read before the partial file is forced, so
+     * every byte the saved sidecar counts is on disk even while fetches keep writing.
+     */
+    private void saveProgress(Sidecar sidecar, FileChannel channel) throws IOException {
+        Sidecar progress = sidecar.copy();
+        channel.force(false);
+        progress.save(sidecarFile);
+    }
+
+    /**
+     * Waits briefly for the segment fetches.
+     *
+     * @return {@code true} once all of them have finished
+     * @throws IOException the first failure of any of them
+     */
+    private static boolean awaitAll(List<Future<?>> futures) throws IOException, InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+        return true;
+    }
+
+    private void fetchSegment(Sidecar sidecar, Segment segment, FileChannel channel) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                fetchSegmentOnce(sidecar, segment, channel);
+                return;
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS || isStopped()) {
+                    throw e;
+                }
+                LOG.info("Retrying bytes {}-{} of {} after attempt {} failed", segment.position(), segment.end(), uri, attempt, e);
+            }
+        }
+    }
+
+    private void fetchSegmentOnce(Sidecar sidecar, Segment segment, FileChannel channel) throws IOException, InterruptedException {
+        if (segment.isComplete() || isStopped()) {
+            return;
+        }
+        HttpRequest.Builder builder = request().header("Range", "bytes=" + segment.position() + "-" + segment.end());
+        sidecar.validator().ifPresent(validator -> builder.header("If-Range", validator));
+        HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body()) {
+            if (response.statusCode() != 206) {
+                throw new IOException("Unexpected HTTP " + response.statusCode() + " requesting bytes "
+                        + segment.position() + "-" + segment.end() + " of " + uri);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!segment.isComplete()) {
+                if (isStopped()) {
+                    return;
+                }
+                int wanted = (int) Math.min(buffer.length, segment.end() + 1 - segment.position());
+                int n = in.read(buffer, 0, wanted);
+                if (n < 0) {
+                    throw new IOException("Connection closed at byte " + segment.position() + " of " + uri);
+                }
+                ByteBuffer source = ByteBuffer.wrap(buffer, 0, n);
+                long position = segment.position();
+                while (source.hasRemaining()) {
+                    position += channel.write(source, position);
+                }
+                segment.advanceTo(position);
+            }
+        }
+    }
+
+    /**
+     * Streams a complete {@code 200} response body to the partial file. Not resumable, so the partial
+     * file is removed on failure.
+     */
+    private Optional<String> stream(HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Unexpected HTTP " + response.statusCode() + " downloading " + uri);
+        }
+        Files.deleteIfExists(sidecarFile);
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        MessageDigest digest = MavenDataStoreDownloadTask.sha256Digest();
+        long bytesRead = 0;
+        boolean complete = false;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = response.body(); OutputStream out = Files.newOutputStream(partialFile)) {
+            int n = in.read(buffer);
+            while (n != -1) {
+                if (cancelled.getAsBoolean()) {
+                    return Optional.empty();
+                }
+                out.write(buffer, 0, n);
+                digest.update(buffer, 0, n);
+                bytesRead += n;
+                progress.bytesPresent(bytesRead, length);
+                n = in.read(buffer);
+            }
+            complete = !cancelled.getAsBoolean();
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(partialFile);
+            }
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private boolean isStopped() {
+        return stopping || cancelled.getAsBoolean();
+    }
+
+    private HttpRequest.Builder request() {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+        credentials.ifPresent(creds -> builder.header("Authorization", BasicAuth.header(creds)));
+        return builder;
+    }
+
+    private boolean isPartialFileOfLength(long expectedLength) {
+        try {
+            return Files.isRegularFile(partialFile) && Files.size(partialFile) == expectedLength;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private long totalLength(HttpHeaders headers) throws IOException {
+        String contentRange = headers.firstValue("Content-Range")
+                .orElseThrow(() -> new IOException("206 response without Content-Range from " + uri));
+        Matcher matcher = CONTENT_RANGE_TOTAL.matcher(contentRange.strip());
+        if (!matcher.matches()) {
+            throw new IOException("Unsupported Content-Range '" + contentRange + "' from " + uri);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * The validator to send in {@code If-Range}: a strong {@code ETag}, else {@code Last-Modified}.
+     * A weak {@code ETag} may not be used with {@code If-Range}.
+     */
+    private static Optional<String> validator(HttpHeaders headers) {
+        Optional<String> etag = headers.firstValue("ETag").filter(value -> !value.startsWith("W/"));
+        return etag.isPresent() ? etag : headers.firstValue("Last-Modified");
+    }
+
+    /**
+     * Receives download progress.
+     */
+    @FunctionalInterface
+    interface Progress {
+        /**
+         * @param bytes  the number of bytes downloaded so far, including any resumed from a partial download
+         * @param length the artifact's total length, or {@code -1} if the server didn't report it
+         */
+        void bytesPresent(long bytes, long length);
+    }
+
+    /**
+     * One range of the artifact; {@code position} is the next byte to fetch, written only by the
+     * thread fetching the segment.
+     */
+    static final class Segment {
+        private final long start;
+        private final long end;
+        private volatile long position;
+
+        Segment(long start, long end, long position) {
+            this.start = start;
+            this.end = end;
+            this.position = position;
+        }
+
+        long start() {
+            return start;
+        }
+
+        /**
+         * @return the last byte of the segment, inclusive
+         */
+        long end() {
+            return end;
+        }
+
+        long position() {
+            return position;
+        }
+
+        void advanceTo(long position) {
+            this.position = position;
+        }
+
+        boolean isComplete() {
+            return position > end;
+        }
+    }
+
+    /**
+     * The persisted state of a partial download.
+     */
+    record Sidecar(String uri, long length, Optional<String> validator, List<Segment> segments) {
+
+        static Sidecar fresh(String uri, long length, Optional<String> validator, int maxSegments) {
+            long segmentCount = Math.max(1, Math.min(maxSegments, (length + MIN_SEGMENT_BYTES - 1) / MIN_SEGMENT_BYTES));
+            long segmentSize = Math.max(1, (length + segmentCount - 1) / segmentCount);
+            List<Segment> segments = new ArrayList<>();
+            for (long start = 0; start < length; start += segmentSize) {
+                segments.add(new Segment(start, Math.min(length, start + segmentSize) - 1, start));
+            }
+            return new Sidecar(uri, length, validator, List.copyOf(segments));
+        }
+
+        /**
+         * @return a sidecar with the segments' current positions, unaffected by further progress
+         */
+        Sidecar copy() {
+            List<Segment> positions = new ArrayList<>();
+            for (Segment segment : segments) {
+                positions.add(new Segment(segment.start(), segment.end(), segment.position()));
+            }
+            return new Sidecar(uri, length, validator, List.copyOf(positions));
+        }
+
+        boolean isComplete() {
+            return segments.stream().allMatch(Segment::isComplete);
+        }
+
+        long bytesPresent() {
+            long present = 0;
+            for (Segment segment : segments) {
+                present += segment.position() - segment.start();
+            }
+            return present;
+        }
+
+        /**
+         * @return the end of the prefix of the artifact that has been downloaded without gaps
+         */
+        long contiguousFrontier() {
+            for (Segment segment : segments) {
+                if (!segment.isComplete()) {
+                    return segment.position();
+                }
+            }
+            return length;
+        }
+
+        static Optional<Sidecar> load(Path file) {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                int count = Integer.parseInt(properties.getProperty("segments"));
+                List<Segment> segments = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    String[] fields = properties.getProperty("segment." + i).split(",");
+                    segments.add(new Segment(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+                }
+                return Optional.of(new Sidecar(properties.getProperty("uri"), Long.parseLong(properties.getProperty("length")),
+                        Optional.ofNullable(properties.getProperty("validator")), List.copyOf(segments)));
+            } catch (IOException | RuntimeException e) {
+                LOG.info("Ignoring unreadable partial download state {}", file, e);
+                return Optional.empty();
+            }
+        }
+
+        void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("uri", uri);
+            properties.setProperty("length", Long.toString(length));
+            validator.ifPresent(value -> properties.setProperty("validator", value));
+            properties.setProperty("segments", Integer.toString(segments.size()));
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                properties.setProperty("segment." + i, segment.start() + "," + segment.end() + "," + segment.position());
+            }
+            Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Partial download state");
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentManifestTest {
+
+    private static final String SHA256 = "ab".repeat(32);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pathsWithLineBreaksAndBackslashesReadBackAsWritten() {
+        Map<String, ContentManifest.Entry> entries = new LinkedHashMap<>();
+        entries.put("plain/file.bin", new ContentManifest.Entry(10, 1_000, SHA256));
+        entries.put("line\nfeed", new ContentManifest.Entry(11, 1_001, SHA256));
+        entries.put("carriage\rreturn\r\n", new ContentManifest.Entry(12, 1_002, SHA256));
+        entries.put("windows\\path\\n", new ContentManifest.Entry(13, 1_003, SHA256));
+        entries.put("tab\tseparated", new ContentManifest.Entry(14, 1_004, SHA256));
+
+        ContentManifest.write(directory, entries);
+
+        assertTrue(ContentManifest.load(directory).sameEntries(entries),
+                "a manifest read back must equal the one written, or it is rewritten on every check");
+    }
+
+    @Test
+    void anEscapedPathIsLookedUpByItsOriginalName() throws IOException {
+        Path file = Files.writeString(directory.resolve("payload"), "content");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000_000_000L));
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+        ContentManifest.write(directory, Map.of("odd\nname", ContentManifest.Entry.of(attributes, SHA256)));
+
+        assertEquals(Optional.of(SHA256), ContentManifest.load(directory).digestIfUnchanged("odd\nname", attributes));
+        assertEquals(Optional.empty(), ContentManifest.load(directory).digestIfUnchanged("odd", attributes));
+    }
+
+    @Test
+    void aManifestInTheFormerFormatIsIgnored() throws IOException {
+        Path file = Files.writeString(directory.resolve("payload"), "content");
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Files.write(directory.resolve(ContentManifest.FILE_NAME), List.of(
+                "komet-content-manifest 1",
+                attributes.size() + "\t" + attributes.lastModifiedTime().toMillis() + "\t" + SHA256 + "\tpayload"),
+                StandardCharsets.UTF_8);
+
+        assertEquals(Optional.empty(), ContentManifest.load(directory).digestIfUnchanged("payload", attributes));
+    }
+}
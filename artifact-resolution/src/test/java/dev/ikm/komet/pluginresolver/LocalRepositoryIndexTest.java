@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRepositoryIndexTest {
+
+    private static final ArtifactCoordinates LOINC = new ArtifactCoordinates("dev.ikm.tinkar.data", "loinc");
+
+    @Test
+    void versionLookupSeesAVersionAddedAfterTheArtifactWasIndexed(@TempDir Path repoRoot) throws IOException {
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "1.0.0");
+        LocalVersionResolver resolver = new LocalVersionResolver(repoRoot);
+        assertEquals(List.of("1.0.0"), resolver.localVersions(LOINC));
+
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "2.0.0");
+
+        assertEquals(List.of("1.0.0", "2.0.0"), resolver.localVersions(LOINC));
+    }
+
+    @Test
+    void groupSearchDropsAnArtifactDeletedAfterItWasIndexed(@TempDir Path repoRoot) throws IOException {
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "1.0.0");
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "rxnorm", "1.0.0");
+        assertEquals(2, LocalRepositorySearch.search(repoRoot, "dev.ikm.tinkar.data:", List.of()).size());
+
+        Path rxnormVersion = repoRoot.resolve("dev/ikm/tinkar/data/rxnorm/1.0.0");
+        Files.delete(rxnormVersion.resolve("rxnorm-1.0.0.pom"));
+        Files.delete(rxnormVersion);
+        Files.delete(rxnormVersion.getParent());
+
+        assertEquals(Set.of(LOINC), LocalRepositorySearch.search(repoRoot, "dev.ikm.tinkar.data:", List.of()));
+    }
+
+    @Test
+    void versionLookupSeesAnArtifactInAGroupCreatedAfterTheRepositoryWasIndexed(@TempDir Path repoRoot) throws IOException {
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "1.0.0");
+        assertEquals(Set.of(LOINC), LocalRepositorySearch.search(repoRoot, "loinc", List.of()));
+
+        writeArtifact(repoRoot, "network/ike/komet", "example-plugin", "1.0.0");
+
+        LocalVersionResolver resolver = new LocalVersionResolver(repoRoot);
+        assertEquals(List.of("1.0.0"), resolver.localVersions(new ArtifactCoordinates("network.ike.komet", "example-plugin")));
+    }
+
+    @Test
+    void refreshPersistsTheIndexAndPicksUpNewArtifactsForWholeRepositorySearch(@TempDir Path repoRoot) throws IOException {
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "1.0.0");
+        assertEquals(Set.of(LOINC), LocalRepositorySearch.search(repoRoot, "data", List.of()));
+
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "snomedct-international", "1.0.0");
+        LocalRepositoryIndex.forRoot(repoRoot).refresh();
+
+        assertTrue(Files.isRegularFile(repoRoot.resolve(LocalRepositoryIndex.INDEX_FILE_NAME)));
+        assertEquals(Set.of(LOINC, new ArtifactCoordinates("dev.ikm.tinkar.data", "snomedct-international")),
+                LocalRepositorySearch.search(repoRoot, "data", List.of()));
+    }
+
+    @Test
+    void versionLookupsStayCurrentWhileFullRefreshesRun(@TempDir Path repoRoot) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            writeArtifact(repoRoot, "org/example/group" + i, "artifact", "1.0.0");
+        }
+        writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", "1.0.0");
+        LocalRepositoryIndex index = LocalRepositoryIndex.forRoot(repoRoot);
+        LocalVersionResolver resolver = new LocalVersionResolver(repoRoot);
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread refresher = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                index.refresh();
+            }
+        });
+        try {
+            List<String> expected = new ArrayList<>(List.of("1.0.0"));
+            for (int minor = 1; minor <= 20; minor++) {
+                String version = "1." + minor + ".0";
+                writeArtifact(repoRoot, "dev/ikm/tinkar/data", "loinc", version);
+                expected.add(version);
+                assertEquals(Set.copyOf(expected), Set.copyOf(resolver.localVersions(LOINC)));
+            }
+        } finally {
+            done.set(true);
+            refresher.join();
+        }
+        index.refresh();
+        assertEquals(21, resolver.localVersions(LOINC).size());
+    }
+
+    private static void writeArtifact(Path repoRoot, String groupPath, String artifactId, String version) throws IOException {
+        Path versionDir = repoRoot.resolve(groupPath).resolve(artifactId).resolve(version);
+        Files.createDirectories(versionDir);
+        Files.writeString(versionDir.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+    }
+}
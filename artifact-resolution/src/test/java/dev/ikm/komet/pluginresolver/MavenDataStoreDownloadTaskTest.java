@@ -32,6 +32,7 @@
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -144,6 +145,115 @@ void editingAFileAfterUnpackIsDetectableAsContentDrift(@TempDir Path destination
                 "editing an extracted file's content should change the recomputed on-disk hash");
     }
 
+    @Test
+    void quickCheckTrustsTheManifestForFilesWithUnchangedSizeAndTimeButADeepCheckDoesNot(@TempDir Path destinationRoot) throws Exception {
+        byte[] zipBytes = buildZip("data.bin", "original-content", "other.bin", "untouched");
+        Path cacheFile = destinationRoot.resolve("cache/example-plugin-3.4.0-sa.zip");
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, zipBytes);
+        Path destinationDirectory = destinationRoot.resolve("my-store");
+        MavenDataStoreDownloadTask.localUnpackTask(cacheFile, destinationDirectory).call();
+        String recorded = MavenDataStoreDownloadTask.existingUnpackedContentSha256(destinationDirectory).orElseThrow();
+        assertTrue(Files.exists(destinationDirectory.resolve(".ike-content-manifest")), "unpack should write a content manifest");
+
+        // Same length, and the modification time put back: only reading the bytes can tell.
+        Path data = destinationDirectory.resolve("data.bin");
+        FileTime modified = Files.getLastModifiedTime(data);
+        Files.writeString(data, "tampered-content");
+        Files.setLastModifiedTime(data, modified);
+
+        assertEquals(recorded, MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory),
+                "the quick check should take the manifest's word for a file whose size and time are unchanged");
+        assertTrue(!recorded.equals(MavenDataStoreDownloadTask.deepUnpackedContentSha256(destinationDirectory)),
+                "a deep check should read every file");
+        assertTrue(!recorded.equals(MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory)),
+                "the manifest refreshed by the deep check should now record the tampered digest");
+    }
+
+    @Test
+    void touchingAFileIsRehashedOnceAndRecordedInTheManifest(@TempDir Path destinationRoot) throws Exception {
+        byte[] zipBytes = buildZip("data.bin", "original-content");
+        Path cacheFile = destinationRoot.resolve("cache/example-plugin-3.5.0-sa.zip");
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, zipBytes);
+        Path destinationDirectory = destinationRoot.resolve("my-store");
+        MavenDataStoreDownloadTask.localUnpackTask(cacheFile, destinationDirectory).call();
+        String recorded = MavenDataStoreDownloadTask.existingUnpackedContentSha256(destinationDirectory).orElseThrow();
+        Path manifest = destinationDirectory.resolve(".ike-content-manifest");
+        String manifestAfterUnpack = Files.readString(manifest);
+
+        Files.setLastModifiedTime(destinationDirectory.resolve("data.bin"), FileTime.fromMillis(1_000_000_000_000L));
+
+        assertEquals(recorded, MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory),
+                "a touched but unchanged file should still match once rehashed");
+        assertTrue(!manifestAfterUnpack.equals(Files.readString(manifest)), "the manifest should record the new time");
+        assertTrue(Files.readString(manifest).contains("\t1000000000000\t"), Files.readString(manifest));
+    }
+
+    @Test
+    void unpackExtractsManyEntriesConcurrentlyAndRecordsBothMarkers(@TempDir Path destinationRoot) throws Exception {
+        String[] nameContentPairs = new String[400];
+        for (int i = 0; i < 200; i++) {
+            nameContentPairs[2 * i] = "store/spine-" + (i % 7) + "/file-" + i + ".bin";
+            nameContentPairs[2 * i + 1] = ("content-" + i + "-").repeat(1 + i * 37);
+        }
+        byte[] zipBytes = buildZip(nameContentPairs);
+        Path cacheFile = destinationRoot.resolve("cache/example-plugin-3.2.0-sa.zip");
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, zipBytes);
+        Path destinationDirectory = destinationRoot.resolve("my-store");
+
+        MavenDataStoreDownloadTask.localUnpackTask(cacheFile, destinationDirectory).call();
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(nameContentPairs[2 * i + 1],
+                    Files.readString(destinationDirectory.resolve("spine-" + (i % 7) + "/file-" + i + ".bin")));
+        }
+        assertEquals(Optional.of(sha256Hex(zipBytes)), MavenDataStoreDownloadTask.existingUnpackedSourceSha256(destinationDirectory),
+                "the source marker should hold the zip's SHA-256 even when it wasn't known before unpacking");
+        assertEquals(MavenDataStoreDownloadTask.existingUnpackedContentSha256(destinationDirectory).orElseThrow(),
+                MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory),
+                "the content marker computed while extracting should match a recomputation from disk");
+    }
+
+    @Test
+    void unpackOverAnExistingDirectoryCoversFilesTheZipDidNotWrite(@TempDir Path destinationRoot) throws Exception {
+        byte[] zipBytes = buildZip("data.bin", "fresh-content");
+        Path cacheFile = destinationRoot.resolve("cache/example-plugin-3.3.0-sa.zip");
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, zipBytes);
+        Path destinationDirectory = destinationRoot.resolve("my-store");
+        Files.createDirectories(destinationDirectory);
+        Files.writeString(destinationDirectory.resolve("leftover.bin"), "left-by-an-earlier-store");
+
+        MavenDataStoreDownloadTask.localUnpackTask(cacheFile, destinationDirectory).call();
+        String recorded = MavenDataStoreDownloadTask.existingUnpackedContentSha256(destinationDirectory).orElseThrow();
+        Files.delete(destinationDirectory.resolve("leftover.bin"));
+
+        assertTrue(!recorded.equals(MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory)),
+                "files already in the destination are part of the recorded content");
+    }
+
+    @Test
+    void contentMarkerWrittenByAnEarlierUnpackIsStillRecomputedInItsOwnForm(@TempDir Path destinationDirectory) throws Exception {
+        // An earlier unpack hashed every file's relative path and bytes into one stream, with no prefix.
+        Files.createDirectories(destinationDirectory.resolve("nidToByteArrayMap"));
+        Files.writeString(destinationDirectory.resolve("nidToByteArrayMap/data.bin"), "some-real-content");
+        Files.writeString(destinationDirectory.resolve("top.bin"), "more-content");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(Path.of("nidToByteArrayMap", "data.bin").toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update("some-real-content".getBytes(StandardCharsets.UTF_8));
+        digest.update("top.bin".getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update("more-content".getBytes(StandardCharsets.UTF_8));
+        String concatenatedSha256 = HexFormat.of().formatHex(digest.digest());
+        Files.writeString(destinationDirectory.resolve(".ike-content-sha256"), concatenatedSha256);
+
+        assertEquals(concatenatedSha256, MavenDataStoreDownloadTask.currentUnpackedContentSha256(destinationDirectory),
+                "a store unpacked before per-file content hashes must not show up as drifted");
+    }
+
     @Test
     void unpackModeStripsASingleWrappingTopLevelDirectory(@TempDir Path destinationRoot) throws Exception {
         // Real shape confirmed against a live published store snapshot
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.pluginresolver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangedDownloadTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    // large enough to be split into several segments of at least RangedDownload.MIN_SEGMENT_BYTES
+    private static final byte[] CONTENT = new byte[30 * 1024 * 1024 + 123];
+
+    static {
+        new Random(1).nextBytes(CONTENT);
+    }
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private URI uri;
+    private final AtomicInteger rangedRequests = new AtomicInteger();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicInteger segmentFailures = new AtomicInteger();
+    private volatile boolean throttled;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/ranged.zip", this::respondRanged);
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/ranged.zip");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void parallelRangedDownloadReassemblesTheExactContent(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("ranged.zip");
+
+        Optional<String> sha256 = newDownload(target, () -> false).download(Optional.of(sha256Hex(CONTENT)));
+
+        assertEquals(Optional.of(sha256Hex(CONTENT)), sha256);
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertTrue(rangedRequests.get() > 2, "the body should be fetched as several concurrent ranges");
+        assertFalse(Files.exists(directory.resolve("ranged.zip.part")));
+        assertFalse(Files.exists(directory.resolve("ranged.zip.part.properties")));
+    }
+
+    @Test
+    void aFailedSegmentIsRetriedWithoutRestartingTheOthers(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("ranged.zip");
+        segmentFailures.set(1);
+
+        Optional<String> sha256 = newDownload(target, () -> false).download(Optional.of(sha256Hex(CONTENT)));
+
+        assertEquals(Optional.of(sha256Hex(CONTENT)), sha256);
+        assertEquals(0, segmentFailures.get(), "the server should have failed one segment request");
+        assertTrue(bytesServed.get() < 2L * CONTENT.length, "a retry should only refetch the failed segment");
+    }
+
+    @Test
+    void aCancelledDownloadResumesFromItsPartialFile(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("ranged.zip");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        throttled = true;
+        RangedDownload first = new RangedDownload(HttpClient.newHttpClient(), uri, Optional.empty(), target,
+                cancelled::get, (bytes, length) -> {
+                    if (bytes > CONTENT.length / 3) {
+                        cancelled.set(true);
+                    }
+                });
+
+        assertTrue(first.download(Optional.of(sha256Hex(CONTENT))).isEmpty());
+        assertTrue(Files.exists(first.partialFile()), "a cancelled download should keep its partial file");
+        assertTrue(Files.exists(first.sidecarFile()), "a cancelled download should keep its segment state");
+        assertFalse(Files.exists(target));
+
+        throttled = false;
+        long servedBeforeResume = bytesServed.get();
+        Optional<String> sha256 = newDownload(target, () -> false).download(Optional.of(sha256Hex(CONTENT)));
+
+        assertEquals(Optional.of(sha256Hex(CONTENT)), sha256);
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertTrue(bytesServed.get() - servedBeforeResume < CONTENT.length,
+                "resuming should not refetch the bytes already on disk");
+        assertFalse(Files.exists(first.partialFile()));
+        assertFalse(Files.exists(first.sidecarFile()));
+    }
+
+    @Test
+    void checksumMismatchDiscardsThePartialDownload(@TempDir Path directory) throws Exception {
+        Path target = directory.resolve("ranged.zip");
+        RangedDownload download = newDownload(target, () -> false);
+
+        IOException e = assertThrows(IOException.class, () -> download.download(Optional.of("0".repeat(64))));
+
+        assertTrue(e.getMessage().contains("SHA-256 checksum mismatch"), e.getMessage());
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(download.partialFile()));
+        assertFalse(Files.exists(download.sidecarFile()));
+    }
+
+    private RangedDownload newDownload(Path target, BooleanSupplier cancelled) {
+        return new RangedDownload(HttpClient.newHttpClient(), uri, Optional.empty(), target, cancelled, (bytes, length) -> { });
+    }
+
+    private void respondRanged(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        long start = 0;
+        long end = CONTENT.length - 1;
+        int status = 200;
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            assertTrue(matcher.matches(), range);
+            start = Long.parseLong(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                end = Math.min(end, Long.parseLong(matcher.group(2)));
+            }
+            status = 206;
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + CONTENT.length);
+            // leave the single-byte probe alone so only segment requests fail
+            if (end > start && segmentFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            rangedRequests.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(status, end - start + 1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long position = start; position <= end; position += 64 * 1024) {
+                int length = (int) Math.min(64 * 1024, end + 1 - position);
+                out.write(CONTENT, (int) position, length);
+                bytesServed.addAndGet(length);
+                if (throttled) {
+                    Thread.sleep(5);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client stopped reading after a cancel
+        }
+    }
+
+    private static String sha256Hex(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.komet.framework.observable.ObservableComposer;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.coordinate.Calculators;
+import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ObservableComposer}: composing a new concept and either cancelling the
+ * transaction or saving and committing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ObservableComposerBenchmark {
+
+    static final int CONCEPTS_PER_INVOCATION = 100;
+
+    private ViewCalculator viewCalculator;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        FxThread.start();
+        SyntheticData.startEphemeralStore();
+        viewCalculator = Calculators.View.Default();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCEPTS_PER_INVOCATION)
+    public int composeAndCancel() {
+        return FxThread.call(() -> {
+            int composed = 0;
+            for (int i = 0; i < CONCEPTS_PER_INVOCATION; i++) {
+                ObservableComposer composer = newComposer();
+                composed += composer.composeConcept(PublicIds.newRandom()).getEntity().nid() != 0 ? 1 : 0;
+                composer.cancel();
+            }
+            return composed;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCEPTS_PER_INVOCATION)
+    public int composeAndCommit() {
+        return FxThread.call(() -> {
+            int committed = 0;
+            for (int i = 0; i < CONCEPTS_PER_INVOCATION; i++) {
+                ObservableComposer composer = newComposer();
+                composer.composeConcept(PublicIds.newRandom()).getEditableVersion().save();
+                composer.commit();
+                committed++;
+            }
+            return committed;
+        });
+    }
+
+    private ObservableComposer newComposer() {
+        return ObservableComposer.builder()
+                .viewCalculator(viewCalculator)
+                .author(TinkarTerm.USER)
+                .module(TinkarTerm.PRIMORDIAL_MODULE)
+                .path(TinkarTerm.DEVELOPMENT_PATH)
+                .transactionComment("Composer benchmark")
+                .build();
+    }
+}
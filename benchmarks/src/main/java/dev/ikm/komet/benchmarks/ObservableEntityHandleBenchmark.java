@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.komet.framework.observable.ObservableEntityHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ObservableEntityHandle#get(int)} for a nid with an entity in the store (a hit) and for a
+ * nid without one (a miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ObservableEntityHandleBenchmark {
+
+    static final int GETS_PER_INVOCATION = 1_000;
+
+    private int presentNid;
+    private int absentNid;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        FxThread.start();
+        SyntheticData.startEphemeralStore();
+        presentNid = SyntheticData.concept(1);
+        absentNid = SyntheticData.absentNid();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GETS_PER_INVOCATION)
+    public int getPresent() {
+        return FxThread.call(() -> countPresent(presentNid));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GETS_PER_INVOCATION)
+    public int getAbsent() {
+        return FxThread.call(() -> countPresent(absentNid));
+    }
+
+    private static int countPresent(int nid) {
+        int present = 0;
+        for (int i = 0; i < GETS_PER_INVOCATION; i++) {
+            if (ObservableEntityHandle.get(nid).isPresent()) {
+                present++;
+            }
+        }
+        return present;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.komet.framework.observable.ObservableConcept;
+import dev.ikm.komet.framework.observable.ObservableEntity;
+import dev.ikm.komet.framework.observable.ObservableEntityHandle;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping an observable entity with a long version history current.
+ * <ul>
+ *     <li>{@code appendVersions} applies versions appended to an entity whose observable is already in the
+ *     canonical pool, the path taken when an edit or import adds a version; only the appended versions
+ *     should be examined, whatever the length of the history;</li>
+ *     <li>{@code getEntity} resolves the pooled observable again from the store, merging an entity with
+ *     no new versions;</li>
+ *     <li>{@code versions} reads its {@code versions()} list.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ObservableEntityVersionsBenchmark {
+
+    static final int GETS_PER_INVOCATION = 10;
+    static final int APPENDS_PER_INVOCATION = 100;
+
+    @Param({"1", "100", "1000", "10000"})
+    public int versionCount;
+
+    private int conceptNid;
+    // Held so the canonical pool keeps the observable
+    private ObservableConcept concept;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        FxThread.start();
+        SyntheticData.startEphemeralStore();
+        conceptNid = SyntheticData.concept(versionCount);
+        concept = FxThread.call(() -> ObservableEntityHandle.getConceptOrThrow(conceptNid));
+    }
+
+    /**
+     * A fresh concept with {@code versionCount} versions, its pooled observable, and the successive
+     * entities a store would publish as {@link #APPENDS_PER_INVOCATION} versions are appended to it. Each
+     * measured invocation consumes them all, so a new concept is made for every iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class Appends {
+        ObservableConcept concept;
+        ConceptRecord[] appended;
+
+        @Setup(Level.Iteration)
+        public void setup(ObservableEntityVersionsBenchmark benchmark) {
+            int nid = SyntheticData.concept(benchmark.versionCount);
+            concept = FxThread.call(() -> ObservableEntityHandle.getConceptOrThrow(nid));
+            appended = SyntheticData.appendVersions(nid, APPENDS_PER_INVOCATION);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(APPENDS_PER_INVOCATION)
+    @SuppressWarnings("removal")
+    public int appendVersions(Appends appends) {
+        return FxThread.call(() -> {
+            int versions = 0;
+            for (ConceptRecord entity : appends.appended) {
+                // resolves the pooled observable and merges the appended version into it
+                ObservableConcept observable = ObservableEntity.get(entity);
+                versions += observable.versions().size();
+            }
+            if (versions == 0 || appends.concept.versions().size() != appends.appended[APPENDS_PER_INVOCATION - 1].versions().size()) {
+                throw new IllegalStateException("Appended versions were not merged into the pooled observable");
+            }
+            return versions;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GETS_PER_INVOCATION)
+    public int getEntity() {
+        return FxThread.call(() -> {
+            int versions = 0;
+            for (int i = 0; i < GETS_PER_INVOCATION; i++) {
+                versions += ObservableEntityHandle.getConceptOrThrow(conceptNid).versions().size();
+            }
+            return versions;
+        });
+    }
+
+    @Benchmark
+    public int versions() {
+        return concept.versions().size();
+    }
+}
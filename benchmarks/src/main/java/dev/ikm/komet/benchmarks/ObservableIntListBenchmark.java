@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.komet.framework.observable.collection.ObservableIntList;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ObservableIntList#setAll(int...)} with a change listener attached, against the same
+ * replacement on a boxed {@link FXCollections#observableArrayList()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ObservableIntListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] values;
+    private List<Integer> boxedValues;
+    private ObservableIntList intList;
+    private ObservableList<Integer> boxedList;
+
+    @Setup
+    public void setup() {
+        values = new Random(42).ints(size).toArray();
+        boxedValues = Arrays.stream(values).boxed().toList();
+        intList = new ObservableIntList();
+        boxedList = FXCollections.observableArrayList();
+        ListChangeListener<Integer> listener = change -> { };
+        intList.addListener(listener);
+        boxedList.addListener(listener);
+    }
+
+    @Benchmark
+    public int intListSetAll() {
+        intList.setAll(values);
+        return intList.size();
+    }
+
+    @Benchmark
+    public int boxedListSetAll() {
+        boxedList.setAll(boxedValues);
+        return boxedList.size();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.komet.framework.observable.ObservableEntityHandle;
+import dev.ikm.komet.framework.observable.ObservableSemanticVersion;
+import dev.ikm.komet.framework.panel.axiom.AxiomSubjectRecord;
+import dev.ikm.komet.framework.performance.Measures;
+import dev.ikm.komet.framework.performance.Statement;
+import dev.ikm.komet.framework.performance.Topic;
+import dev.ikm.komet.framework.performance.impl.ObservationRecord;
+import dev.ikm.komet.framework.view.ObservableViewNoOverride;
+import dev.ikm.komet.framework.view.ViewProperties;
+import dev.ikm.komet.rules.evrete.EvreteRulesService;
+import dev.ikm.tinkar.coordinate.Calculators;
+import dev.ikm.tinkar.coordinate.logic.PremiseType;
+import dev.ikm.tinkar.entity.graph.DiTreeEntity;
+import dev.ikm.tinkar.entity.graph.EntityVertex;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of computing the rule actions behind an edit menu, with the consequence cache of
+ * {@link EvreteRulesService} enabled and with it disabled ({@code cacheSize} of 0), which fires a rule
+ * session on every menu open.
+ * <p>
+ * The {@code COMPONENT_FOCUSED} case is a concept version's edit menu. The {@code AXIOM_FOCUSED} case is
+ * the menu of the is-a clause of a stated definition, whose consequences include the concept chooser
+ * submenu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RuleMenuBenchmark {
+
+    @Param({"0", "1024"})
+    public int cacheSize;
+
+    @Param({"COMPONENT_FOCUSED", "AXIOM_FOCUSED"})
+    public Topic topic;
+
+    private EvreteRulesService rulesService;
+    private ViewProperties viewProperties;
+    private ImmutableList<Statement> statements;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        FxThread.start();
+        SyntheticData.startEphemeralStore();
+        int conceptNid = SyntheticData.concept(1);
+        viewProperties = FxThread.call(() -> new ObservableViewNoOverride(
+                Calculators.View.Default().viewCoordinateRecord(), "Rule menu benchmark")
+                .makeOverridableViewProperties("Rule menu benchmark"));
+        Object subject = switch (topic) {
+            case COMPONENT_FOCUSED -> viewProperties.calculator().latest(conceptNid).get();
+            case AXIOM_FOCUSED -> isAClause(conceptNid);
+            default -> throw new IllegalStateException("No benchmark for topic " + topic);
+        };
+        statements = Lists.immutable.of(new ObservationRecord(topic, subject, Measures.present()));
+        rulesService = new EvreteRulesService(cacheSize);
+    }
+
+    /**
+     * @return the is-a clause of a new stated definition of the concept, as the axiom editor presents it
+     */
+    private AxiomSubjectRecord isAClause(int conceptNid) {
+        int semanticNid = SyntheticData.statedDefinition(conceptNid, SyntheticData.concept(1));
+        ObservableSemanticVersion semanticVersion = FxThread.call(() -> ObservableEntityHandle.get(semanticNid)
+                .asSemantic().orElseThrow()
+                .getSnapshot(viewProperties.calculator())
+                .getLatestVersion().get());
+        DiTreeEntity definition = (DiTreeEntity) semanticVersion.fieldValues().get(0);
+        EntityVertex isA = definition.vertexMap().detect(
+                vertex -> vertex.getMeaningNid() == TinkarTerm.CONCEPT_REFERENCE.nid());
+        return new AxiomSubjectRecord(isA.vertexIndex(), definition, semanticVersion, PremiseType.STATED, null);
+    }
+
+    @Benchmark
+    public int openMenu() {
+        return rulesService.execute("Knowledge base name", statements,
+                viewProperties, viewProperties.nodeView().editCoordinate()).size();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.benchmarks;
+
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import dev.ikm.tinkar.entity.ConceptRecordBuilder;
+import dev.ikm.tinkar.entity.ConceptVersionRecord;
+import dev.ikm.tinkar.entity.ConceptVersionRecordBuilder;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.RecordListBuilder;
+import dev.ikm.tinkar.entity.SemanticRecord;
+import dev.ikm.tinkar.entity.SemanticRecordBuilder;
+import dev.ikm.tinkar.entity.SemanticVersionRecord;
+import dev.ikm.tinkar.entity.SemanticVersionRecordBuilder;
+import dev.ikm.tinkar.entity.StampRecord;
+import dev.ikm.tinkar.entity.StampRecordBuilder;
+import dev.ikm.tinkar.entity.StampVersionRecord;
+import dev.ikm.tinkar.entity.StampVersionRecordBuilder;
+import dev.ikm.tinkar.entity.graph.DiTreeEntity;
+import dev.ikm.tinkar.entity.graph.adaptor.axiom.LogicalExpressionBuilder;
+import dev.ikm.tinkar.terms.EntityProxy;
+import dev.ikm.tinkar.terms.State;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.factory.Lists;
+
+import java.util.UUID;
+
+/**
+ * Starts an in-memory data store and writes synthetic entities into it, so the benchmarks need no
+ * downloaded data and measure the same content on every run.
+ */
+final class SyntheticData {
+
+    private static final long BASE_TIME = 1_700_000_000_000L;
+    private static boolean started = false;
+    private static long nextTime = BASE_TIME;
+
+    private SyntheticData() {
+    }
+
+    static synchronized void startEphemeralStore() {
+        if (started) {
+            return;
+        }
+        CachingService.clearAll();
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+        // Observable versions resolve the author, module and path of their stamps as concepts
+        int stampNid = stamp();
+        for (EntityProxy.Concept term : new EntityProxy.Concept[]{TinkarTerm.USER, TinkarTerm.PRIMORDIAL_MODULE,
+                TinkarTerm.DEVELOPMENT_PATH}) {
+            writeConcept(term.publicId(), stampNid);
+        }
+        started = true;
+    }
+
+    /**
+     * Writes a committed stamp with a unique time, so each stamp starts a distinct version.
+     *
+     * @return the nid of the stamp
+     */
+    static synchronized int stamp() {
+        UUID uuid = UUID.randomUUID();
+        int stampNid = EntityService.get().nidForUuids(uuid);
+        RecordListBuilder<StampVersionRecord> versions = RecordListBuilder.make();
+        StampRecord stampRecord = StampRecordBuilder.builder()
+                .nid(stampNid)
+                .leastSignificantBits(uuid.getLeastSignificantBits())
+                .mostSignificantBits(uuid.getMostSignificantBits())
+                .versions(versions)
+                .build();
+        versions.add(StampVersionRecordBuilder.builder()
+                .chronology(stampRecord)
+                .stateNid(State.ACTIVE.nid())
+                .time(nextTime++)
+                .authorNid(TinkarTerm.USER.nid())
+                .moduleNid(TinkarTerm.PRIMORDIAL_MODULE.nid())
+                .pathNid(TinkarTerm.DEVELOPMENT_PATH.nid())
+                .build());
+        EntityService.get().putEntity(StampRecordBuilder.builder(stampRecord).versions(versions.toImmutable()).build());
+        return stampNid;
+    }
+
+    /**
+     * Writes a concept with {@code versionCount} versions, each on its own stamp.
+     *
+     * @return the nid of the concept
+     */
+    static int concept(int versionCount) {
+        int[] stampNids = new int[versionCount];
+        for (int i = 0; i < versionCount; i++) {
+            stampNids[i] = stamp();
+        }
+        return writeConcept(PublicIds.newRandom(), stampNids);
+    }
+
+    private static int writeConcept(PublicId publicId, int... stampNids) {
+        UUID uuid = publicId.asUuidArray()[0];
+        int conceptNid = EntityService.get().nidForPublicId(publicId);
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+        ConceptRecord conceptRecord = ConceptRecordBuilder.builder()
+                .nid(conceptNid)
+                .leastSignificantBits(uuid.getLeastSignificantBits())
+                .mostSignificantBits(uuid.getMostSignificantBits())
+                .versions(versions)
+                .build();
+        for (int stampNid : stampNids) {
+            versions.add(ConceptVersionRecordBuilder.builder()
+                    .chronology(conceptRecord)
+                    .stampNid(stampNid)
+                    .build());
+        }
+        EntityService.get().putEntity(ConceptRecordBuilder.builder(conceptRecord).versions(versions.toImmutable()).build());
+        return conceptNid;
+    }
+
+    /**
+     * Writes a stated definition for a concept: a necessary set whose only clause is an is-a to
+     * {@code parentNid}.
+     *
+     * @return the nid of the stated axioms semantic
+     */
+    static int statedDefinition(int conceptNid, int parentNid) {
+        LogicalExpressionBuilder builder = new LogicalExpressionBuilder();
+        builder.NecessarySet(builder.And(builder.ConceptAxiom(parentNid)));
+        DiTreeEntity definition = (DiTreeEntity) builder.build().sourceGraph();
+
+        PublicId publicId = PublicIds.newRandom();
+        UUID uuid = publicId.asUuidArray()[0];
+        int semanticNid = EntityService.get().nidForPublicId(publicId);
+        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
+        SemanticRecord semanticRecord = SemanticRecordBuilder.builder()
+                .nid(semanticNid)
+                .leastSignificantBits(uuid.getLeastSignificantBits())
+                .mostSignificantBits(uuid.getMostSignificantBits())
+                .patternNid(TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN.nid())
+                .referencedComponentNid(conceptNid)
+                .versions(versions)
+                .build();
+        versions.add(SemanticVersionRecordBuilder.builder()
+                .chronology(semanticRecord)
+                .stampNid(stamp())
+                .fieldValues(Lists.immutable.of(definition))
+                .build());
+        EntityService.get().putEntity(SemanticRecordBuilder.builder(semanticRecord).versions(versions.toImmutable()).build());
+        return semanticNid;
+    }
+
+    /**
+     * Builds, without writing them, {@code count} successors of a concept in the store: the i-th holds the
+     * concept's versions followed by i + 1 new ones, each on its own stamp, as the store would publish
+     * them while versions are appended one at a time.
+     *
+     * @return the successive entities, each with one more version than the last
+     */
+    static ConceptRecord[] appendVersions(int conceptNid, int count) {
+        ConceptRecord concept = (ConceptRecord) EntityService.get().getEntityFast(conceptNid);
+        ConceptRecord[] appended = new ConceptRecord[count];
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+        for (ConceptVersionRecord version : concept.versions()) {
+            versions.add(version);
+        }
+        for (int i = 0; i < count; i++) {
+            versions.add(ConceptVersionRecordBuilder.builder()
+                    .chronology(concept)
+                    .stampNid(stamp())
+                    .build());
+            appended[i] = ConceptRecordBuilder.builder(concept).versions(versions.toImmutable()).build();
+        }
+        return appended;
+    }
+
+    /**
+     * @return a nid that has no entity in the store
+     */
+    static int absentNid() {
+        return EntityService.get().nidForPublicId(PublicIds.newRandom());
+    }
+}
@@ -24,11 +24,22 @@
 import dev.ikm.komet.framework.view.ViewProperties;
 import dev.ikm.tinkar.common.service.TrackingCallable;
 import dev.ikm.tinkar.common.util.text.NaturalOrder;
+import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
 
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
 
+/**
+ * Sorts a set of concepts affected by a classification by their fully qualified name and publishes the
+ * sorted nids for display. The unsorted nids are shown immediately, and replaced once sorting completes.
+ */
 public class PrepareConceptSetTask extends TrackingCallable<Void> {
 
+    /**
+     * Number of concepts whose descriptions are resolved per parallel work unit.
+     */
+    private static final int CHUNK_SIZE = 1024;
 
     private final ImmutableIntList affectedConceptList;
     private final ObservableList<Integer> affectedConceptsForDisplay;
@@ -48,46 +59,60 @@ public PrepareConceptSetTask(String title, ImmutableIntList affectedConcepts,
         this.updateTitle(title);
         this.addToTotalWork(affectedConcepts.size());
         Platform.runLater(() -> {
-            affectedConceptsForDisplay.setAll(affectedConcepts.toList().collect(i -> Integer.valueOf(i)));
+            if (affectedConceptsForDisplay instanceof ObservableIntList observableIntList) {
+                observableIntList.setAll(affectedConcepts);
+            } else {
+                affectedConceptsForDisplay.setAll(affectedConcepts.toList().collect(i -> Integer.valueOf(i)));
+            }
         });
     }
 
     @Override
     protected Void compute() throws Exception {
+        // Read descriptions in nid order: nids are allocated as entities are written, so this
+        // walks the store roughly in storage order and keeps its caches warm.
+        int[] nids = affectedConceptList.toSortedArray();
+        SortKey[] keys = new SortKey[nids.length];
+        ViewCalculator calculator = this.viewProperties.calculator();
 
-        // TODO: Remove performance hack, and get sorting to work better/faster.
-        if (affectedConceptList.size() < 5000) {
-            //TODO: This sorting needs much more efficient algorithms and data structures...
-            //TODO: we need an iterator that will go through the descriptions in concept order, for cache locality.
-            ConcurrentSkipListSet<Integer> concurrentSortedSet = new ConcurrentSkipListSet<>(this::compare);
-
-            this.affectedConceptList.primitiveParallelStream().forEach(nid -> {
-                concurrentSortedSet.add(nid);
+        int chunkCount = (nids.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, nids.length);
+            for (int i = from; i < to; i++) {
+                keys[i] = new SortKey(calculator.getFullyQualifiedDescriptionTextWithFallbackOrNid(nids[i]), nids[i]);
                 this.completedUnitOfWork();
-            });
-            Platform.runLater(() -> {
-                if (affectedConceptsForDisplay instanceof ObservableIntList observableIntList) {
-                    observableIntList.setAll(
-                            concurrentSortedSet.stream()
-                                    .mapToInt(Integer::intValue)
-                                    .toArray()
-                    );
-                } else {
-                    this.affectedConceptsForDisplay.setAll(concurrentSortedSet);
-                }
-            });
-        } else {
-            if (affectedConceptsForDisplay instanceof ObservableIntList observableIntList) {
-                observableIntList.setAll(affectedConceptList);
             }
+        });
+
+        // Each key is resolved exactly once; comparisons only touch the resolved text.
+        Arrays.parallelSort(keys, SortKey.ORDER);
+
+        int[] sortedNids = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sortedNids[i] = keys[i].nid();
         }
-            return null;
+        Platform.runLater(() -> {
+            if (affectedConceptsForDisplay instanceof ObservableIntList observableIntList) {
+                observableIntList.setAll(sortedNids);
+            } else {
+                this.affectedConceptsForDisplay.setAll(Arrays.stream(sortedNids).boxed().toList());
+            }
+        });
+        return null;
     }
 
-    private int compare(Integer o1, Integer o2) {
-
-        return NaturalOrder.compareStrings(
-                this.viewProperties.calculator().getFullyQualifiedDescriptionTextWithFallbackOrNid(o1),
-                this.viewProperties.calculator().getFullyQualifiedDescriptionTextWithFallbackOrNid(o2));
+    /**
+     * The display text of a concept, resolved once, paired with its nid. Concepts with the same text
+     * are ordered by nid so that none of them is lost.
+     */
+    private record SortKey(String text, int nid) {
+        static final Comparator<SortKey> ORDER = (k1, k2) -> {
+            int compare = NaturalOrder.compareStrings(k1.text, k2.text);
+            if (compare != 0) {
+                return compare;
+            }
+            return Integer.compare(k1.nid, k2.nid);
+        };
     }
 }
@@ -204,9 +204,8 @@ private void runFullReasoner() {
 			try {
 				reasonerFuture.get();
 				conceptCount = reasonerService.getConceptCount();
-				// Clear tracker after full run completes — the result-writing phase
-				// dispatches entity changes that would pollute the incremental tracker
-				EditedConceptTracker.removeEdits();
+				// The task committed the edits it classified and discarded the changes its own result
+				// writes dispatched; edits made while it ran stay pending for the next incremental run.
 			} catch (ExecutionException e) {
 				AlertStreams.dispatchToRoot(e);
 			} catch (InterruptedException ie) {
@@ -34,16 +34,30 @@ public RunReasonerFullTask(ReasonerService reasonerService, Consumer<ClassifierR
 
 	}
 
+	/**
+	 * Takes the tracked edits, including any recovered from the journal after a restart, before loading
+	 * the data store that already contains them; they are committed only once the run completes, and
+	 * edits made while it runs stay pending for the next incremental run.
+	 */
+	@Override
+	protected ReasonerService compute() throws Exception {
+		EditedConceptTracker.PendingEdits pendingEdits = EditedConceptTracker.takePendingEdits();
+		try {
+			ReasonerService result = super.compute();
+			EditedConceptTracker.commitTakenEdits();
+			return result;
+		} catch (Exception e) {
+			EditedConceptTracker.restoreTakenEdits(pendingEdits);
+			throw e;
+		}
+	}
+
 	protected void loadData(int workDone) throws Exception {
 		updateMessage("Step " + workDone + ": Loading data into reasoner");
 		LoadDataTask task = new LoadDataTask(reasonerService);
 		Future<ReasonerService> future = TinkExecutor.threadPool().submit(task);
 		future.get();
 		updateProgress(workDone);
-		
-		// After full reasoning completes, reset the tracker for incremental updates
-		LOG.info("Full reasoning complete - resetting EditedConceptTracker");
-		EditedConceptTracker.removeEdits();
 		EditedConceptTracker.ensureSubscribed();
 	}
 
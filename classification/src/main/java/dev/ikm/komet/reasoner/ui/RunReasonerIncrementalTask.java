@@ -61,19 +61,28 @@ protected ReasonerService compute() throws Exception {
 		}
 
 		LOG.info("Proceeding with incremental reasoning for {} edits", editCount);
-		return super.compute();
+		pendingEdits = EditedConceptTracker.takePendingEdits();
+		try {
+			ReasonerService result = super.compute();
+			EditedConceptTracker.commitTakenEdits();
+			return result;
+		} catch (Exception e) {
+			EditedConceptTracker.restoreTakenEdits(pendingEdits);
+			throw e;
+		}
 	}
 
 	private final boolean logParents = false;
 
+	private EditedConceptTracker.PendingEdits pendingEdits;
+
 	protected void loadData(int workDone) throws Exception {
 		updateMessage("Step " + workDone + ": Applying incremental edits to reasoner");
-		List<SemanticEntityVersion> updates = new ArrayList<>(EditedConceptTracker.getEdits());
+		List<SemanticEntityVersion> updates = new ArrayList<>(pendingEdits.edits());
 		reasonerService.processIncremental(List.of(), updates, this);
 		updateProgress(workDone);
 
-		LOG.info("Incremental update applied for {} edits - resetting EditedConceptTracker", updates.size());
-		EditedConceptTracker.removeEdits();
+		LOG.info("Incremental update applied for {} edits", updates.size());
 		EditedConceptTracker.ensureSubscribed();
 	}
 
@@ -18,6 +18,7 @@
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
+import dev.ikm.komet.framework.EditedConceptTracker;
 import dev.ikm.komet.framework.concurrent.TaskWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,8 +90,15 @@ protected void buildNecessaryNormalForm(int workDone) throws Exception {
 	protected void processResults(int workDone) throws Exception {
 		updateMessage("Step " + workDone + " of " + maxWork + ": Processing results");
 		ProcessResultsTask task = new ProcessResultsTask(reasonerService);
-		Future<ClassifierResults> future = TinkExecutor.threadPool().submit(task);
-		ClassifierResults classifierResults = future.get();
+		// The inferred semantics written here are not edits for the next incremental run
+		EditedConceptTracker.ResultWrites resultWrites = EditedConceptTracker.beginResultWrites();
+		ClassifierResults classifierResults;
+		try {
+			Future<ClassifierResults> future = TinkExecutor.threadPool().submit(task);
+			classifierResults = future.get();
+		} finally {
+			EditedConceptTracker.endResultWrites(resultWrites);
+		}
 		updateProgress(workDone);
 		classifierResultsConsumer.accept(classifierResults);
 	}
@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.executor;
+
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
+import dev.ikm.komet.framework.concurrent.LatencyHistogram;
+import dev.ikm.komet.framework.concurrent.TaskWrapper;
+import org.eclipse.collections.api.factory.Lists;
+
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms kept by the Komet executors.
+ * <p>
+ * Task counts and the mean and maximum wait before a task starts are always kept; they cost a clock read
+ * and a few uncontended adds per task. Wait and run time histograms, overall and per task type, are
+ * only recorded while detailed recording is enabled, either with the system property
+ * {@value #DETAIL_PROPERTY} or at runtime through {@link #setDetailEnabled(boolean)}. Task types are the
+ * {@code TrackingCallable} subclass for tracked tasks, and the class of the submitted task otherwise.
+ */
+public final class ExecutorMetrics {
+
+    public static final String DETAIL_PROPERTY = "ike.executor.metrics.detail";
+
+    /**
+     * Task types beyond this many are grouped under {@link #OTHER_TASK_TYPE}, so anonymous classes
+     * cannot grow the table without bound.
+     */
+    private static final int MAX_TASK_TYPES = 256;
+    private static final String OTHER_TASK_TYPE = "other";
+
+    private static volatile boolean detailEnabled = Boolean.getBoolean(DETAIL_PROPERTY);
+
+    // start time of the task running on this thread, only set while detailed recording is enabled
+    private static final ThreadLocal<long[]> RUN_START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runHistogram = new LatencyHistogram();
+    private final ConcurrentHashMap<String, TaskTypeHistograms> taskTypes = new ConcurrentHashMap<>();
+
+    public static boolean isDetailEnabled() {
+        return detailEnabled;
+    }
+
+    public static void setDetailEnabled(boolean enabled) {
+        detailEnabled = enabled;
+    }
+
+    void taskSubmitted() {
+        submitted.increment();
+    }
+
+    /**
+     * @param task        the task about to run, used to find its type
+     * @param waitedNanos the time the task waited between submission and now, or a negative value if the
+     *                    executor does not know when the task was submitted
+     */
+    void taskStarted(Object task, long waitedNanos) {
+        active.incrementAndGet();
+        started.increment();
+        if (waitedNanos >= 0) {
+            waited.increment();
+            waitNanos.add(waitedNanos);
+            maxWaitNanos.accumulate(waitedNanos);
+        }
+        if (detailEnabled) {
+            if (waitedNanos >= 0) {
+                waitHistogram.record(waitedNanos);
+                taskTypeHistograms(task).wait.record(waitedNanos);
+            }
+            RUN_START.get()[0] = System.nanoTime();
+        }
+    }
+
+    /**
+     * @param task       the task that just ran on this thread
+     * @param failedTask {@code true} if the task threw
+     */
+    void taskFinished(Object task, boolean failedTask) {
+        active.decrementAndGet();
+        completed.increment();
+        if (failedTask) {
+            failed.increment();
+        }
+        if (!detailEnabled) {
+            return;
+        }
+        long[] runStart = RUN_START.get();
+        if (runStart[0] != 0) {
+            long runNanos = System.nanoTime() - runStart[0];
+            runStart[0] = 0;
+            runHistogram.record(runNanos);
+            taskTypeHistograms(task).run.record(runNanos);
+        }
+    }
+
+    public void reset() {
+        submitted.reset();
+        completed.reset();
+        failed.reset();
+        started.reset();
+        waited.reset();
+        waitNanos.reset();
+        maxWaitNanos.reset();
+        waitHistogram.reset();
+        runHistogram.reset();
+        taskTypes.clear();
+    }
+
+    /**
+     * @param name   the name reported for the executor
+     * @param queued the number of tasks currently waiting in the executor's queue
+     * @return a snapshot of the counters and histograms
+     */
+    public ExecutorStats snapshot(String name, int queued) {
+        LatencyHistogram.Summary wait = waitHistogram.summary();
+        if (wait.count() == 0) {
+            // no histogram; report the always-on mean and maximum
+            long waitedCount = waited.sum();
+            long meanUs = waitedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.sum() / waitedCount);
+            long maxUs = TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+            wait = new LatencyHistogram.Summary(waitedCount, meanUs, 0, 0, 0, maxUs);
+        }
+        return new ExecutorStats(name, active.get(), queued, submitted.sum(), completed.sum(), failed.sum(),
+                wait, runHistogram.summary(),
+                Lists.immutable.fromStream(taskTypes.entrySet().stream()
+                        .map(entry -> new ExecutorStats.TaskTypeStats(entry.getKey(),
+                                entry.getValue().wait.summary(), entry.getValue().run.summary()))
+                        .sorted(Comparator.comparingLong((ExecutorStats.TaskTypeStats stats) ->
+                                stats.run().meanUs() * stats.run().count()).reversed())));
+    }
+
+    private TaskTypeHistograms taskTypeHistograms(Object task) {
+        String taskType = taskType(task);
+        TaskTypeHistograms histograms = taskTypes.get(taskType);
+        if (histograms == null) {
+            if (taskTypes.size() >= MAX_TASK_TYPES) {
+                taskType = OTHER_TASK_TYPE;
+            }
+            histograms = taskTypes.computeIfAbsent(taskType, key -> new TaskTypeHistograms());
+        }
+        return histograms;
+    }
+
+    /**
+     * @return the name tasks of this kind are grouped under
+     */
+    static String taskType(Object task) {
+        Object source = switch (task) {
+            case TaskWrapper<?> taskWrapper -> taskWrapper.taskType();
+            case SourcedFutureTask<?> sourcedTask -> sourcedTask.source();
+            case null -> null;
+            default -> task;
+        };
+        if (source == null) {
+            return OTHER_TASK_TYPE;
+        }
+        Class<?> sourceClass = source instanceof Class<?> aClass ? aClass : source.getClass();
+        String name = sourceClass.getName();
+        int lambda = name.indexOf("$$Lambda");
+        return lambda < 0 ? name : name.substring(0, lambda + "$$Lambda".length());
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which {@code task} was submitted, or {@code -1} if it is a
+     * plain runnable handed straight to {@code execute}, which records no submission time
+     */
+    static long submittedNanos(Runnable task) {
+        return switch (task) {
+            case SourcedFutureTask<?> sourcedTask -> sourcedTask.submittedNanos();
+            case TaskWrapper<?> taskWrapper -> taskWrapper.createdNanos();
+            default -> -1;
+        };
+    }
+
+    /**
+     * @return the wait before a task started, or {@code -1} if its submission time is unknown
+     */
+    static long waitedNanos(Runnable task) {
+        long submittedNanos = submittedNanos(task);
+        return submittedNanos < 0 ? -1 : Math.max(0, System.nanoTime() - submittedNanos);
+    }
+
+    /**
+     * @return {@code true} if {@code task} is a future that completed by throwing
+     */
+    static boolean failed(Runnable task) {
+        if (task instanceof Future<?> future && future.isDone() && !future.isCancelled()) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return false;
+    }
+
+    private static final class TaskTypeHistograms {
+        final LatencyHistogram wait = new LatencyHistogram();
+        final LatencyHistogram run = new LatencyHistogram();
+    }
+
+    /**
+     * A future task that remembers the runnable or callable it was made from, so its statistics are
+     * grouped under that task's type rather than under {@link FutureTask}, and when it was made, so the
+     * executor can measure its wait without wrapping it in another runnable.
+     */
+    static final class SourcedFutureTask<V> extends FutureTask<V> {
+        private final Object source;
+        private final long submittedNanos = System.nanoTime();
+
+        SourcedFutureTask(Callable<V> callable) {
+            super(callable);
+            this.source = callable;
+        }
+
+        SourcedFutureTask(Runnable runnable, V result) {
+            super(runnable, result);
+            this.source = runnable;
+        }
+
+        Object source() {
+            return source;
+        }
+
+        long submittedNanos() {
+            return submittedNanos;
+        }
+    }
+}
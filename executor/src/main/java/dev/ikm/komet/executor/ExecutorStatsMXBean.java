@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.executor;
+
+/**
+ * JMX view of one Komet executor, registered as {@code dev.ikm.komet:type=Executor,name=<executor>}.
+ * Latencies are in microseconds; percentiles stay zero until detailed recording is enabled.
+ */
+public interface ExecutorStatsMXBean {
+
+    String getName();
+
+    int getActive();
+
+    int getQueued();
+
+    long getSubmitted();
+
+    long getCompleted();
+
+    long getFailed();
+
+    long getMeanWaitMicros();
+
+    long getP99WaitMicros();
+
+    long getMaxWaitMicros();
+
+    long getMeanRunMicros();
+
+    long getP99RunMicros();
+
+    long getMaxRunMicros();
+
+    /**
+     * @return one line per task type: name, count, mean and 99th percentile wait and run time
+     */
+    String[] getTaskTypes();
+
+    boolean isDetailEnabled();
+
+    void setDetailEnabled(boolean enabled);
+
+    void reset();
+}
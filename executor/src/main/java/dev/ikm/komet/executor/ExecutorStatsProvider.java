@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.executor;
+
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
+import dev.ikm.komet.framework.concurrent.ExecutorStatsService;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes the statistics of the executors started by {@link KometExecutorProvider}, both as an
+ * {@link ExecutorStatsService} for the progress views and as one {@link ExecutorStatsMXBean} per executor.
+ */
+public class ExecutorStatsProvider implements ExecutorStatsService {
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorStatsProvider.class);
+
+    private static final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    public static ExecutorStatsProvider provider() {
+        return new ExecutorStatsProvider();
+    }
+
+    private ExecutorStatsProvider() {
+        super();
+    }
+
+    /**
+     * Publishes the statistics of {@code executor} under {@code name}, replacing any executor
+     * registered under the same name.
+     */
+    static void register(String name, InstrumentedExecutor executor) {
+        unregister(name);
+        ObjectName objectName = null;
+        try {
+            objectName = ObjectName.getInstance("dev.ikm.komet:type=Executor,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(name, executor), objectName);
+        } catch (JMException e) {
+            LOG.warn("Unable to register executor statistics for {} with JMX", name, e);
+            objectName = null;
+        }
+        registrations.add(new Registration(name, executor, objectName));
+    }
+
+    static void unregister(String name) {
+        for (Registration registration : registrations) {
+            if (registration.name().equals(name)) {
+                registrations.remove(registration);
+                unregisterBean(registration);
+            }
+        }
+    }
+
+    static void unregisterAll() {
+        for (Registration registration : registrations) {
+            registrations.remove(registration);
+            unregisterBean(registration);
+        }
+    }
+
+    private static void unregisterBean(Registration registration) {
+        if (registration.objectName() == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(registration.objectName())) {
+                server.unregisterMBean(registration.objectName());
+            }
+        } catch (JMException e) {
+            LOG.warn("Unable to unregister {}", registration.objectName(), e);
+        }
+    }
+
+    @Override
+    public ImmutableList<ExecutorStats> stats() {
+        return Lists.immutable.fromStream(registrations.stream().map(Registration::stats));
+    }
+
+    @Override
+    public boolean isDetailEnabled() {
+        return ExecutorMetrics.isDetailEnabled();
+    }
+
+    @Override
+    public void setDetailEnabled(boolean enabled) {
+        ExecutorMetrics.setDetailEnabled(enabled);
+    }
+
+    @Override
+    public void reset() {
+        registrations.forEach(registration -> registration.executor().metrics().reset());
+    }
+
+    private record Registration(String name, InstrumentedExecutor executor, ObjectName objectName) {
+        ExecutorStats stats() {
+            return executor.metrics().snapshot(name, executor.queuedTaskCount());
+        }
+    }
+
+    private record Bean(String name, InstrumentedExecutor executor) implements ExecutorStatsMXBean {
+
+        private ExecutorStats stats() {
+            return executor.metrics().snapshot(name, executor.queuedTaskCount());
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getActive() {
+            return stats().active();
+        }
+
+        @Override
+        public int getQueued() {
+            return executor.queuedTaskCount();
+        }
+
+        @Override
+        public long getSubmitted() {
+            return stats().submitted();
+        }
+
+        @Override
+        public long getCompleted() {
+            return stats().completed();
+        }
+
+        @Override
+        public long getFailed() {
+            return stats().failed();
+        }
+
+        @Override
+        public long getMeanWaitMicros() {
+            return stats().wait().meanUs();
+        }
+
+        @Override
+        public long getP99WaitMicros() {
+            return stats().wait().p99Us();
+        }
+
+        @Override
+        public long getMaxWaitMicros() {
+            return stats().wait().maxUs();
+        }
+
+        @Override
+        public long getMeanRunMicros() {
+            return stats().run().meanUs();
+        }
+
+        @Override
+        public long getP99RunMicros() {
+            return stats().run().p99Us();
+        }
+
+        @Override
+        public long getMaxRunMicros() {
+            return stats().run().maxUs();
+        }
+
+        @Override
+        public String[] getTaskTypes() {
+            return stats().taskTypes().collect(taskType -> taskType.taskType()
+                    + " count=" + taskType.run().count()
+                    + " wait(mean/p99)=" + taskType.wait().meanUs() + "/" + taskType.wait().p99Us() + "µs"
+                    + " run(mean/p99)=" + taskType.run().meanUs() + "/" + taskType.run().p99Us() + "µs")
+                    .toArray(new String[0]);
+        }
+
+        @Override
+        public boolean isDetailEnabled() {
+            return ExecutorMetrics.isDetailEnabled();
+        }
+
+        @Override
+        public void setDetailEnabled(boolean enabled) {
+            ExecutorMetrics.setDetailEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            executor.metrics().reset();
+        }
+    }
+}
@@ -15,14 +15,19 @@
  */
 package dev.ikm.komet.executor;
 
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
 import dev.ikm.tinkar.common.service.*;
 import dev.ikm.tinkar.common.service.ExecutorService;
 import dev.ikm.tinkar.common.util.thread.NamedThreadFactory;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.*;
@@ -43,6 +48,12 @@
  * depth, and FIFO behavior.
  * <p>The {@link #ioThreadPool()} that this provides is a standard thread pool with 6 threads.  This executor has an unbounded queue
  * depth, and FIFO behavior.  This executor is good for jobs that tend to block on disk IO, where you don't want many running in parallel.
+ * <p>The {@link #virtualThreadPool()} that this provides runs every task on its own virtual thread. It never queues and
+ * never blocks submission, so it suits work that spends most of its time blocked on the network or the file system.
+ * Setting the system property {@code ike.executor.io.virtual} or {@code ike.executor.blocking.virtual} to {@code true}
+ * routes {@link #ioThreadPool()} or {@link #blockingThreadPool()} onto it.
+ * <p>Every executor keeps {@link ExecutorMetrics}, published through {@link #metrics()}, the
+ * {@link dev.ikm.komet.framework.concurrent.ExecutorStatsService} and JMX.
  *
  * @author <a href="mailto:daniel.armbrust.list@gmail.com">Dan Armbrust</a>
  */
@@ -51,6 +62,15 @@ public class KometExecutorProvider implements ExecutorService {
 
     private static final Logger LOG = LoggerFactory.getLogger(KometExecutorProvider.class);
 
+    /**
+     * When {@code true}, {@link #ioThreadPool()} runs its tasks on virtual threads.
+     */
+    public static final String IO_VIRTUAL_PROPERTY = "ike.executor.io.virtual";
+    /**
+     * When {@code true}, {@link #blockingThreadPool()} runs its tasks on virtual threads.
+     */
+    public static final String BLOCKING_VIRTUAL_PROPERTY = "ike.executor.blocking.virtual";
+
     private final AtomicBoolean started = new AtomicBoolean(false);
 
     /**
@@ -69,6 +89,10 @@ public class KometExecutorProvider implements ExecutorService {
      * The io thread pool executor.
      */
     private KometThreadPoolExecutor ioThreadPoolExecutor;
+    /**
+     * The virtual thread executor.
+     */
+    private KometThreadPoolExecutor virtualThreadPoolExecutor;
     /**
      * The scheduled executor.
      */
@@ -98,22 +122,35 @@ protected void start() {
         final int keepAliveTime = 60;
         final TimeUnit timeUnit = TimeUnit.SECONDS;
 
-        // The blocking executor
-        this.blockingThreadPoolExecutor = new KometThreadPoolExecutor(corePoolSize,
-                maximumPoolSize,
-                keepAliveTime,
-                timeUnit,
+        // The virtual thread executor - no queue and no thread limit, so each task that finds no idle worker
+        // starts a new virtual thread. Idle virtual threads are kept briefly for reuse; they cost almost nothing.
+        this.virtualThreadPoolExecutor = new KometThreadPoolExecutor(0,
+                Integer.MAX_VALUE,
+                1,
+                TimeUnit.SECONDS,
                 new SynchronousQueue<>(),
-                new NamedThreadFactory("Tinkar-B-work-thread", true));
-
-        this.blockingThreadPoolExecutor.setRejectedExecutionHandler((runnable, executor) -> {
-            try {
-                executor.getQueue()
-                        .offer(runnable, Long.MAX_VALUE, TimeUnit.HOURS);
-            } catch (final Exception e) {
-                throw new RejectedExecutionException("Interrupted while waiting to enqueue");
-            }
-        });
+                Thread.ofVirtual().name("Tinkar-V-work-thread-", 0).factory());
+
+        // The blocking executor
+        if (Boolean.getBoolean(BLOCKING_VIRTUAL_PROPERTY)) {
+            this.blockingThreadPoolExecutor = this.virtualThreadPoolExecutor;
+        } else {
+            this.blockingThreadPoolExecutor = new KometThreadPoolExecutor(corePoolSize,
+                    maximumPoolSize,
+                    keepAliveTime,
+                    timeUnit,
+                    new SynchronousQueue<>(),
+                    new NamedThreadFactory("Tinkar-B-work-thread", true));
+
+            this.blockingThreadPoolExecutor.setRejectedExecutionHandler((runnable, executor) -> {
+                try {
+                    executor.getQueue()
+                            .offer(runnable, Long.MAX_VALUE, TimeUnit.HOURS);
+                } catch (final Exception e) {
+                    throw new RejectedExecutionException("Interrupted while waiting to enqueue");
+                }
+            });
+        }
 
         // The non-blocking executor - set core threads equal to max - otherwise, it will never increase the thread count
         // with an unbounded queue.
@@ -128,13 +165,17 @@ protected void start() {
 
         // The IO non-blocking executor - set core threads equal to max - otherwise, it will never increase the thread count
         // with an unbounded queue.
-        this.ioThreadPoolExecutor = new KometThreadPoolExecutor(6,
-                6,
-                keepAliveTime,
-                timeUnit,
-                new LinkedBlockingQueue<>(),
-                new NamedThreadFactory("Tinkar-IO-work-thread", true));
-        this.ioThreadPoolExecutor.allowCoreThreadTimeOut(true);
+        if (Boolean.getBoolean(IO_VIRTUAL_PROPERTY)) {
+            this.ioThreadPoolExecutor = this.virtualThreadPoolExecutor;
+        } else {
+            this.ioThreadPoolExecutor = new KometThreadPoolExecutor(6,
+                    6,
+                    keepAliveTime,
+                    timeUnit,
+                    new LinkedBlockingQueue<>(),
+                    new NamedThreadFactory("Tinkar-IO-work-thread", true));
+            this.ioThreadPoolExecutor.allowCoreThreadTimeOut(true);
+        }
 
         // Execute this once, early on, in a background thread - as randomUUID uses secure random - and the initial
         // init of secure random can block on many systems that don't have enough entropy occuring.  The DB load process
@@ -143,7 +184,10 @@ protected void start() {
 
         this.scheduledExecutor = new KometScheduledExecutor(1,
                 new NamedThreadFactory("Tinkar-Scheduled-Thread", true));
-        LOG.info("WorkExecutors thread pools ready");
+        instrumentedExecutors().forEach(ExecutorStatsProvider::register);
+        LOG.info("WorkExecutors thread pools ready; io on virtual threads: {}, blocking on virtual threads: {}",
+                ioThreadPoolExecutor == virtualThreadPoolExecutor,
+                blockingThreadPoolExecutor == virtualThreadPoolExecutor);
     }
 
     /**
@@ -164,7 +208,7 @@ protected void stop() {
                 }
             }
 
-            if (this.blockingThreadPoolExecutor != null) {
+            if (this.blockingThreadPoolExecutor != null && this.blockingThreadPoolExecutor != this.virtualThreadPoolExecutor) {
                 this.blockingThreadPoolExecutor.shutdown();
                 if (this.blockingThreadPoolExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
                     LOG.info("blockingThreadPoolExecutor terminated successfully");
@@ -178,13 +222,20 @@ protected void stop() {
                 }
             }
 
-            if (this.ioThreadPoolExecutor != null) {
+            if (this.ioThreadPoolExecutor != null && this.ioThreadPoolExecutor != this.virtualThreadPoolExecutor) {
                 this.ioThreadPoolExecutor.shutdown();
                 if (this.ioThreadPoolExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
                     LOG.info("ioThreadPoolExecutor terminated successfully");
                 }
             }
 
+            if (this.virtualThreadPoolExecutor != null) {
+                this.virtualThreadPoolExecutor.shutdown();
+                if (this.virtualThreadPoolExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    LOG.info("virtualThreadPoolExecutor terminated successfully");
+                }
+            }
+
             if (this.scheduledExecutor != null) {
                 this.scheduledExecutor.shutdown();
                 if (this.scheduledExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
@@ -194,6 +245,7 @@ protected void stop() {
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
         } finally {
+            ExecutorStatsProvider.unregisterAll();
             started.set(false);
         }
         LOG.info("Stopped WorkExecutors thread pools");
@@ -249,6 +301,46 @@ public ThreadPoolExecutor ioThreadPool() {
         return this.ioThreadPoolExecutor;
     }
 
+    /**
+     * Gets the virtual thread executor.
+     *
+     * @return The Komet virtual thread {@link ThreadPoolExecutor} - (behavior described in the class docs).
+     * It never queues and never blocks submission; each task runs on a virtual thread. Good for jobs that
+     * spend most of their time blocked on the network or the file system. Not for compute intensive jobs.
+     */
+    public ThreadPoolExecutor virtualThreadPool() {
+        return this.virtualThreadPoolExecutor;
+    }
+
+    /**
+     * Gets the current metrics of the executors. A pool that {@link #ioThreadPool()} or {@link #blockingThreadPool()}
+     * shares with {@link #virtualThreadPool()} is reported once, as the virtual thread pool.
+     *
+     * @return a snapshot of the counters of each executor
+     */
+    public ImmutableList<ExecutorStats> metrics() {
+        MutableList<ExecutorStats> snapshots = Lists.mutable.empty();
+        instrumentedExecutors().forEach((name, executor) ->
+                snapshots.add(executor.metrics().snapshot(name, executor.queuedTaskCount())));
+        return snapshots.toImmutable();
+    }
+
+    private Map<String, InstrumentedExecutor> instrumentedExecutors() {
+        Map<String, InstrumentedExecutor> executors = new LinkedHashMap<>();
+        executors.put("threadPool", threadPoolExecutor);
+        if (blockingThreadPoolExecutor != virtualThreadPoolExecutor) {
+            executors.put("blockingThreadPool", blockingThreadPoolExecutor);
+        }
+        if (ioThreadPoolExecutor != virtualThreadPoolExecutor) {
+            executors.put("ioThreadPool", ioThreadPoolExecutor);
+        }
+        executors.put("virtualThreadPool", virtualThreadPoolExecutor);
+        executors.put("forkJoinPool", forkJoinExecutor);
+        executors.put("scheduled", scheduledExecutor);
+        executors.values().removeIf(Objects::isNull);
+        return executors;
+    }
+
     /**
      * Gets the scheduled thread pool executor.
      *
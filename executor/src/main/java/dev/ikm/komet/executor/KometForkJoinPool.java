@@ -15,11 +15,33 @@
  */
 package dev.ikm.komet.executor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 
-public class KometForkJoinPool extends ForkJoinPool {
+/**
+ * The Komet fork join pool. Runnables and callables submitted from outside the pool, including those
+ * passed to {@code invokeAll} and {@code invokeAny}, are timed and counted in its {@link ExecutorMetrics}.
+ * Each is adapted to a single {@link ForkJoinTask} that records the metrics as it runs; that task is both
+ * what the pool queues and the future returned to the caller, as it would be without instrumentation.
+ * {@link ForkJoinTask}s passed to {@code execute} or {@code submit}, including the subtasks they fork, run
+ * unwrapped so work stealing and joins are unaffected. A task passed to {@link #invoke(ForkJoinTask)} is
+ * counted from the calling thread, so its run time there includes any wait in the pool.
+ */
+public class KometForkJoinPool extends ForkJoinPool implements InstrumentedExecutor {
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
 
     public KometForkJoinPool() {
     }
@@ -36,4 +58,210 @@ public KometForkJoinPool(int parallelism, ForkJoinWorkerThreadFactory factory, T
         super(parallelism, factory, handler, asyncMode, corePoolSize, maximumPoolSize, minimumRunnable, saturate, keepAliveTime, unit);
     }
 
+    @Override
+    public void execute(Runnable task) {
+        if (task instanceof ForkJoinTask<?> forkJoinTask) {
+            super.execute(forkJoinTask);
+        } else {
+            super.execute(new TimedTask<>(task, Executors.callable(task, null), true));
+        }
+    }
+
+    @Override
+    public ForkJoinTask<?> submit(Runnable task) {
+        if (task instanceof ForkJoinTask<?> forkJoinTask) {
+            return super.submit(forkJoinTask);
+        }
+        return super.submit(new TimedTask<>(task, Executors.callable(task, null), false));
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Runnable task, T result) {
+        return super.submit(new TimedTask<>(task, Executors.callable(task, result), false));
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Callable<T> task) {
+        return super.submit(new TimedTask<>(task, task, false));
+    }
+
+    @Override
+    public <T> T invoke(ForkJoinTask<T> task) {
+        Objects.requireNonNull(task);
+        metrics.taskSubmitted();
+        metrics.taskStarted(task, -1);
+        boolean failed = true;
+        try {
+            T result = super.invoke(task);
+            failed = false;
+            return result;
+        } finally {
+            metrics.taskFinished(task, failed);
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+        List<TimedTask<T>> futures = submitAll(tasks);
+        try {
+            for (TimedTask<T> future : futures) {
+                future.quietlyJoin();
+            }
+            return List.copyOf(futures);
+        } catch (Throwable t) {
+            cancelAll(futures);
+            throw t;
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<TimedTask<T>> futures = submitAll(tasks);
+        try {
+            for (TimedTask<T> future : futures) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    future.get(remaining, TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | CancellationException e) {
+                    // reported through the future
+                } catch (TimeoutException e) {
+                    break;
+                }
+            }
+            return List.copyOf(futures);
+        } finally {
+            cancelAll(futures);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return super.invokeAny(timedCallables(tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return super.invokeAny(timedCallables(tasks), timeout, unit);
+    }
+
+    @Override
+    public ExecutorMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int queuedTaskCount() {
+        return (int) Math.min(Integer.MAX_VALUE, getQueuedSubmissionCount() + getQueuedTaskCount());
+    }
+
+    private <T> List<TimedTask<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+        List<TimedTask<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                TimedTask<T> future = new TimedTask<>(task, task, false);
+                futures.add(future);
+                super.execute(future);
+            }
+            return futures;
+        } catch (Throwable t) {
+            cancelAll(futures);
+            throw t;
+        }
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * {@code invokeAny} returns a result rather than futures, so its tasks are timed inside the callables
+     * the pool runs.
+     */
+    private <T> List<Callable<T>> timedCallables(Collection<? extends Callable<T>> tasks) {
+        List<Callable<T>> timed = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            Objects.requireNonNull(task);
+            metrics.taskSubmitted();
+            long submittedNanos = System.nanoTime();
+            timed.add(() -> {
+                metrics.taskStarted(task, System.nanoTime() - submittedNanos);
+                boolean failed = true;
+                try {
+                    T result = task.call();
+                    failed = false;
+                    return result;
+                } finally {
+                    metrics.taskFinished(task, failed);
+                }
+            });
+        }
+        return timed;
+    }
+
+    /**
+     * A runnable or callable submitted from outside the pool, adapted to a fork join task that records its
+     * wait and run time, as {@link ForkJoinTask#adapt} would adapt it without them.
+     */
+    private final class TimedTask<T> extends ForkJoinTask<T> {
+        private final Object source;
+        private final Callable<T> callable;
+        // report failures to the uncaught exception handler, as execute does for a plain runnable
+        private final boolean reportUncaught;
+        private final long submittedNanos = System.nanoTime();
+        private T result;
+
+        private TimedTask(Object source, Callable<T> callable, boolean reportUncaught) {
+            this.source = Objects.requireNonNull(source);
+            this.callable = callable;
+            this.reportUncaught = reportUncaught;
+            metrics.taskSubmitted();
+        }
+
+        @Override
+        public T getRawResult() {
+            return result;
+        }
+
+        @Override
+        protected void setRawResult(T value) {
+            this.result = value;
+        }
+
+        @Override
+        protected boolean exec() {
+            metrics.taskStarted(source, System.nanoTime() - submittedNanos);
+            boolean failed = true;
+            try {
+                result = callable.call();
+                failed = false;
+                return true;
+            } catch (RuntimeException | Error e) {
+                reportUncaught(e);
+                throw e;
+            } catch (Exception e) {
+                reportUncaught(e);
+                throw new RuntimeException(e);
+            } finally {
+                metrics.taskFinished(source, failed);
+            }
+        }
+
+        private void reportUncaught(Throwable e) {
+            if (reportUncaught) {
+                Thread thread = Thread.currentThread();
+                Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(thread, e);
+                }
+            }
+        }
+    }
 }
@@ -23,9 +23,15 @@
 
 import java.util.concurrent.*;
 
-public class KometScheduledExecutor extends ScheduledThreadPoolExecutor {
+/**
+ * The Komet scheduled executor. Scheduled tasks are counted in its {@link ExecutorMetrics}; their wait is
+ * measured from the time they were due to run.
+ */
+public class KometScheduledExecutor extends ScheduledThreadPoolExecutor implements InstrumentedExecutor {
     private static final Logger LOG = LoggerFactory.getLogger(KometScheduledExecutor.class);
 
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
     public KometScheduledExecutor(int corePoolSize) {
         super(corePoolSize);
     }
@@ -44,25 +50,109 @@ public KometScheduledExecutor(int corePoolSize, ThreadFactory threadFactory, Rej
 
     @Override
     protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
-        if (runnable instanceof TrackingCallable) {
-
-        }
-        return super.decorateTask(runnable, task);
+        metrics.taskSubmitted();
+        return new SourcedScheduledFuture<>(runnable, super.decorateTask(runnable, task));
     }
 
     @Override
     protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
-        if (callable instanceof TrackingCallable) {
+        metrics.taskSubmitted();
+        return new SourcedScheduledFuture<>(callable, super.decorateTask(callable, task));
+    }
 
-        }
-        return super.decorateTask(callable, task);
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        // a scheduled task waits from the time it was due, not from the time it was scheduled
+        long lateNanos = r instanceof RunnableScheduledFuture<?> future ? -future.getDelay(TimeUnit.NANOSECONDS) : 0;
+        metrics.taskStarted(source(r), Math.max(0, lateNanos));
     }
 
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         super.afterExecute(r, t);
+        metrics.taskFinished(source(r), t != null || ExecutorMetrics.failed(r));
         if (t != null) {
             AlertStreams.getRoot().dispatch(AlertObject.makeError(t));
         }
     }
+
+    @Override
+    public ExecutorMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int queuedTaskCount() {
+        return getQueue().size();
+    }
+
+    private static Object source(Runnable r) {
+        return r instanceof SourcedScheduledFuture<?> sourced ? sourced.source : r;
+    }
+
+    /**
+     * Delegates to the scheduled future built by the executor, remembering the runnable or callable it
+     * was made from so its statistics are grouped under that task's type. This is the task the executor
+     * queues, so it also removes itself from the queue when cancelled under the remove-on-cancel policy;
+     * the delegate would only look for itself.
+     */
+    private final class SourcedScheduledFuture<V> implements RunnableScheduledFuture<V> {
+        private final Object source;
+        private final RunnableScheduledFuture<V> task;
+
+        private SourcedScheduledFuture(Object source, RunnableScheduledFuture<V> task) {
+            this.source = source instanceof TrackingCallable<?> ? source.getClass() : source;
+            this.task = task;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return task.compareTo(other instanceof SourcedScheduledFuture<?> sourced ? sourced.task : other);
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = task.cancel(mayInterruptIfRunning);
+            if (cancelled && getRemoveOnCancelPolicy()) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return task.get(timeout, unit);
+        }
+    }
 }
@@ -26,9 +26,16 @@
 
 import java.util.concurrent.*;
 
-public class KometThreadPoolExecutor extends PausableThreadPoolExecutor {
+/**
+ * The thread pool behind the Komet executors. Tasks submitted as {@link TrackingCallable}s are wrapped so
+ * they appear in the task lists, uncaught failures are reported as alerts, and every pool keeps
+ * {@link ExecutorMetrics} on its tasks.
+ */
+public class KometThreadPoolExecutor extends PausableThreadPoolExecutor implements InstrumentedExecutor {
     private static final Logger LOG = LoggerFactory.getLogger(KometThreadPoolExecutor.class);
 
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
     public KometThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue) {
         super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue);
     }
@@ -50,7 +57,7 @@ protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
         if (runnable instanceof TrackingCallable trackingCallable) {
             return TaskWrapper.make(trackingCallable);
         }
-        return super.newTaskFor(runnable, value);
+        return new ExecutorMetrics.SourcedFutureTask<>(runnable, value);
     }
 
     @Override
@@ -60,12 +67,34 @@ protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
             Platform.runLater(() -> TaskListsProvider.pendingTasks.add(taskWrapper));
             return taskWrapper;
         }
-        return super.newTaskFor(callable);
+        return new ExecutorMetrics.SourcedFutureTask<>(callable);
+    }
+
+    /**
+     * Queues {@code command} itself, so {@link #remove(Runnable)}, {@link #purge()}, {@link #getQueue()} and
+     * the list returned by {@link #shutdownNow()} see the tasks callers submitted. Futures made by
+     * {@code submit} carry their submission time; a plain runnable handed to this method does not, and is
+     * counted without a wait sample.
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        metrics.taskSubmitted();
+        super.execute(command);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        metrics.taskStarted(r, ExecutorMetrics.waitedNanos(r));
     }
 
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         super.afterExecute(r, t);
+        metrics.taskFinished(r, t != null || ExecutorMetrics.failed(r));
         if (t != null) {
             try {
                 AlertStreams.getRoot().dispatch(AlertObject.makeError(t));
@@ -74,4 +103,14 @@ protected void afterExecute(Runnable r, Throwable t) {
             }
         }
     }
+
+    @Override
+    public ExecutorMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public int queuedTaskCount() {
+        return getQueue().size();
+    }
 }
@@ -14,8 +14,10 @@
  * limitations under the License.
  */
 import dev.ikm.komet.executor.AlertDialogSubscriber;
+import dev.ikm.komet.executor.ExecutorStatsProvider;
 import dev.ikm.komet.executor.KometExecutorProvider;
 import dev.ikm.komet.executor.TaskListsProvider;
+import dev.ikm.komet.framework.concurrent.ExecutorStatsService;
 import dev.ikm.komet.framework.concurrent.TaskListsService;
 import dev.ikm.tinkar.common.alert.AlertReportingService;
 import dev.ikm.tinkar.common.service.CachingService;
@@ -30,10 +32,12 @@
     provides ExecutorController with KometExecutorProvider.Controller;
     provides ServiceLifecycle with KometExecutorProvider.Controller;
     provides TaskListsService with TaskListsProvider;
+    provides ExecutorStatsService with ExecutorStatsProvider;
     requires transitive javafx.base;
     requires transitive javafx.controls;
     requires transitive javafx.graphics;
     requires transitive dev.ikm.komet.framework;
     requires transitive dev.ikm.tinkar.common;
+    requires java.management;
     uses TaskListsService;
 }
\ No newline at end of file
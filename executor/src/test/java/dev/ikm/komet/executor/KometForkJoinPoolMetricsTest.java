@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.executor;
+
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what the {@link KometForkJoinPool} and {@link KometScheduledExecutor} count, and that
+ * instrumentation leaves the tasks callers hold usable.
+ */
+public class KometForkJoinPoolMetricsTest {
+
+    @Test
+    public void countsInvokeAndInvokeAll() throws Exception {
+        KometForkJoinPool pool = new KometForkJoinPool(2);
+        try {
+            List<Callable<Integer>> tasks = List.of(() -> 1, () -> 2, () -> 3);
+            List<Future<Integer>> futures = pool.invokeAll(tasks);
+            assertEquals(3, futures.size());
+            assertEquals(6, futures.get(0).get() + futures.get(1).get() + futures.get(2).get());
+            assertEquals(2, pool.invokeAll(tasks.subList(0, 2), 10, TimeUnit.SECONDS).size());
+            assertEquals(55, pool.invoke(new Fibonacci(10)));
+
+            ExecutorStats stats = pool.metrics().snapshot("test", 0);
+            assertEquals(6, stats.submitted());
+            assertEquals(6, stats.completed());
+            assertEquals(0, stats.active());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void forkJoinTasksSubmittedAsRunnablesRunUnwrapped() throws Exception {
+        KometForkJoinPool pool = new KometForkJoinPool(2);
+        try {
+            Runnable asRunnable = new RunnableAction();
+            ForkJoinTask<?> submitted = pool.submit(asRunnable);
+            assertSame(asRunnable, submitted);
+            submitted.get(10, TimeUnit.SECONDS);
+            assertEquals(0, pool.metrics().snapshot("test", 0).submitted());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cancelledScheduledTasksLeaveTheQueue() {
+        KometScheduledExecutor executor = new KometScheduledExecutor(1);
+        try {
+            executor.setRemoveOnCancelPolicy(true);
+            ScheduledFuture<?> future = executor.schedule(() -> { }, 1, TimeUnit.HOURS);
+            assertEquals(1, executor.getQueue().size());
+            assertTrue(future.cancel(false));
+            assertEquals(0, executor.getQueue().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class RunnableAction extends RecursiveAction implements Runnable {
+        @Override
+        protected void compute() {
+        }
+
+        @Override
+        public void run() {
+            invoke();
+        }
+    }
+
+    private static final class Fibonacci extends RecursiveTask<Integer> {
+        private final int n;
+
+        private Fibonacci(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (n <= 1) {
+                return n;
+            }
+            Fibonacci first = new Fibonacci(n - 1);
+            first.fork();
+            return new Fibonacci(n - 2).compute() + first.join();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.executor;
+
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the counters a {@link KometThreadPoolExecutor} keeps, on a platform pool with a queue and on
+ * the unqueued virtual thread configuration used by {@link KometExecutorProvider#virtualThreadPool()}.
+ */
+public class KometThreadPoolExecutorMetricsTest {
+
+    @Test
+    public void countsQueuedActiveAndCompletedTasks() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch running = new CountDownLatch(1);
+            executor.execute(() -> {
+                running.countDown();
+                awaitQuietly(release);
+            });
+            Future<?> queued = executor.submit(() -> { });
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            ExecutorStats busy = executor.metrics().snapshot("test", executor.getQueue().size());
+            assertEquals(1, busy.active());
+            assertEquals(1, busy.queued());
+            assertEquals(2, busy.submitted());
+
+            release.countDown();
+            queued.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            ExecutorStats idle = executor.metrics().snapshot("test", executor.getQueue().size());
+            assertEquals(0, idle.active());
+            assertEquals(0, idle.queued());
+            assertEquals(2, idle.completed());
+            assertEquals(0, idle.failed());
+            assertTrue(idle.wait().maxUs() >= idle.wait().meanUs());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void virtualThreadsRunBlockedTasksWithoutQueueing() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(0, Integer.MAX_VALUE, 1, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), Thread.ofVirtual().name("test-virtual-", 0).factory());
+        try {
+            int taskCount = 500;
+            CountDownLatch allRunning = new CountDownLatch(taskCount);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < taskCount; i++) {
+                executor.execute(() -> {
+                    assertTrue(Thread.currentThread().isVirtual());
+                    allRunning.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            assertTrue(allRunning.await(10, TimeUnit.SECONDS), "every blocked task should have its own thread");
+            assertEquals(taskCount, executor.metrics().snapshot("virtual", 0).active());
+            release.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(500, executor.metrics().snapshot("virtual", 0).completed());
+    }
+
+    @Test
+    public void countsFailedFutures() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        try {
+            Future<?> failing = executor.submit(() -> {
+                throw new IllegalStateException("expected");
+            });
+            assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(1, executor.metrics().snapshot("test", 0).failed());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void detailedRecordingGroupsLatenciesByTaskType() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(2, 2, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        boolean wasEnabled = ExecutorMetrics.isDetailEnabled();
+        ExecutorMetrics.setDetailEnabled(true);
+        try {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(new SleepingTask()).get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            ExecutorStats stats = executor.metrics().snapshot("test", 0);
+            assertEquals(10, stats.run().count());
+            assertTrue(stats.run().p50Us() >= 1_000, "tasks sleep for at least a millisecond");
+            ExecutorStats.TaskTypeStats taskType = stats.taskTypes().getOnly();
+            assertEquals(SleepingTask.class.getName(), taskType.taskType());
+            assertEquals(10, taskType.wait().count());
+        } finally {
+            ExecutorMetrics.setDetailEnabled(wasEnabled);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queueHoldsTheSubmittedTasks() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch running = new CountDownLatch(1);
+            executor.execute(() -> {
+                running.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            Runnable removed = () -> { };
+            Runnable kept = () -> { };
+            executor.execute(removed);
+            executor.execute(kept);
+            Future<?> cancelled = executor.submit(() -> { });
+            assertEquals(3, executor.getQueue().size());
+            assertTrue(executor.getQueue().contains(kept));
+
+            assertTrue(executor.remove(removed));
+            cancelled.cancel(false);
+            executor.purge();
+            assertEquals(List.of(kept), List.copyOf(executor.getQueue()));
+
+            assertEquals(List.of(kept), executor.shutdownNow());
+            release.countDown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void submittedFuturesRecordTheirWait() throws Exception {
+        KometThreadPoolExecutor executor = new KometThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        try {
+            executor.execute(() -> { });
+            executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            ExecutorStats stats = executor.metrics().snapshot("test", 0);
+            assertEquals(2, stats.completed());
+            // only the future carries a submission time
+            assertEquals(1, stats.wait().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class SleepingTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+
+/**
+ * The file behind {@link EditedConceptTracker}: the nids of changes the reasoner has not yet classified,
+ * stored as a sequence of big-endian ints.
+ * <p>
+ * New nids are appended in batches. Because a nid may be appended many times before it is classified,
+ * the file is rewritten with just the pending nids once it holds more than twice as many records as
+ * there are pending nids (and at least {@link #MIN_COMPACTION_RECORDS}), which keeps its size
+ * proportional to the pending work rather than to the number of edits. Rewrites go through a temporary
+ * file, so a crash leaves either the old or the new journal. A torn final record is dropped on recovery.
+ * <p>
+ * Not thread safe; the tracker calls it while holding its lock.
+ */
+final class EditJournal {
+
+	static final int MIN_COMPACTION_RECORDS = 4096;
+
+	private final Path file;
+	// Records currently in the file, including duplicates
+	private int recordCount = 0;
+
+	EditJournal(Path file) {
+		this.file = file;
+	}
+
+	Path file() {
+		return file;
+	}
+
+	int recordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Reads the journal left by a previous session.
+	 *
+	 * @return the distinct nids in the journal, empty if there is no journal
+	 */
+	MutableIntSet recover() throws IOException {
+		MutableIntSet nids = new IntHashSet();
+		recordCount = 0;
+		if (!Files.exists(file)) {
+			return nids;
+		}
+		try (InputStream in = Files.newInputStream(file);
+			 DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+			while (true) {
+				nids.add(data.readInt());
+				recordCount++;
+			}
+		} catch (EOFException e) {
+			// end of journal
+		}
+		long wholeRecords = (long) recordCount * Integer.BYTES;
+		if (Files.size(file) != wholeRecords) {
+			// drop the torn final record so later appends stay aligned
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.truncate(wholeRecords);
+			}
+		}
+		return nids;
+	}
+
+	void append(IntIterable nids) throws IOException {
+		if (nids.isEmpty()) {
+			return;
+		}
+		write(nids, Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+		recordCount += nids.size();
+	}
+
+	/**
+	 * Replaces the journal with exactly {@code nids}, deleting it when there are none.
+	 */
+	void rewrite(IntIterable nids) throws IOException {
+		if (nids.isEmpty()) {
+			Files.deleteIfExists(file);
+			recordCount = 0;
+			return;
+		}
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		write(nids, Files.newOutputStream(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		recordCount = nids.size();
+	}
+
+	/**
+	 * @return {@code true} if the journal has grown enough beyond {@code pendingCount} to be worth rewriting
+	 */
+	boolean needsCompaction(int pendingCount) {
+		return recordCount > Math.max(MIN_COMPACTION_RECORDS, 2L * pendingCount);
+	}
+
+	private static void write(IntIterable nids, OutputStream out) throws IOException {
+		try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+			for (int nid : nids.toArray()) {
+				data.writeInt(nid);
+			}
+		}
+	}
+}
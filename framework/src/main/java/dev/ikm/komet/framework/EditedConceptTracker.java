@@ -15,12 +15,24 @@
  */
 package dev.ikm.komet.framework;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.common.service.TinkExecutor;
 import dev.ikm.tinkar.entity.ConceptEntity;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,31 +42,65 @@
 import dev.ikm.tinkar.entity.SemanticEntity;
 import dev.ikm.tinkar.entity.SemanticEntityVersion;
 import dev.ikm.tinkar.coordinate.stamp.calculator.Latest;
-import dev.ikm.tinkar.common.sets.ConcurrentHashSet;
 
+/**
+ * Tracks the stated axiom edits that the incremental reasoner has not yet processed.
+ * <p>
+ * Entity change notifications are recorded as nids in a primitive set; the subscriber does no
+ * entity or text resolution, so bulk edits and imports cost little more than a set insert per
+ * change. {@link #addEditsFromChanges(ViewCalculator)} later turns the pending nids into the latest
+ * stated axiom versions, keyed by referenced concept.
+ * <p>
+ * Pending nids are also appended, in batches, to a journal file ({@value #JOURNAL_FILE_NAME}) in the
+ * data store root, so edits made before a restart are not lost. A reasoner run takes the pending edits
+ * with {@link #takePendingEdits()} before it loads anything; edits made while it runs stay pending. The
+ * taken nids are removed from the journal only by {@link #commitTakenEdits()}, once the run has
+ * classified them, and are returned to the pending set by {@link #restoreTakenEdits(PendingEdits)} if
+ * it fails.
+ * <p>
+ * The reasoner's own state lives only in memory, so after a restart it is not incrementally ready and
+ * the first run is a full one. That run recovers the journal, loads the data store — which holds every
+ * journaled edit — and then commits the recovered nids, leaving the reasoner ready for the edits that
+ * follow. Nothing made before the restart is dropped without having been classified.
+ * <p>
+ * Writing a run's inferred and necessary normal form semantics dispatches a change for each of them,
+ * hundreds of thousands on a large terminology. A run brackets its writes with
+ * {@link #beginResultWrites()} and {@link #endResultWrites(ResultWrites)}, which discards the changes
+ * recorded in between so they are neither journaled nor resolved by the next incremental run. Edits
+ * recorded through {@link #addEdit(SemanticEntityVersion)} in that time are kept.
+ */
 public class EditedConceptTracker {
 
 	private static final Logger LOG = LoggerFactory.getLogger(EditedConceptTracker.class);
 
-	// Use ConcurrentHashMap to store edits keyed by referencedComponentNid
-	private static final ConcurrentHashMap<Integer, SemanticEntityVersion> edits = new ConcurrentHashMap<>();
-	private static final ConcurrentHashSet<Integer> changedEntityNids = new ConcurrentHashSet<>();
+	public static final String JOURNAL_FILE_NAME = "edited-concepts.journal";
+
+	/**
+	 * Delay between a change and the batched journal append that records it.
+	 */
+	private static final long JOURNAL_FLUSH_DELAY_MS = 1_000;
+
+	private static final Object lock = new Object();
+	// Edits keyed by referencedComponentNid; guarded by lock
+	private static final MutableIntObjectMap<SemanticEntityVersion> edits = new IntObjectHashMap<>();
+	// Changed nids not yet processed; guarded by lock
+	private static final MutableIntSet changedEntityNids = new IntHashSet();
+	// Nids taken by a reasoner run that has not yet committed them; guarded by lock
+	private static final MutableIntSet takenNids = new IntHashSet();
+	// Changed nids not yet appended to the journal; guarded by lock
+	private static MutableIntSet unjournaledNids = new IntHashSet();
+	private static boolean journalFlushScheduled = false;
+	// Journal of the data store root it was recovered from; guarded by lock
+	private static EditJournal journal = null;
+	private static File journalRoot = null;
 	private static final AtomicBoolean subscribed = new AtomicBoolean(false);
-	
+
 	// Store subscriber as a strong reference to prevent GC - must be after changedEntityNids
 	private static final Subscriber<Integer> subscriber = nid -> {
 		if (nid == Integer.MIN_VALUE) {
 			return; // Sentinel from endLoadPhase — not a real entity
 		}
-		changedEntityNids.add(nid);
-		if (LOG.isDebugEnabled()) {
-			Entity entity = Entity.getFast(nid);
-			if (entity != null) {
-				LOG.debug("Entity changed: nid={}, type={}", nid, entity.getClass().getSimpleName());
-			} else {
-				LOG.debug("Entity changed: nid={}, type=unknown (entity not found)", nid);
-			}
-		}
+		changed(nid);
 	};
 
 	// Static initializer to subscribe as soon as class loads
@@ -72,8 +118,13 @@ public static void initialize() {
 		LOG.info("EditedConceptTracker initialized, subscription active: {}", subscribed.get());
 	}
 
+	/**
+	 * @return a snapshot of the tracked edits
+	 */
 	public static Collection<SemanticEntityVersion> getEdits() {
-		return edits.values();
+		synchronized (lock) {
+			return List.copyOf(edits.values());
+		}
 	}
 
 	public static void ensureSubscribed() {
@@ -86,113 +137,347 @@ public static void ensureSubscribed() {
 		}
 	}
 
+	private static void changed(int nid) {
+		boolean scheduleFlush;
+		synchronized (lock) {
+			changedEntityNids.add(nid);
+			scheduleFlush = queueJournalLocked(nid);
+		}
+		if (scheduleFlush) {
+			scheduleJournalFlush();
+		}
+	}
+
+	/**
+	 * Queues {@code nid} for the next journal append.
+	 *
+	 * @return {@code true} if the caller must schedule the flush
+	 */
+	private static boolean queueJournalLocked(int nid) {
+		unjournaledNids.add(nid);
+		boolean scheduleFlush = !journalFlushScheduled;
+		journalFlushScheduled = true;
+		return scheduleFlush;
+	}
+
+	private static void scheduleJournalFlush() {
+		TinkExecutor.scheduled().schedule(EditedConceptTracker::flushJournal, JOURNAL_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+	}
+
 	public static void addEditsFromChanges(ViewCalculator viewCalculator) {
-		int statedPatternNid = viewCalculator.logicCoordinateRecord().statedAxiomsPatternNid();
-		int changeCount = changedEntityNids.size();
-		
-		LOG.info("=== PROCESSING CHANGES ===");
-		LOG.info("Subscription active: {}", subscribed.get());
-		LOG.info("Total changed entities to process: {}", changeCount);
-		LOG.info("Total edits already tracked: {}", edits.size());
-		LOG.info("Stated axioms pattern NID: {} ({})", statedPatternNid, PrimitiveData.text(statedPatternNid));
-		
-		if (changeCount == 0) {
+		recoverJournal();
+
+		int[] changedNids;
+		int editCount;
+		synchronized (lock) {
+			changedNids = changedEntityNids.toArray();
+			changedEntityNids.clear();
+			editCount = edits.size();
+		}
+
+		LOG.info("Processing {} changed entities; {} edits already tracked; subscription active: {}",
+				changedNids.length, editCount, subscribed.get());
+		if (changedNids.length == 0) {
 			LOG.warn("*** NO CHANGES CAPTURED - either no edits were made, or subscription happened after changes ***");
 		}
-		
+
+		Resolution resolution = resolveStatedAxioms(changedNids, viewCalculator, EditedConceptTracker::addEdit);
+
+		synchronized (lock) {
+			editCount = edits.size();
+			// changes that resolved to no stated axiom edit are no longer pending
+			compactJournalLocked();
+		}
+		LOG.info("Processed {} direct semantics, {} concept semantics, skipped {} others; {} edits in tracker",
+				resolution.semantics(), resolution.conceptSemantics(), resolution.skipped(), editCount);
+	}
+
+	/**
+	 * Resolves changed nids to the latest stated axiom versions they affect, as
+	 * {@link #addEditsFromChanges(ViewCalculator)} does, without recording them as tracked edits — for a
+	 * caller that keeps its own record of what a particular reasoner has not yet seen.
+	 *
+	 * @param nids           the changed entity nids
+	 * @param viewCalculator the calculator whose logic coordinate names the stated axiom pattern
+	 * @return the latest stated axiom version for each affected concept
+	 */
+	public static Collection<SemanticEntityVersion> statedAxiomEdits(int[] nids, ViewCalculator viewCalculator) {
+		MutableIntObjectMap<SemanticEntityVersion> found = new IntObjectHashMap<>();
+		resolveStatedAxioms(nids, viewCalculator, edit -> found.put(edit.referencedComponentNid(), edit));
+		return List.copyOf(found.values());
+	}
+
+	private static Resolution resolveStatedAxioms(int[] changedNids, ViewCalculator viewCalculator,
+												  Consumer<SemanticEntityVersion> editConsumer) {
+		int statedPatternNid = viewCalculator.logicCoordinateRecord().statedAxiomsPatternNid();
 		int processedSemanticCount = 0;
 		int processedConceptCount = 0;
 		int skippedCount = 0;
-		
-		for (Integer nid : changedEntityNids.toArray(new Integer[0])) {
+
+		for (int nid : changedNids) {
 			try {
 				Entity entity = Entity.getFast(nid);
 				if (entity == null) {
-					LOG.info("  -> Skipped nid={}: entity not found in data store", nid);
+					LOG.debug("  -> Skipped nid={}: entity not found in data store", nid);
 					skippedCount++;
-					changedEntityNids.remove(nid);
-					continue;
 				}
-				String entityType = entity.getClass().getSimpleName();
-
-				LOG.info("Processing entity: nid={}, type={}, text='{}'", nid, entityType, PrimitiveData.text(nid));
-
 				// Case 1: The NID is directly a semantic with the stated pattern
-				if (entity instanceof SemanticEntity<?> semantic && semantic.patternNid() == statedPatternNid) {
-					LOG.info("  -> Found SEMANTIC with stated pattern: nid={}, referencedComponentNid={} ({})",
-							nid, semantic.referencedComponentNid(), PrimitiveData.text(semantic.referencedComponentNid()));
-
+				else if (entity instanceof SemanticEntity<?> semantic && semantic.patternNid() == statedPatternNid) {
 					Latest<SemanticEntityVersion> latestSemantic = viewCalculator.latest(semantic.nid());
 					if (latestSemantic.isPresent()) {
-						latestSemantic.ifPresent(version -> {
-							addEdit(version);
-							LOG.info("     Added edit for semantic version");
-						});
+						latestSemantic.ifPresent(editConsumer);
 						processedSemanticCount++;
 					} else {
-						LOG.warn("     No latest version found for semantic nid={}", nid);
+						LOG.warn("No latest version found for semantic nid={}", nid);
 					}
 				}
 				// Case 2: The NID is a concept - find its stated axiom semantics
 				else if (entity instanceof ConceptEntity<?>) {
-					LOG.info("  -> Found CONCEPT: nid={}, searching for stated axiom semantics", nid);
-
 					int[] semanticNids = PrimitiveData.get().semanticNidsForComponentOfPattern(nid, statedPatternNid);
-					LOG.info("     Found {} semantic(s) with stated pattern for concept", semanticNids.length);
-
 					for (int semanticNid : semanticNids) {
 						Entity semanticEntity = Entity.getFast(semanticNid);
 						if (semanticEntity instanceof SemanticEntity<?> semantic) {
 							Latest<SemanticEntityVersion> latestSemantic = viewCalculator.latest(semantic.nid());
 							if (latestSemantic.isPresent()) {
-								latestSemantic.ifPresent(version -> {
-									addEdit(version);
-									LOG.info("     Added edit for concept's semantic nid={}", semanticNid);
-								});
+								latestSemantic.ifPresent(editConsumer);
 								processedConceptCount++;
 							} else {
-								LOG.warn("     No latest version for semantic nid={}", semanticNid);
+								LOG.warn("No latest version for semantic nid={}", semanticNid);
 							}
 						}
 					}
 				} else {
-					LOG.debug("  -> Skipped entity (not concept or stated semantic): type={}", entityType);
 					skippedCount++;
 				}
 			} catch (Exception e) {
 				LOG.error("Error processing changed entity nid={}: {}", nid, e.getMessage(), e);
 				skippedCount++;
 			}
-
-			changedEntityNids.remove(nid);
 		}
-		
-		LOG.info("=== PROCESSING COMPLETE ===");
-		LOG.info("Processed {} direct semantics, {} concept semantics, skipped {} others", 
-				processedSemanticCount, processedConceptCount, skippedCount);
-		LOG.info("Total edits in tracker: {}", edits.size());
-		LOG.info("===========================");
+
+		return new Resolution(processedSemanticCount, processedConceptCount, skippedCount);
+	}
+
+	private record Resolution(int semantics, int conceptSemantics, int skipped) {
 	}
 
 	public static void addEdit(SemanticEntityVersion edit) {
-		// ConcurrentHashMap automatically handles replacement
-		Integer key = edit.referencedComponentNid();
-		SemanticEntityVersion previous = edits.put(key, edit);
-		if (previous != null) {
-			LOG.debug("Replaced existing edit for referencedComponentNid={} ({})", 
-					key, PrimitiveData.text(key));
-		} else {
-			LOG.info("Added NEW edit for referencedComponentNid={} ({})", 
-					key, PrimitiveData.text(key));
+		int key = edit.referencedComponentNid();
+		SemanticEntityVersion previous;
+		boolean scheduleFlush;
+		synchronized (lock) {
+			previous = edits.put(key, edit);
+			// journal the concept so the edit is re-derived after a restart
+			changedEntityNids.remove(key);
+			scheduleFlush = queueJournalLocked(key);
+		}
+		if (scheduleFlush) {
+			scheduleJournalFlush();
+		}
+		if (LOG.isTraceEnabled()) {
+			LOG.trace("{} edit for referencedComponentNid={} ({})",
+					previous == null ? "Added NEW" : "Replaced existing", key, PrimitiveData.text(key));
+		}
+	}
+
+	/**
+	 * The edits a reasoner run has taken from the tracker.
+	 *
+	 * @param edits the tracked stated axiom edits, for an incremental run
+	 * @param nids  every pending nid taken, including changes not yet resolved to edits
+	 */
+	public record PendingEdits(Collection<SemanticEntityVersion> edits, int[] nids) {
+	}
+
+	/**
+	 * Takes every pending edit and change, including those recovered from the journal, for a reasoner
+	 * run that is about to load them. Changes made after this call stay pending for the next run. The
+	 * taken nids remain in the journal until {@link #commitTakenEdits()}.
+	 */
+	public static PendingEdits takePendingEdits() {
+		recoverJournal();
+		synchronized (lock) {
+			MutableIntSet nids = IntHashSet.newSet(edits.keySet());
+			nids.addAll(changedEntityNids);
+			PendingEdits pending = new PendingEdits(List.copyOf(edits.values()), nids.toArray());
+			takenNids.addAll(nids);
+			edits.clear();
+			changedEntityNids.clear();
+			LOG.info("Reasoner run took {} edits and {} pending changes", pending.edits().size(), pending.nids().length);
+			return pending;
 		}
 	}
 
+	/**
+	 * Records that the run which called {@link #takePendingEdits()} has classified what it took, and
+	 * removes those nids from the journal.
+	 */
+	public static void commitTakenEdits() {
+		synchronized (lock) {
+			int taken = takenNids.size();
+			takenNids.clear();
+			rewriteJournalLocked();
+			LOG.info("Committed {} classified changes; {} edits and {} changes still pending",
+					taken, edits.size(), changedEntityNids.size());
+		}
+	}
+
+	/**
+	 * Returns edits taken by a reasoner run that did not complete to the pending set. An edit made to the
+	 * same concept since they were taken is kept in preference to the taken one.
+	 */
+	public static void restoreTakenEdits(PendingEdits pending) {
+		synchronized (lock) {
+			for (SemanticEntityVersion edit : pending.edits()) {
+				edits.getIfAbsentPut(edit.referencedComponentNid(), edit);
+			}
+			for (int nid : pending.nids()) {
+				if (!edits.containsKey(nid)) {
+					changedEntityNids.add(nid);
+				}
+			}
+			takenNids.removeAll(pending.nids());
+			LOG.info("Restored {} edits and {} changes after an incomplete reasoner run",
+					pending.edits().size(), pending.nids().length);
+		}
+	}
+
+	/**
+	 * The changes pending when a reasoner run began writing its results.
+	 *
+	 * @param pendingNids changes not yet resolved to edits
+	 */
+	public record ResultWrites(int[] pendingNids) {
+	}
+
+	/**
+	 * Marks the start of a reasoner run writing its inferred results. Call
+	 * {@link #endResultWrites(ResultWrites)} with the returned value once the writes are done.
+	 */
+	public static ResultWrites beginResultWrites() {
+		synchronized (lock) {
+			return new ResultWrites(changedEntityNids.toArray());
+		}
+	}
+
+	/**
+	 * Discards the changes recorded since {@link #beginResultWrites()}, which are the run's own inferred
+	 * semantics, and removes them from the journal. Pending changes from before the writes, and edits
+	 * added with {@link #addEdit(SemanticEntityVersion)} since, are kept.
+	 */
+	public static void endResultWrites(ResultWrites before) {
+		int discarded;
+		synchronized (lock) {
+			discarded = changedEntityNids.size() - before.pendingNids().length;
+			changedEntityNids.clear();
+			changedEntityNids.addAll(before.pendingNids());
+			MutableIntSet retained = IntHashSet.newSet(edits.keySet());
+			retained.addAll(changedEntityNids);
+			retained.addAll(takenNids);
+			unjournaledNids.retainAll(retained);
+			rewriteJournalLocked();
+		}
+		LOG.info("Discarded {} changes written by the reasoner", Math.max(discarded, 0));
+	}
+
 	public static void removeEdits() {
-		int editCount = edits.size();
-		int pendingCount = changedEntityNids.size();
-		edits.clear();
-		changedEntityNids.clear();
+		int editCount;
+		int pendingCount;
+		synchronized (lock) {
+			editCount = edits.size();
+			pendingCount = changedEntityNids.size();
+			edits.clear();
+			changedEntityNids.clear();
+			takenNids.clear();
+			unjournaledNids = new IntHashSet();
+			rewriteJournalLocked();
+		}
 		LOG.info("Cleared {} edits and {} pending changes", editCount, pendingCount);
 	}
 
+	/**
+	 * Appends the nids changed since the last flush to the journal, or rewrites the journal when the
+	 * appends have made it much larger than the pending set.
+	 */
+	private static void flushJournal() {
+		synchronized (lock) {
+			journalFlushScheduled = false;
+			if (unjournaledNids.isEmpty()) {
+				return;
+			}
+			EditJournal current = journal();
+			if (current == null) {
+				// no data store open yet; keep the nids until one is
+				return;
+			}
+			try {
+				current.append(unjournaledNids);
+				unjournaledNids = new IntHashSet();
+			} catch (IOException e) {
+				LOG.error("Unable to append to edit journal " + current.file(), e);
+			}
+			compactJournalLocked();
+		}
+	}
+
+	private static void compactJournalLocked() {
+		if (journal != null && journal.needsCompaction(edits.size() + changedEntityNids.size() + takenNids.size())) {
+			rewriteJournalLocked();
+		}
+	}
+
+	/**
+	 * Replaces the journal with the nids that are still pending or taken but not committed.
+	 */
+	private static void rewriteJournalLocked() {
+		EditJournal current = journal();
+		if (current == null) {
+			return;
+		}
+		MutableIntSet retained = IntHashSet.newSet(edits.keySet());
+		retained.addAll(changedEntityNids);
+		retained.addAll(takenNids);
+		try {
+			current.rewrite(retained);
+			unjournaledNids = new IntHashSet();
+		} catch (IOException e) {
+			LOG.error("Unable to rewrite edit journal " + current.file(), e);
+		}
+	}
+
+	/**
+	 * Loads the nids journaled for the current data store, once per data store root.
+	 */
+	private static void recoverJournal() {
+		synchronized (lock) {
+			journal();
+		}
+	}
+
+	/**
+	 * Called with the lock held.
+	 *
+	 * @return the journal for the open data store, recovering its pending nids the first time it is
+	 * opened, or {@code null} if no data store is open
+	 */
+	private static EditJournal journal() {
+		Optional<File> root = ServiceProperties.get(ServiceKeys.DATA_STORE_ROOT);
+		if (root.isEmpty()) {
+			return null;
+		}
+		if (root.get().equals(journalRoot)) {
+			return journal;
+		}
+		journalRoot = root.get();
+		journal = new EditJournal(root.get().toPath().resolve(JOURNAL_FILE_NAME));
+		try {
+			MutableIntSet recovered = journal.recover();
+			changedEntityNids.addAll(recovered);
+			LOG.info("Recovered {} pending changes from edit journal {}", recovered.size(), journal.file());
+		} catch (IOException e) {
+			LOG.error("Unable to read edit journal " + journal.file(), e);
+		}
+		return journal;
+	}
+
 }
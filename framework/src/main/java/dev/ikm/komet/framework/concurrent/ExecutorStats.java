@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.concurrent;
+
+import org.eclipse.collections.api.list.ImmutableList;
+
+/**
+ * Point-in-time view of one executor's counters and latencies, as published by {@link ExecutorStatsService}.
+ * The counts are always kept; the latency histograms are only filled while detailed recording is enabled.
+ *
+ * @param name      the executor name
+ * @param active    tasks currently running
+ * @param queued    tasks waiting for a thread
+ * @param submitted tasks submitted since startup or the last reset
+ * @param completed tasks finished, successfully or not
+ * @param failed    tasks that finished by throwing
+ * @param wait      time between submission, or the scheduled time, and the start of execution
+ * @param run       execution time
+ * @param taskTypes latencies per task type, slowest total run time first
+ */
+public record ExecutorStats(String name, int active, int queued, long submitted, long completed, long failed,
+                            LatencyHistogram.Summary wait, LatencyHistogram.Summary run,
+                            ImmutableList<TaskTypeStats> taskTypes) {
+
+    /**
+     * Latencies of one kind of task: the {@code TrackingCallable} subclass, or the class of a plain task.
+     *
+     * @param taskType the task class name
+     * @param wait     time between submission and the start of execution
+     * @param run      execution time
+     */
+    public record TaskTypeStats(String taskType, LatencyHistogram.Summary wait, LatencyHistogram.Summary run) {
+    }
+}
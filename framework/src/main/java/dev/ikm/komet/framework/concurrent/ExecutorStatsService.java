@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.concurrent;
+
+import dev.ikm.tinkar.common.service.PluggableService;
+import org.eclipse.collections.api.list.ImmutableList;
+
+import java.util.Optional;
+
+/**
+ * Publishes queue depth, task counts and task latencies of the application executors.
+ * <p>
+ * Counts are always maintained. Wait and run time histograms, overall and per task type, are only
+ * recorded while {@link #isDetailEnabled() detailed recording} is on, so the executors pay for a
+ * couple of clock reads per task only when someone is looking.
+ */
+public interface ExecutorStatsService {
+
+    /**
+     * @return the service provided by the executor module, if one is present
+     */
+    static Optional<ExecutorStatsService> find() {
+        return PluggableService.load(ExecutorStatsService.class).findFirst();
+    }
+
+    ImmutableList<ExecutorStats> stats();
+
+    boolean isDetailEnabled();
+
+    void setDetailEnabled(boolean enabled);
+
+    /**
+     * Clears all counters and histograms.
+     */
+    void reset();
+}
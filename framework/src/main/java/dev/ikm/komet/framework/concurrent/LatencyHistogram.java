@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two microsecond buckets. Recording is a handful of atomic
+ * adds, so it can sit on the task execution path; percentiles are reported as the upper bound of the
+ * bucket they fall in, which is accurate to within a factor of two.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos the latency to record, in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * @return the count, mean, 50th, 90th and 99th percentiles and maximum recorded so far
+     */
+    public Summary summary() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long maxUs = TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+        if (count == 0) {
+            return Summary.EMPTY;
+        }
+        long meanUs = TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count);
+        return new Summary(count, meanUs,
+                percentile(snapshot, count, 0.50, maxUs),
+                percentile(snapshot, count, 0.90, maxUs),
+                percentile(snapshot, count, 0.99, maxUs),
+                maxUs);
+    }
+
+    private static long percentile(long[] snapshot, long count, double fraction, long maxUs) {
+        long rank = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 1 : 1L << i;
+                return Math.min(upperBound, maxUs);
+            }
+        }
+        return maxUs;
+    }
+
+    /**
+     * Latencies in microseconds.
+     *
+     * @param count  the number of recorded latencies
+     * @param meanUs the mean latency
+     * @param p50Us  the median latency
+     * @param p90Us  the 90th percentile latency
+     * @param p99Us  the 99th percentile latency
+     * @param maxUs  the largest latency
+     */
+    public record Summary(long count, long meanUs, long p50Us, long p90Us, long p99Us, long maxUs) {
+        public static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0);
+    }
+}
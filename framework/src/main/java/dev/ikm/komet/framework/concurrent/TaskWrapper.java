@@ -27,6 +27,7 @@
     private static int maxCompletedTaskListSize = 200;
     private final TrackingCallable<V> trackingCallable;
     private final Consumer<V> appThreadConsumer;
+    private final long createdNanos = System.nanoTime();
 
     /**
      * JavaFX implementation of UiThreadExecutor
@@ -73,6 +74,21 @@ public static <V> TaskWrapper<V> make(TrackingCallable<V> trackingCallable, Cons
         return new TaskWrapper<>(trackingCallable, appThreadConsumer);
     }
 
+    /**
+     * @return the class of the wrapped callable, used to group task statistics
+     */
+    public Class<?> taskType() {
+        return trackingCallable.getClass();
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which this wrapper was made, used to measure how long it
+     * waited in an executor's queue
+     */
+    public long createdNanos() {
+        return createdNanos;
+    }
+
     @Override
     protected V call() throws Exception {
         V result = trackingCallable.call();
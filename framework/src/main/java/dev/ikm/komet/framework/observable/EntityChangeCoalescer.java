@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.observable;
+
+import javafx.application.Platform;
+import org.eclipse.collections.api.iterator.MutableIntIterator;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Coalesces entity change notifications arriving off the JavaFX application thread and applies them
+ * to the canonical {@link ObservableEntity} instances in bounded batches.
+ * <p>
+ * The entity provider publishes one notification per changed nid. Posting one
+ * {@link Platform#runLater(Runnable)} per nid queues hundreds of thousands of runnables during an
+ * import or a large commit and starves rendering for minutes. Instead, dirty nids accumulate in a
+ * primitive set, so repeated changes to the same nid collapse into one refresh, and a single flush
+ * runnable drains at most {@link #flushBudget()} nids per turn of the FX event queue, re-posting
+ * itself while work remains so layout and rendering pulses interleave with the refreshes.
+ * <p>
+ * Notifications delivered on the FX thread itself are applied immediately, preserving the synchronous
+ * behavior callers on that thread rely on. Nids whose canonical instance has been collected by the
+ * time of the flush are dropped without being read from the store. A refresh that throws a runtime
+ * exception is logged and counted as dropped; one that throws an error ends the flush, but the rest
+ * of its batch is queued again and flushing carries on in the next turn.
+ * <p>
+ * The default budget is {@value #DEFAULT_FLUSH_BUDGET} nids; override it with the system property
+ * {@code ike.observable.change.flush.budget} or at runtime with {@link #setFlushBudget(int)}.
+ */
+public final class EntityChangeCoalescer {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityChangeCoalescer.class);
+
+    public static final int DEFAULT_FLUSH_BUDGET = 500;
+
+    private final IntPredicate isCanonical;
+    private final IntConsumer refresher;
+    private final Object lock = new Object();
+
+    private MutableIntSet pending = new IntHashSet();
+    private boolean flushScheduled = false;
+    private volatile int flushBudget = Integer.getInteger("ike.observable.change.flush.budget", DEFAULT_FLUSH_BUDGET);
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * @param isCanonical tests whether a canonical instance still exists for a nid
+     * @param refresher   refreshes the canonical instance for a nid; called on the FX thread
+     */
+    EntityChangeCoalescer(IntPredicate isCanonical, IntConsumer refresher) {
+        this.isCanonical = isCanonical;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Records that the entity for {@code nid} changed. Safe to call from any thread.
+     */
+    void entityChanged(int nid) {
+        if (!isCanonical.test(nid)) {
+            return;
+        }
+        queued.increment();
+        if (Platform.isFxApplicationThread()) {
+            refresh(nid);
+            return;
+        }
+        boolean schedule;
+        synchronized (lock) {
+            if (!pending.add(nid)) {
+                coalesced.increment();
+            }
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushes.increment();
+        int budget = flushBudget;
+        int[] batch;
+        synchronized (lock) {
+            if (pending.size() <= budget) {
+                batch = pending.toArray();
+                pending = new IntHashSet();
+            } else {
+                batch = new int[budget];
+                MutableIntIterator iterator = pending.intIterator();
+                for (int i = 0; i < budget; i++) {
+                    batch[i] = iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        int refreshed = 0;
+        try {
+            for (; refreshed < batch.length; refreshed++) {
+                refresh(batch[refreshed]);
+            }
+        } finally {
+            // Runs even if a refresh throws an Error, so flushing does not stop for good with the flag set
+            boolean more;
+            synchronized (lock) {
+                for (int i = refreshed + 1; i < batch.length; i++) {
+                    pending.add(batch[i]);
+                }
+                more = pending.notEmpty();
+                flushScheduled = more;
+            }
+            if (more) {
+                Platform.runLater(this::flush);
+            }
+        }
+    }
+
+    private void refresh(int nid) {
+        if (!isCanonical.test(nid)) {
+            dropped.increment();
+            return;
+        }
+        try {
+            refresher.accept(nid);
+            flushed.increment();
+        } catch (RuntimeException e) {
+            dropped.increment();
+            LOG.error("Unable to refresh observable entity for nid " + nid, e);
+        }
+    }
+
+    /**
+     * @return the maximum number of nids refreshed per turn of the FX event queue
+     */
+    public int flushBudget() {
+        return flushBudget;
+    }
+
+    /**
+     * @param flushBudget the maximum number of nids refreshed per turn of the FX event queue
+     */
+    public void setFlushBudget(int flushBudget) {
+        if (flushBudget < 1) {
+            throw new IllegalArgumentException("Flush budget must be positive: " + flushBudget);
+        }
+        this.flushBudget = flushBudget;
+    }
+
+    /**
+     * @return a snapshot of the coalescer counters since startup
+     */
+    public Stats stats() {
+        int pendingCount;
+        synchronized (lock) {
+            pendingCount = pending.size();
+        }
+        return new Stats(queued.sum(), coalesced.sum(), flushed.sum(), dropped.sum(), flushes.sum(), pendingCount);
+    }
+
+    /**
+     * Counters for entity change notifications.
+     *
+     * @param queued    notifications received for nids with a canonical instance
+     * @param coalesced notifications merged into a refresh already pending for the same nid
+     * @param flushed   canonical instances refreshed
+     * @param dropped   pending nids skipped because their canonical instance was collected, or whose refresh failed
+     * @param flushes   flush runnables executed on the FX thread
+     * @param pending   nids currently waiting for a flush
+     */
+    public record Stats(long queued, long coalesced, long flushed, long dropped, long flushes, int pending) {
+    }
+}
@@ -44,9 +44,10 @@
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.list.primitive.ImmutableLongList;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -349,6 +350,9 @@
             Caffeine.newBuilder()
                     .weakValues()
                     .build();
+    private static final EntityChangeCoalescer ENTITY_CHANGE_COALESCER = new EntityChangeCoalescer(
+            nid -> CANONICAL_INSTANCES.getIfPresent(nid) != null,
+            nid -> packagePrivateGet(nid));
     private static final EntityChangeSubscriber ENTITY_CHANGE_SUBSCRIBER = new EntityChangeSubscriber();
 
     static {
@@ -361,6 +365,16 @@
 
     final private AtomicReference<Entity<?>> entityReference;
 
+    /**
+     * Number of versions, and stamp nid of the last version, of the entity seen by the last update;
+     * positions of the versions that were uncommitted at that update. See {@link #updateVersions(Entity)}.
+     */
+    private int knownVersionCount;
+    private int lastKnownStampNid;
+    private final MutableIntSet uncommittedVersionIndexes = new IntHashSet();
+
+    private ImmutableList<OV> versionsCache;
+
 
     ReadOnlyObjectWrapper<Feature<ObservableChronology>> featureProperty =
             new ReadOnlyObjectWrapper<>(null, this.getClass().getSimpleName() + " as Feature Wrapper",  (ObservableChronology) this);
@@ -374,6 +388,7 @@
     public void saveToDB(Entity<?> analogue, EntityVersion newVersionRecord , EntityVersion oldVersionRecord) {
         Entity.provider().putEntity(analogue);
         versionPropertyMap.put(newVersionRecord.stamp().nid(), wrap(newVersionRecord));
+        versionsCache = null;
         EvtBusFactory.getDefaultEvtBus()
                 .publish(VERSION_CHANGED_TOPIC, new EntityVersionChangeEvent(this, VERSION_UPDATED, newVersionRecord));
     }
@@ -394,11 +409,18 @@ public void saveToDB(Entity<?> analogue, EntityVersion newVersionRecord , Entity
                 EntityBinding.Component.pattern(), EntityBinding.Component.versionsFieldDefinitionIndex(), this);
 
         this.entityReference = new AtomicReference<>(entityClone);
+        int index = 0;
         for (EntityVersion version : entity.versions()) {
             OV wrappedVersion = wrap(version);
             versionPropertyMap.put(version.stamp().nid(), wrappedVersion);
             versionSetAsList.add(wrappedVersion);
+            if (version.time() == Long.MAX_VALUE) {
+                uncommittedVersionIndexes.add(index);
+            }
+            lastKnownStampNid = version.stampNid();
+            index++;
         }
+        this.knownVersionCount = index;
     }
 
     public ReadOnlyProperty<Feature<ObservableChronology>> featureProperty() {
@@ -453,14 +475,24 @@ static <OE extends ObservableEntity> OE packagePrivateGet(Entity<? extends Entit
             //Throw exception since we need to get the version using JavaFx thread.
             throw new RuntimeException( "Invalid calling thread.");
         }
-        ObservableEntity observableEntity = switch (entity) {
-            case ObservableEntity oe -> oe;
-            case ConceptEntity conceptEntity -> new ObservableConcept(conceptEntity);
-            case PatternEntity patternEntity -> new ObservablePattern(patternEntity);
-            case SemanticEntity semanticEntity -> new ObservableSemantic(semanticEntity);
-            case StampEntity stampEntity -> new ObservableStamp(stampEntity);
-            default -> throw new UnsupportedOperationException("Can't handle: " + entity);
-        };
+        ObservableEntity observableEntity;
+        if (entity instanceof ObservableEntity oe) {
+            observableEntity = oe;
+        } else {
+            // Only called on the FX thread, so there is no race between the lookup and the put. The
+            // instance is built outside the cache, since building it may resolve other observables.
+            observableEntity = CANONICAL_INSTANCES.getIfPresent(entity.nid());
+            if (observableEntity == null) {
+                observableEntity = switch (entity) {
+                    case ConceptEntity conceptEntity -> new ObservableConcept(conceptEntity);
+                    case PatternEntity patternEntity -> new ObservablePattern(patternEntity);
+                    case SemanticEntity semanticEntity -> new ObservableSemantic(semanticEntity);
+                    case StampEntity stampEntity -> new ObservableStamp(stampEntity);
+                    default -> throw new UnsupportedOperationException("Can't handle: " + entity);
+                };
+                CANONICAL_INSTANCES.put(entity.nid(), observableEntity);
+            }
+        }
         observableEntity.updateVersions(entity);
         return (OE) observableEntity;
     }
@@ -509,6 +541,12 @@ public static <OE extends ObservableEntity> OE get(Entity<? extends EntityVersio
     /**
      * Updates the versions in the versionProperty list.
      * This is the ONLY method that should update ObservableVersion data, triggered by EvtBus events.
+     * <p>
+     * Versions are append only, so a new entity normally holds the versions seen last time at the same
+     * positions, followed by any added since. Only the appended versions and the versions that were
+     * uncommitted last time are examined, so an edit to a component with thousands of versions costs
+     * O(added + uncommitted) rather than O(versions). If the new entity does not line up with the
+     * versions already seen, every version is compared instead.
      * @param newEntity
      */
     private void updateVersions(Entity<? extends EntityVersion> newEntity) {
@@ -516,43 +554,104 @@ private void updateVersions(Entity<? extends EntityVersion> newEntity) {
         // Versions can never be removed, we are append only. Do not have to check for deletions, just additions or
         // updates.
         if (entityReference.get() != newEntity || versionSetAsList.size() != newEntity.versions().size()) {
-            final AtomicBoolean changed = new AtomicBoolean(false);
-            // Find if there is a changed version...
-            for (EntityVersion newVersion: newEntity.versions()) {
-                OV oldVersion = versionPropertyMap.get(newVersion.stampNid());
-                if (oldVersion == null) {
-                    // New version - wrap and add
-                    changed.set(true);
-                    OV newWrappedVersion = wrap(newVersion);
-                    versionPropertyMap.put(newVersion.stampNid(), newWrappedVersion);
-                    versionSetAsList.add(newWrappedVersion);
-                } else if (oldVersion.getVersionRecord().time() == Long.MAX_VALUE) {
-                    // Uncommitted version being updated - update in place via setVersionInternal
-                    changed.set(true);
-                    OV typedOldVersion = oldVersion;
-                    typedOldVersion.setVersionInternal(newVersion);
-                } else if (newVersion.time() != oldVersion.getVersionRecord().time()) {
-                    if (newVersion.time() == Long.MAX_VALUE ) {
-                        changed.set(true);
-                        // We should rewrap the old value? This seems an odd state...
-                        StringBuilder errorBuilder = new StringBuilder();
-                        errorBuilder.append("New version is uncommitted, but old version is committed. \nNew version: ");
-                        errorBuilder.append(newVersion);
-                        errorBuilder.append(" \nOld version: ");
-                        errorBuilder.append(oldVersion);
-                        LOG.error(errorBuilder.toString());
-                        throw new IllegalStateException(errorBuilder.toString());
-                    } else {
-                        throw new IllegalStateException("Version time mismatch: " + newVersion.time() + " != " + oldVersion.getVersionRecord().time());
-                    }
+            boolean changed;
+            if (isAppendOf(newEntity)) {
+                changed = false;
+                ImmutableList<? extends EntityVersion> newVersions = newEntity.versions();
+                for (int index : uncommittedVersionIndexes.toArray()) {
+                    changed |= mergeVersion(newVersions.get(index), index);
+                }
+                for (int index = knownVersionCount; index < newVersions.size(); index++) {
+                    changed |= mergeVersion(newVersions.get(index), index);
                 }
+            } else {
+                changed = mergeAllVersions(newEntity);
             }
-            if (changed.get()) {
+            knownVersionCount = newEntity.versions().size();
+            lastKnownStampNid = knownVersionCount == 0 ? 0 : newEntity.versions().get(knownVersionCount - 1).stampNid();
+            if (changed) {
                 entityReference.set(newEntity);
+                versionsCache = null;
             }
         }
     }
 
+    /**
+     * @return {@code true} if the first {@link #knownVersionCount} versions of {@code newEntity} are the
+     * versions seen by the last update, in the same positions
+     */
+    private boolean isAppendOf(Entity<? extends EntityVersion> newEntity) {
+        ImmutableList<? extends EntityVersion> newVersions = newEntity.versions();
+        if (knownVersionCount == 0) {
+            return true;
+        }
+        if (newVersions.size() < knownVersionCount
+                || newVersions.get(knownVersionCount - 1).stampNid() != lastKnownStampNid) {
+            return false;
+        }
+        for (int index : uncommittedVersionIndexes.toArray()) {
+            int stampNid = newVersions.get(index).stampNid();
+            OV oldVersion = versionPropertyMap.get(stampNid);
+            if (oldVersion == null || oldVersion.getVersionRecord().time() != Long.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean mergeAllVersions(Entity<? extends EntityVersion> newEntity) {
+        uncommittedVersionIndexes.clear();
+        boolean changed = false;
+        int index = 0;
+        for (EntityVersion newVersion : newEntity.versions()) {
+            changed |= mergeVersion(newVersion, index++);
+        }
+        return changed;
+    }
+
+    /**
+     * Merges one version of a new entity into the observable versions.
+     *
+     * @param newVersion the version of the new entity
+     * @param index      the position of {@code newVersion} in the versions of the new entity
+     * @return {@code true} if an observable version was added or updated
+     */
+    private boolean mergeVersion(EntityVersion newVersion, int index) {
+        boolean changed = false;
+        OV oldVersion = versionPropertyMap.get(newVersion.stampNid());
+        if (oldVersion == null) {
+            // New version - wrap and add
+            changed = true;
+            OV newWrappedVersion = wrap(newVersion);
+            versionPropertyMap.put(newVersion.stampNid(), newWrappedVersion);
+            versionSetAsList.add(newWrappedVersion);
+        } else if (oldVersion.getVersionRecord().time() == Long.MAX_VALUE) {
+            // Uncommitted version being updated - update in place via setVersionInternal
+            changed = true;
+            OV typedOldVersion = oldVersion;
+            typedOldVersion.setVersionInternal(newVersion);
+        } else if (newVersion.time() != oldVersion.getVersionRecord().time()) {
+            if (newVersion.time() == Long.MAX_VALUE ) {
+                // We should rewrap the old value? This seems an odd state...
+                StringBuilder errorBuilder = new StringBuilder();
+                errorBuilder.append("New version is uncommitted, but old version is committed. \nNew version: ");
+                errorBuilder.append(newVersion);
+                errorBuilder.append(" \nOld version: ");
+                errorBuilder.append(oldVersion);
+                LOG.error(errorBuilder.toString());
+                throw new IllegalStateException(errorBuilder.toString());
+            } else {
+                throw new IllegalStateException("Version time mismatch: " + newVersion.time() + " != " + oldVersion.getVersionRecord().time());
+            }
+        }
+        if (newVersion.time() == Long.MAX_VALUE) {
+            uncommittedVersionIndexes.add(index);
+        } else {
+            uncommittedVersionIndexes.remove(index);
+        }
+        return changed;
+    }
+
     /**
      * Package-private method for internal use by ObservableEntityHandle.
      * External code should use {@link ObservableEntityHandle#get(int)}.
@@ -609,7 +708,12 @@ public MutableIntObjectMap<OV> versionPropertyMap() {
 
     @Override
     public ImmutableList<OV> versions() {
-        return Lists.immutable.ofAll(versionPropertyMap.values());
+        ImmutableList<OV> versions = versionsCache;
+        if (versions == null || versions.size() != versionPropertyMap.size()) {
+            versions = Lists.immutable.ofAll(versionPropertyMap.values());
+            versionsCache = versions;
+        }
+        return versions;
     }
 
     @Override
@@ -737,18 +841,22 @@ public Feature<?> getFeature(FeatureKey featureKey) {
         };
     }
 
+    /**
+     * Returns the coalescer that applies entity change notifications to the canonical instances,
+     * for tuning its flush budget and reading its counters.
+     *
+     * @return the entity change coalescer
+     */
+    public static EntityChangeCoalescer entityChangeCoalescer() {
+        return ENTITY_CHANGE_COALESCER;
+    }
+
     private static class EntityChangeSubscriber implements Subscriber<Integer> {
 
         @Override
         public void onNext(Integer nid) {
-            // Do nothing with item, but request another...
-            if (CANONICAL_INSTANCES.getIfPresent(nid) != null) {
-                if (!Platform.isFxApplicationThread()) {
-                    Platform.runLater(() -> get(nid));
-                } else {
-                    get(nid);
-                }
-            }
+            // Coalesced and flushed to the FX thread in batches; see EntityChangeCoalescer.
+            ENTITY_CHANGE_COALESCER.entityChanged(nid);
         }
     }
 }
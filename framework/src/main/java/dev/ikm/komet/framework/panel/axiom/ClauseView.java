@@ -36,6 +36,7 @@
 import dev.ikm.komet.framework.observable.ObservableSemantic;
 import dev.ikm.komet.framework.observable.ObservableSemanticSnapshot;
 import dev.ikm.komet.framework.performance.Measures;
+import dev.ikm.komet.framework.performance.Statement;
 import dev.ikm.komet.framework.performance.Topic;
 import dev.ikm.komet.framework.performance.impl.ObservationRecord;
 import dev.ikm.komet.framework.rulebase.Consequence;
@@ -143,6 +144,9 @@ public ClauseView(EntityVertex axiomVertex, AxiomView axiomView) {
         });
         editButton.getStyleClass().add("pencil-button");
         editButton.setOnMousePressed(this::handleEditClick);
+        // Hovering usually precedes the press; let the rule service evaluate the menu in the meantime.
+        editButton.setOnMouseEntered(event -> RuleService.get().preEvaluate("Knowledge base name",
+                axiomStatements(), axiomView.viewProperties, axiomView.viewProperties.nodeView().editCoordinate()));
 
         titleLabel.getStyleClass().add("komet-version-general-cell");
         titleLabel.setOnDragOver(this::handleDragOver);
@@ -701,11 +705,7 @@ private void toggleExpansion() {
         }
     }
 
-    protected final void handleEditClick(MouseEvent mouseEvent) {
-        ContextMenu contextMenu = new ContextMenu();
-        MenuItem doNothing = new MenuItemWithText("");
-        contextMenu.getItems().addAll(doNothing);
-
+    private ImmutableList<Statement> axiomStatements() {
         AxiomSubjectRecord axiomSubjectRecord = new AxiomSubjectRecord(this.axiomVertex.vertexIndex(),
                 this.axiomView.axiomTree,
                 this.axiomView.axiomTreeSemanticVersion,
@@ -713,10 +713,17 @@ protected final void handleEditClick(MouseEvent mouseEvent) {
                 this.rootGridPane);
         ObservationRecord observation = new ObservationRecord(Topic.AXIOM_FOCUSED,
                 axiomSubjectRecord, Measures.present());
+        return Lists.immutable.of(observation);
+    }
+
+    protected final void handleEditClick(MouseEvent mouseEvent) {
+        ContextMenu contextMenu = new ContextMenu();
+        MenuItem doNothing = new MenuItemWithText("");
+        contextMenu.getItems().addAll(doNothing);
 
         ImmutableList<Consequence<?>> consequences =
                 RuleService.get().execute("Knowledge base name",
-                        Lists.immutable.of(observation),
+                        axiomStatements(),
                         axiomView.viewProperties,
                         axiomView.viewProperties.nodeView().editCoordinate());
 
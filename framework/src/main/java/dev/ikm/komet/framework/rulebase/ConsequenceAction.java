@@ -34,9 +34,13 @@ public int compareTo(Consequence o) {
             case Action action -> action.getText();
             default -> this.get().toString();
         };
-        String thatCompareString = switch (o.get()) {
-            case Action action -> action.getText();
-            default -> o.get().toString();
+        String thatCompareString = switch (o) {
+            // Compare by text rather than building the menu
+            case ConsequenceMenu consequenceMenu -> consequenceMenu.text();
+            default -> switch (o.get()) {
+                case Action action -> action.getText();
+                default -> o.get().toString();
+            };
         };
         return NaturalOrder.compareStrings(thisCompareString, thatCompareString);
     }
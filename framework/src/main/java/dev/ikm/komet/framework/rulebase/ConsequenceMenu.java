@@ -20,23 +20,67 @@
 import org.controlsfx.control.action.Action;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * A consequence that contributes a submenu to a context menu.
+ * <p>
+ * A menu can only be shown in one popup, and building one may read JavaFX state, so the menu is built by
+ * {@code menuFactory} each time {@link #generatedMenu()} is called, on the JavaFX application thread that
+ * shows it. The consequence itself can then be kept and shown again. A consequence created from an
+ * already built menu always returns that menu, and is not {@linkplain #isReusable() reusable}.
+ *
+ * @param consequenceUUID the identity of the consequence
+ * @param ruleMethod      the rule that produced the consequence
+ * @param text            the menu's text, used to order the consequences without building the menu
+ * @param menuFactory     builds a new menu on each call
+ */
 public record ConsequenceMenu(UUID consequenceUUID,
                               String ruleMethod,
-                              Menu generatedMenu) implements Consequence<Menu> {
+                              String text,
+                              Supplier<Menu> menuFactory) implements Consequence<Menu> {
+
+    public ConsequenceMenu(UUID consequenceUUID, String ruleMethod, Menu generatedMenu) {
+        this(consequenceUUID, ruleMethod, generatedMenu.getText(), new BuiltMenu(generatedMenu));
+    }
+
+    /**
+     * @return a menu for this consequence, new unless the consequence was created from a built menu
+     */
+    public Menu generatedMenu() {
+        return menuFactory.get();
+    }
+
+    /**
+     * @return {@code true} if each call to {@link #generatedMenu()} builds a new menu, so the consequence
+     * can be shown more than once
+     */
+    public boolean isReusable() {
+        return !(menuFactory instanceof BuiltMenu);
+    }
+
     @Override
     public Menu get() {
-        return generatedMenu;
+        return generatedMenu();
     }
 
     @Override
     public int compareTo(Consequence o) {
-        String thisCompareString = generatedMenu.getText();
-        String thatCompareString = switch (o.get()) {
-            case Action action -> action.getText();
-            case Menu menu -> menu.getText();
-            default -> o.get().toString();
+        String thatCompareString = switch (o) {
+            case ConsequenceMenu consequenceMenu -> consequenceMenu.text();
+            default -> switch (o.get()) {
+                case Action action -> action.getText();
+                case Menu menu -> menu.getText();
+                default -> o.get().toString();
+            };
         };
-        return NaturalOrder.compareStrings(thisCompareString, thatCompareString);
+        return NaturalOrder.compareStrings(text, thatCompareString);
+    }
+
+    private record BuiltMenu(Menu menu) implements Supplier<Menu> {
+        @Override
+        public Menu get() {
+            return menu;
+        }
     }
  }
@@ -28,4 +28,22 @@ ImmutableList<Consequence<?>> execute(String knowledgeBaseName,
                                           ImmutableList<Statement> statements,
                                           ViewProperties viewProperties,
                                           EditCoordinate editCoordinate);
+
+    /**
+     * Hints that {@link #execute} is likely to be called soon with the same arguments, for example for a
+     * menu that is visible but not yet open. An implementation that memoizes its results may evaluate
+     * them in the background; the default does nothing.
+     */
+    default void preEvaluate(String knowledgeBaseName,
+                             ImmutableList<Statement> statements,
+                             ViewProperties viewProperties,
+                             EditCoordinate editCoordinate) {
+    }
+
+    /**
+     * Tells the service that {@code viewProperties} are being disposed with the window or area that owns
+     * them, so it can release anything it memoized for them. The default does nothing.
+     */
+    default void viewDisposed(ViewProperties viewProperties) {
+    }
 }
@@ -26,7 +26,6 @@
 import dev.ikm.tinkar.common.id.PublicIdStringKey;
 import dev.ikm.tinkar.common.id.PublicIds;
 import dev.ikm.tinkar.common.service.PrimitiveData;
-import dev.ikm.tinkar.common.service.TinkExecutor;
 import dev.ikm.tinkar.common.util.text.NaturalOrder;
 import dev.ikm.tinkar.common.util.uuid.UuidUtil;
 import dev.ikm.tinkar.coordinate.stamp.calculator.Latest;
@@ -87,6 +86,7 @@ public class SearchPanelController implements ListChangeListener<TreeItem<Object
     private KometPreferences nodePreferences;
     private ViewMenuModel viewMenuModel;
     private TreeItem<Object> resultsRoot = new TreeItem<>("root");
+    private final SearchPipeline<TreeItem<Object>> searchPipeline = new SearchPipeline<>();
 
     @FXML
     void initialize() {
@@ -116,6 +116,7 @@ void initialize() {
 
     @FXML
     void doSearch(ActionEvent event) {
+        searchPipeline.cancel();
         searchTreeView.getSelectionModel().clearSelection();
         resultsRoot.getChildren().clear();
         if (queryString.getText() == null || queryString.getText().isEmpty()) {
@@ -137,70 +138,78 @@ void doSearch(ActionEvent event) {
                 addComponentFromNid(PrimitiveData.nid(PublicIds.of(uuid)));
             });
         } else {
-            TinkExecutor.threadPool().execute(() -> {
-                try {
-                    TreeItem<Object> tempRoot = new TreeItem<>("Temp root");
-                    ImmutableList<LatestVersionSearchResult> results = viewProperties.calculator().search(queryString.getText().strip(), 1000);
-                    LOG.info("Finished search. Hits: " + results.size());
-                    switch (resultsLayoutCombo.getSelectionModel().getSelectedItem()) {
-                        case MATCHED_SEMANTIC_SCORE -> {
-                            ImmutableList<LatestVersionSearchResult> resultsSortedOnScore = results
-                                    .toSortedList((o1, o2) -> Float.compare(o2.score(), o1.score()))
-                                    .toImmutable();
-
-                            for (LatestVersionSearchResult result : resultsSortedOnScore) {
-                                tempRoot.getChildren().add(new TreeItem<>(result));
-                            }
-                        }
-                        case MATCHED_SEMANTIC_NATURAL_ORDER -> {
-                            ImmutableList<LatestVersionSearchResult> resultsSortedOnNaturalOrder = results
-                                    .toSortedList((o1, o2) -> {
-                                        String string1 = (String) o1.latestVersion().get().fieldValues().get(o1.fieldIndex());
-                                        String string2 = (String) o2.latestVersion().get().fieldValues().get(o2.fieldIndex());
-                                        return NaturalOrder.compareStrings(string1, string2);
-                                    }).toImmutable();
-                            for (LatestVersionSearchResult result : resultsSortedOnNaturalOrder) {
-                                tempRoot.getChildren().add(new TreeItem<>(result));
-                            }
-                        }
-                        case TOP_COMPONENT_NATURAL_ORDER -> {
-                            ImmutableList<LatestVersionSearchResult> resultsTopComponentNaturalOrder = results
-                                    .toSortedList((o1, o2) -> {
-                                        String string1 = (String) o1.latestVersion().get().fieldValues().get(o1.fieldIndex());
-                                        String string2 = (String) o2.latestVersion().get().fieldValues().get(o2.fieldIndex());
-                                        return NaturalOrder.compareStrings(string1, string2);
-                                    }).toImmutableList();
-                            populateTempRoot(tempRoot, resultsTopComponentNaturalOrder);
-                            tempRoot.getChildren().sort((o1, o2) ->
-                                    NaturalOrder.compareStrings(o1.getValue().toString(),
-                                            o2.getValue().toString()));
-                            for (TreeItem child : tempRoot.getChildren()) {
-                                child.getChildren().sort((o1, o2) -> NaturalOrder.compareStrings(o1.toString(), o2.toString()));
-                            }
+            // Capture the query and layout on the FX thread, then let the pipeline run the
+            // search and the grouping off it, superseding any search still in flight.
+            final String searchText = queryText;
+            final RESULT_LAYOUT_OPTIONS layout = resultsLayoutCombo.getSelectionModel().getSelectedItem();
+            searchPipeline.submit(() -> search(searchText, layout),
+                    (page, firstPage, lastPage) -> {
+                        if (firstPage) {
+                            resultsRoot.getChildren().setAll(page);
+                        } else {
+                            resultsRoot.getChildren().addAll(page);
                         }
+                    },
+                    e -> AlertStreams.getRoot().dispatch(AlertObject.makeError(e.getClass().getSimpleName() + " during search", searchText, e)));
+        }
+    }
 
-                        case TOP_COMPONENT_SEMANTIC_SCORE -> {
-                            ImmutableList<LatestVersionSearchResult> resultsTopComponentScoreOrder = results
-                                    .toSortedList((o1, o2) -> Float.compare(o2.score(), o1.score()))
-                                    .toImmutableList();
-                            populateTempRoot(tempRoot, resultsTopComponentScoreOrder);
-                            for (TreeItem<Object> topItem : tempRoot.getChildren()) {
-                                topItem.getChildren().sort((o1, o2) ->
-                                        Float.compare(((LatestVersionSearchResult) o2.getValue()).score(),
-                                                ((LatestVersionSearchResult) o1.getValue()).score()));
-                            }
-                            tempRoot.getChildren().sort((o1, o2) -> Float.compare(((LatestVersionSearchResult) o2.getChildren().get(0).getValue()).score(),
-                                    ((LatestVersionSearchResult) o1.getChildren().get(0).getValue()).score()));
-                        }
-                    }
-                    Platform.runLater(() -> {
-                        resultsRoot.getChildren().setAll(tempRoot.getChildren());
-                    });
-                } catch (Throwable e) {
-                    AlertStreams.getRoot().dispatch(AlertObject.makeError(e.getClass().getSimpleName() + " during search", queryString.getText().strip(), e));
+    private List<TreeItem<Object>> search(String searchText, RESULT_LAYOUT_OPTIONS layout) throws Exception {
+        TreeItem<Object> tempRoot = new TreeItem<>("Temp root");
+        ImmutableList<LatestVersionSearchResult> results = viewProperties.calculator().search(searchText, 1000);
+        LOG.info("Finished search. Hits: " + results.size());
+        switch (layout) {
+            case MATCHED_SEMANTIC_SCORE -> {
+                ImmutableList<LatestVersionSearchResult> resultsSortedOnScore = results
+                        .toSortedList((o1, o2) -> Float.compare(o2.score(), o1.score()))
+                        .toImmutable();
+
+                for (LatestVersionSearchResult result : resultsSortedOnScore) {
+                    tempRoot.getChildren().add(new TreeItem<>(result));
                 }
-            });
+            }
+            case MATCHED_SEMANTIC_NATURAL_ORDER -> {
+                ImmutableList<LatestVersionSearchResult> resultsSortedOnNaturalOrder = results
+                        .toSortedList((o1, o2) -> {
+                            String string1 = (String) o1.latestVersion().get().fieldValues().get(o1.fieldIndex());
+                            String string2 = (String) o2.latestVersion().get().fieldValues().get(o2.fieldIndex());
+                            return NaturalOrder.compareStrings(string1, string2);
+                        }).toImmutable();
+                for (LatestVersionSearchResult result : resultsSortedOnNaturalOrder) {
+                    tempRoot.getChildren().add(new TreeItem<>(result));
+                }
+            }
+            case TOP_COMPONENT_NATURAL_ORDER -> {
+                ImmutableList<LatestVersionSearchResult> resultsTopComponentNaturalOrder = results
+                        .toSortedList((o1, o2) -> {
+                            String string1 = (String) o1.latestVersion().get().fieldValues().get(o1.fieldIndex());
+                            String string2 = (String) o2.latestVersion().get().fieldValues().get(o2.fieldIndex());
+                            return NaturalOrder.compareStrings(string1, string2);
+                        }).toImmutableList();
+                populateTempRoot(tempRoot, resultsTopComponentNaturalOrder);
+                tempRoot.getChildren().sort((o1, o2) ->
+                        NaturalOrder.compareStrings(o1.getValue().toString(),
+                                o2.getValue().toString()));
+                for (TreeItem child : tempRoot.getChildren()) {
+                    child.getChildren().sort((o1, o2) -> NaturalOrder.compareStrings(o1.toString(), o2.toString()));
+                }
+            }
+
+            case TOP_COMPONENT_SEMANTIC_SCORE -> {
+                ImmutableList<LatestVersionSearchResult> resultsTopComponentScoreOrder = results
+                        .toSortedList((o1, o2) -> Float.compare(o2.score(), o1.score()))
+                        .toImmutableList();
+                populateTempRoot(tempRoot, resultsTopComponentScoreOrder);
+                for (TreeItem<Object> topItem : tempRoot.getChildren()) {
+                    topItem.getChildren().sort((o1, o2) ->
+                            Float.compare(((LatestVersionSearchResult) o2.getValue()).score(),
+                                    ((LatestVersionSearchResult) o1.getValue()).score()));
+                }
+                tempRoot.getChildren().sort((o1, o2) -> Float.compare(((LatestVersionSearchResult) o2.getChildren().get(0).getValue()).score(),
+                        ((LatestVersionSearchResult) o1.getChildren().get(0).getValue()).score()));
+            }
         }
+        return List.copyOf(tempRoot.getChildren());
     }
 
     private void clearDropDown() {
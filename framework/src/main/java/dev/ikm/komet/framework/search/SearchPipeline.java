@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.search;
+
+import dev.ikm.tinkar.common.service.TinkExecutor;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs search queries off the JavaFX application thread and streams the ranked
+ * results back to the UI in pages.
+ * <p>
+ * Each call to {@link #submit} supersedes the previous one: a query that has not
+ * started yet is cancelled outright, and the results of a query that is already
+ * running are discarded when it finishes. Only the most recent query can ever
+ * deliver a page.
+ * <p>
+ * Running queries are deliberately not interrupted. The Lucene index behind
+ * {@code calculator().search(...)} reads through NIO channels, and interrupting a
+ * thread blocked on one closes the channel for every other reader of the index.
+ * <p>
+ * Pages are posted to the FX thread one at a time; the next page is only queued
+ * once the previous one has been applied, so a large result set never floods the
+ * FX event queue and the list stays responsive while it fills.
+ *
+ * @param <R> the type of row shown in the results view
+ */
+public class SearchPipeline<R> {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchPipeline.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final int pageSize;
+    private volatile Future<?> inFlight;
+
+    public SearchPipeline() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public SearchPipeline(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Runs {@code query} on the Tinkar thread pool and streams its result, already
+     * ranked, to {@code pageConsumer} on the FX thread. The first page replaces the
+     * current content of the view; an empty result produces a single, empty page
+     * that is both first and last.
+     *
+     * @param query         computes the ranked rows; runs off the FX thread
+     * @param pageConsumer  receives the rows on the FX thread
+     * @param errorConsumer receives any failure of {@code query} on the FX thread
+     */
+    public void submit(Callable<? extends List<? extends R>> query,
+                       PageConsumer<R> pageConsumer,
+                       Consumer<Throwable> errorConsumer) {
+        final long ticket = supersede();
+        inFlight = TinkExecutor.threadPool().submit(() -> {
+            if (!isCurrent(ticket)) {
+                return;
+            }
+            try {
+                List<? extends R> rows = query.call();
+                if (isCurrent(ticket)) {
+                    Platform.runLater(() -> deliver(ticket, List.copyOf(rows), 0, pageConsumer));
+                } else {
+                    LOG.debug("Discarding {} rows from superseded search", rows.size());
+                }
+            } catch (Throwable e) {
+                if (isCurrent(ticket)) {
+                    Platform.runLater(() -> errorConsumer.accept(e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels the query in flight, if any, and discards any pages it has not yet delivered.
+     */
+    public void cancel() {
+        supersede();
+    }
+
+    /**
+     * @return {@code true} while the most recently submitted query is still computing
+     */
+    public boolean isSearching() {
+        Future<?> future = inFlight;
+        return future != null && !future.isDone();
+    }
+
+    private long supersede() {
+        long ticket = generation.incrementAndGet();
+        Future<?> previous = inFlight;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        return ticket;
+    }
+
+    private boolean isCurrent(long ticket) {
+        return generation.get() == ticket;
+    }
+
+    private void deliver(long ticket, List<R> rows, int from, PageConsumer<R> pageConsumer) {
+        if (!isCurrent(ticket)) {
+            return;
+        }
+        int to = (int) Math.min((long) from + pageSize, rows.size());
+        boolean lastPage = to == rows.size();
+        pageConsumer.accept(rows.subList(from, to), from == 0, lastPage);
+        if (!lastPage) {
+            Platform.runLater(() -> deliver(ticket, rows, to, pageConsumer));
+        }
+    }
+
+    /**
+     * Receives one page of search results on the FX thread.
+     *
+     * @param <R> the type of row shown in the results view
+     */
+    @FunctionalInterface
+    public interface PageConsumer<R> {
+        /**
+         * @param page      the rows of this page, in rank order
+         * @param firstPage {@code true} if the page should replace the current results
+         * @param lastPage  {@code true} if no further pages follow for this query
+         */
+        void accept(List<R> page, boolean firstPage, boolean lastPage);
+    }
+}
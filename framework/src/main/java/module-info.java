@@ -94,6 +94,7 @@
     requires transitive network.ike.docs.konceptcore;
 
     uses dev.ikm.komet.framework.concurrent.TaskListsService;
+    uses dev.ikm.komet.framework.concurrent.ExecutorStatsService;
     uses dev.ikm.komet.preferences.PreferencesService;
     uses dev.ikm.komet.framework.KometNodeFactory;
     uses dev.ikm.tinkar.common.alert.AlertReportingService;
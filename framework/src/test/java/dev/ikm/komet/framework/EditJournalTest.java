@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework;
+
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EditJournalTest {
+
+    @TempDir
+    Path root;
+
+    private EditJournal open() {
+        return new EditJournal(root.resolve(EditedConceptTracker.JOURNAL_FILE_NAME));
+    }
+
+    @Test
+    public void restartReplaysJournaledNids() throws IOException {
+        EditJournal session = open();
+        assertTrue(session.recover().isEmpty());
+        session.append(IntSets.mutable.of(-10, -11));
+        session.append(IntSets.mutable.of(-11, -12));
+
+        // restart: a new session sees every nid that was not yet classified
+        EditJournal restarted = open();
+        assertEquals(IntSets.mutable.of(-10, -11, -12), restarted.recover());
+        assertEquals(4, restarted.recordCount());
+    }
+
+    @Test
+    public void commitAfterRestartKeepsOnlyLaterEdits() throws IOException {
+        open().append(IntSets.mutable.of(-10, -11));
+
+        // the first run after the restart takes the recovered nids; -20 is edited while it runs
+        EditJournal restarted = open();
+        MutableIntSet taken = restarted.recover();
+        restarted.append(IntSets.mutable.of(-20));
+        assertEquals(IntSets.mutable.of(-10, -11, -20), open().recover(), "taken nids survive until committed");
+
+        // the run completes: only what is still pending is kept
+        MutableIntSet pending = IntSets.mutable.of(-20);
+        restarted.rewrite(pending);
+        assertFalse(taken.contains(-20));
+        assertEquals(pending, open().recover());
+
+        restarted.rewrite(new IntHashSet());
+        assertFalse(Files.exists(restarted.file()));
+        assertTrue(open().recover().isEmpty());
+    }
+
+    @Test
+    public void tornTailIsDroppedOnRecovery() throws IOException {
+        EditJournal session = open();
+        session.append(IntSets.mutable.of(-10));
+        Files.write(session.file(), new byte[]{1, 2}, StandardOpenOption.APPEND);
+
+        EditJournal restarted = open();
+        assertEquals(IntSets.mutable.of(-10), restarted.recover());
+        assertEquals(Integer.BYTES, Files.size(restarted.file()));
+
+        restarted.append(IntSets.mutable.of(-11));
+        assertEquals(IntSets.mutable.of(-10, -11), open().recover());
+    }
+
+    @Test
+    public void compactionIsBoundedByPendingCount() throws IOException {
+        EditJournal session = open();
+        for (int i = 0; i < EditJournal.MIN_COMPACTION_RECORDS; i++) {
+            session.append(IntSets.mutable.of(-1 - (i % 8)));
+        }
+        assertFalse(session.needsCompaction(8));
+        session.append(IntSets.mutable.of(-1));
+        assertTrue(session.needsCompaction(8));
+        assertFalse(session.needsCompaction(EditJournal.MIN_COMPACTION_RECORDS));
+
+        session.rewrite(session.recover());
+        assertEquals(8, session.recordCount());
+        assertEquals(8L * Integer.BYTES, Files.size(session.file()));
+    }
+}
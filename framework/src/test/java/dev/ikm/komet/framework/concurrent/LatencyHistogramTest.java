@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramHasEmptySummary() {
+        assertSame(LatencyHistogram.Summary.EMPTY, new LatencyHistogram().summary());
+    }
+
+    @Test
+    public void percentilesAreWithinAFactorOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        LatencyHistogram.Summary summary = histogram.summary();
+        assertEquals(100, summary.count());
+        assertEquals(100_000, summary.maxUs());
+        assertEquals(50_500, summary.meanUs());
+        assertTrue(summary.p50Us() >= 50_000 && summary.p50Us() <= 100_000, "p50 " + summary.p50Us());
+        assertTrue(summary.p99Us() >= 99_000 && summary.p99Us() <= summary.maxUs(), "p99 " + summary.p99Us());
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.SECONDS.toNanos(1));
+        histogram.reset();
+        assertSame(LatencyHistogram.Summary.EMPTY, histogram.summary());
+    }
+}
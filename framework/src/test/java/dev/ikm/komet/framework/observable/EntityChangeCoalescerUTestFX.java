@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.observable;
+
+import dev.ikm.komet.framework.testing.JavaFXThreadExtension;
+import javafx.application.Platform;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.awaitOnFxThread;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.onFxThread;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batching of {@link EntityChangeCoalescer}, with a refresher that records the nids it is given. Changes
+ * are queued from the test thread while the FX thread is held, so they all wait for the same flush.
+ */
+@ExtendWith(JavaFXThreadExtension.class)
+class EntityChangeCoalescerUTestFX {
+
+    private final List<Object> refreshed = new CopyOnWriteArrayList<>();
+    private final Set<Integer> collected = ConcurrentHashMap.newKeySet();
+
+    private EntityChangeCoalescer coalescer(IntConsumer refresher) {
+        return new EntityChangeCoalescer(nid -> !collected.contains(nid), refresher);
+    }
+
+    @Test
+    void repeatedChangesToANidCollapseIntoOneRefresh() throws Exception {
+        EntityChangeCoalescer coalescer = coalescer(refreshed::add);
+
+        try (HeldFxThread held = HeldFxThread.hold()) {
+            coalescer.entityChanged(1);
+            coalescer.entityChanged(2);
+            coalescer.entityChanged(1);
+            coalescer.entityChanged(1);
+            assertEquals(2, coalescer.stats().pending());
+        }
+
+        assertTrue(awaitOnFxThread(() -> refreshed.size() == 2, 10_000));
+        assertEquals(Set.of(1, 2), Set.copyOf(refreshed));
+        EntityChangeCoalescer.Stats stats = coalescer.stats();
+        assertEquals(4, stats.queued());
+        assertEquals(2, stats.coalesced());
+        assertEquals(2, stats.flushed());
+        assertEquals(1, stats.flushes());
+        assertEquals(0, stats.pending());
+    }
+
+    @Test
+    void aBatchLargerThanTheBudgetYieldsToOtherEventsBetweenTurns() throws Exception {
+        EntityChangeCoalescer coalescer = coalescer(refreshed::add);
+        coalescer.setFlushBudget(2);
+
+        try (HeldFxThread held = HeldFxThread.hold()) {
+            for (int nid = 1; nid <= 5; nid++) {
+                coalescer.entityChanged(nid);
+            }
+            // Queued behind the first flush; the flush re-posts itself behind it
+            Platform.runLater(() -> refreshed.add("marker"));
+        }
+
+        assertTrue(awaitOnFxThread(() -> refreshed.size() == 6, 10_000));
+        assertEquals("marker", refreshed.get(2), "one batch of two, then the other event, then the rest");
+        List<Object> nids = new ArrayList<>(refreshed);
+        nids.remove("marker");
+        assertEquals(Set.of(1, 2, 3, 4, 5), Set.copyOf(nids));
+        assertEquals(3, coalescer.stats().flushes());
+    }
+
+    @Test
+    void changesOnTheFxThreadAreAppliedAtOnce() throws Exception {
+        EntityChangeCoalescer coalescer = coalescer(refreshed::add);
+
+        assertTrue(onFxThread(() -> {
+            coalescer.entityChanged(7);
+            return refreshed.contains(7);
+        }));
+        assertEquals(0, coalescer.stats().flushes());
+    }
+
+    @Test
+    void nidsCollectedBeforeTheFlushAreDropped() throws Exception {
+        EntityChangeCoalescer coalescer = coalescer(refreshed::add);
+
+        try (HeldFxThread held = HeldFxThread.hold()) {
+            coalescer.entityChanged(1);
+            coalescer.entityChanged(2);
+            collected.add(2);
+        }
+
+        assertTrue(awaitOnFxThread(() -> coalescer.stats().pending() == 0 && refreshed.size() == 1, 10_000));
+        assertEquals(List.of(1), refreshed);
+        assertEquals(1, coalescer.stats().dropped());
+    }
+
+    @Test
+    void flushingContinuesAfterARefreshThrows() throws Exception {
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        Thread.UncaughtExceptionHandler previousHandler = onFxThread(() -> {
+            Thread.UncaughtExceptionHandler previous = Thread.currentThread().getUncaughtExceptionHandler();
+            Thread.currentThread().setUncaughtExceptionHandler((thread, throwable) -> uncaught.set(throwable));
+            return previous;
+        });
+        try {
+            EntityChangeCoalescer coalescer = coalescer(nid -> {
+                if (nid == 13) {
+                    throw new RefreshError();
+                }
+                if (nid == 14) {
+                    throw new IllegalStateException("refresh of " + nid);
+                }
+                refreshed.add(nid);
+            });
+
+            try (HeldFxThread held = HeldFxThread.hold()) {
+                for (int nid = 10; nid <= 16; nid++) {
+                    coalescer.entityChanged(nid);
+                }
+            }
+
+            assertTrue(awaitOnFxThread(() -> Set.copyOf(refreshed).equals(Set.of(10, 11, 12, 15, 16)), 10_000),
+                    "the rest of the batch is refreshed after the error: " + refreshed);
+            assertInstanceOf(RefreshError.class, uncaught.get());
+
+            coalescer.entityChanged(20);
+            assertTrue(awaitOnFxThread(() -> refreshed.contains(20), 10_000),
+                    "changes after the error are still flushed");
+            assertEquals(0, coalescer.stats().pending());
+            assertEquals(1, coalescer.stats().dropped(), "the runtime exception is counted as dropped");
+        } finally {
+            onFxThread(() -> {
+                Thread.currentThread().setUncaughtExceptionHandler(previousHandler);
+                return null;
+            });
+        }
+    }
+
+    private static final class RefreshError extends Error {
+    }
+
+    /**
+     * Keeps the FX thread busy until closed, so runnables posted meanwhile run in order afterwards.
+     */
+    private record HeldFxThread(CountDownLatch release) implements AutoCloseable {
+
+        static HeldFxThread hold() throws InterruptedException {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Platform.runLater(() -> {
+                running.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            if (!running.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("FX thread did not pick up the hold");
+            }
+            return new HeldFxThread(release);
+        }
+
+        @Override
+        public void close() {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.observable;
+
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import dev.ikm.tinkar.entity.ConceptRecordBuilder;
+import dev.ikm.tinkar.entity.ConceptVersionRecord;
+import dev.ikm.tinkar.entity.ConceptVersionRecordBuilder;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.RecordListBuilder;
+import dev.ikm.tinkar.entity.StampRecord;
+import dev.ikm.tinkar.entity.StampRecordBuilder;
+import dev.ikm.tinkar.entity.StampVersionRecord;
+import dev.ikm.tinkar.entity.StampVersionRecordBuilder;
+import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
+import dev.ikm.tinkar.terms.State;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Stamps and concepts for tests of the observable layer, written to or built against an ephemeral store
+ * loaded with the Tinkar starter data, so the authors, modules and paths of their versions resolve.
+ */
+final class ObservableEntityFixtures {
+
+    private static final File PB_STARTER_DATA = new File("target/data", "tinkar-starter-data-reasoned-pb.zip");
+    private static long nextTime = 1_700_000_000_000L;
+
+    private ObservableEntityFixtures() {
+    }
+
+    static void startStoreWithStarterData() {
+        CachingService.clearAll();
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+        if (!PB_STARTER_DATA.exists()) {
+            throw new IllegalStateException("Starter data must be present at " + PB_STARTER_DATA.getAbsolutePath()
+                    + " (copied by maven-dependency-plugin during process-test-resources)");
+        }
+        new LoadEntitiesFromProtobufFile(PB_STARTER_DATA).compute();
+    }
+
+    /**
+     * Writes a committed stamp with a unique time.
+     *
+     * @return the nid of the stamp
+     */
+    static int committedStamp() {
+        return stamp(nextTime++);
+    }
+
+    /**
+     * Writes a stamp of a transaction that has not been committed.
+     *
+     * @return the nid of the stamp
+     */
+    static int uncommittedStamp() {
+        return stamp(Long.MAX_VALUE);
+    }
+
+    private static synchronized int stamp(long time) {
+        UUID uuid = UUID.randomUUID();
+        int stampNid = EntityService.get().nidForUuids(uuid);
+        RecordListBuilder<StampVersionRecord> versions = RecordListBuilder.make();
+        StampRecord stampRecord = StampRecordBuilder.builder()
+                .nid(stampNid)
+                .leastSignificantBits(uuid.getLeastSignificantBits())
+                .mostSignificantBits(uuid.getMostSignificantBits())
+                .versions(versions)
+                .build();
+        versions.add(StampVersionRecordBuilder.builder()
+                .chronology(stampRecord)
+                .stateNid(State.ACTIVE.nid())
+                .time(time)
+                .authorNid(TinkarTerm.USER.nid())
+                .moduleNid(TinkarTerm.PRIMORDIAL_MODULE.nid())
+                .pathNid(TinkarTerm.DEVELOPMENT_PATH.nid())
+                .build());
+        EntityService.get().putEntity(StampRecordBuilder.builder(stampRecord).versions(versions.toImmutable()).build());
+        return stampNid;
+    }
+
+    /**
+     * Builds, without writing it, a new concept with a version on each of {@code stampNids}.
+     */
+    static ConceptRecord concept(int... stampNids) {
+        PublicId publicId = PublicIds.newRandom();
+        UUID uuid = publicId.asUuidArray()[0];
+        ConceptRecord concept = ConceptRecordBuilder.builder()
+                .nid(EntityService.get().nidForPublicId(publicId))
+                .leastSignificantBits(uuid.getLeastSignificantBits())
+                .mostSignificantBits(uuid.getMostSignificantBits())
+                .versions(RecordListBuilder.<ConceptVersionRecord>make().toImmutable())
+                .build();
+        return withVersions(concept, stampNids);
+    }
+
+    /**
+     * Builds, without writing it, {@code concept} with a new version on each of {@code stampNids}, in that
+     * order, in place of its current versions.
+     */
+    static ConceptRecord withVersions(ConceptRecord concept, int... stampNids) {
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+        for (int stampNid : stampNids) {
+            versions.add(ConceptVersionRecordBuilder.builder()
+                    .chronology(concept)
+                    .stampNid(stampNid)
+                    .build());
+        }
+        return ConceptRecordBuilder.builder(concept).versions(versions.toImmutable()).build();
+    }
+
+    static <T> T onFxThread(Callable<T> callable) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(callable.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result.get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Polls {@code condition} on the FX thread until it holds or {@code timeoutMs} pass.
+     *
+     * @return whether the condition held
+     */
+    static boolean awaitOnFxThread(BooleanSupplier condition, long timeoutMs) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (onFxThread(condition::getAsBoolean)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
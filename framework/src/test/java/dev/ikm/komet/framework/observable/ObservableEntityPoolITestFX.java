@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.observable;
+
+import dev.ikm.komet.framework.testing.JavaFXThreadExtension;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import dev.ikm.tinkar.entity.EntityService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.awaitOnFxThread;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.committedStamp;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.concept;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.onFxThread;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.withVersions;
+import static dev.ikm.komet.framework.testing.JavaFXThreadExtension.RunOnJavaFXThread;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The {@link ObservableEntity#CANONICAL_INSTANCES} pool: one observable per nid while it is referenced,
+ * refreshed in place when the entity changes in the store.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(JavaFXThreadExtension.class)
+class ObservableEntityPoolITestFX {
+
+    @BeforeAll
+    void setupDatabase() {
+        ObservableEntityFixtures.startStoreWithStarterData();
+    }
+
+    @AfterAll
+    void tearDownDatabase() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    @RunOnJavaFXThread
+    void aNidResolvesToOneObservableWhileItIsReferenced() {
+        ConceptRecord record = concept(committedStamp());
+        EntityService.get().putEntity(record);
+
+        ObservableConcept first = ObservableEntityHandle.getConceptOrThrow(record.nid());
+        assertSame(first, ObservableEntityHandle.getConceptOrThrow(record.nid()));
+        assertSame(first, ObservableEntity.packagePrivateGet(record), "resolving the entity itself finds the pooled observable");
+        assertSame(first, ObservableEntity.packagePrivateGet(first));
+
+        ConceptRecord other = concept(committedStamp());
+        EntityService.get().putEntity(other);
+        assertNotSame(first, ObservableEntityHandle.getConceptOrThrow(other.nid()));
+    }
+
+    @Test
+    void changesWrittenOffTheFxThreadRefreshThePooledObservable() throws Exception {
+        ConceptRecord record = concept(committedStamp());
+        EntityService.get().putEntity(record);
+        // Held so the pool keeps the observable until the refresh arrives
+        ObservableConcept observable = onFxThread(() -> ObservableEntityHandle.getConceptOrThrow(record.nid()));
+        assertEquals(1, onFxThread(() -> observable.versions().size()));
+
+        int addedStampNid = committedStamp();
+        EntityService.get().putEntity(withVersions(record, record.versions().get(0).stampNid(), addedStampNid));
+
+        assertTrue(awaitOnFxThread(() -> observable.versions().size() == 2, 10_000),
+                "the pooled observable should receive the appended version");
+        assertTrue(onFxThread(() -> observable.versionPropertyMap().containsKey(addedStampNid)));
+        assertSame(observable, onFxThread(() -> ObservableEntityHandle.getConceptOrThrow(record.nid())));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.framework.observable;
+
+import dev.ikm.komet.framework.testing.JavaFXThreadExtension;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.entity.ConceptRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.committedStamp;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.concept;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.uncommittedStamp;
+import static dev.ikm.komet.framework.observable.ObservableEntityFixtures.withVersions;
+import static dev.ikm.komet.framework.testing.JavaFXThreadExtension.RunOnJavaFXThread;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Merging a changed entity into its pooled observable, for the shapes of version list the store can
+ * hand back: versions appended, an uncommitted version replaced, and fewer versions than seen last time.
+ * The concepts are resolved directly rather than written, so each test controls the exact list merged.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(JavaFXThreadExtension.class)
+class ObservableEntityVersionsITestFX {
+
+    @BeforeAll
+    void setupDatabase() {
+        ObservableEntityFixtures.startStoreWithStarterData();
+    }
+
+    @AfterAll
+    void tearDownDatabase() {
+        PrimitiveData.stop();
+    }
+
+    @Test
+    @RunOnJavaFXThread
+    void appendedVersionsAreAddedAndTheKnownVersionsKept() {
+        int first = committedStamp();
+        ConceptRecord record = concept(first);
+        ObservableConcept observable = ObservableEntity.packagePrivateGet(record);
+        ObservableConceptVersion firstVersion = observable.versionPropertyMap().get(first);
+
+        int second = committedStamp();
+        int third = committedStamp();
+        assertSame(observable, ObservableEntity.packagePrivateGet(withVersions(record, first, second, third)));
+
+        assertEquals(3, observable.versions().size());
+        assertSame(firstVersion, observable.versionPropertyMap().get(first), "a known version is not rewrapped");
+        assertTrue(observable.versionPropertyMap().containsKey(second));
+        assertTrue(observable.versionPropertyMap().containsKey(third));
+    }
+
+    @Test
+    @RunOnJavaFXThread
+    void anUncommittedVersionIsReplacedInPlace() {
+        int committed = committedStamp();
+        int uncommitted = uncommittedStamp();
+        ConceptRecord record = concept(committed, uncommitted);
+        ObservableConcept observable = ObservableEntity.packagePrivateGet(record);
+        ObservableConceptVersion uncommittedVersion = observable.versionPropertyMap().get(uncommitted);
+        assertSame(record.versions().get(1), uncommittedVersion.getVersionRecord());
+
+        ConceptRecord edited = withVersions(record, committed, uncommitted);
+        ObservableEntity.packagePrivateGet(edited);
+
+        assertEquals(2, observable.versions().size());
+        assertSame(uncommittedVersion, observable.versionPropertyMap().get(uncommitted),
+                "the observable version is kept, so its listeners see the edit");
+        assertSame(edited.versions().get(1), uncommittedVersion.getVersionRecord());
+        assertSame(record.versions().get(0), observable.versionPropertyMap().get(committed).getVersionRecord());
+    }
+
+    @Test
+    @RunOnJavaFXThread
+    void aShorterVersionListIsMergedAndLaterAppendsStillArrive() {
+        int first = committedStamp();
+        int second = committedStamp();
+        int third = committedStamp();
+        ConceptRecord record = concept(first, second, third);
+        ObservableConcept observable = ObservableEntity.packagePrivateGet(record);
+
+        // Fewer versions than seen last time: nothing lines up at the last known position
+        ObservableEntity.packagePrivateGet(withVersions(record, first, second));
+        assertEquals(3, observable.versions().size(), "versions are never removed");
+
+        int fourth = committedStamp();
+        ObservableEntity.packagePrivateGet(withVersions(record, first, second, fourth));
+        assertEquals(4, observable.versions().size());
+        assertTrue(observable.versionPropertyMap().containsKey(fourth));
+        assertTrue(observable.versionPropertyMap().containsKey(third));
+    }
+}
@@ -1,11 +1,9 @@
 package dev.ikm.komet.layout.orchestration;
 
 import dev.ikm.tinkar.common.service.PluggableService;
-import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.common.service.TrackingCallable;
 
 import java.text.NumberFormat;
-import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The CountConcepts class is a subclass of TrackingCallable that counts the number of concepts in the datastore.
@@ -19,20 +17,20 @@ public CountConcepts() {
     }
 
     /**
-     * Computes the number of concepts in the datastore.
+     * Reports the number of concepts in the datastore, as kept by {@link DatastoreStatistics}.
      *
      * @return Void.
      * @throws Exception If an error occurs during computation.
      */
     @Override
     protected Void compute() throws Exception {
-        LongAdder count = new LongAdder();
+        long count = 0;
         try {
-            PrimitiveData.get().forEachConceptNid((nid) -> count.increment());
-            PluggableService.first(StatusReportService.class).reportStatus("Total concept count: " + NumberFormat.getInstance().format(count.sum()));
+            count = DatastoreStatistics.get().awaitSnapshot().conceptCount();
+            PluggableService.first(StatusReportService.class).reportStatus("Total concept count: " + NumberFormat.getInstance().format(count));
             return null;
         } finally {
-            updateTitle("Counted " + NumberFormat.getInstance().format(count.sum()) + " concepts");
+            updateTitle("Counted " + NumberFormat.getInstance().format(count) + " concepts");
             updateMessage("In " + durationString());
         }
     }
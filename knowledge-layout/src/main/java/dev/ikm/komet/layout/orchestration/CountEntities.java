@@ -1,11 +1,9 @@
 package dev.ikm.komet.layout.orchestration;
 
 import dev.ikm.tinkar.common.service.PluggableService;
-import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.common.service.TrackingCallable;
 
 import java.text.NumberFormat;
-import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The CountEntities class is a subclass of TrackingCallable that counts the number of entities in the datastore.
@@ -19,20 +17,27 @@ public CountEntities() {
     }
 
     /**
-     * Computes the total count of entities in the datastore and reports the status to the user.
+     * Reports the total count of entities in the datastore, with the count of each kind, as kept by
+     * {@link DatastoreStatistics}.
      *
      * @return null
      * @throws Exception if an error occurs during computation
      */
     @Override
     protected Void compute() throws Exception {
-        LongAdder count = new LongAdder();
+        long count = 0;
         try {
-            PrimitiveData.get().forEachParallel((bytes, value) -> count.increment());
-            PluggableService.first(StatusReportService.class).reportStatus("Total entity count: " + NumberFormat.getInstance().format(count.sum()));
+            DatastoreStatistics.Snapshot snapshot = DatastoreStatistics.get().awaitSnapshot();
+            count = snapshot.entityCount();
+            NumberFormat format = NumberFormat.getInstance();
+            PluggableService.first(StatusReportService.class).reportStatus("Total entity count: " + format.format(count)
+                    + " (" + format.format(snapshot.conceptCount()) + " concepts, "
+                    + format.format(snapshot.semanticCount()) + " semantics, "
+                    + format.format(snapshot.patternCount()) + " patterns, "
+                    + format.format(snapshot.stampCount()) + " stamps)");
             return null;
         } finally {
-            updateTitle("Counted " + NumberFormat.getInstance().format(count.sum()) + " entities");
+            updateTitle("Counted " + NumberFormat.getInstance().format(count) + " entities");
             updateMessage("In " + durationString());
         }
     }
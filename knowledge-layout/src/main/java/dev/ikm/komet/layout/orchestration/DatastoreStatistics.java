@@ -0,0 +1,445 @@
+package dev.ikm.komet.layout.orchestration;
+
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.common.service.TinkExecutor;
+import dev.ikm.tinkar.common.util.broadcast.Subscriber;
+import dev.ikm.tinkar.entity.ConceptEntity;
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.EntityHandle;
+import dev.ikm.tinkar.entity.EntityVersion;
+import dev.ikm.tinkar.entity.PatternEntity;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.StampEntity;
+import dev.ikm.tinkar.terms.State;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.primitive.ImmutableIntLongMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Counts of the entities in the open datastore, computed once per store and kept current from entity change
+ * notifications, so the stats menu answers without scanning the store.
+ * <p>
+ * The first call to {@link #get()} after a datastore is opened loads the snapshot persisted in the data store
+ * root ({@value #FILE_NAME}), or counts the store in the background if there is none. A persisted snapshot is
+ * only trusted if every stamp it recorded is still in the store with the same time, module, path and status
+ * and no other stamp has been added; reading the stamps is far cheaper than reading every entity. Content
+ * written outside this process under an existing stamp is therefore not detected until the next recount.
+ * <p>
+ * Change notifications only record the nid, as {@code EditedConceptTracker} does. The changed entities are
+ * read in a batch shortly afterwards, or when a snapshot is requested, whichever comes first. The end of a
+ * bulk load, or an entity that lost versions, triggers a recount. The snapshot file is rewritten after a
+ * count and, at most every {@value #SAVE_DELAY_MS} ms, after changes.
+ * <p>
+ * If the first count fails, {@link #awaitSnapshot()} fails with it and the next request starts over. If a
+ * recount fails, the previous counts continue to be served.
+ */
+public final class DatastoreStatistics {
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreStatistics.class);
+
+    public static final String FILE_NAME = "datastore-statistics";
+
+    private static final long DRAIN_DELAY_MS = 1_000;
+    private static final long SAVE_DELAY_MS = 30_000;
+
+    private static final DatastoreStatistics INSTANCE = new DatastoreStatistics();
+
+    private final Object lock = new Object();
+    // Held while changes are taken and applied, so a snapshot waits for a drain already in progress
+    private final Object drainLock = new Object();
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+    // Strong reference; the entity provider holds its subscribers weakly.
+    private final Subscriber<Integer> subscriber = this::entityChanged;
+
+    // All guarded by lock
+    private boolean started = false;
+    private File dataStoreRoot = null;
+    private long generation = 0;
+    private StatisticsTally tally = null;
+    private Snapshot snapshot = null;
+    private CompletableFuture<Void> firstSnapshot = new CompletableFuture<>();
+    private MutableIntSet changedNids = new IntHashSet();
+    // Nids changed while a count is scanning the store; reapplied to the new tally
+    private MutableIntSet changedDuringCount = null;
+    private boolean drainScheduled = false;
+    private boolean saveScheduled = false;
+
+    private DatastoreStatistics() {
+    }
+
+    /**
+     * @return the statistics of the open datastore, starting to load or count them if this is the first call
+     * since the datastore was opened
+     */
+    public static DatastoreStatistics get() {
+        INSTANCE.ensureCurrentStore();
+        return INSTANCE;
+    }
+
+    /**
+     * @return the current counts, or empty while the datastore is still being counted
+     */
+    public Optional<Snapshot> snapshot() {
+        ensureCurrentStore();
+        drainChanges();
+        synchronized (lock) {
+            if (tally == null) {
+                return Optional.empty();
+            }
+            if (snapshot == null) {
+                snapshot = tally.snapshot();
+            }
+            return Optional.of(snapshot);
+        }
+    }
+
+    /**
+     * @return the current counts, waiting for the datastore to be counted if necessary
+     * @throws IllegalStateException if no datastore has been opened
+     */
+    public Snapshot awaitSnapshot() throws InterruptedException, ExecutionException {
+        ensureCurrentStore();
+        CompletableFuture<Void> first;
+        synchronized (lock) {
+            if (!started) {
+                throw new IllegalStateException("No datastore is open");
+            }
+            first = firstSnapshot;
+        }
+        first.get();
+        return snapshot().orElseThrow();
+    }
+
+    /**
+     * Counts the datastore again in the background. The previous counts are served until the new ones are ready.
+     */
+    public void recount() {
+        long ticket;
+        File root;
+        synchronized (lock) {
+            ticket = ++generation;
+            root = dataStoreRoot;
+            changedDuringCount = new IntHashSet();
+        }
+        TinkExecutor.threadPool().execute(() -> {
+            try {
+                install(ticket, root, count(), true);
+            } catch (RuntimeException e) {
+                failed(ticket, e);
+            }
+        });
+    }
+
+    private void ensureCurrentStore() {
+        if (!PrimitiveData.running()) {
+            return;
+        }
+        if (subscribed.compareAndSet(false, true)) {
+            Entity.provider().addSubscriberWithWeakReference(subscriber);
+        }
+        File root = ServiceProperties.get(ServiceKeys.DATA_STORE_ROOT).orElse(null);
+        long ticket;
+        synchronized (lock) {
+            if (started && Objects.equals(root, dataStoreRoot)) {
+                return;
+            }
+            if (started) {
+                LOG.info("Data store changed; discarding datastore statistics for {}", dataStoreRoot);
+            }
+            started = true;
+            dataStoreRoot = root;
+            ticket = ++generation;
+            tally = null;
+            snapshot = null;
+            firstSnapshot = new CompletableFuture<>();
+            changedNids = new IntHashSet();
+            changedDuringCount = new IntHashSet();
+        }
+        TinkExecutor.threadPool().execute(() -> open(ticket, root));
+    }
+
+    private void open(long ticket, File root) {
+        try {
+            StatisticsTally loaded = load(root);
+            if (loaded != null) {
+                StatisticsTally stamps = new StatisticsTally();
+                PrimitiveData.get().forEachStampNid(nid -> apply(stamps, nid));
+                if (loaded.sameStamps(stamps)) {
+                    install(ticket, root, loaded, false);
+                    return;
+                }
+                LOG.info("Stamps changed since the datastore statistics were saved; recounting");
+            }
+            install(ticket, root, count(), true);
+        } catch (RuntimeException e) {
+            failed(ticket, e);
+        }
+    }
+
+    /**
+     * Fails the callers waiting for the first snapshot. If there are no counts yet, the next request starts
+     * counting again rather than waiting on a count that will never finish.
+     */
+    private void failed(long ticket, RuntimeException e) {
+        CompletableFuture<Void> first;
+        synchronized (lock) {
+            if (ticket != generation) {
+                return;
+            }
+            changedDuringCount = null;
+            if (tally == null) {
+                started = false;
+            }
+            first = firstSnapshot;
+        }
+        LOG.error("Unable to count datastore statistics", e);
+        first.completeExceptionally(e);
+    }
+
+    private static StatisticsTally count() {
+        long start = System.currentTimeMillis();
+        StatisticsTally counted = new StatisticsTally();
+        PrimitiveData.get().forEachStampNid(nid -> apply(counted, nid));
+        PrimitiveData.get().forEachPatternNid(nid -> apply(counted, nid));
+        PrimitiveData.get().forEachConceptNid(nid -> apply(counted, nid));
+        PrimitiveData.get().forEachSemanticNid(nid -> apply(counted, nid));
+        LOG.info("Counted datastore statistics in {} ms", System.currentTimeMillis() - start);
+        return counted;
+    }
+
+    private void install(long ticket, File root, StatisticsTally installed, boolean save) {
+        int[] reapply;
+        synchronized (lock) {
+            if (ticket != generation) {
+                return;
+            }
+            reapply = changedDuringCount.toArray();
+            changedDuringCount = null;
+        }
+        // the scan may or may not have seen these changes; applying them again is harmless
+        boolean consistent = true;
+        for (int nid : reapply) {
+            consistent &= apply(installed, nid);
+        }
+        CompletableFuture<Void> first;
+        synchronized (lock) {
+            if (ticket != generation) {
+                return;
+            }
+            tally = installed;
+            snapshot = null;
+            first = firstSnapshot;
+        }
+        if (!consistent) {
+            recount();
+            return;
+        }
+        first.complete(null);
+        if (save) {
+            save(root, installed);
+        }
+    }
+
+    private void entityChanged(int nid) {
+        if (nid == Integer.MIN_VALUE) {
+            // Sentinel from endLoadPhase: individual notifications were not sent during the load
+            synchronized (lock) {
+                if (!started) {
+                    return;
+                }
+            }
+            recount();
+            return;
+        }
+        boolean scheduleDrain;
+        synchronized (lock) {
+            changedNids.add(nid);
+            if (changedDuringCount != null) {
+                changedDuringCount.add(nid);
+            }
+            scheduleDrain = !drainScheduled;
+            drainScheduled = true;
+        }
+        if (scheduleDrain) {
+            TinkExecutor.scheduled().schedule(this::drainChanges, DRAIN_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drainChanges() {
+        synchronized (drainLock) {
+            StatisticsTally current;
+            int[] nids;
+            synchronized (lock) {
+                drainScheduled = false;
+                if (tally == null || changedNids.isEmpty()) {
+                    return;
+                }
+                current = tally;
+                nids = changedNids.toArray();
+                changedNids = new IntHashSet();
+            }
+            boolean consistent = true;
+            for (int nid : nids) {
+                consistent &= apply(current, nid);
+            }
+            boolean scheduleSave;
+            synchronized (lock) {
+                if (current != tally) {
+                    return;
+                }
+                snapshot = null;
+                scheduleSave = !saveScheduled;
+                saveScheduled = true;
+            }
+            if (!consistent) {
+                LOG.info("An entity lost versions; recounting datastore statistics");
+                recount();
+            } else if (scheduleSave) {
+                TinkExecutor.scheduled().schedule(this::saveCurrent, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Reads the entity for {@code nid} and records it in {@code tally}.
+     *
+     * @return {@code false} if the tally can no longer be kept current incrementally
+     */
+    private static boolean apply(StatisticsTally tally, int nid) {
+        EntityHandle handle = EntityHandle.get(nid);
+        if (handle.isAbsent()) {
+            return tally.recordAbsent(nid);
+        }
+        return switch (handle.expectEntity()) {
+            case StampEntity<?> stamp -> {
+                tally.recordStamp(nid, new StatisticsTally.StampFacts(stamp.time(), stamp.moduleNid(),
+                        stamp.pathNid(), stamp.state()));
+                yield true;
+            }
+            case ConceptEntity<?> concept ->
+                    tally.recordEntity(nid, StatisticsTally.Kind.CONCEPT, 0, stampNids(concept.versions()));
+            case SemanticEntity<?> semantic ->
+                    tally.recordEntity(nid, StatisticsTally.Kind.SEMANTIC, semantic.patternNid(),
+                            stampNids(semantic.versions()));
+            case PatternEntity<?> pattern ->
+                    tally.recordEntity(nid, StatisticsTally.Kind.PATTERN, 0, stampNids(pattern.versions()));
+            default -> true;
+        };
+    }
+
+    private static int[] stampNids(ImmutableList<? extends EntityVersion> versions) {
+        int[] stampNids = new int[versions.size()];
+        for (int i = 0; i < stampNids.length; i++) {
+            stampNids[i] = versions.get(i).stampNid();
+        }
+        return stampNids;
+    }
+
+    private void saveCurrent() {
+        StatisticsTally current;
+        File root;
+        synchronized (lock) {
+            saveScheduled = false;
+            current = tally;
+            root = dataStoreRoot;
+        }
+        if (current != null) {
+            save(root, current);
+        }
+    }
+
+    private static StatisticsTally load(File root) {
+        if (root == null) {
+            return null;
+        }
+        Path file = root.toPath().resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            return StatisticsTally.read(in);
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Ignoring unreadable datastore statistics {}", file, e);
+            return null;
+        }
+    }
+
+    private static void save(File root, StatisticsTally saved) {
+        if (root == null || !root.isDirectory()) {
+            return;
+        }
+        Path file = root.toPath().resolve(FILE_NAME);
+        Path temporaryFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+                saved.write(out);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Unable to write datastore statistics {}", file, e);
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    /**
+     * Counts of the entities in the datastore at one point in time.
+     *
+     * @param conceptCount          concepts
+     * @param semanticCount         semantics
+     * @param patternCount          patterns
+     * @param stampCount            stamps
+     * @param semanticsByPattern    semantics per pattern nid
+     * @param versionsByModule      concept, semantic and pattern versions per module nid
+     * @param versionsByPath        concept, semantic and pattern versions per path nid
+     * @param versionsByStatus      concept, semantic and pattern versions per status
+     * @param versionCountHistogram concepts, semantics and patterns by number of versions, keyed by the lower
+     *                              bound of buckets 1, 2, 3-4, 5-8, 9-16 and so on
+     * @param stampsByYear          committed stamps per UTC year of their time
+     * @param uncommittedStampCount stamps of transactions not yet committed
+     */
+    public record Snapshot(long conceptCount, long semanticCount, long patternCount, long stampCount,
+                           ImmutableIntLongMap semanticsByPattern,
+                           ImmutableIntLongMap versionsByModule,
+                           ImmutableIntLongMap versionsByPath,
+                           Map<State, Long> versionsByStatus,
+                           ImmutableIntLongMap versionCountHistogram,
+                           ImmutableIntLongMap stampsByYear,
+                           long uncommittedStampCount) {
+
+        /**
+         * @return concepts, semantics, patterns and stamps together
+         */
+        public long entityCount() {
+            return conceptCount + semanticCount + patternCount + stampCount;
+        }
+    }
+}
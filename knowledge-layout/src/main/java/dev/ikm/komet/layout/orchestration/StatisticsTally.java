@@ -0,0 +1,229 @@
+package dev.ikm.komet.layout.orchestration;
+
+import dev.ikm.tinkar.terms.State;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The running counts behind {@link DatastoreStatistics}.
+ * <p>
+ * Entities are recorded by nid with the stamp nids of their versions. Each recorded entity keeps only its
+ * version count, so a later notification for the same nid adds just the versions appended since, the way
+ * {@code ObservableEntity} merges appended versions. Module, path and status breakdowns are kept per
+ * stamp and resolved against the recorded stamps when a {@link DatastoreStatistics.Snapshot} is taken, so
+ * committing a transaction, which changes the stamp rather than the versions, needs no bookkeeping here.
+ * <p>
+ * Versions are never removed, so an entity that lost versions or disappeared cannot be accounted for
+ * incrementally; the recording methods report it and the owner recounts from the store.
+ */
+final class StatisticsTally {
+
+    static final String FORMAT_HEADER = "komet-datastore-statistics 1";
+
+    enum Kind {CONCEPT, SEMANTIC, PATTERN}
+
+    /**
+     * The fields of a stamp the breakdowns depend on.
+     */
+    record StampFacts(long time, int moduleNid, int pathNid, State state) {
+    }
+
+    private final long[] entityCounts = new long[Kind.values().length];
+    private final MutableIntLongMap semanticsByPattern = new IntLongHashMap();
+    private final MutableIntIntMap versionCounts = new IntIntHashMap();
+    private final MutableIntLongMap versionsByStamp = new IntLongHashMap();
+    private final MutableIntLongMap versionCountHistogram = new IntLongHashMap();
+    private final MutableIntObjectMap<StampFacts> stamps = new IntObjectHashMap<>();
+
+    /**
+     * Records a concept, semantic or pattern, or the versions appended to it since it was last recorded.
+     *
+     * @param nid        the nid of the entity
+     * @param kind       the kind of entity
+     * @param patternNid the pattern of a semantic; ignored for other kinds
+     * @param stampNids  the stamp nids of its versions, in version order
+     * @return {@code false} if the entity has fewer versions than when it was last recorded
+     */
+    synchronized boolean recordEntity(int nid, Kind kind, int patternNid, int[] stampNids) {
+        int previous = versionCounts.getIfAbsent(nid, -1);
+        if (previous == stampNids.length) {
+            return true;
+        }
+        if (previous > stampNids.length) {
+            return false;
+        }
+        if (previous == -1) {
+            entityCounts[kind.ordinal()]++;
+            if (kind == Kind.SEMANTIC) {
+                semanticsByPattern.addToValue(patternNid, 1);
+            }
+        } else {
+            versionCountHistogram.addToValue(histogramBucket(previous), -1);
+        }
+        versionCountHistogram.addToValue(histogramBucket(stampNids.length), 1);
+        for (int i = Math.max(previous, 0); i < stampNids.length; i++) {
+            versionsByStamp.addToValue(stampNids[i], 1);
+        }
+        versionCounts.put(nid, stampNids.length);
+        return true;
+    }
+
+    /**
+     * Records a stamp, or its new state after a commit.
+     */
+    synchronized void recordStamp(int nid, StampFacts facts) {
+        stamps.put(nid, facts);
+    }
+
+    /**
+     * Accounts for an entity that is no longer in the store.
+     *
+     * @return {@code false} if a concept, semantic or pattern with this nid was recorded
+     */
+    synchronized boolean recordAbsent(int nid) {
+        stamps.remove(nid);
+        return !versionCounts.containsKey(nid);
+    }
+
+    /**
+     * @return {@code true} if both tallies recorded the same stamps with the same fields
+     */
+    synchronized boolean sameStamps(StatisticsTally other) {
+        synchronized (other) {
+            return stamps.equals(other.stamps);
+        }
+    }
+
+    /**
+     * @return the lower bound of the histogram bucket for an entity with {@code versionCount} versions:
+     * 1, 2, 3-4, 5-8, 9-16 and so on
+     */
+    static int histogramBucket(int versionCount) {
+        return versionCount <= 2 ? versionCount : Integer.highestOneBit(versionCount - 1) + 1;
+    }
+
+    synchronized DatastoreStatistics.Snapshot snapshot() {
+        MutableIntLongMap versionsByModule = new IntLongHashMap();
+        MutableIntLongMap versionsByPath = new IntLongHashMap();
+        Map<State, Long> versionsByStatus = new EnumMap<>(State.class);
+        versionsByStamp.forEachKeyValue((stampNid, versions) -> {
+            StampFacts facts = stamps.get(stampNid);
+            // a stamp whose own notification has not been applied yet
+            if (facts != null) {
+                versionsByModule.addToValue(facts.moduleNid(), versions);
+                versionsByPath.addToValue(facts.pathNid(), versions);
+                versionsByStatus.merge(facts.state(), versions, Long::sum);
+            }
+        });
+        MutableIntLongMap stampsByYear = new IntLongHashMap();
+        for (StampFacts facts : stamps.values()) {
+            if (facts.time() != Long.MAX_VALUE) {
+                stampsByYear.addToValue(Instant.ofEpochMilli(facts.time()).atZone(ZoneOffset.UTC).getYear(), 1);
+            }
+        }
+        MutableIntLongMap histogram = new IntLongHashMap();
+        versionCountHistogram.forEachKeyValue((bucket, entities) -> {
+            if (entities != 0) {
+                histogram.put(bucket, entities);
+            }
+        });
+        return new DatastoreStatistics.Snapshot(
+                entityCounts[Kind.CONCEPT.ordinal()],
+                entityCounts[Kind.SEMANTIC.ordinal()],
+                entityCounts[Kind.PATTERN.ordinal()],
+                stamps.size(),
+                semanticsByPattern.toImmutable(),
+                versionsByModule.toImmutable(),
+                versionsByPath.toImmutable(),
+                Map.copyOf(versionsByStatus),
+                histogram.toImmutable(),
+                stampsByYear.toImmutable(),
+                stamps.count(facts -> facts.time() == Long.MAX_VALUE));
+    }
+
+    synchronized void write(DataOutputStream out) throws IOException {
+        out.writeUTF(FORMAT_HEADER);
+        for (long count : entityCounts) {
+            out.writeLong(count);
+        }
+        writeIntLongMap(out, semanticsByPattern);
+        writeIntLongMap(out, versionsByStamp);
+        int[] nids = versionCounts.keySet().toSortedArray();
+        out.writeInt(nids.length);
+        for (int nid : nids) {
+            out.writeInt(nid);
+            out.writeInt(versionCounts.get(nid));
+        }
+        int[] stampNids = stamps.keySet().toSortedArray();
+        out.writeInt(stampNids.length);
+        for (int stampNid : stampNids) {
+            StampFacts facts = stamps.get(stampNid);
+            out.writeInt(stampNid);
+            out.writeLong(facts.time());
+            out.writeInt(facts.moduleNid());
+            out.writeInt(facts.pathNid());
+            out.writeUTF(facts.state().name());
+        }
+    }
+
+    /**
+     * @throws IOException if the stream is truncated or was written in another format
+     */
+    static StatisticsTally read(DataInputStream in) throws IOException {
+        if (!FORMAT_HEADER.equals(in.readUTF())) {
+            throw new IOException("Unknown datastore statistics format");
+        }
+        StatisticsTally tally = new StatisticsTally();
+        for (int i = 0; i < tally.entityCounts.length; i++) {
+            tally.entityCounts[i] = in.readLong();
+        }
+        readIntLongMap(in, tally.semanticsByPattern);
+        readIntLongMap(in, tally.versionsByStamp);
+        int entityCount = in.readInt();
+        for (int i = 0; i < entityCount; i++) {
+            int nid = in.readInt();
+            int versionCount = in.readInt();
+            tally.versionCounts.put(nid, versionCount);
+            tally.versionCountHistogram.addToValue(histogramBucket(versionCount), 1);
+        }
+        int stampCount = in.readInt();
+        for (int i = 0; i < stampCount; i++) {
+            int stampNid = in.readInt();
+            try {
+                tally.stamps.put(stampNid, new StampFacts(in.readLong(), in.readInt(), in.readInt(),
+                        State.valueOf(in.readUTF())));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown stamp state", e);
+            }
+        }
+        return tally;
+    }
+
+    private static void writeIntLongMap(DataOutputStream out, MutableIntLongMap map) throws IOException {
+        int[] keys = map.keySet().toSortedArray();
+        out.writeInt(keys.length);
+        for (int key : keys) {
+            out.writeInt(key);
+            out.writeLong(map.get(key));
+        }
+    }
+
+    private static void readIntLongMap(DataInputStream in, MutableIntLongMap map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            map.put(in.readInt(), in.readLong());
+        }
+    }
+}
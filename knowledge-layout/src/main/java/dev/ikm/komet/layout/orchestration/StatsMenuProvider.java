@@ -23,6 +23,8 @@ public class StatsMenuProvider implements MenuService {
      */
     @Override
     public ImmutableMultimap<String, MenuItem> getMenuItems(Window window) {
+        // Start counting now so the stats menu items answer without waiting
+        DatastoreStatistics.get();
 
         MutableMultimap<String, MenuItem> menuItems = Multimaps.mutable.list.empty();
 
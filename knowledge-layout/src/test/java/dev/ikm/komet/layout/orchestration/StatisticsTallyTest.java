@@ -0,0 +1,148 @@
+package dev.ikm.komet.layout.orchestration;
+
+import dev.ikm.tinkar.terms.State;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Incremental bookkeeping of {@link StatisticsTally}; no datastore is required.
+ */
+class StatisticsTallyTest {
+
+    private static final int MODULE = 100;
+    private static final int OTHER_MODULE = 101;
+    private static final int PATH = 200;
+    private static final int PATTERN = 300;
+    // 2024-03-01T00:00:00Z
+    private static final long TIME_2024 = 1_709_251_200_000L;
+
+    private static StatisticsTally.StampFacts stamp(int moduleNid, State state, long time) {
+        return new StatisticsTally.StampFacts(time, moduleNid, PATH, state);
+    }
+
+    private static StatisticsTally sample() {
+        StatisticsTally tally = new StatisticsTally();
+        tally.recordStamp(1, stamp(MODULE, State.ACTIVE, TIME_2024));
+        tally.recordStamp(2, stamp(OTHER_MODULE, State.INACTIVE, TIME_2024));
+        tally.recordEntity(10, StatisticsTally.Kind.CONCEPT, 0, new int[]{1});
+        tally.recordEntity(11, StatisticsTally.Kind.CONCEPT, 0, new int[]{1, 2});
+        tally.recordEntity(20, StatisticsTally.Kind.SEMANTIC, PATTERN, new int[]{1});
+        tally.recordEntity(PATTERN, StatisticsTally.Kind.PATTERN, 0, new int[]{1});
+        return tally;
+    }
+
+    @Test
+    void countsEntitiesAndBreakdowns() {
+        DatastoreStatistics.Snapshot snapshot = sample().snapshot();
+
+        assertEquals(2, snapshot.conceptCount());
+        assertEquals(1, snapshot.semanticCount());
+        assertEquals(1, snapshot.patternCount());
+        assertEquals(2, snapshot.stampCount());
+        assertEquals(6, snapshot.entityCount());
+        assertEquals(1, snapshot.semanticsByPattern().get(PATTERN));
+        assertEquals(4, snapshot.versionsByModule().get(MODULE));
+        assertEquals(1, snapshot.versionsByModule().get(OTHER_MODULE));
+        assertEquals(5, snapshot.versionsByPath().get(PATH));
+        assertEquals(4L, snapshot.versionsByStatus().get(State.ACTIVE).longValue());
+        assertEquals(1L, snapshot.versionsByStatus().get(State.INACTIVE).longValue());
+        assertEquals(3, snapshot.versionCountHistogram().get(1));
+        assertEquals(1, snapshot.versionCountHistogram().get(2));
+        assertEquals(2, snapshot.stampsByYear().get(2024));
+        assertEquals(0, snapshot.uncommittedStampCount());
+    }
+
+    @Test
+    void repeatedNotificationsOnlyAddAppendedVersions() {
+        StatisticsTally tally = sample();
+        tally.recordStamp(3, stamp(MODULE, State.ACTIVE, TIME_2024));
+
+        assertTrue(tally.recordEntity(10, StatisticsTally.Kind.CONCEPT, 0, new int[]{1}));
+        assertTrue(tally.recordEntity(10, StatisticsTally.Kind.CONCEPT, 0, new int[]{1, 3, 3}));
+        DatastoreStatistics.Snapshot snapshot = tally.snapshot();
+
+        assertEquals(2, snapshot.conceptCount());
+        assertEquals(6, snapshot.versionsByModule().get(MODULE));
+        assertEquals(2, snapshot.versionCountHistogram().get(1));
+        assertEquals(1, snapshot.versionCountHistogram().get(2));
+        assertEquals(1, snapshot.versionCountHistogram().get(3));
+    }
+
+    @Test
+    void committingAStampMovesItsVersions() {
+        StatisticsTally tally = new StatisticsTally();
+        tally.recordStamp(1, stamp(MODULE, State.ACTIVE, Long.MAX_VALUE));
+        tally.recordEntity(10, StatisticsTally.Kind.CONCEPT, 0, new int[]{1});
+        assertEquals(1, tally.snapshot().uncommittedStampCount());
+        assertTrue(tally.snapshot().stampsByYear().isEmpty());
+
+        tally.recordStamp(1, stamp(OTHER_MODULE, State.ACTIVE, TIME_2024));
+        DatastoreStatistics.Snapshot snapshot = tally.snapshot();
+
+        assertEquals(0, snapshot.uncommittedStampCount());
+        assertEquals(0, snapshot.versionsByModule().get(MODULE));
+        assertEquals(1, snapshot.versionsByModule().get(OTHER_MODULE));
+        assertEquals(1, snapshot.stampsByYear().get(2024));
+    }
+
+    @Test
+    void lostVersionsAndRemovedEntitiesAreReported() {
+        StatisticsTally tally = sample();
+
+        assertFalse(tally.recordEntity(11, StatisticsTally.Kind.CONCEPT, 0, new int[]{1}));
+        assertFalse(tally.recordAbsent(10));
+        assertTrue(tally.recordAbsent(2));
+        assertEquals(1, tally.snapshot().stampCount());
+    }
+
+    @Test
+    void histogramBucketsDoubleInWidth() {
+        assertEquals(1, StatisticsTally.histogramBucket(1));
+        assertEquals(2, StatisticsTally.histogramBucket(2));
+        assertEquals(3, StatisticsTally.histogramBucket(3));
+        assertEquals(3, StatisticsTally.histogramBucket(4));
+        assertEquals(5, StatisticsTally.histogramBucket(5));
+        assertEquals(5, StatisticsTally.histogramBucket(8));
+        assertEquals(9, StatisticsTally.histogramBucket(9));
+        assertEquals(9, StatisticsTally.histogramBucket(16));
+        assertEquals(17, StatisticsTally.histogramBucket(17));
+    }
+
+    @Test
+    void roundTripsThroughItsFileFormat() throws IOException {
+        StatisticsTally tally = sample();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            tally.write(out);
+        }
+
+        StatisticsTally read = StatisticsTally.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(read.sameStamps(tally));
+        assertEquals(tally.snapshot(), read.snapshot());
+        // appended versions still apply incrementally after a reload
+        assertTrue(read.recordEntity(11, StatisticsTally.Kind.CONCEPT, 0, new int[]{1, 2, 1}));
+        assertEquals(5, read.snapshot().versionsByModule().get(MODULE));
+    }
+
+    @Test
+    void rejectsOtherFormats() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("something else");
+        }
+
+        assertThrows(IOException.class,
+                () -> StatisticsTally.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
@@ -0,0 +1,339 @@
+package dev.ikm.komet.kview.controls;
+
+import dev.ikm.komet.navigator.graph.Navigator;
+import dev.ikm.tinkar.entity.Entity;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.stack.primitive.MutableIntStack;
+import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.factory.primitive.IntStacks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+
+/**
+ * <p>Memoized index of the ancestors of the concepts shown in a {@link KLConceptNavigatorControl}.
+ * <p>An {@link InvertedTree} expands every lineage of a concept into a branch of its own, so an ancestor
+ * reached through several paths is looked up once per path, and the number of paths grows combinatorially
+ * on polyhierarchical content. The index instead records, once per concept, its parents, the length of its
+ * longest and shortest lineage, and the parent its shortest lineage goes through. Each concept and each
+ * parent edge is examined once, ancestors shared by several concepts are resolved the first time any of
+ * them is queried, and parent descriptions are fetched once per concept.
+ * <p>Depths count edges: a root has depth 0, a concept whose parents are all roots has depth 1, and so on,
+ * matching {@link InvertedTree#getTreeDepth()}. Parent cycles, which should not occur in a classified
+ * taxonomy, are first resolved by ignoring the edge that closes the cycle, which is only right for the
+ * concept the walk entered the cycle at. Once the walk leaves the cycle, the shortest lineages of its
+ * concepts are recomputed over all of their parents, and their longest lineages over the parents with a
+ * shorter lineage, before they are memoized. A concept with no lineage to a root is the first concept of
+ * its own lineage, as a root is, but loses to any lineage that does reach a root.
+ * <p>Each {@link KLConceptNavigatorControl} holds one index for its {@link Navigator}. The control
+ * {@link #invalidate() invalidates} it whenever an entity changes or the calculator caches are refreshed;
+ * the memoized tables are then discarded on the next query.
+ */
+public final class AncestorIndex {
+
+    private final IntFunction<int[]> parentNids;
+    private final IntFunction<String> descriptions;
+
+    private final MutableIntObjectMap<Node> nodes = IntObjectMaps.mutable.empty();
+    private final MutableIntObjectMap<int[]> ancestors = IntObjectMaps.mutable.empty();
+    private final MutableIntObjectMap<String> descriptionCache = IntObjectMaps.mutable.empty();
+    private volatile boolean stale = false;
+
+    /**
+     * <p>Creates an index over the parents of the given {@link Navigator}.
+     * @param navigator the {@link Navigator} that holds the dataset
+     */
+    public AncestorIndex(Navigator navigator) {
+        this(nid -> ConceptNavigatorUtils.getParentNids(navigator, nid),
+                nid -> Entity.getFast(nid).description());
+    }
+
+    /**
+     * @param parentNids supplies the parents of a concept
+     * @param descriptions supplies the description of a concept
+     */
+    public AncestorIndex(IntFunction<int[]> parentNids, IntFunction<String> descriptions) {
+        this.parentNids = parentNids;
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @return the nids of the parents of the concept, in navigator order
+     */
+    public synchronized int[] getParentNids(int nid) {
+        return resolve(nid).parents().clone();
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @return the number of edges of the longest lineage from the concept to a root
+     */
+    public synchronized int getMaxDepth(int nid) {
+        return resolve(nid).maxDepth();
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @return the number of edges of the shortest lineage from the concept to a root
+     */
+    public synchronized int getMinDepth(int nid) {
+        return resolve(nid).minDepth();
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @return the sorted, distinct nids of all the ancestors of the concept, excluding the concept itself
+     */
+    public synchronized int[] getAncestorNids(int nid) {
+        resolve(nid);
+        return ancestors.getIfAbsentPut(nid, () -> collectAncestors(nid)).clone();
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @param ancestorNid the nid of a possible ancestor
+     * @return true if {@code ancestorNid} is a parent of the concept, or an ancestor of any of its parents
+     */
+    public synchronized boolean isAncestor(int nid, int ancestorNid) {
+        resolve(nid);
+        return Arrays.binarySearch(ancestors.getIfAbsentPut(nid, () -> collectAncestors(nid)), ancestorNid) >= 0;
+    }
+
+    /**
+     * @param nid the nid of the concept
+     * @return the description of the concept, fetched once until the index is invalidated
+     */
+    public synchronized String getDescription(int nid) {
+        validate();
+        return descriptionCache.getIfAbsentPut(nid, () -> descriptions.apply(nid));
+    }
+
+    /**
+     * <p>Finds the shortest lineage of a concept, optionally restricted to the lineages that go through a
+     * given parent. When several lineages are equally short, the one that takes the earliest parents in
+     * navigator order wins, which is the first such lineage of {@link InvertedTree#getLineageMap()}.
+     * @param nid the nid of the concept
+     * @param parentNid the nid of the parent the lineage must go through, or -1 for any parent
+     * @return the nids of the lineage, starting with a root and ending with a parent of the concept, or an
+     * empty array if the concept is a root or {@code parentNid} is not one of its parents
+     */
+    public synchronized int[] getShortestLineage(int nid, int parentNid) {
+        Node node = resolve(nid);
+        int current;
+        if (parentNid == -1) {
+            if (node.isRoot()) {
+                return new int[0];
+            }
+            current = node.shortestParentNid();
+        } else if (Arrays.stream(node.parents()).anyMatch(p -> p == parentNid)) {
+            current = parentNid;
+        } else {
+            return new int[0];
+        }
+        MutableIntList lineage = IntLists.mutable.empty();
+        while (true) {
+            lineage.add(current);
+            Node currentNode = nodes.get(current);
+            if (currentNode.isRoot()) {
+                return lineage.reverseThis().toArray();
+            }
+            current = currentNode.shortestParentNid();
+        }
+    }
+
+    /**
+     * <p>Discards all memoized lineages and descriptions. Cheap enough to call for every entity change; the
+     * tables are only cleared on the next query.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private void validate() {
+        if (stale) {
+            stale = false;
+            nodes.clear();
+            ancestors.clear();
+            descriptionCache.clear();
+        }
+    }
+
+    /**
+     * <p>Iterative post-order walk over the unresolved ancestors of {@code nid}; a concept is
+     * resolved once all of its parents are. The concepts being resolved are numbered in the order the
+     * walk reaches them. A concept that skips a parent on the walk, or takes a parent that is still in a
+     * cycle, is held in the cycle with the lowest number it depends on, until the concept with that number
+     * is resolved and closes it.
+     */
+    private Node resolve(int nid) {
+        validate();
+        Node resolved = nodes.get(nid);
+        if (resolved != null) {
+            return resolved;
+        }
+        MutableIntStack stack = IntStacks.mutable.empty();
+        MutableIntObjectMap<int[]> onStack = IntObjectMaps.mutable.empty();
+        MutableIntIntMap reachOrder = IntIntMaps.mutable.empty();
+        int reached = 0;
+        MutableIntIntMap lowestOrder = IntIntMaps.mutable.empty();
+        MutableIntList cycle = IntLists.mutable.empty();
+        stack.push(nid);
+        while (stack.notEmpty()) {
+            int current = stack.peek();
+            if (nodes.containsKey(current)) {
+                stack.pop();
+                continue;
+            }
+            int[] parents = onStack.get(current);
+            if (parents == null) {
+                parents = parentNids.apply(current);
+                onStack.put(current, parents);
+                reachOrder.put(current, reached++);
+                boolean pushed = false;
+                for (int parentNid : parents) {
+                    if (!nodes.containsKey(parentNid) && !onStack.containsKey(parentNid)) {
+                        stack.push(parentNid);
+                        pushed = true;
+                    }
+                }
+                if (pushed) {
+                    continue;
+                }
+            }
+            stack.pop();
+            int order = reachOrder.get(current);
+            int lowest = order;
+            for (int parentNid : parents) {
+                lowest = Math.min(lowest, reachOrder.getIfAbsent(parentNid,
+                        lowestOrder.getIfAbsent(parentNid, order)));
+            }
+            onStack.remove(current);
+            reachOrder.remove(current);
+            nodes.put(current, newNode(parents));
+            if (lowest < order) {
+                lowestOrder.put(current, lowest);
+                cycle.add(current);
+            } else if (cycle.notEmpty() && lowestOrder.get(cycle.getLast()) >= order) {
+                MutableIntList members = IntLists.mutable.with(current);
+                while (cycle.notEmpty() && lowestOrder.get(cycle.getLast()) >= order) {
+                    int member = cycle.removeAtIndex(cycle.size() - 1);
+                    lowestOrder.remove(member);
+                    members.add(member);
+                }
+                settle(members);
+            }
+        }
+        return nodes.get(nid);
+    }
+
+    private Node newNode(int[] parents) {
+        int maxDepth = 0;
+        Node shortest = null;
+        int shortestParentNid = 0;
+        for (int parentNid : parents) {
+            Node parent = nodes.get(parentNid);
+            // a parent with no node closes a cycle back to a concept still being resolved
+            if (parent != null) {
+                maxDepth = Math.max(maxDepth, parent.maxDepth() + 1);
+                if (shortest == null || parent.isShorterThan(shortest)) {
+                    shortest = parent;
+                    shortestParentNid = parentNid;
+                }
+            }
+        }
+        if (shortest == null) {
+            // with every parent skipped, the concept is a dead end in the cycle rather than a root
+            return new Node(parents, 0, 0, 0, parents.length == 0);
+        }
+        return new Node(parents, maxDepth, shortest.minDepth() + 1, shortestParentNid, shortest.reachesRoot());
+    }
+
+    /**
+     * <p>Recomputes the nodes of the concepts of a closed cycle. Shortest lineages take the parent edges
+     * within the cycle into account, by relaxing them until no lineage gets shorter; longest lineages only
+     * go through the parents whose shortest lineage is shorter, since following every edge around the
+     * cycle would never end.
+     */
+    private void settle(MutableIntList members) {
+        MutableIntSet memberSet = members.toSet();
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < members.size(); i++) {
+                int nid = members.get(i);
+                Node node = nodes.get(nid);
+                for (int parentNid : node.parents()) {
+                    if (memberSet.contains(parentNid)) {
+                        Node parent = nodes.get(parentNid);
+                        Node candidate = new Node(node.parents(), node.maxDepth(), parent.minDepth() + 1,
+                                parentNid, parent.reachesRoot());
+                        if (candidate.isShorterThan(node)) {
+                            node = candidate;
+                            nodes.put(nid, node);
+                            improved = true;
+                        }
+                    }
+                }
+            }
+        }
+        int[] shortestFirst = members.primitiveStream().boxed()
+                .sorted(Comparator.comparing((Integer member) -> !nodes.get(member).reachesRoot())
+                        .thenComparingInt(member -> nodes.get(member).minDepth()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int nid : shortestFirst) {
+            Node node = nodes.get(nid);
+            int maxDepth = 0;
+            int shortestParentNid = node.shortestParentNid();
+            boolean shortestFound = node.isRoot();
+            for (int parentNid : node.parents()) {
+                Node parent = nodes.get(parentNid);
+                if (!memberSet.contains(parentNid) || parent.isShorterThan(node)) {
+                    maxDepth = Math.max(maxDepth, parent.maxDepth() + 1);
+                }
+                // the earliest parent in navigator order among the equally short ones, as outside a cycle
+                if (!shortestFound && parent.reachesRoot() == node.reachesRoot()
+                        && parent.minDepth() + 1 == node.minDepth()) {
+                    shortestParentNid = parentNid;
+                    shortestFound = true;
+                }
+            }
+            nodes.put(nid, new Node(node.parents(), maxDepth, node.minDepth(), shortestParentNid, node.reachesRoot()));
+        }
+    }
+
+    private int[] collectAncestors(int nid) {
+        MutableIntSet visited = IntSets.mutable.empty();
+        MutableIntStack stack = IntStacks.mutable.with(nid);
+        while (stack.notEmpty()) {
+            for (int parentNid : nodes.get(stack.pop()).parents()) {
+                if (visited.add(parentNid)) {
+                    stack.push(parentNid);
+                }
+            }
+        }
+        visited.remove(nid);
+        return visited.toSortedArray();
+    }
+
+    private record Node(int[] parents, int maxDepth, int minDepth, int shortestParentNid, boolean reachesRoot) {
+        boolean isRoot() {
+            return minDepth == 0;
+        }
+
+        boolean isShorterThan(Node other) {
+            if (reachesRoot != other.reachesRoot) {
+                return reachesRoot;
+            }
+            return minDepth < other.minDepth;
+        }
+    }
+}
@@ -20,7 +20,6 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -118,45 +117,47 @@ public static WritableImage getTileSnapshot(ConceptTile tile) {
      * @param navigator the {@link Navigator} that holds the dataset
      */
     private static void addAllAncestors(int nid, InvertedTree tree, Navigator navigator) {
-        getAllParents(nid, navigator).forEach(i -> addAllAncestors(i.nid(), tree.addChild(i), navigator));
+        for (int parentNid : getParentNids(navigator, nid)) {
+            InvertedTree.ConceptItem item = new InvertedTree.ConceptItem(parentNid, nid, Entity.getFast(parentNid).description());
+            addAllAncestors(parentNid, tree.addChild(item), navigator);
+        }
     }
 
     /**
-     * <p>Given a child nid, and a {@link Navigator}, this method finds all the possible
+     * <p>Given a child nid, and the {@link AncestorIndex} of a navigator, this method finds all the possible
      * parents of this child.
      * @param childNid the nid of a given child
-     * @param navigator the {@link Navigator} that holds the dataset
+     * @param ancestorIndex the {@link AncestorIndex} of the {@link Navigator} that holds the dataset
      * @return a list of {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
      */
-    static List<InvertedTree.ConceptItem> getAllParents(int childNid, Navigator navigator) {
-        return getSecondaryParents(childNid, -1, navigator);
+    static List<InvertedTree.ConceptItem> getAllParents(int childNid, AncestorIndex ancestorIndex) {
+        return getSecondaryParents(childNid, -1, ancestorIndex);
     }
 
     /**
-     * <p>Given a child nid, and a {@link Navigator}, this method finds all the possible
+     * <p>Given a child nid, and the {@link AncestorIndex} of a navigator, this method finds all the possible
      * parents of this child, but excludes the parent with primary nid, if set.
      * @param childNid the nid of a given child
      * @param primaryNid the nid of the primary parent, or -1 if not set
-     * @param navigator the {@link Navigator} that holds the dataset
+     * @param ancestorIndex the {@link AncestorIndex} of the {@link Navigator} that holds the dataset
      * @return a list of {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
      */
-    static List<InvertedTree.ConceptItem> getSecondaryParents(int childNid, int primaryNid, Navigator navigator) {
-        return new ArrayList<>(Arrays.stream(getParentNids(navigator, childNid)).boxed()
+    static List<InvertedTree.ConceptItem> getSecondaryParents(int childNid, int primaryNid, AncestorIndex ancestorIndex) {
+        return new ArrayList<>(Arrays.stream(ancestorIndex.getParentNids(childNid)).boxed()
                 .filter(nid -> nid != primaryNid)
-                .map(nid -> new InvertedTree.ConceptItem(nid, childNid, Entity.getFast(nid).description()))
+                .map(nid -> new InvertedTree.ConceptItem(nid, childNid, ancestorIndex.getDescription(nid)))
                 .toList());
     }
 
     /**
-     * <p>Utility method that builds and {@link InvertedTree} starting from
-     * a given nid and a given {@link Navigator}, and finds its maximum depth.
+     * <p>Utility method that finds the maximum depth of the lineages of a given nid, that is, the depth of
+     * the {@link InvertedTree} that {@link #buildInvertedTree(int, Navigator)} would build for it.
      * @param nid the nid of the concept
-     * @param navigator the {@link Navigator} that holds the dataset
+     * @param ancestorIndex the {@link AncestorIndex} of the {@link Navigator} that holds the dataset
      * @return the depth of the {@link InvertedTree}
      */
-    static int getFartherLevel(int nid, Navigator navigator) {
-        InvertedTree tree = buildInvertedTree(nid, navigator);
-        return tree.getTreeDepth();
+    static int getFartherLevel(int nid, AncestorIndex ancestorIndex) {
+        return ancestorIndex.getMaxDepth(nid);
     }
 
     /**
@@ -267,22 +268,40 @@ public static void printTree(KLConceptNavigatorControl treeView, ConceptNavigato
     }
 
     /**
-     * <p>Builds the {@link InvertedTree} for a given {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem},
-     * finds the sorted map of lineages, and takes the shorter lineage that matches the nid and child nid of
-     * such item, unless the nid is -1, in which case, it takes the first route.
+     * <p>Finds the shorter lineage of the child nid of a given {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
+     * that goes through the nid of such item, unless the nid is -1, in which case, it takes the shorter lineage
+     * through any parent.
      * @param conceptItem a given {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
      * @param navigator the {@link Navigator} that holds the dataset
      * @return a {@link List<InvertedTree.ConceptItem>} with the shorter lineage that matches nid and child nid of
      * such item.
+     * @see #findShorterLineage(InvertedTree.ConceptItem, AncestorIndex)
      */
     public static List<InvertedTree.ConceptItem> findShorterLineage(InvertedTree.ConceptItem conceptItem, Navigator navigator) {
-        InvertedTree tree = buildInvertedTree(conceptItem.childNid(), navigator);
-        Map<Integer, List<InvertedTree.ConceptItem>> lineageMap = tree.getLineageMap();
+        return findShorterLineage(conceptItem, new AncestorIndex(navigator));
+    }
 
-        return lineageMap.values().stream()
-                .filter(list -> conceptItem.nid() == -1 || conceptItem.equals(list.getLast()))
-                .findFirst()
-                .orElse(List.of());
+    /**
+     * <p>Finds the shorter lineage of the child nid of a given {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
+     * that goes through the nid of such item, unless the nid is -1, in which case, it takes the shorter lineage
+     * through any parent. This is the first lineage of {@link InvertedTree#getLineageMap()} that matches the item,
+     * found without expanding every lineage of the concept.
+     * @param conceptItem a given {@link dev.ikm.komet.kview.controls.InvertedTree.ConceptItem}
+     * @param ancestorIndex the {@link AncestorIndex} of the {@link Navigator} that holds the dataset
+     * @return a {@link List<InvertedTree.ConceptItem>} with the shorter lineage that matches nid and child nid of
+     * such item, starting from the root.
+     */
+    public static List<InvertedTree.ConceptItem> findShorterLineage(InvertedTree.ConceptItem conceptItem, AncestorIndex ancestorIndex) {
+        int[] lineageNids = ancestorIndex.getShortestLineage(conceptItem.childNid(), conceptItem.nid());
+        List<InvertedTree.ConceptItem> lineage = new ArrayList<>(lineageNids.length);
+        for (int i = 0; i < lineageNids.length; i++) {
+            int childNid = i < lineageNids.length - 1 ? lineageNids[i + 1] : conceptItem.childNid();
+            lineage.add(new InvertedTree.ConceptItem(lineageNids[i], childNid, ancestorIndex.getDescription(lineageNids[i])));
+        }
+        if (lineage.isEmpty() || (conceptItem.nid() != -1 && !conceptItem.equals(lineage.getLast()))) {
+            return List.of();
+        }
+        return lineage;
     }
 
     /**
@@ -119,6 +119,9 @@ private static Function<String, List<EntityProxy>> createUUIDConverterFunction(N
     /**
      * If the user enters a valid UUID this method will return the associated Component, otherwise will match
      * based on the component descriptions.
+     * <p>
+     * The returned function is invoked by the type-ahead field's search pipeline, off the FX thread; a new
+     * keystroke supersedes the search in flight so stale suggestions are never shown.
      *
      * @param navigationCalculator the navigation calculator.
      * @return a List containing the associated concept or an empty list if there is no Concept associated with the UUID
@@ -284,6 +284,7 @@ public final void setActivation(double value) {
     private final ObjectProperty<Navigator> navigatorProperty = new SimpleObjectProperty<>(this, "navigator") {
         @Override
         protected void invalidated() {
+            ancestorIndex = get() != null ? new AncestorIndex(get()) : null;
             if (get() != null) {
                 List<ConceptNavigatorTreeItem> roots = getConceptNavigatorRoot();
                 if (roots.isEmpty()) {
@@ -306,6 +307,17 @@ public final void setNavigator(Navigator value) {
         navigatorProperty.set(value);
     }
 
+    private AncestorIndex ancestorIndex;
+
+    /**
+     * <p>Gets the {@link AncestorIndex} of the current {@link Navigator}, shared by the lineage and
+     * secondary-parent displays of this control. A new index is created whenever the navigator changes.
+     * @return the {@link AncestorIndex}, or null if no navigator is set
+     */
+    public final AncestorIndex getAncestorIndex() {
+        return ancestorIndex;
+    }
+
     /**
      * <p>Boolean property that toggles the visibility of the tags that are applied to some concepts.
      */
@@ -74,6 +74,7 @@ public class LineageBox extends ScrollPane {
 
     private final VBox root;
     private Navigator navigator;
+    private AncestorIndex ancestorIndex;
 
     /**
      * <p>Creates a {@link LineageBox} instance, which initially is just an
@@ -124,6 +125,20 @@ public final void setNavigator(Navigator value) {
         navigatorProperty.set(value);
     }
 
+    /**
+     * <p>An object property that holds the {@link AncestorIndex} of the {@link Navigator}.
+     */
+    private final ObjectProperty<AncestorIndex> ancestorIndexProperty = new SimpleObjectProperty<>(this, "ancestorIndex");
+    public final ObjectProperty<AncestorIndex> ancestorIndexProperty() {
+       return ancestorIndexProperty;
+    }
+    public final AncestorIndex getAncestorIndex() {
+       return ancestorIndexProperty.get();
+    }
+    public final void setAncestorIndex(AncestorIndex value) {
+        ancestorIndexProperty.set(value);
+    }
+
     /**
      * <p>For a given {@link ConceptNavigatorTreeItem}, gets it primary parent, and the list of
      * secondary parents. For each of these, a {@link ParentHBox} instance is created and
@@ -139,13 +154,14 @@ private void initialize() {
         invertedTreeMaxDepth = -1;
         if (childItem != null && childItem.getValue() != null) {
             navigator = getNavigator();
-            invertedTreeMaxDepth = getFartherLevel(childItem.getValue().nid(), navigator);
+            ancestorIndex = getAncestorIndex() != null ? getAncestorIndex() : new AncestorIndex(navigator);
+            invertedTreeMaxDepth = getFartherLevel(childItem.getValue().nid(), ancestorIndex);
             // primary parent under current tree lineage
             ConceptNavigatorTreeItem primaryParentItem = (ConceptNavigatorTreeItem) childItem.getParent();
             if (primaryParentItem != null) {
                 // list of secondary parents for the concept child, different from the primary parent item
                 List<InvertedTree.ConceptItem> secondaryParents =
-                        getSecondaryParents(childItem.getValue().nid(), primaryParentItem.getValue().nid(), navigator);
+                        getSecondaryParents(childItem.getValue().nid(), primaryParentItem.getValue().nid(), ancestorIndex);
                 // for the concept child, add all its direct secondary parents, all collapsed initially
                 InvertedTree invertedTree = getConcept().getInvertedTree();
                 for (InvertedTree.ConceptItem extraParentItem : secondaryParents) {
@@ -211,7 +227,7 @@ public ParentHBox(VBox lineageBoxRoot, InvertedTree parentTree, InvertedTree.Con
 
             getChildren().addAll(spacer, regionPane, label);
 
-            List<InvertedTree.ConceptItem> allParents = getAllParents(treeItem.nid(), getNavigator());
+            List<InvertedTree.ConceptItem> allParents = getAllParents(treeItem.nid(), ancestorIndex);
             boolean isRoot = allParents.isEmpty();
             pseudoClassStateChanged(ROOT_LINEAGE_PSEUDO_CLASS, isRoot);
             if (isRoot) { // item is root
@@ -219,7 +235,7 @@ public ParentHBox(VBox lineageBoxRoot, InvertedTree parentTree, InvertedTree.Con
             } else {
                 List<InvertedTree.ConceptItem> allSiblings =
                         invertedTree.parent != null && invertedTree.parent.item != null ?
-                                getAllParents(invertedTree.parent.item.nid(), getNavigator()) : new ArrayList<>();
+                                getAllParents(invertedTree.parent.item.nid(), ancestorIndex) : new ArrayList<>();
                 if (currentLevel == 1 && !allSiblings.isEmpty()) {
                     allSiblings.removeFirst(); // remove primary parent
                 }
@@ -295,7 +311,7 @@ private Label getConceptLabel(InvertedTree.ConceptItem treeItem) {
                 int currentIndex = lineageBoxRoot.getChildren().indexOf(currentHBox);
                 if (currentHBox.invertedTree.isLeaf()) {
                     // item is collapsed, add all ancestors and expanse
-                    getAllParents(treeItem.nid(), getNavigator()).stream()
+                    getAllParents(treeItem.nid(), ancestorIndex).stream()
                             .filter(item -> !invertedTree.contains(item))
                             .forEach(item -> {
                                 ParentHBox parentHBox = new ParentHBox(lineageBoxRoot, invertedTree, item);
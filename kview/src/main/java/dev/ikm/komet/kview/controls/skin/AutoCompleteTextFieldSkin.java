@@ -1,9 +1,9 @@
 package dev.ikm.komet.kview.controls.skin;
 
+import dev.ikm.komet.framework.search.SearchPipeline;
 import dev.ikm.komet.kview.controls.AutoCompleteTextField;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
@@ -12,7 +12,6 @@
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
@@ -27,12 +26,18 @@
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 
 public class AutoCompleteTextFieldSkin<T> extends FXTextFieldSkin {
+    private static final Logger LOG = LoggerFactory.getLogger(AutoCompleteTextFieldSkin.class);
+
     private final AutoCompletePopup autoCompletePopup;
 
+    private final SearchPipeline<T> completerPipeline = new SearchPipeline<>();
+
     private Timeline timeline;
 
     private boolean wasTextChangedFromPopup = false;
@@ -91,6 +96,9 @@ private void onCompleterWaitTimeChanged(Duration newValue) {
     }
 
     private void onTextChanged(Observable observable, String oldValue, String newValue) {
+        // whatever the completer is computing is for text the user has already changed
+        completerPipeline.cancel();
+
         if (newValue.isEmpty()) {
             lastTypedText = "";
             wasTextChangedFromPopup = false;
@@ -111,17 +119,16 @@ private void onTextChanged(Observable observable, String oldValue, String newVal
 
     private void onSearch() {
         AutoCompleteTextField<T> textField = (AutoCompleteTextField<T>) getSkinnable();
-        Task task = new Task() {
-            @Override
-            protected Object call() throws Exception {
-                List<T> results = textField.getCompleter().apply(textField.getText());
-                Platform.runLater(() -> updateAutoCompletePopupVisibility(textField, results));
-                return null;
-            }
-        };
-        Thread thread = new Thread(task);
-        thread.setDaemon(true);
-        thread.start();
+        final String text = textField.getText();
+        completerPipeline.submit(() -> textField.getCompleter().apply(text),
+                (page, firstPage, lastPage) -> {
+                    if (firstPage) {
+                        updateAutoCompletePopupVisibility(textField, page);
+                    } else {
+                        autoCompletePopup.getItems().addAll(page);
+                    }
+                },
+                e -> LOG.error("Completer failed for \"{}\"", text, e));
     }
 
     private void updateAutoCompletePopupVisibility(AutoCompleteTextField<T> autoCompleteTextField, List<T> results) {
@@ -63,7 +63,11 @@ public KLConceptNavigatorTreeCellSkin(KLConceptNavigatorTreeCell treeCell) {
 
         lineageBox = new LineageBox();
         lineageBox.setNavigator(treeView.getNavigator());
-        registerChangeListener(treeView.navigatorProperty(), _ -> lineageBox.setNavigator(treeView.getNavigator()));
+        lineageBox.setAncestorIndex(treeView.getAncestorIndex());
+        registerChangeListener(treeView.navigatorProperty(), _ -> {
+            lineageBox.setNavigator(treeView.getNavigator());
+            lineageBox.setAncestorIndex(treeView.getAncestorIndex());
+        });
         registerChangeListener(treeCell.viewLineageProperty(), _ -> {
             boolean viewLineage = treeCell.isViewLineage();
             if (viewLineage && !getChildren().contains(lineageBox)) {
@@ -8,6 +8,7 @@
 import dev.ikm.tinkar.events.EvtBusFactory;
 import dev.ikm.tinkar.events.Subscriber;
 import dev.ikm.komet.framework.events.appevents.RefreshCalculatorCacheEvent;
+import dev.ikm.komet.kview.controls.AncestorIndex;
 import dev.ikm.komet.kview.controls.ConceptNavigatorTreeItem;
 import dev.ikm.komet.kview.controls.ConceptNavigatorUtils;
 import dev.ikm.komet.kview.controls.ConceptTile;
@@ -833,7 +834,7 @@ private void expandConcept(InvertedTree.ConceptItem conceptItem, boolean highlig
         }
 
         ConceptNavigatorUtils.resetConceptNavigator(treeView);
-        List<InvertedTree.ConceptItem> lineage = ConceptNavigatorUtils.findShorterLineage(conceptItem, treeView.getNavigator());
+        List<InvertedTree.ConceptItem> lineage = ConceptNavigatorUtils.findShorterLineage(conceptItem, treeView.getAncestorIndex());
         if (lineage.isEmpty()) {
             // The concept has no lineage to any root visible in this navigator, so it cannot be expanded here
             // (e.g. it is retired and this navigator shows only active concepts). Investigate its state and report
@@ -994,6 +995,7 @@ protected void invalidated() {
             // refresh Concept Navigator after change in entity ancestors, keeping selection in the concept that changed,
             // if possible
             flowSubscriber = new FlowSubscriber<>(nid -> {
+                invalidateAncestorIndex();
 
                 EntityHandle conceptHandle = EntityHandle.get(nid);
                 try {
@@ -1011,6 +1013,7 @@ protected void invalidated() {
 
             // Refresh Concept Navigator after import operation, keeping current selection if possible
             refreshEventSubscriber = _ -> {
+                invalidateAncestorIndex();
                 ConceptNavigatorTreeItem selectedItem = (ConceptNavigatorTreeItem) treeView.getSelectionModel().getSelectedItem();
                 if (selectedItem != null) {
                     Platform.runLater(() ->
@@ -1024,6 +1027,13 @@ protected void invalidated() {
             eventBus.subscribe(CALCULATOR_CACHE_TOPIC, RefreshCalculatorCacheEvent.class, refreshEventSubscriber);
         }
 
+        private void invalidateAncestorIndex() {
+            AncestorIndex ancestorIndex = treeView.getAncestorIndex();
+            if (ancestorIndex != null) {
+                ancestorIndex.invalidate();
+            }
+        }
+
         FlowSubscriber<Integer> getFlowSubscriber() {
             return flowSubscriber;
         }
@@ -41,7 +41,9 @@
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 import javafx.util.Subscription;
 import org.eclipse.collections.api.factory.Lists;
@@ -51,7 +53,10 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static dev.ikm.komet.framework.dnd.KometClipboard.COMPONENT_DRAG_FORMAT;
 import static dev.ikm.komet.framework.dnd.KometClipboard.MULTI_PARENT_GRAPH_DRAG_FORMAT;
@@ -138,6 +143,28 @@ public class KLWorkspaceSkin extends SkinBase<KLWorkspace> {
      */
     private static final String PANNING_SUBSCRIPTION_KEY = "panningSubscription";
 
+    /**
+     * Internal property key for storing the viewport culling subscription in the workspace's properties map.
+     */
+    private static final String VIEWPORT_CULLING_SUBSCRIPTION_KEY = "viewportCullingSubscription";
+
+    /**
+     * Internal property key for storing the subscription that keeps a window's entry in the spatial index current.
+     */
+    private static final String WINDOW_INDEX_SUBSCRIPTION_KEY = "windowIndexSubscription";
+
+    /**
+     * Internal property key holding the {@link CulledClip} of a window that is not rendered because it lies
+     * outside the viewport.
+     */
+    private static final String WINDOW_CULLED_KEY = "windowCulled";
+
+    /**
+     * Distance in pixels around the viewport within which windows stay rendered. Windows further away are
+     * not rendered until the viewport approaches them; a negative value disables culling.
+     */
+    private static final int CULL_MARGIN = Integer.getInteger("ike.workspace.cull.margin", 512);
+
 
     /**
      * Internal property key for storing the target position of a window during animation.
@@ -155,6 +182,18 @@ public class KLWorkspaceSkin extends SkinBase<KLWorkspace> {
      */
     private final ScrollPane desktopScrollPane;
 
+    /**
+     * Spatial index of the bounds of the windows on the desktop, kept current as windows are added, moved,
+     * resized and removed. Placement, overlap, drop-region and viewport-culling queries use it instead of
+     * scanning every child of the {@code desktopPane}.
+     */
+    private final WindowSpatialIndex<Node> windowIndex = new WindowSpatialIndex<>();
+
+    /**
+     * Listener that registers the children of the {@code desktopPane} with {@link #windowIndex}.
+     */
+    private final ListChangeListener<Node> desktopChildrenListener;
+
     /**
      * The current list of {@link ChapterKlWindow} instances from the {@link KLWorkspace}.
      */
@@ -200,6 +239,15 @@ public KLWorkspaceSkin(KLWorkspace workspace) {
         this.desktopPane = new DesktopPane();
         this.desktopPane.getStyleClass().add(DESKTOP_PANE_STYLE_CLASS);
 
+        // Keep the spatial index in step with the windows on the desktop
+        this.desktopChildrenListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::untrackWindow);
+                change.getAddedSubList().forEach(this::trackWindow);
+            }
+        };
+        this.desktopPane.getChildren().addListener(desktopChildrenListener);
+
         // --------------------------------------------------------------------
         // 2) Prepare the ScrollPane
         // --------------------------------------------------------------------
@@ -260,6 +308,15 @@ public KLWorkspaceSkin(KLWorkspace workspace) {
         // Setup desktop resize subscription for window constraints
         Subscription desktopResizeSubscription = createDesktopResizeSubscription();
         workspace.getProperties().put(DESKTOP_RESIZE_SUBSCRIPTION_KEY, desktopResizeSubscription);
+
+        // Hide windows that scroll well out of view, and show them again as the viewport approaches
+        Subscription cullingSubscription = Subscription.combine(
+                desktopScrollPane.viewportBoundsProperty().subscribe(this::updateCulling),
+                desktopScrollPane.hvalueProperty().subscribe(this::updateCulling),
+                desktopScrollPane.vvalueProperty().subscribe(this::updateCulling),
+                desktopPane.widthProperty().subscribe(this::updateCulling),
+                desktopPane.heightProperty().subscribe(this::updateCulling));
+        workspace.getProperties().put(VIEWPORT_CULLING_SUBSCRIPTION_KEY, cullingSubscription);
     }
 
     /**
@@ -547,17 +604,7 @@ private DropResult findHorizontalGapForDrag(double mouseX, double mouseY,
         final double positionY = rowTop + vgap;
 
         // Get windows in the current row only
-        final MutableList<Bounds> rowWindows = Lists.mutable.empty();
-        for (Node node : desktopPane.getChildrenUnmodifiable()) {
-            if (node == desktopPane.getDropRegion() || !node.isVisible()) {
-                continue;
-            }
-            final Bounds windowBounds = getWindowBounds(node);
-            // Check if window is in the current row
-            if (windowBounds.getMinY() < rowBottom && windowBounds.getMaxY() > rowTop) {
-                rowWindows.add(windowBounds);
-            }
-        }
+        final MutableList<Bounds> rowWindows = windowBoundsInRow(rowTop, rowBottom);
 
         // Sort windows by X position
         rowWindows.sort(Comparator.comparingDouble(Bounds::getMinX));
@@ -904,6 +951,7 @@ private void removeWindow(ChapterKlWindow<Pane> window) {
      */
     private void setWindowTargetPosition(Node window, double targetX, double targetY) {
         window.getProperties().put(WINDOW_TARGET_POSITION_KEY, new Point2D(targetX, targetY));
+        reindexWindow(window);
     }
 
     /**
@@ -912,7 +960,9 @@ private void setWindowTargetPosition(Node window, double targetX, double targetY
      * @param window the window node
      */
     private void clearWindowTargetPosition(Node window) {
-        window.getProperties().remove(WINDOW_TARGET_POSITION_KEY);
+        if (window.getProperties().remove(WINDOW_TARGET_POSITION_KEY) != null) {
+            reindexWindow(window);
+        }
     }
 
     /**
@@ -955,11 +1005,9 @@ private Bounds getWindowBounds(Node node) {
      */
     private double findRightmostOccupantBefore(double dropX) {
         double occupantRight = 0;
-        for (Node child : desktopPane.getChildrenUnmodifiable()) {
-            if (child == desktopPane.getDropRegion() || !child.isVisible()) {
-                continue;
-            }
-            Bounds bounds = getWindowBounds(child);
+        for (Node child : windowIndex.intersectingKeys(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                dropX, Double.POSITIVE_INFINITY)) {
+            Bounds bounds = windowIndex.bounds(child);
             if (bounds.getMaxX() < dropX && bounds.getMaxX() > occupantRight) {
                 occupantRight = bounds.getMaxX();
             }
@@ -967,6 +1015,152 @@ private double findRightmostOccupantBefore(double dropX) {
         return occupantRight;
     }
 
+    // =========================================================================
+    //                       SPATIAL INDEX & CULLING
+    // =========================================================================
+
+    /**
+     * Starts tracking a child of the desktop pane in the {@link #windowIndex}, re-indexing it whenever its
+     * position, size, visibility or focus changes. The drop region is never tracked.
+     *
+     * @param node the child added to the desktop pane
+     */
+    private void trackWindow(Node node) {
+        if (node == desktopPane.getDropRegion()) {
+            return;
+        }
+        final Runnable reindex = () -> reindexWindow(node);
+        final Subscription sizeSubscription = (node instanceof Region region)
+                ? Subscription.combine(region.widthProperty().subscribe(reindex), region.heightProperty().subscribe(reindex))
+                : node.layoutBoundsProperty().subscribe(reindex);
+        node.getProperties().put(WINDOW_INDEX_SUBSCRIPTION_KEY, Subscription.combine(
+                node.layoutXProperty().subscribe(reindex),
+                node.layoutYProperty().subscribe(reindex),
+                node.visibleProperty().subscribe(reindex),
+                node.focusWithinProperty().subscribe(reindex),
+                sizeSubscription));
+        reindexWindow(node);
+    }
+
+    /**
+     * Stops tracking a child removed from the desktop pane, and renders it again if it was culled.
+     *
+     * @param node the child removed from the desktop pane
+     */
+    private void untrackWindow(Node node) {
+        if (node.getProperties().remove(WINDOW_INDEX_SUBSCRIPTION_KEY) instanceof Subscription subscription) {
+            subscription.unsubscribe();
+        }
+        windowIndex.remove(node);
+        setCulled(node, false);
+    }
+
+    /**
+     * Updates the index entry of a tracked window from {@link #getWindowBounds(Node)}. Culled windows
+     * remain occupants; windows the application has made invisible are dropped from the index.
+     *
+     * @param node the window to re-index
+     */
+    private void reindexWindow(Node node) {
+        if (!node.getProperties().containsKey(WINDOW_INDEX_SUBSCRIPTION_KEY)) {
+            return;
+        }
+        if (node.isVisible()) {
+            windowIndex.put(node, getWindowBounds(node));
+            final Bounds viewport = cullingViewport();
+            setCulled(node, viewport != null && !viewport.intersects(windowIndex.bounds(node)));
+        } else {
+            windowIndex.remove(node);
+            setCulled(node, false);
+        }
+    }
+
+    /**
+     * Shows the windows near the viewport and hides the others.
+     */
+    private void updateCulling() {
+        final Bounds viewport = cullingViewport();
+        final Set<Node> nearViewport = (viewport == null) ? Set.of() : new HashSet<>(windowIndex.intersectingKeys(
+                viewport.getMinX(), viewport.getMinY(), viewport.getMaxX(), viewport.getMaxY()));
+        for (Node node : List.copyOf(windowIndex.keys())) {
+            setCulled(node, viewport != null && !nearViewport.contains(node));
+        }
+    }
+
+    /**
+     * Computes the area of the desktop, in desktop coordinates, that is showing in the scroll pane,
+     * grown by {@link #CULL_MARGIN} on every side.
+     *
+     * @return the area within which windows stay rendered, or {@code null} if culling is disabled or
+     * the viewport has not been laid out yet
+     */
+    private Bounds cullingViewport() {
+        final Bounds viewportBounds = desktopScrollPane.getViewportBounds();
+        final double hvalue = desktopScrollPane.getHvalue();
+        final double vvalue = desktopScrollPane.getVvalue();
+        final double desktopWidth = desktopPane.getWidth();
+        final double desktopHeight = desktopPane.getHeight();
+        if (CULL_MARGIN < 0 || viewportBounds == null
+                || viewportBounds.getWidth() <= 0 || viewportBounds.getHeight() <= 0) {
+            return null;
+        }
+        final double left = hvalue * Math.max(0, desktopWidth - viewportBounds.getWidth());
+        final double top = vvalue * Math.max(0, desktopHeight - viewportBounds.getHeight());
+        return new BoundingBox(left - CULL_MARGIN, top - CULL_MARGIN,
+                viewportBounds.getWidth() + 2.0 * CULL_MARGIN, viewportBounds.getHeight() + 2.0 * CULL_MARGIN);
+    }
+
+    /**
+     * Hides or shows a window for viewport culling. Only visible windows are culled, and never one that
+     * holds the keyboard focus; a culled window keeps its place in the index so that placement still
+     * treats it as an occupant.
+     * <p>
+     * A culled window is given an empty, fully transparent clip, which the renderer skips along with
+     * everything beneath it. Its {@code visible} property is left to the application, so a window the
+     * application hides or shows while it is culled keeps that state when it is shown again. The clip
+     * the window had before is put back, unless the application has replaced the culling clip since.
+     *
+     * @param node   the window
+     * @param culled {@code true} to hide the window, {@code false} to render it again if it was culled
+     */
+    private void setCulled(Node node, boolean culled) {
+        final boolean cull = culled && node.isVisible() && !node.isFocusWithin();
+        if (cull == isCulled(node)) {
+            return;
+        }
+        if (cull) {
+            final Rectangle cullingClip = new Rectangle(0, 0);
+            cullingClip.setOpacity(0);
+            node.getProperties().put(WINDOW_CULLED_KEY, new CulledClip(node.getClip(), cullingClip));
+            node.setClip(cullingClip);
+        } else if (node.getProperties().remove(WINDOW_CULLED_KEY) instanceof CulledClip culledClip) {
+            node.setClip(culledClip.windowClip());
+        }
+    }
+
+    /**
+     * @return {@code true} if the window is culled; a window whose culling clip the application has
+     *         replaced is no longer culled
+     */
+    private static boolean isCulled(Node node) {
+        if (node.getProperties().get(WINDOW_CULLED_KEY) instanceof CulledClip culledClip) {
+            if (node.getClip() == culledClip.cullingClip()) {
+                return true;
+            }
+            node.getProperties().remove(WINDOW_CULLED_KEY);
+        }
+        return false;
+    }
+
+    /**
+     * The clips of a culled window.
+     *
+     * @param windowClip  the window's own clip, restored when it is no longer culled; may be {@code null}
+     * @param cullingClip the clip that hides it while it is culled
+     */
+    private record CulledClip(Node windowClip, Rectangle cullingClip) {
+    }
+
     // =========================================================================
     //                          WINDOW SHIFTING
     // =========================================================================
@@ -1030,13 +1224,14 @@ private ImmutableList<WindowShiftInfo> identifyWindowsToShift(double lineX, doub
         final double lineMiddleY = lineY + (dropRegion.getHeight() / 2.0);
         final int lineRowIndex = (int) Math.floor(lineMiddleY / rowHeight);
 
-        for (Node child : desktopPane.getChildrenUnmodifiable()) {
-            if (child == dropRegion || !child.isVisible() || !(child instanceof Pane)) {
+        // Only windows reaching into the line's row or below can need shifting
+        for (Node child : windowIndex.intersectingKeys(Double.NEGATIVE_INFINITY, lineRowIndex * rowHeight,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY)) {
+            if (!(child instanceof Pane pane)) {
                 continue;
             }
 
-            Pane pane = (Pane) child;
-            Bounds b = getWindowBounds(child);
+            Bounds b = windowIndex.bounds(child);
             double occupantMiddleY = (b.getMinY() + b.getMaxY()) / 2.0;
             int occupantRowIndex = (int) Math.floor(occupantMiddleY / rowHeight);
 
@@ -1212,16 +1407,13 @@ private Point2D findThreeRowPlacement(double width, double height,
                                           double startX, double startY,
                                           double desktopWidth, double desktopHeight,
                                           double hgap, double vgap) {
-        // Force layout to obtain accurate bounds
-        desktopPane.layout();
-
-        // Collect occupant bounds once, excluding the drop region
-        final ImmutableList<Bounds> occupantBounds = Lists.immutable.fromStream(desktopPane.getChildrenUnmodifiable().stream()
-                .filter(n -> n != desktopPane.getDropRegion() && n.isVisible())
-                .map(this::getWindowBounds));
+        // The index follows every move and resize, so a layout pass is only needed to size
+        // windows that were added but have not been laid out yet
+        if (windowIndex.hasUnsized()) {
+            desktopPane.layout();
+        }
 
-        return doThreeRowPlacement(width, height, startX, startY, desktopWidth, desktopHeight,
-                hgap, vgap, occupantBounds);
+        return doThreeRowPlacement(width, height, startX, startY, desktopWidth, desktopHeight, hgap, vgap);
     }
 
     /**
@@ -1240,15 +1432,13 @@ private Point2D findThreeRowPlacement(double width, double height,
      * @param desktopHeight The total height of the desktop
      * @param hgap The horizontal gap between windows
      * @param vgap The vertical gap between windows
-     * @param occupantBounds the bounding boxes of windows to be considered for overlap checks
      * @return a {@link Point2D} representing the top-left corner for the new window,
      *         or {@code null} if no valid placement is found
      */
     private Point2D doThreeRowPlacement(double width, double height,
                                         double startX, double startY,
                                         double desktopWidth, double desktopHeight,
-                                        double hgap, double vgap,
-                                        ImmutableList<Bounds> occupantBounds) {
+                                        double hgap, double vgap) {
 
         final double rowHeight = desktopHeight / ROWS;
 
@@ -1272,9 +1462,9 @@ private Point2D doThreeRowPlacement(double width, double height,
             }
 
             // Identify occupant bounding boxes in this row
-            final ImmutableList<Bounds> rowOccupants = Lists.immutable.fromStream(occupantBounds.stream()
-                    .filter(b -> b.getMaxY() > rowTop && b.getMinY() < rowBottom)
-                    .sorted(Comparator.comparingDouble(Bounds::getMinX)));
+            final ImmutableList<Bounds> rowOccupants = windowBoundsInRow(rowTop, rowBottom)
+                    .sortThisByDouble(Bounds::getMinX)
+                    .toImmutable();
 
             final double rowLeft = 0;
             final double rowRight = desktopWidth;
@@ -1436,11 +1626,26 @@ private boolean fitsInDesktop(double x, double y, double width, double height,
      *         {@code false} otherwise
      */
     private boolean overlapsWithExistingWindows(double x, double y, double width, double height) {
-        final Bounds newWindowBounds = new BoundingBox(x, y, width, height);
-        return desktopPane.getChildrenUnmodifiable().stream()
-                .filter(n -> n != desktopPane.getDropRegion() && n.isVisible())
-                .map(this::getWindowBounds)
-                .anyMatch(newWindowBounds::intersects);
+        return windowIndex.anyIntersecting(x, y, x + width, y + height);
+    }
+
+    /**
+     * Collects the bounds of the windows that overlap the horizontal band between {@code top} and
+     * {@code bottom}. Windows that only touch the band's edges are not included.
+     *
+     * @param top    the top of the band
+     * @param bottom the bottom of the band
+     * @return the bounds of the windows in the band, in no particular order
+     */
+    private MutableList<Bounds> windowBoundsInRow(double top, double bottom) {
+        final MutableList<Bounds> rowWindows = Lists.mutable.empty();
+        for (Node node : windowIndex.intersectingKeys(Double.NEGATIVE_INFINITY, top, Double.POSITIVE_INFINITY, bottom)) {
+            final Bounds bounds = windowIndex.bounds(node);
+            if (bounds.getMinY() < bottom && bounds.getMaxY() > top) {
+                rowWindows.add(bounds);
+            }
+        }
+        return rowWindows;
     }
 
     /**
@@ -1495,7 +1700,8 @@ private Bounds occupantIntersect(double x, double y, double width, double height
      * <ul>
      *   <li>Removing the window list change listener</li>
      *   <li>Unsubscribing from desktop resize notifications</li>
-     *   <li>Unsubscribing from panning event handlers</li>
+     *   <li>Unsubscribing from panning event handlers and viewport culling</li>
+     *   <li>Releasing the spatial index and rendering any culled windows again</li>
      *   <li>Removing window support from all windows</li>
      *   <li>Clearing all children from the skin</li>
      * </ul>
@@ -1525,6 +1731,7 @@ public void dispose() {
             // Clean up size change subscription
             cleanupSubscription(DESKTOP_RESIZE_SUBSCRIPTION_KEY);
             cleanupSubscription(PANNING_SUBSCRIPTION_KEY);
+            cleanupSubscription(VIEWPORT_CULLING_SUBSCRIPTION_KEY);
 
             getSkinnable().setOnDragOver(null);
             getSkinnable().setOnDragExited(null);
@@ -1533,6 +1740,11 @@ public void dispose() {
             Lists.immutable.ofAll(getSkinnable().getWindows()).forEach(this::removeWindow);
         }
 
+        // Stop tracking whatever is left on the desktop, rendering any culled windows again
+        desktopPane.getChildren().removeListener(desktopChildrenListener);
+        desktopPane.getChildren().forEach(this::untrackWindow);
+        windowIndex.clear();
+
         // Clear children and call super dispose
         getChildren().clear();
         super.dispose();
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.controls.skin;
+
+import javafx.geometry.Bounds;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A uniform grid over the bounds of the windows on a workspace desktop, so that placement, overlap,
+ * drop-region and culling queries only look at the windows near the area in question instead of
+ * walking every child of the desktop.
+ * <p>
+ * Each window is registered in every cell its bounds touch. A query collects the windows registered in
+ * the cells it touches and then applies the same inclusive test as {@link Bounds#intersects(Bounds)},
+ * so the results match a full scan, including for windows that merely share an edge. Query rectangles
+ * may be unbounded (for example a full-width row band); they are clipped to the cells that hold windows.
+ * <p>
+ * The index is not thread-safe; the workspace skin only uses it on the JavaFX application thread.
+ *
+ * @param <K> the window key, normally the window's root node
+ */
+final class WindowSpatialIndex<K> {
+
+    static final double DEFAULT_CELL_SIZE = 512;
+
+    private final double cellSize;
+
+    private final Map<K, Bounds> boundsByKey = new LinkedHashMap<>();
+    private final Map<Long, Set<K>> cells = new HashMap<>();
+    private int unsizedCount;
+
+    // Cell extent ever occupied; it only grows and just limits the cells a query visits.
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    WindowSpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    WindowSpatialIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Registers a window, or moves an already registered window to its new bounds.
+     */
+    void put(K key, Bounds bounds) {
+        Bounds previous = boundsByKey.get(key);
+        if (previous != null) {
+            if (previous.equals(bounds)) {
+                return;
+            }
+            unregister(key, previous);
+        }
+        boundsByKey.put(key, bounds);
+        if (isUnsized(bounds)) {
+            unsizedCount++;
+        }
+        int x0 = cell(bounds.getMinX());
+        int x1 = cell(bounds.getMaxX());
+        int y0 = cell(bounds.getMinY());
+        int y1 = cell(bounds.getMaxY());
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                cells.computeIfAbsent(pack(cx, cy), _ -> new LinkedHashSet<>()).add(key);
+            }
+        }
+        minCellX = Math.min(minCellX, x0);
+        minCellY = Math.min(minCellY, y0);
+        maxCellX = Math.max(maxCellX, x1);
+        maxCellY = Math.max(maxCellY, y1);
+    }
+
+    /**
+     * Unregisters a window; does nothing if it is not registered.
+     */
+    void remove(K key) {
+        Bounds previous = boundsByKey.remove(key);
+        if (previous != null) {
+            unregister(key, previous);
+        }
+    }
+
+    void clear() {
+        boundsByKey.clear();
+        cells.clear();
+        unsizedCount = 0;
+        minCellX = minCellY = Integer.MAX_VALUE;
+        maxCellX = maxCellY = Integer.MIN_VALUE;
+    }
+
+    boolean contains(K key) {
+        return boundsByKey.containsKey(key);
+    }
+
+    /**
+     * @return the bounds a window was registered with, or {@code null} if it is not registered
+     */
+    Bounds bounds(K key) {
+        return boundsByKey.get(key);
+    }
+
+    /**
+     * @return the registered windows, in registration order
+     */
+    Set<K> keys() {
+        return boundsByKey.keySet();
+    }
+
+    int size() {
+        return boundsByKey.size();
+    }
+
+    /**
+     * @return {@code true} if any window is registered with a zero width or height, which is the case
+     * for windows that have been added to the desktop but not laid out yet
+     */
+    boolean hasUnsized() {
+        return unsizedCount > 0;
+    }
+
+    /**
+     * @return every window whose bounds intersect the rectangle, edges included
+     */
+    List<K> intersectingKeys(double minX, double minY, double maxX, double maxY) {
+        List<K> result = new ArrayList<>();
+        if (boundsByKey.isEmpty()) {
+            return result;
+        }
+        Set<K> seen = new LinkedHashSet<>();
+        int x1 = Math.min(maxCellX, cell(maxX));
+        int y1 = Math.min(maxCellY, cell(maxY));
+        for (int cx = Math.max(minCellX, cell(minX)); cx <= x1; cx++) {
+            for (int cy = Math.max(minCellY, cell(minY)); cy <= y1; cy++) {
+                Set<K> keys = cells.get(pack(cx, cy));
+                if (keys == null) {
+                    continue;
+                }
+                for (K key : keys) {
+                    if (seen.add(key) && intersects(boundsByKey.get(key), minX, minY, maxX, maxY)) {
+                        result.add(key);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code true} if any window's bounds intersect the rectangle, edges included
+     */
+    boolean anyIntersecting(double minX, double minY, double maxX, double maxY) {
+        if (boundsByKey.isEmpty()) {
+            return false;
+        }
+        int x1 = Math.min(maxCellX, cell(maxX));
+        int y1 = Math.min(maxCellY, cell(maxY));
+        for (int cx = Math.max(minCellX, cell(minX)); cx <= x1; cx++) {
+            for (int cy = Math.max(minCellY, cell(minY)); cy <= y1; cy++) {
+                Set<K> keys = cells.get(pack(cx, cy));
+                if (keys == null) {
+                    continue;
+                }
+                for (K key : keys) {
+                    if (intersects(boundsByKey.get(key), minX, minY, maxX, maxY)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void unregister(K key, Bounds bounds) {
+        if (isUnsized(bounds)) {
+            unsizedCount--;
+        }
+        int x1 = cell(bounds.getMaxX());
+        int y1 = cell(bounds.getMaxY());
+        for (int cx = cell(bounds.getMinX()); cx <= x1; cx++) {
+            for (int cy = cell(bounds.getMinY()); cy <= y1; cy++) {
+                long packed = pack(cx, cy);
+                Set<K> keys = cells.get(packed);
+                if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                    cells.remove(packed);
+                }
+            }
+        }
+    }
+
+    private static boolean intersects(Bounds bounds, double minX, double minY, double maxX, double maxY) {
+        return bounds.getMaxX() >= minX && bounds.getMaxY() >= minY
+                && bounds.getMinX() <= maxX && bounds.getMinY() <= maxY;
+    }
+
+    private static boolean isUnsized(Bounds bounds) {
+        return bounds.getWidth() <= 0 || bounds.getHeight() <= 0;
+    }
+
+    private int cell(double coordinate) {
+        double cell = Math.floor(coordinate / cellSize);
+        if (cell >= Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE - 1;
+        }
+        if (cell <= Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE + 1;
+        }
+        return (int) cell;
+    }
+
+    private static long pack(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFF_FFFFL);
+    }
+}
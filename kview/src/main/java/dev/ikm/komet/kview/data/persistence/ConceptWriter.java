@@ -16,50 +16,20 @@
 package dev.ikm.komet.kview.data.persistence;
 
 import dev.ikm.tinkar.common.id.PublicId;
-import dev.ikm.tinkar.entity.*;
-import org.eclipse.collections.impl.factory.primitive.LongLists;
-
-import java.util.UUID;
 
 public class ConceptWriter implements Writer {
 
-    private final PublicId stamp;
+    private final WriteSession session;
 
     public ConceptWriter(PublicId stamp) {
-        this.stamp = stamp;
+        this(new WriteSession(stamp, 1));
     }
 
-    public void write(PublicId concept){
-        //Create empty version list
-        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
-
-        //Pull out primordial UUID from PublicId
-        UUID primordialUUID = concept.asUuidArray()[0];
-
-        //Process additional UUID longs from PublicId
-        long[] additionalLongs = createAdditionalLongs(concept);
-
-        //Assign nid for Concept
-        int conceptNid = EntityService.get().nidForPublicId(concept);
-        int stampNid = EntityService.get().nidForPublicId(stamp);
-
-        //Create Concept Chronology
-        ConceptRecord conceptRecord = ConceptRecordBuilder.builder()
-                .nid(conceptNid)
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
-                .additionalUuidLongs(LongLists.immutable.of(additionalLongs))
-                .versions(versions)
-                .build();
-
-        //Create Concept Version
-        versions.add(ConceptVersionRecordBuilder.builder()
-                .chronology(conceptRecord)
-                .stampNid(stampNid)
-                .build());
+    public ConceptWriter(WriteSession session) {
+        this.session = session;
+    }
 
-        //Rebuild the ConceptRecord with the now populated version data
-        ConceptEntity<? extends ConceptEntityVersion> conceptEntity = ConceptRecordBuilder.builder(conceptRecord).versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(conceptEntity);
+    public void write(PublicId concept){
+        session.concept(concept);
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.data.persistence;
+
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.entity.EntityHandle;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Streams descriptions from a tab separated file into the datastore through one {@link WriteSession}.
+ * <p>
+ * Each line holds a concept UUID, a description type and the description text, separated by tabs. The type
+ * is {@code FQN}, {@code REGULAR}, {@code DEFINITION} or the UUID of a description type concept. Blank lines
+ * and lines starting with {@code #} are skipped. A concept that is not in the datastore is created, once,
+ * with the import stamp. Lines are read and written one at a time, so the file is never held in memory.
+ * <p>
+ * The stamp must already be written, for instance with {@link STAMPWriter}.
+ */
+public class DescriptionImport {
+    private static final Logger LOG = LoggerFactory.getLogger(DescriptionImport.class);
+
+    /**
+     * One line of the import file.
+     */
+    public record Row(UUID concept, PublicId descriptionType, String text) {
+
+        /**
+         * @throws IllegalArgumentException if the line does not have three columns, or the concept or
+         *                                  description type cannot be read
+         */
+        public static Row parse(String line) {
+            String[] columns = line.split("\t", 3);
+            if (columns.length != 3 || columns[2].isBlank()) {
+                throw new IllegalArgumentException("Expected concept, description type and text separated by tabs");
+            }
+            PublicId descriptionType = switch (columns[1].strip().toUpperCase(Locale.ROOT)) {
+                case "FQN" -> TinkarTerm.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE.publicId();
+                case "REGULAR" -> TinkarTerm.REGULAR_NAME_DESCRIPTION_TYPE.publicId();
+                case "DEFINITION" -> TinkarTerm.DEFINITION_DESCRIPTION_TYPE.publicId();
+                default -> PublicIds.of(UUID.fromString(columns[1].strip()));
+            };
+            return new Row(UUID.fromString(columns[0].strip()), descriptionType, columns[2].strip());
+        }
+    }
+
+    /**
+     * @param rows         the description lines imported
+     * @param entities     the concepts and semantics written
+     * @param elapsedNanos the time taken, including reading the file
+     */
+    public record Result(long rows, long entities, long elapsedNanos) {
+        public double entitiesPerSecond() {
+            return elapsedNanos == 0 ? 0 : entities * 1_000_000_000d / elapsedNanos;
+        }
+    }
+
+    private final PublicId stamp;
+    private final int batchSize;
+
+    /**
+     * Imports with a batch size of one, so each description is visible as soon as it is written.
+     */
+    public DescriptionImport(PublicId stamp) {
+        this(stamp, 1);
+    }
+
+    /**
+     * @param batchSize the number of entities queued before they are put; see {@link WriteSession}
+     */
+    public DescriptionImport(PublicId stamp, int batchSize) {
+        this.stamp = stamp;
+        this.batchSize = batchSize;
+    }
+
+    public Result importFile(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader);
+        }
+    }
+
+    /**
+     * @throws IOException if the reader fails, or a line cannot be parsed; entities from the lines before it
+     *                     are written
+     */
+    public Result importFrom(Reader reader) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        Set<UUID> created = new HashSet<>();
+        long rows = 0;
+        int lineNumber = 0;
+        try (WriteSession session = new WriteSession(stamp, batchSize)) {
+            SemanticWriter semanticWriter = new SemanticWriter(session);
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                Row row;
+                try {
+                    row = Row.parse(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                PublicId concept = PublicIds.of(row.concept());
+                if (!created.contains(row.concept()) && !exists(concept)) {
+                    session.concept(concept);
+                    created.add(row.concept());
+                }
+                semanticWriter.description(PublicIds.newRandom(), concept, row.descriptionType(), row.text());
+                rows++;
+            }
+            session.flush();
+            Result result = new Result(rows, session.written(), System.nanoTime() - start);
+            LOG.info("Imported {} descriptions and {} concepts, {} entities/s", rows, created.size(),
+                    Math.round(result.entitiesPerSecond()));
+            return result;
+        }
+    }
+
+    private static boolean exists(PublicId publicId) {
+        // hasPublicId first: EntityHandle.get would mint a nid for a never-seen public id.
+        return PrimitiveData.get().hasPublicId(publicId) && EntityHandle.get(publicId).isPresent();
+    }
+}
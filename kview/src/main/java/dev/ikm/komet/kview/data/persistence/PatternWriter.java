@@ -18,80 +18,26 @@
 import dev.ikm.komet.kview.data.schema.PatternDetail;
 import dev.ikm.komet.kview.data.schema.PatternFieldDetail;
 import dev.ikm.tinkar.common.id.PublicId;
-import dev.ikm.tinkar.entity.*;
-import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.impl.factory.primitive.LongLists;
 
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class PatternWriter implements Writer {
 
     public final PublicId stamp;
+    private final WriteSession session;
 
     public PatternWriter(PublicId stamp) {
-        this.stamp = stamp;
+        this(new WriteSession(stamp, 1));
+    }
+
+    public PatternWriter(WriteSession session) {
+        this.session = session;
+        this.stamp = session.stamp();
     }
 
     public void write(PublicId pattern,
                       PatternDetail patternDetail,
                       List<PatternFieldDetail> patternFieldDetails){
-        //Create empty version list
-        RecordListBuilder<PatternVersionRecord> versions = RecordListBuilder.make();
-
-        //Pull out primordial UUID from PublicId
-        UUID primordialUUID = pattern.asUuidArray()[0];
-
-        //Process additional UUID longs from PublicId
-        long[] additionalLongs = createAdditionalLongs(pattern);
-
-        //Assign nids for Pattern component Concepts
-        int patternNid = EntityService.get().nidForPublicId(pattern);
-        int meaningConceptNid = EntityService.get().nidForPublicId(patternDetail.meaning());
-        int purposeConceptNid = EntityService.get().nidForPublicId(patternDetail.purpose());
-        int stampNid = EntityService.get().nidForPublicId(stamp);
-
-        //Create Pattern Chronology
-        PatternRecord patternRecord = PatternRecordBuilder.builder()
-                .nid(patternNid)
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
-                .additionalUuidLongs(LongLists.immutable.of(additionalLongs))
-                .versions(versions.toImmutable())
-                .build();
-
-        //Create individual pattern definitions
-        final AtomicInteger patternIndex = new AtomicInteger(0);
-        MutableList<FieldDefinitionRecord> fieldDefinitions = Lists.mutable.empty();
-        patternFieldDetails.forEach(patternFieldDetail -> {
-            int meaningNid = EntityService.get().nidForPublicId(patternFieldDetail.meaning());
-            int purposeNid = EntityService.get().nidForPublicId(patternFieldDetail.purpose());
-            int dataTypeNid = EntityService.get().nidForPublicId(patternFieldDetail.dataType());
-
-            FieldDefinitionRecord fieldDefinitionRecord = FieldDefinitionRecordBuilder.builder()
-                    .patternNid(patternNid)
-                    .meaningNid( meaningNid)
-                    .purposeNid(purposeNid)
-                    .dataTypeNid(dataTypeNid)
-                    .indexInPattern(patternIndex.getAndIncrement())
-                    .patternVersionStampNid(stampNid)
-                    .build();
-            fieldDefinitions.add(fieldDefinitionRecord);
-        });
-
-        //Create Pattern Version
-        versions.add(PatternVersionRecordBuilder.builder()
-                .chronology(patternRecord)
-                .stampNid(stampNid)
-                .semanticMeaningNid(meaningConceptNid)
-                .semanticPurposeNid(purposeConceptNid)
-                .fieldDefinitions(fieldDefinitions.toImmutable())
-                .build());
-
-        //Rebuild the Pattern with the now populated version data
-        PatternEntity<? extends PatternEntityVersion> patternEntity = PatternRecordBuilder.builder(patternRecord).versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(patternEntity);
+        session.pattern(pattern, patternDetail, patternFieldDetails);
     }
 }
@@ -18,31 +18,33 @@
 import dev.ikm.komet.kview.data.schema.SemanticDetail;
 import dev.ikm.tinkar.common.id.PublicId;
 import dev.ikm.tinkar.common.id.PublicIds;
-import dev.ikm.tinkar.entity.*;
 import dev.ikm.tinkar.terms.ConceptFacade;
 import dev.ikm.tinkar.terms.TinkarTerm;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.impl.factory.primitive.LongLists;
 
 import java.util.UUID;
 
 
 public class SemanticWriter implements Writer {
 
-    private final PublicId stamp;
+    private final WriteSession session;
 
     public SemanticWriter(PublicId stamp) {
-        this.stamp = stamp;
+        this(new WriteSession(stamp, 1));
+    }
+
+    public SemanticWriter(WriteSession session) {
+        this.session = session;
     }
 
     public void semantic(PublicId semantic, SemanticDetail semanticDetail){
-        write(semantic, semanticDetail);
+        session.semantic(semantic, semanticDetail);
     }
 
     public void description(PublicId semantic, PublicId referencedComponent, PublicId descriptionType, String text){
         //Assign nids to description components
-        final int descriptionTypeNid = EntityService.get().nidForPublicId(descriptionType);
+        final int descriptionTypeNid = session.nid(descriptionType);
         final ConceptFacade descriptionTypeFacade = ConceptFacade.make(descriptionTypeNid);
 
         //Create Semantic Detail
@@ -65,7 +67,7 @@ public void identifier(PublicId semantic, PublicId referencedComponent, PublicId
         PublicId identifierPattern = PublicIds.of(UUID.fromString("5d60e14b-c410-5172-9559-3c4253278ae2"));
 
         //Assign nids to description components
-        final int sourceNid = EntityService.get().nidForPublicId(source);
+        final int sourceNid = session.nid(source);
         final ConceptFacade sourceFacade = ConceptFacade.make(sourceNid);
 
         //Create Semantic Detail
@@ -83,7 +85,7 @@ public void identifier(PublicId semantic, PublicId referencedComponent, PublicId
 
     public void usDialect(PublicId semantic, PublicId referencedComponent, PublicId dialectAcceptability){
         //Assign nids to description components
-        final int dialectNid = EntityService.get().nidForPublicId(dialectAcceptability);
+        final int dialectNid = session.nid(dialectAcceptability);
         final ConceptFacade dialectFacade = ConceptFacade.make(dialectNid);
 
         //Create Semantic Detail
@@ -144,7 +146,7 @@ public void versionControl(PublicId semantic, PublicId referencedComponent, Publ
         PublicId versionControlPattern = PublicIds.of(UUID.fromString("70f89dd5-2cdb-59bb-bbaa-98527513547c"));
 
         //Assign nids to description components
-        final int conceptNid = EntityService.get().nidForPublicId(concept);
+        final int conceptNid = session.nid(concept);
         final ConceptFacade conceptFacade = ConceptFacade.make(conceptNid);
 
         //Create Semantic Detail
@@ -247,45 +249,4 @@ public void versionControl(PublicId semantic, PublicId referencedComponent, Publ
 //        //Write Semantic
 //        semantic(semantic, semanticDetail);
 //    }
-
-    private void write(PublicId semantic, SemanticDetail semanticDetail){
-        //Assign primordial UUID from PublicId
-        UUID primordialUUID = semantic.asUuidArray()[0];
-
-        //Assign nids for PublicIds
-        int semanticNid = EntityService.get().nidForPublicId(semantic);
-        int patternNid = EntityService.get().nidForPublicId(semanticDetail.pattern());
-        int referencedComponentNid = EntityService.get().nidForPublicId(semanticDetail.referencedComponent());
-        int stampNid = EntityService.get().nidForPublicId(stamp);
-
-        //Process additional UUID longs from PublicId
-        long[] additionalLongs = createAdditionalLongs(semantic);
-
-        //Create empty version list
-        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
-
-        //Create Semantic Chronology
-        SemanticRecord semanticRecord = SemanticRecordBuilder.builder()
-                .nid(semanticNid)
-                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
-                .mostSignificantBits(primordialUUID.getMostSignificantBits())
-                .additionalUuidLongs(LongLists.immutable.of(additionalLongs))
-                .patternNid(patternNid)
-                .referencedComponentNid(referencedComponentNid)
-                .versions(versions.toImmutable())
-                .build();
-
-        //Create Semantic Version
-        versions.add(SemanticVersionRecordBuilder.builder()
-                .chronology(semanticRecord)
-                .stampNid(stampNid)
-                .fieldValues(semanticDetail.fieldsSupplier().get().toImmutable())
-                .build());
-
-        //Rebuild the Semantic with the now populated version data
-        SemanticEntity<? extends SemanticEntityVersion> semanticEntity = SemanticRecordBuilder
-                .builder(semanticRecord)
-                .versions(versions.toImmutable()).build();
-        EntityService.get().putEntity(semanticEntity);
-    }
 }
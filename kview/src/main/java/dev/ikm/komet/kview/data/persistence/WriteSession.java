@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.data.persistence;
+
+import dev.ikm.komet.kview.data.schema.PatternDetail;
+import dev.ikm.komet.kview.data.schema.PatternFieldDetail;
+import dev.ikm.komet.kview.data.schema.SemanticDetail;
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.entity.*;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes concepts, patterns and semantics sharing one stamp, for imports that write many components at once.
+ * <p>
+ * The single component writers used to resolve every {@link PublicId} through
+ * {@link EntityService#nidForPublicId(PublicId)}, build each record twice, and put each entity as soon as it
+ * was built. A session instead:
+ * <ul>
+ *     <li>remembers the nid of every single-UUID public id it resolves, so the stamp, patterns and
+ *     referenced concepts shared by many components are resolved once;</li>
+ *     <li>builds each chronology once, adding its version to the {@link RecordListBuilder} the record was
+ *     built with;</li>
+ *     <li>queues the built entities and puts them {@code batchSize} at a time, and when the session is
+ *     {@link #flush() flushed} or {@link #close() closed}.</li>
+ * </ul>
+ * The entity service has no multi-entity put, so a batch is put one entity after another and batching does
+ * not make writing faster; it only defers when the entities become visible, for instance so a concept and
+ * its semantics appear together. Queued entities are not visible to readers until they are put, so a
+ * session must be closed before the components it wrote are read. {@link ConceptWriter}, {@link PatternWriter} and {@link SemanticWriter}
+ * write through a session with a batch size of one unless they are given a shared session.
+ * <p>
+ * A session is not thread safe.
+ */
+public class WriteSession implements Writer, AutoCloseable {
+
+    /**
+     * Default number of entities queued before they are put; {@code ike.write.batch.size} overrides it.
+     */
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("ike.write.batch.size", 1024);
+
+    private final PublicId stamp;
+    private final int batchSize;
+    private final MutableObjectIntMap<UUID> nidCache = ObjectIntMaps.mutable.empty();
+    private final MutableList<Entity<? extends EntityVersion>> pending;
+    private int stampNid = 0;
+    private long written = 0;
+
+    public WriteSession(PublicId stamp) {
+        this(stamp, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param stamp     the stamp of every version written in this session
+     * @param batchSize the number of entities queued before they are put; 1 puts each entity as it is built
+     */
+    public WriteSession(PublicId stamp, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        }
+        this.stamp = stamp;
+        this.batchSize = batchSize;
+        this.pending = Lists.mutable.withInitialCapacity(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+    }
+
+    public PublicId stamp() {
+        return stamp;
+    }
+
+    /**
+     * @return the nid of {@code publicId}, resolved through the entity service the first time it is asked for
+     */
+    public int nid(PublicId publicId) {
+        if (publicId.uuidCount() != 1) {
+            // Let the entity service register every UUID of the id
+            return EntityService.get().nidForPublicId(publicId);
+        }
+        return nidCache.getIfAbsentPutWithKey(publicId.asUuidArray()[0],
+                uuid -> EntityService.get().nidForPublicId(publicId));
+    }
+
+    public int stampNid() {
+        if (stampNid == 0) {
+            stampNid = nid(stamp);
+        }
+        return stampNid;
+    }
+
+    public void concept(PublicId concept) {
+        UUID primordialUUID = concept.asUuidArray()[0];
+        RecordListBuilder<ConceptVersionRecord> versions = RecordListBuilder.make();
+
+        ConceptRecord conceptRecord = ConceptRecordBuilder.builder()
+                .nid(nid(concept))
+                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
+                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .additionalUuidLongs(LongLists.immutable.of(createAdditionalLongs(concept)))
+                .versions(versions)
+                .build();
+
+        versions.addAndBuild(ConceptVersionRecordBuilder.builder()
+                .chronology(conceptRecord)
+                .stampNid(stampNid())
+                .build());
+        put(conceptRecord);
+    }
+
+    public void pattern(PublicId pattern, PatternDetail patternDetail, List<PatternFieldDetail> patternFieldDetails) {
+        UUID primordialUUID = pattern.asUuidArray()[0];
+        RecordListBuilder<PatternVersionRecord> versions = RecordListBuilder.make();
+        int patternNid = nid(pattern);
+
+        PatternRecord patternRecord = PatternRecordBuilder.builder()
+                .nid(patternNid)
+                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
+                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .additionalUuidLongs(LongLists.immutable.of(createAdditionalLongs(pattern)))
+                .versions(versions)
+                .build();
+
+        MutableList<FieldDefinitionRecord> fieldDefinitions = Lists.mutable.withInitialCapacity(patternFieldDetails.size());
+        for (PatternFieldDetail patternFieldDetail : patternFieldDetails) {
+            fieldDefinitions.add(FieldDefinitionRecordBuilder.builder()
+                    .patternNid(patternNid)
+                    .meaningNid(nid(patternFieldDetail.meaning()))
+                    .purposeNid(nid(patternFieldDetail.purpose()))
+                    .dataTypeNid(nid(patternFieldDetail.dataType()))
+                    .indexInPattern(fieldDefinitions.size())
+                    .patternVersionStampNid(stampNid())
+                    .build());
+        }
+
+        versions.addAndBuild(PatternVersionRecordBuilder.builder()
+                .chronology(patternRecord)
+                .stampNid(stampNid())
+                .semanticMeaningNid(nid(patternDetail.meaning()))
+                .semanticPurposeNid(nid(patternDetail.purpose()))
+                .fieldDefinitions(fieldDefinitions.toImmutable())
+                .build());
+        put(patternRecord);
+    }
+
+    public void semantic(PublicId semantic, SemanticDetail semanticDetail) {
+        UUID primordialUUID = semantic.asUuidArray()[0];
+        RecordListBuilder<SemanticVersionRecord> versions = RecordListBuilder.make();
+
+        SemanticRecord semanticRecord = SemanticRecordBuilder.builder()
+                .nid(nid(semantic))
+                .leastSignificantBits(primordialUUID.getLeastSignificantBits())
+                .mostSignificantBits(primordialUUID.getMostSignificantBits())
+                .additionalUuidLongs(LongLists.immutable.of(createAdditionalLongs(semantic)))
+                .patternNid(nid(semanticDetail.pattern()))
+                .referencedComponentNid(nid(semanticDetail.referencedComponent()))
+                .versions(versions)
+                .build();
+
+        versions.addAndBuild(SemanticVersionRecordBuilder.builder()
+                .chronology(semanticRecord)
+                .stampNid(stampNid())
+                .fieldValues(semanticDetail.fieldsSupplier().get().toImmutable())
+                .build());
+        put(semanticRecord);
+    }
+
+    /**
+     * Puts the queued entities.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        EntityService entityService = EntityService.get();
+        for (Entity<? extends EntityVersion> entity : pending) {
+            entityService.putEntity(entity);
+        }
+        written += pending.size();
+        pending.clear();
+    }
+
+    /**
+     * @return the number of entities put so far
+     */
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void put(Entity<? extends EntityVersion> entity) {
+        pending.add(entity);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+}
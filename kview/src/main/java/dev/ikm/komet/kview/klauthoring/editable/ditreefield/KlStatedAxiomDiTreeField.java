@@ -6,6 +6,7 @@
 import dev.ikm.komet.framework.observable.ObservableStamp;
 import dev.ikm.komet.framework.panel.axiom.AxiomSubjectRecord;
 import dev.ikm.komet.framework.performance.Measures;
+import dev.ikm.komet.framework.performance.Statement;
 import dev.ikm.komet.framework.performance.Topic;
 import dev.ikm.komet.framework.performance.impl.ObservationRecord;
 import dev.ikm.komet.framework.rulebase.Consequence;
@@ -63,6 +64,8 @@
  */
 public class KlStatedAxiomDiTreeField extends BaseDefaultKlField<DiTreeEntity> implements KlDirectedTreeField<DiTreeEntity> {
 
+    private static final String KNOWLEDGE_BASE_NAME = "Axiom tree structure menu";
+
     private final int semanticNid;
 
     /** Strong reference — the entity provider holds its subscribers weakly. */
@@ -94,6 +97,9 @@ public KlStatedAxiomDiTreeField(ObservableField<DiTreeEntity> observableDiTreeFi
         this(observableDiTreeField, viewProperties.nodeView(), stamp4field);
         KLDiTreeControl control = (KLDiTreeControl) fxObject();
         control.setRuleActionsProvider(vertex -> ruleActions(vertex, viewProperties, control));
+        // Evaluate the rules for every clause while the tree is shown, so its menus open from the
+        // rule service's cache instead of firing the rules on the click.
+        control.valueProperty().subscribe(tree -> preEvaluateRuleActions(viewProperties, control));
         // Engine-run actions (and any other writer, e.g. the classic axiom control in another
         // window) persist straight to the store; mirror those writes back into the control.
         entityChangeSubscriber = changedNid -> {
@@ -112,16 +118,10 @@ public KlStatedAxiomDiTreeField(ObservableField<DiTreeEntity> observableDiTreeFi
      */
     private List<AxiomRuleAction> ruleActions(EntityVertex vertex, ViewProperties viewProperties, KLDiTreeControl control) {
         DiTreeEntity tree = control.getValue() != null ? control.getValue() : emptyDefinition();
-        int vertexIndex = vertex != null ? vertex.vertexIndex() : tree.root().vertexIndex();
-        ObservableSemanticVersion semanticVersion = ObservableEntityHandle.get(semanticNid)
-                .asSemantic().orElseThrow()
-                .getSnapshot(viewProperties.calculator())
-                .getLatestVersion().get();
-        AxiomSubjectRecord axiomSubject = new AxiomSubjectRecord(vertexIndex, tree, semanticVersion,
-                PremiseType.STATED, control);
-        ObservationRecord observation = new ObservationRecord(Topic.AXIOM_FOCUSED, axiomSubject, Measures.present());
-        ImmutableList<Consequence<?>> consequences = RuleService.get().execute("Axiom tree structure menu",
-                Lists.immutable.of(observation), viewProperties, viewProperties.nodeView().editCoordinate());
+        ObservableSemanticVersion semanticVersion = latestSemanticVersion(viewProperties).get();
+        ImmutableList<Consequence<?>> consequences = RuleService.get().execute(KNOWLEDGE_BASE_NAME,
+                axiomStatements(vertex, tree, semanticVersion, control),
+                viewProperties, viewProperties.nodeView().editCoordinate());
 
         List<AxiomRuleAction> actions = new ArrayList<>();
         for (Consequence<?> consequence : consequences) {
@@ -136,13 +136,47 @@ private List<AxiomRuleAction> ruleActions(EntityVertex vertex, ViewProperties vi
                     }
                 }
                 case ConsequenceMenu consequenceMenu -> actions.add(new AxiomRuleAction.Submenu(
-                        consequenceMenu.generatedMenu().getText(), consequenceMenu.generatedMenu()));
+                        consequenceMenu.text(), consequenceMenu.generatedMenu()));
                 default -> { }
             }
         }
         return actions;
     }
 
+    /**
+     * Asks the rule service to evaluate, in the background, the statements {@link #ruleActions} presents
+     * for the definition root and for each vertex of the current tree.
+     */
+    private void preEvaluateRuleActions(ViewProperties viewProperties, KLDiTreeControl control) {
+        DiTreeEntity tree = control.getValue();
+        Latest<ObservableSemanticVersion> semanticVersion = latestSemanticVersion(viewProperties);
+        if (tree == null || !semanticVersion.isPresent()) {
+            return;
+        }
+        RuleService ruleService = RuleService.get();
+        for (EntityVertex vertex : tree.vertexMap()) {
+            ruleService.preEvaluate(KNOWLEDGE_BASE_NAME,
+                    axiomStatements(vertex, tree, semanticVersion.get(), control),
+                    viewProperties, viewProperties.nodeView().editCoordinate());
+        }
+    }
+
+    private Latest<ObservableSemanticVersion> latestSemanticVersion(ViewProperties viewProperties) {
+        return ObservableEntityHandle.get(semanticNid)
+                .asSemantic().orElseThrow()
+                .getSnapshot(viewProperties.calculator())
+                .getLatestVersion();
+    }
+
+    private static ImmutableList<Statement> axiomStatements(EntityVertex vertex, DiTreeEntity tree,
+                                                            ObservableSemanticVersion semanticVersion,
+                                                            KLDiTreeControl control) {
+        int vertexIndex = vertex != null ? vertex.vertexIndex() : tree.root().vertexIndex();
+        AxiomSubjectRecord axiomSubject = new AxiomSubjectRecord(vertexIndex, tree, semanticVersion,
+                PremiseType.STATED, control);
+        return Lists.immutable.of(new ObservationRecord(Topic.AXIOM_FOCUSED, axiomSubject, Measures.present()));
+    }
+
     private static DiTreeEntity emptyDefinition() {
         return switch (new LogicalExpressionBuilder().build().sourceGraph()) {
             case DiTreeEntity tree -> tree;
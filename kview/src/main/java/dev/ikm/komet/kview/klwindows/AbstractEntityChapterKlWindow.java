@@ -15,6 +15,7 @@
  */
 package dev.ikm.komet.kview.klwindows;
 
+import dev.ikm.komet.framework.rulebase.RuleService;
 import dev.ikm.komet.framework.view.ObservableView;
 import dev.ikm.komet.framework.view.ObservableViewBase;
 import dev.ikm.komet.framework.view.ObservableViewNoOverride;
@@ -247,11 +248,13 @@ public void onShown() {
      * {@link #deriveSourceCoordinate} that registers two listeners on the journal's longer-lived view; without
      * this teardown each closed chapter window leaks via the journal view's listener list (ike-issues#693, #695).
      * Tool-area windows share the journal's view rather than owning an override, so they extend
-     * {@link AbstractChapterKlWindow} directly and correctly do not inherit this disposal.
+     * {@link AbstractChapterKlWindow} directly and correctly do not inherit this disposal. The rule service is told
+     * first, so the context-menu consequences it memoized for this view are released with it.
      */
     @Override
     public void delete() {
         super.delete();
+        RuleService.get().viewDisposed(getViewProperties());
         getViewProperties().dispose();
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.klwindows;
+
+import dev.ikm.komet.framework.view.ViewProperties;
+import dev.ikm.komet.preferences.KometPreferences;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+
+import java.util.UUID;
+
+import static dev.ikm.komet.kview.controls.KLWorkspace.DEFAULT_WINDOW_HEIGHT;
+import static dev.ikm.komet.kview.controls.KLWorkspace.WINDOW_AUTHORED_HEIGHT_KEY;
+import static dev.ikm.komet.kview.controls.KLWorkspace.WINDOW_AUTHORED_WIDTH_KEY;
+
+/**
+ * A lightweight stand-in for a saved journal window that has not been restored yet.
+ * <p>
+ * Restoring a window loads its entity, FXML and view model, which is too slow to do for every window
+ * of a large journal before the journal is usable. The journal therefore first places a pending window
+ * for each saved window, sized and positioned from the saved window state, and replaces it with the
+ * real window later. A pending window occupies the saved bounds on the workspace, so new windows are
+ * not placed on top of windows that are still being restored.
+ * <p>
+ * A pending window never writes to its preferences node: {@link #save()} and {@link #delete()} do
+ * nothing, so the saved state is left exactly as it was for the real window to restore from.
+ */
+public final class PendingKlWindow extends AbstractChapterKlWindow<Pane> {
+
+    /**
+     * Style class of the placeholder pane.
+     */
+    public static final String PENDING_WINDOW_STYLE_CLASS = "pending-window";
+
+    private final String windowId;
+    private final EntityKlWindowState savedState;
+
+    /**
+     * Creates a pending window from a saved window's preferences node.
+     *
+     * @param windowId       the name of the window's preferences node within the journal
+     * @param preferences    the window's preferences node
+     * @param viewProperties the journal's view properties
+     * @throws IllegalArgumentException if the saved window state cannot be read
+     */
+    public PendingKlWindow(String windowId, KometPreferences preferences, ViewProperties viewProperties) {
+        this(windowId, preferences, EntityKlWindowState.fromPreferences(preferences), viewProperties);
+    }
+
+    /**
+     * Creates a pending window from a saved window state that has already been read.
+     *
+     * @param windowId       the name of the window's preferences node within the journal
+     * @param preferences    the window's preferences node
+     * @param savedState     the window state saved in {@code preferences}
+     * @param viewProperties the journal's view properties
+     */
+    public PendingKlWindow(String windowId, KometPreferences preferences, EntityKlWindowState savedState,
+                           ViewProperties viewProperties) {
+        super(viewProperties, preferences);
+        this.windowId = windowId;
+        this.savedState = savedState;
+        setWindowState(savedState);
+
+        final Bounds bounds = savedBounds();
+        final StackPane placeholder = new StackPane(new Label("Loading…"));
+        placeholder.getStyleClass().add(PENDING_WINDOW_STYLE_CLASS);
+        placeholder.setLayoutX(bounds.getMinX());
+        placeholder.setLayoutY(bounds.getMinY());
+        placeholder.setPrefSize(bounds.getWidth(), bounds.getHeight());
+        // Ask the workspace to keep the saved size rather than auto-sizing to the label
+        placeholder.getProperties().put(WINDOW_AUTHORED_WIDTH_KEY, bounds.getWidth());
+        placeholder.getProperties().put(WINDOW_AUTHORED_HEIGHT_KEY, bounds.getHeight());
+        this.paneWindow = placeholder;
+    }
+
+    /**
+     * @return the name of the window's preferences node within the journal
+     */
+    public String windowId() {
+        return windowId;
+    }
+
+    /**
+     * @return the window state read from preferences when this pending window was created
+     */
+    public EntityKlWindowState savedState() {
+        return savedState;
+    }
+
+    /**
+     * Returns the bounds the restored window will occupy on the workspace desktop. A saved height
+     * of {@code -1} means the window sized itself to its content; the default window height is
+     * reserved for it.
+     *
+     * @return the saved bounds of the window
+     */
+    public Bounds savedBounds() {
+        final double height = savedState.getHeight() > 0 ? savedState.getHeight() : DEFAULT_WINDOW_HEIGHT;
+        return new BoundingBox(savedState.getXPos(), savedState.getYPos(), savedState.getWidth(), height);
+    }
+
+    @Override
+    public UUID getWindowTopic() {
+        return savedState.getWindowId();
+    }
+
+    @Override
+    public EntityKlWindowType getWindowType() {
+        return savedState.getWindowType();
+    }
+
+    @Override
+    public void onShown() {
+    }
+
+    @Override
+    public void save() {
+        // The saved state belongs to the window that will replace this one
+    }
+
+    @Override
+    public void delete() {
+        // The saved state belongs to the window that will replace this one
+    }
+
+    @Override
+    protected boolean isPropertyPanelOpen() {
+        return false;
+    }
+
+    @Override
+    protected void setPropertyPanelOpen(boolean isOpen) {
+    }
+
+    @Override
+    protected String selectedPropertyPanel() {
+        return null;
+    }
+
+    @Override
+    protected void setSelectedPropertyPanel(String propertyPanel) {
+    }
+
+    @Override
+    protected void captureAdditionalState(EntityKlWindowState state) {
+    }
+
+    @Override
+    protected void applyAdditionalState(EntityKlWindowState state) {
+    }
+}
@@ -21,6 +21,7 @@
 import dev.ikm.komet.framework.view.ViewProperties;
 import dev.ikm.komet.framework.window.WindowSettings;
 import dev.ikm.komet.kview.data.persistence.SemanticWriter;
+import dev.ikm.komet.kview.data.persistence.WriteSession;
 import dev.ikm.komet.kview.data.schema.SemanticDetail;
 import dev.ikm.komet.preferences.KometPreferences;
 import dev.ikm.komet.preferences.KometPreferencesImpl;
@@ -399,41 +400,44 @@ public static PublicId write(LidrRecord lidrRecord, PublicId referencedComponent
 
         // Create a semantic record representing a LIDR Record pattern
         // LIDR Record Semantic references (points to) the Diagnostic Device Semantic
-        SemanticWriter writer = new SemanticWriter(stampEntity);
-        Supplier<MutableList<Object>> fieldsSupplier = () -> {
-            // Targets into IntLists
-            IntIdSet targetIds = lidrRecord.targets() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.targets(),
-                    (dto) -> PrimitiveData.get().nidForPublicId(dto.targetId()));
+        // The session resolves the targets, specimens and concepts of the record once, and puts the semantic when it closes.
+        try (WriteSession session = new WriteSession(stampEntity)) {
+            SemanticWriter writer = new SemanticWriter(session);
+            Supplier<MutableList<Object>> fieldsSupplier = () -> {
+                // Targets into IntLists
+                IntIdSet targetIds = lidrRecord.targets() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.targets(),
+                        (dto) -> session.nid(dto.targetId()));
 
-            // Specimens into IntLists
-            IntIdSet specimenIds = lidrRecord.specimens() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.specimens(),
-                    (dto) -> PrimitiveData.get().nidForPublicId(dto.specimenId()));
+                // Specimens into IntLists
+                IntIdSet specimenIds = lidrRecord.specimens() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.specimens(),
+                        (dto) -> session.nid(dto.specimenId()));
 
-            // Results conformance into IntLists for
-            IntIdSet resultConfIds = lidrRecord.resultConformances() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.resultConformances(),
-                    (resultConf) -> PrimitiveData.get().nidForPublicId(resultConf.resultConformanceId()));
+                // Results conformance into IntLists for
+                IntIdSet resultConfIds = lidrRecord.resultConformances() == null ? IntIds.set.empty() : IntIds.set.of(lidrRecord.resultConformances(),
+                        (resultConf) -> session.nid(resultConf.resultConformanceId()));
 
-            // Create pattern's field definitions
-            MutableList<Object> lidrRecordFields = Lists.mutable.empty();
+                // Create pattern's field definitions
+                MutableList<Object> lidrRecordFields = Lists.mutable.empty();
 
-            ConceptFacade testPerformed = ConceptFacade.make(PrimitiveData.get().nidForPublicId(lidrRecord.testPerformedId()));
-            lidrRecordFields.add(testPerformed);     // Test performed (concept)
+                ConceptFacade testPerformed = ConceptFacade.make(session.nid(lidrRecord.testPerformedId()));
+                lidrRecordFields.add(testPerformed);     // Test performed (concept)
 
-            ConceptFacade resultType = ConceptFacade.make(PrimitiveData.get().nidForPublicId(lidrRecord.dataResultsTypeId()));
-            lidrRecordFields.add(resultType);   // Result Type (concept)
+                ConceptFacade resultType = ConceptFacade.make(session.nid(lidrRecord.dataResultsTypeId()));
+                lidrRecordFields.add(resultType);   // Result Type (concept)
 
-            ConceptFacade analyte = ConceptFacade.make(PrimitiveData.get().nidForPublicId(lidrRecord.analyte().analyteId()));
-            lidrRecordFields.add(analyte); // Analyte (concept)
+                ConceptFacade analyte = ConceptFacade.make(session.nid(lidrRecord.analyte().analyteId()));
+                lidrRecordFields.add(analyte); // Analyte (concept)
 
-            lidrRecordFields.add(targetIds);                        // Target (int set/ IntSet)
-            lidrRecordFields.add(specimenIds);                      // Specimen (int set)
-            lidrRecordFields.add(resultConfIds);
+                lidrRecordFields.add(targetIds);                        // Target (int set/ IntSet)
+                lidrRecordFields.add(specimenIds);                      // Specimen (int set)
+                lidrRecordFields.add(resultConfIds);
 
-            return lidrRecordFields;
-        };
+                return lidrRecordFields;
+            };
 
-        // Lidr Record semantic referencing the Diagnostic Device Semantic.
-        writer.semantic(lidrPublicId, new SemanticDetail(LIDR_RECORD_PATTERN.publicId(), diagDeviceSemanticIdReference.get(), fieldsSupplier));
+            // Lidr Record semantic referencing the Diagnostic Device Semantic.
+            writer.semantic(lidrPublicId, new SemanticDetail(LIDR_RECORD_PATTERN.publicId(), diagDeviceSemanticIdReference.get(), fieldsSupplier));
+        }
         return lidrPublicId;
     }
 
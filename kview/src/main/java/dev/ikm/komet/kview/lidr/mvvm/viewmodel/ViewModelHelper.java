@@ -20,6 +20,7 @@
 import dev.ikm.komet.kview.data.persistence.ConceptWriter;
 import dev.ikm.komet.kview.data.persistence.STAMPWriter;
 import dev.ikm.komet.kview.data.persistence.SemanticWriter;
+import dev.ikm.komet.kview.data.persistence.WriteSession;
 import dev.ikm.komet.kview.lidr.mvvm.model.LidrRecord;
 import dev.ikm.komet.kview.lidr.mvvm.model.DataModelHelper;
 import dev.ikm.tinkar.common.id.IntIdSet;
@@ -155,56 +156,58 @@ public static PublicId createQualitativeResultConcept(ResultsViewModel resultsVi
 
         // Create Result Concept
         PublicId resultPublicId = PublicIds.newRandom();
-        ConceptWriter conceptWriter = new ConceptWriter(newStampPublicId);
-        conceptWriter.write(resultPublicId);
-
-        // Create Fully q name semantic
-        PublicId fqnDescrSemantic = PublicIds.newRandom();
-        SemanticWriter descrSemantic = new SemanticWriter(newStampPublicId);
-        descrSemantic.description(fqnDescrSemantic, resultPublicId, FQN_DESCR_CONCEPT.publicId(), resultName);
-
-        // Identifier
-        PublicId identifierUUID = PublicIds.newRandom();
-        descrSemantic.identifier(identifierUUID, resultPublicId, UUID_CONCEPT.publicId(), resultPublicId.asUuidArray()[0].toString());
-
-        // Result Conformance Semantic has pattern of
-        SemanticWriter resultConformanceSemantic = new SemanticWriter(newStampPublicId);
-        PublicId resultConformanceSemanticId = PublicIds.newRandom();
-
-
-        Supplier<MutableList<Object>> fieldsSupplier = () -> {
-            // Allowable Results. Such as detected or not detected
-            IntIdSet allowableResultsNids = allowableResults.size() == 0 ? IntIds.set.empty() : IntIds.set.of(allowableResults,
-                    (entityFacade) -> entityFacade.nid());
-
-            // Create pattern's field definitions
-            MutableList<Object> allowableFields = Lists.mutable.empty();
-            allowableFields.add(allowableResultsNids);
-            return allowableFields;
-        };
-        resultConformanceSemantic.semantic(resultConformanceSemanticId, new SemanticDetail(ALLOWED_RESULTS_PATTERN.publicId(), resultPublicId, fieldsSupplier));
-
-        // Add Axiom Semantic
-        SemanticWriter axiomSemantic = new SemanticWriter(newStampPublicId);
-        PublicId newAxiomId = PublicIds.newRandom();
-        axiomSemantic.semantic(newAxiomId,
-                new SemanticDetail(
-                        TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN,
-                        resultPublicId,
-                        () -> {
-                            MutableList<Object> semanticFields = Lists.mutable.empty();
-                            String owlExpression = generateOwlResultConformanceExpression(generateResultConformanceValueMap(resultPublicId, scaleType.publicId()));
-                            //Build DiTree
-                            try {
-                                LogicalExpression expression = SctOwlUtilities.sctToLogicalExpression(owlExpression, "");
-                                semanticFields.add(expression.sourceGraph());
-                                System.out.println(expression);
-                            } catch (IOException e) {
-                                throw new RuntimeException(e);
-                            }
-                            return semanticFields;
-                        })
-        );
+
+        // The concept and its semantics share one write session, put together when it closes.
+        try (WriteSession writeSession = new WriteSession(newStampPublicId)) {
+            ConceptWriter conceptWriter = new ConceptWriter(writeSession);
+            conceptWriter.write(resultPublicId);
+
+            // Create Fully q name semantic
+            PublicId fqnDescrSemantic = PublicIds.newRandom();
+            SemanticWriter descrSemantic = new SemanticWriter(writeSession);
+            descrSemantic.description(fqnDescrSemantic, resultPublicId, FQN_DESCR_CONCEPT.publicId(), resultName);
+
+            // Identifier
+            PublicId identifierUUID = PublicIds.newRandom();
+            descrSemantic.identifier(identifierUUID, resultPublicId, UUID_CONCEPT.publicId(), resultPublicId.asUuidArray()[0].toString());
+
+            // Result Conformance Semantic has pattern of
+            SemanticWriter resultConformanceSemantic = new SemanticWriter(writeSession);
+            PublicId resultConformanceSemanticId = PublicIds.newRandom();
+
+            Supplier<MutableList<Object>> fieldsSupplier = () -> {
+                // Allowable Results. Such as detected or not detected
+                IntIdSet allowableResultsNids = allowableResults.size() == 0 ? IntIds.set.empty() : IntIds.set.of(allowableResults,
+                        (entityFacade) -> entityFacade.nid());
+
+                // Create pattern's field definitions
+                MutableList<Object> allowableFields = Lists.mutable.empty();
+                allowableFields.add(allowableResultsNids);
+                return allowableFields;
+            };
+            resultConformanceSemantic.semantic(resultConformanceSemanticId, new SemanticDetail(ALLOWED_RESULTS_PATTERN.publicId(), resultPublicId, fieldsSupplier));
+
+            // Add Axiom Semantic
+            SemanticWriter axiomSemantic = new SemanticWriter(writeSession);
+            PublicId newAxiomId = PublicIds.newRandom();
+            axiomSemantic.semantic(newAxiomId,
+                    new SemanticDetail(
+                            TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN,
+                            resultPublicId,
+                            () -> {
+                                MutableList<Object> semanticFields = Lists.mutable.empty();
+                                String owlExpression = generateOwlResultConformanceExpression(generateResultConformanceValueMap(resultPublicId, scaleType.publicId()));
+                                //Build DiTree
+                                try {
+                                    LogicalExpression expression = SctOwlUtilities.sctToLogicalExpression(owlExpression, "");
+                                    semanticFields.add(expression.sourceGraph());
+                                } catch (IOException e) {
+                                    throw new RuntimeException(e);
+                                }
+                                return semanticFields;
+                            })
+            );
+        }
         return resultPublicId;
     }
     static Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{([a-zA-Z\\d\\_]+)\\}");
@@ -0,0 +1,372 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.changeset.exchange;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The changeset archives in a changeset folder, with whether each is a valid changeset and whether it
+ * is already on the remote — kept in {@value #FILE_NAME} inside the folder's {@code .git} directory.
+ * <p>
+ * Telling a valid changeset from a partial or foreign file means opening the archive and looking for
+ * its manifest. Doing that for every archive on every push costs thousands of zip opens once a folder
+ * has months of history, so each verdict is recorded against the archive's size and modification
+ * time, and a rescan only stats the folder and opens the archives that are new or have changed since.
+ * <p>
+ * An archive is pending until it has been pushed, or was received by a pull. An archive the index
+ * meets for the first time — every archive, when the index is first built — is looked up in the
+ * folder's remote-tracking branches, so changesets pushed before the index existed are not reported as
+ * pending. {@link #forFolder(Path)} shares one index per folder, so the sync task and the user
+ * interface see the same pending changesets. The index is a cache: a missing, unreadable or unknown-format index file is treated as
+ * empty, and failing to write it only costs the next scan some zip opens.
+ * <p>
+ * The file is tab-separated: a header line, then one line per archive holding its size, modification
+ * time in milliseconds, a valid and a pushed flag, and its path relative to the folder with {@code /}
+ * separators, as JGit expects.
+ */
+public final class ChangesetIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangesetIndex.class);
+
+    public static final String FILE_NAME = "ike-changeset-index";
+
+    public static final String CHANGESET_SUFFIX = "ike-cs.zip";
+
+    private static final String FORMAT_HEADER = "komet-changeset-index 1";
+
+    private static final String GIT_DIRECTORY = ".git";
+
+    private static final Map<Path, ChangesetIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path folder;
+    private final Path indexFile;
+    private final Predicate<Path> validator;
+    private final Supplier<Set<String>> remoteChangesets;
+
+    // Entries by relative path; guarded by this
+    private SortedMap<String, Entry> entries;
+    private boolean dirty = false;
+    // The remote's archives, read at most once per scan; guarded by this
+    private Set<String> onRemote;
+
+    /**
+     * @param folder    the changeset folder
+     * @param indexFile where the index is persisted
+     * @param validator decides whether an archive is a valid changeset; only called for archives not
+     *                  already recorded with their current size and modification time
+     */
+    public ChangesetIndex(Path folder, Path indexFile, Predicate<Path> validator) {
+        this(folder, indexFile, validator, Set::of);
+    }
+
+    /**
+     * @param remoteChangesets the relative paths of the archives already on the remote; only asked when
+     *                         an archive is seen for the first time, at most once per scan
+     */
+    public ChangesetIndex(Path folder, Path indexFile, Predicate<Path> validator, Supplier<Set<String>> remoteChangesets) {
+        this.folder = folder;
+        this.indexFile = indexFile;
+        this.validator = validator;
+        this.remoteChangesets = remoteChangesets;
+    }
+
+    /**
+     * @param changeSetFolder the changeset folder, which is a Git working tree
+     * @return the index shared by every caller for {@code changeSetFolder}
+     */
+    public static ChangesetIndex forFolder(Path changeSetFolder) {
+        return INDEXES.computeIfAbsent(changeSetFolder.toAbsolutePath().normalize(),
+                folder -> new ChangesetIndex(folder, folder.resolve(GIT_DIRECTORY).resolve(FILE_NAME),
+                        ChangesetIndex::hasManifest, () -> remoteChangesets(folder)));
+    }
+
+    /**
+     * Lists the changeset archives in the commits the folder's remote-tracking branches point at, which
+     * are on the remote already.
+     *
+     * @param changeSetFolder the changeset folder, which is a Git working tree
+     * @return the archives' paths relative to the folder; empty if the folder is not a repository or has
+     *         never fetched
+     */
+    public static Set<String> remoteChangesets(Path changeSetFolder) {
+        Set<String> paths = new HashSet<>();
+        try (Git git = Git.open(changeSetFolder.toFile());
+             RevWalk revWalk = new RevWalk(git.getRepository());
+             TreeWalk treeWalk = new TreeWalk(git.getRepository())) {
+            Repository repository = git.getRepository();
+            treeWalk.setRecursive(true);
+            for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_REMOTES)) {
+                if (ref.getObjectId() == null) {
+                    continue;
+                }
+                treeWalk.reset(revWalk.parseCommit(ref.getObjectId()).getTree());
+                while (treeWalk.next()) {
+                    if (treeWalk.getPathString().endsWith(CHANGESET_SUFFIX)) {
+                        paths.add(treeWalk.getPathString());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.info("Unable to list the changesets on the remote of {}", changeSetFolder, e);
+        }
+        return paths;
+    }
+
+    /**
+     * Rescans the folder, validating only new and changed archives.
+     *
+     * @return the relative paths of every valid changeset, sorted
+     * @throws IOException if the folder cannot be walked
+     */
+    public synchronized ImmutableList<String> validChangesets() throws IOException {
+        rescan();
+        return select(entry -> entry.valid());
+    }
+
+    /**
+     * Rescans the folder, validating only new and changed archives.
+     *
+     * @return the relative paths of the valid changesets that have not been pushed, sorted
+     * @throws IOException if the folder cannot be walked
+     */
+    public synchronized ImmutableList<String> pendingChangesets() throws IOException {
+        rescan();
+        return select(entry -> entry.valid() && !entry.pushed());
+    }
+
+    /**
+     * Validates a single archive, consulting and updating the index. The update is persisted by the
+     * next rescan or {@link #markPushed(Collection)}.
+     *
+     * @param relativePath the archive's path relative to the folder, with {@code /} separators
+     * @return {@code true} if the archive is a valid changeset
+     */
+    public synchronized boolean isValid(String relativePath) {
+        load();
+        onRemote = null;
+        Path file = folder.resolve(relativePath);
+        try {
+            return refresh(relativePath, file, Files.readAttributes(file, BasicFileAttributes.class),
+                    entries.get(relativePath)).valid();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records that the given changesets are on the remote, so they are no longer pending.
+     *
+     * @param relativePaths archive paths relative to the folder, with {@code /} separators
+     */
+    public synchronized void markPushed(Collection<String> relativePaths) {
+        load();
+        for (String relativePath : relativePaths) {
+            Entry entry = entries.get(relativePath);
+            if (entry != null && !entry.pushed()) {
+                entries.put(relativePath, entry.asPushed());
+                dirty = true;
+            }
+        }
+        save();
+    }
+
+    private void rescan() throws IOException {
+        load();
+        onRemote = null;
+        SortedMap<String, Entry> previous = entries;
+        entries = new TreeMap<>();
+        Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                return dir.getFileName() != null && dir.getFileName().toString().equals(GIT_DIRECTORY)
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(CHANGESET_SUFFIX)) {
+                    String relativePath = relativize(file);
+                    Entry entry = previous.get(relativePath);
+                    if (entry != null && entry.matches(attributes)) {
+                        entries.put(relativePath, entry);
+                    } else {
+                        refresh(relativePath, file, attributes, entry);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (!entries.keySet().equals(previous.keySet())) {
+            dirty = true;
+        }
+        save();
+    }
+
+    /**
+     * @param known the archive's entry from before this scan, if it had one
+     */
+    private Entry refresh(String relativePath, Path file, BasicFileAttributes attributes, Entry known) {
+        Entry entry = entries.get(relativePath);
+        if (entry == null || !entry.matches(attributes)) {
+            // An archive that changed since it was indexed is pending again; a new one may already be on the remote
+            boolean pushed = known == null && isOnRemote(relativePath);
+            entry = new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), validator.test(file), pushed);
+            entries.put(relativePath, entry);
+            dirty = true;
+        }
+        return entry;
+    }
+
+    private boolean isOnRemote(String relativePath) {
+        if (onRemote == null) {
+            onRemote = remoteChangesets.get();
+        }
+        return onRemote.contains(relativePath);
+    }
+
+    private ImmutableList<String> select(Predicate<Entry> filter) {
+        return Lists.immutable.ofAll(entries.entrySet().stream()
+                .filter(mapEntry -> filter.test(mapEntry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList());
+    }
+
+    private String relativize(Path file) {
+        // JGit expects '/' separators
+        return folder.relativize(file).toString().replace("\\", "/");
+    }
+
+    private void load() {
+        if (entries != null) {
+            return;
+        }
+        entries = new TreeMap<>();
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !FORMAT_HEADER.equals(lines.getFirst())) {
+                LOG.info("Ignoring changeset index {} in an unknown format", indexFile);
+                return;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split("\t", 5);
+                entries.put(fields[4], new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        "1".equals(fields[2]), "1".equals(fields[3])));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Ignoring unreadable changeset index {}", indexFile, e);
+            entries.clear();
+        }
+    }
+
+    private void save() {
+        if (!dirty || !Files.isDirectory(indexFile.getParent())) {
+            return;
+        }
+        dirty = false;
+        Path temporaryFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(FORMAT_HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                    String relativePath = mapEntry.getKey();
+                    if (relativePath.indexOf('\n') >= 0 || relativePath.indexOf('\r') >= 0) {
+                        // Left out; the archive is simply validated again on every scan.
+                        continue;
+                    }
+                    Entry entry = mapEntry.getValue();
+                    writer.write(Long.toString(entry.size()));
+                    writer.write('\t');
+                    writer.write(Long.toString(entry.lastModifiedMillis()));
+                    writer.write('\t');
+                    writer.write(entry.valid() ? "1" : "0");
+                    writer.write('\t');
+                    writer.write(entry.pushed() ? "1" : "0");
+                    writer.write('\t');
+                    writer.write(relativePath);
+                    writer.newLine();
+                }
+            }
+            Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Unable to write changeset index {}", indexFile, e);
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    /**
+     * Validates whether a file is a valid changeset archive.
+     *
+     * @param file The path to the file to check
+     * @return true if the file is a valid changeset, false otherwise
+     */
+    public static boolean hasManifest(Path file) {
+        try (FileSystem fs = FileSystems.newFileSystem(file)) {
+            return Files.exists(fs.getPath("META-INF", "MANIFEST.MF"));
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private record Entry(long size, long lastModifiedMillis, boolean valid, boolean pushed) {
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModifiedMillis == attributes.lastModifiedTime().toMillis();
+        }
+
+        Entry asPushed() {
+            return new Entry(size, lastModifiedMillis, valid, true);
+        }
+    }
+}
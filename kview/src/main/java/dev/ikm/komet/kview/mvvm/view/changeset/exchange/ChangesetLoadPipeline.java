@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.changeset.exchange;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Loads a sequence of changeset zips into the store in the given order, reading the files ahead
+ * of the one being applied on virtual threads.
+ * <p>
+ * Changesets must be applied one at a time and in the order {@link GitSyncFileSorter} puts them
+ * in, since a later changeset may build on an earlier one. The pipeline keeps up to
+ * {@code ike.changeset.read.ahead} (default {@value #DEFAULT_READ_AHEAD}) files beyond the one being
+ * applied in flight: each is read in full, so the apply that follows finds it in the page cache rather
+ * than waiting on the disk, and its central directory is checked. A file that is truncated or has no
+ * manifest is reported as failed before anything from it reaches the store. The window only moves
+ * once a file has been applied, so a slow store holds the reading back rather than letting it run
+ * through the whole list.
+ * <p>
+ * This is a prefetch only, and does not decode changesets concurrently. Inflating the entries and
+ * parsing their protobuf messages stays on the calling thread, inside the {@link Loader}: the store is
+ * loaded through {@code LoadEntitiesFromProtobufFile}, which reads, inflates, parses and puts in a
+ * single pass and cannot be handed messages parsed elsewhere. Parsing ahead would therefore only parse
+ * every file twice. What runs concurrently is the disk read and the central directory check, so the
+ * gain is limited to pulls whose changesets are not already in the page cache. Damaged compressed
+ * data is found by the loader.
+ * <p>
+ * Each file's size and time spent reading ahead and applying are reported to the {@link Listener} as
+ * it completes, so callers can show throughput as well as progress.
+ *
+ * @param <R> the result of applying one changeset
+ */
+public final class ChangesetLoadPipeline<R> {
+    private static final Logger LOG = LoggerFactory.getLogger(ChangesetLoadPipeline.class);
+
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    private static final String MANIFEST_ENTRY = "META-INF/MANIFEST.MF";
+
+    private final Loader<R> loader;
+    private final BooleanSupplier cancelled;
+    private final Listener<R> listener;
+    private final int readAhead;
+
+    /**
+     * @param loader    applies one changeset to the store; called on the calling thread, in order
+     * @param cancelled polled before each file; no further file is applied once it returns {@code true}
+     * @param listener  receives each file's outcome as it completes
+     */
+    public ChangesetLoadPipeline(Loader<R> loader, BooleanSupplier cancelled, Listener<R> listener) {
+        this(loader, cancelled, listener, Integer.getInteger("ike.changeset.read.ahead", DEFAULT_READ_AHEAD));
+    }
+
+    /**
+     * @param readAhead the number of files read ahead of the one being applied
+     */
+    public ChangesetLoadPipeline(Loader<R> loader, BooleanSupplier cancelled, Listener<R> listener, int readAhead) {
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("Read-ahead must be positive: " + readAhead);
+        }
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.cancelled = Objects.requireNonNull(cancelled, "cancelled");
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Applies {@code files} in order. A file that fails to read or to apply is reported and
+     * skipped; the rest are still applied.
+     *
+     * @param files the changeset zips, in the order they must be applied
+     * @return the outcome of every file attempted, in order; shorter than {@code files} if cancelled
+     */
+    public List<Outcome<R>> load(List<Path> files) {
+        List<Outcome<R>> outcomes = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Deque<Future<Prefetched>> window = new ArrayDeque<>();
+            int submitted = 0;
+            for (int index = 0; index < files.size(); index++) {
+                while (submitted < files.size() && submitted <= index + readAhead) {
+                    Path file = files.get(submitted++);
+                    window.addLast(executor.submit(() -> prefetch(file)));
+                }
+                Future<Prefetched> reading = window.removeFirst();
+                if (cancelled.getAsBoolean()) {
+                    reading.cancel(true);
+                    window.forEach(future -> future.cancel(true));
+                    break;
+                }
+                Outcome<R> outcome = apply(files.get(index), reading);
+                outcomes.add(outcome);
+                listener.loaded(index, files.size(), outcome);
+            }
+        }
+        return outcomes;
+    }
+
+    private Outcome<R> apply(Path file, Future<Prefetched> reading) {
+        Prefetched prefetched;
+        try {
+            prefetched = reading.get();
+        } catch (ExecutionException e) {
+            LOG.error("Failed to read changeset: {}", file.getFileName(), e.getCause());
+            return new Outcome<>(file, Optional.empty(), Optional.of(e.getCause()), Metrics.EMPTY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome<>(file, Optional.empty(), Optional.of(e), Metrics.EMPTY);
+        }
+        long start = System.nanoTime();
+        try {
+            R result = loader.load(file.toFile());
+            return new Outcome<>(file, Optional.ofNullable(result), Optional.empty(),
+                    prefetched.metrics(Duration.ofNanos(System.nanoTime() - start)));
+        } catch (Exception e) {
+            LOG.error("Failed to load changeset: {}", file.getFileName(), e);
+            return new Outcome<>(file, Optional.empty(), Optional.of(e),
+                    prefetched.metrics(Duration.ofNanos(System.nanoTime() - start)));
+        }
+    }
+
+    /**
+     * Reads {@code file} in full without inflating it, then checks its central directory, which a
+     * truncated archive no longer ends with, for the manifest and the entry sizes.
+     */
+    private static Prefetched prefetch(Path file) throws IOException {
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(file)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        long uncompressedBytes = 0;
+        int entries = 0;
+        boolean hasManifest = false;
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                entries++;
+                hasManifest |= MANIFEST_ENTRY.equals(entry.getName());
+                uncompressedBytes += Math.max(0, entry.getSize());
+            }
+        }
+        if (!hasManifest) {
+            throw new IOException("Not a changeset, no " + MANIFEST_ENTRY + ": " + file);
+        }
+        return new Prefetched(Files.size(file), uncompressedBytes, entries, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private record Prefetched(long bytes, long uncompressedBytes, int entries, Duration readAheadTime) {
+        Metrics metrics(Duration applyTime) {
+            return new Metrics(bytes, uncompressedBytes, entries, readAheadTime, applyTime);
+        }
+    }
+
+    /**
+     * Applies one changeset file to the store.
+     *
+     * @param <R> the result of applying it
+     */
+    @FunctionalInterface
+    public interface Loader<R> {
+        R load(File file) throws Exception;
+    }
+
+    /**
+     * Receives each file's outcome on the thread that called {@link #load}.
+     *
+     * @param <R> the result of applying one changeset
+     */
+    @FunctionalInterface
+    public interface Listener<R> {
+        /**
+         * @param index   the position of the file in the list being loaded
+         * @param total   the number of files being loaded
+         * @param outcome the file's outcome
+         */
+        void loaded(int index, int total, Outcome<R> outcome);
+    }
+
+    /**
+     * The outcome of loading one changeset file.
+     *
+     * @param file    the changeset zip
+     * @param result  the loader's result, if it was applied
+     * @param failure why it couldn't be read or applied, if it wasn't
+     * @param metrics the file's size and timings
+     */
+    public record Outcome<R>(Path file, Optional<R> result, Optional<Throwable> failure, Metrics metrics) {
+        public boolean succeeded() {
+            return failure.isEmpty();
+        }
+    }
+
+    /**
+     * The size and timings of one changeset file; zero for a file that failed to read.
+     *
+     * @param bytes             the size of the zip
+     * @param uncompressedBytes the total size of its entries, as recorded in its central directory
+     * @param entries           the number of entries
+     * @param readAheadTime     the time spent reading it into the page cache and checking its central
+     *                          directory ahead of the apply; no entry is inflated in that time
+     * @param applyTime         the time spent applying it to the store, which includes inflating and
+     *                          parsing it
+     */
+    public record Metrics(long bytes, long uncompressedBytes, int entries, Duration readAheadTime, Duration applyTime) {
+        static final Metrics EMPTY = new Metrics(0, 0, 0, Duration.ZERO, Duration.ZERO);
+
+        /**
+         * @return the rate, in uncompressed megabytes per second, at which the file was applied
+         */
+        public double applyMegabytesPerSecond() {
+            long nanos = applyTime.toNanos();
+            return nanos == 0 ? 0 : uncompressedBytes / 1_000_000.0 / (nanos / 1_000_000_000.0);
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package dev.ikm.komet.kview.mvvm.view.changeset.exchange;
 
+import dev.ikm.komet.framework.EditedConceptTracker;
 import dev.ikm.komet.framework.events.appevents.RefreshCalculatorCacheEvent;
 import dev.ikm.komet.kview.mvvm.model.GitHubPreferences;
 import dev.ikm.komet.kview.mvvm.model.GitHubPreferencesDao;
@@ -25,6 +26,7 @@
 import dev.ikm.tinkar.common.service.TrackingCallable;
 import dev.ikm.tinkar.coordinate.Calculators;
 import dev.ikm.tinkar.entity.ChangeSetWriterService;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
 import dev.ikm.tinkar.common.service.EntityCountSummary;
 import dev.ikm.tinkar.entity.load.LoadEntitiesFromProtobufFile;
 import dev.ikm.tinkar.events.EvtBusFactory;
@@ -63,12 +65,11 @@
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -77,7 +78,6 @@
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Stream;
 
 import static dev.ikm.komet.framework.events.appevents.RefreshCalculatorCacheEvent.GLOBAL_REFRESH;
 import static dev.ikm.tinkar.events.FrameworkTopics.CALCULATOR_CACHE_TOPIC;
@@ -847,18 +847,20 @@ private ImmutableList<String> pull(double startPercentage, double endPercentage,
                     List<DiffEntry> changedFiles = getChangedFiles(git.getRepository(), oldHead, newHead);
 
                     // Filter for only ADD changes and files ending with ike-cs.zip
+                    ChangesetIndex changesetIndex = ChangesetIndex.forFolder(changeSetFolder);
                     MutableList<String> newFiles = Lists.mutable.empty();
                     for (DiffEntry diff : changedFiles) {
                         if (diff.getChangeType() == DiffEntry.ChangeType.ADD &&
-                                diff.getNewPath().endsWith("ike-cs.zip")) {
+                                diff.getNewPath().endsWith(ChangesetIndex.CHANGESET_SUFFIX)) {
 
-                            Path filePath = changeSetFolder.resolve(diff.getNewPath());
-                            if (isValidChangeset(filePath)) {
+                            if (changesetIndex.isValid(diff.getNewPath())) {
                                 // Add this to our list of files to load
                                 newFiles.add(diff.getNewPath());
                             }
                         }
                     }
+                    // Pulled changesets are already on the remote
+                    changesetIndex.markPushed(newFiles);
 
                     // Sort the files to ensure consistent loading order
                     newFiles.sort(fileSorter);
@@ -984,7 +986,9 @@ private List<DiffEntry> getChangedFiles(Repository repository,
     }
 
     /**
-     * Loads changesets from the specified list of files.
+     * Loads changesets from the specified list of files, in order, through a
+     * {@link ChangesetLoadPipeline} that reads the next few files into the page cache while the current
+     * one is applied. Each file is still inflated and parsed as it is applied, one at a time.
      *
      * @param startPercentage   the progress percentage at the start of this phase
      * @param endPercentage     the progress percentage at the end of this phase
@@ -1007,25 +1011,25 @@ private void loadChangesets(double startPercentage, double endPercentage,
         }
 
         int total = relativeFilePaths.size();
-        int current = 0;
-
-        for (String relativePath : relativeFilePaths) {
-            current++;
-            File file = changeSetFolder.resolve(relativePath).toFile();
-            updateMessage("Loading changeset " + current + " of " + total + ": " + file.getName());
-            // Update progress based on current file's position in the total
-            double loadProgress = (double) current / total;
-            updatePhaseProgress(startPercentage, endPercentage, loadProgress * 0.9); // Reserve 10% for completion
-
-            try {
-                // isValidChangeset check already done when filtering files
-                EntityCountSummary ecs = new LoadEntitiesFromProtobufFile(file).compute();
-                loadResults.add(ecs);
-                LOG.info("Loaded changeset: {}", file.getName());
-            } catch (Exception ex) {
-                LOG.error("Failed to load changeset: {}", file.getName(), ex);
-            }
-        }
+        List<Path> files = relativeFilePaths.collect(relativePath -> changeSetFolder.resolve(relativePath)).castToList();
+        // Validity already checked against the changeset index when filtering files
+        ChangesetLoadPipeline<EntityCountSummary> pipeline = new ChangesetLoadPipeline<>(
+                file -> new LoadEntitiesFromProtobufFile(file).compute(),
+                this::isCancelled,
+                (index, count, outcome) -> {
+                    outcome.result().ifPresent(loadResults::add);
+                    if (outcome.succeeded()) {
+                        ChangesetLoadPipeline.Metrics metrics = outcome.metrics();
+                        LOG.info("Loaded changeset: {} ({} bytes, read ahead in {} ms, applied in {} ms)",
+                                outcome.file().getFileName(), metrics.bytes(),
+                                metrics.readAheadTime().toMillis(), metrics.applyTime().toMillis());
+                    }
+                    updateMessage("Loaded changeset %d of %d: %s (%.1f MB/s)".formatted(index + 1, count,
+                            outcome.file().getFileName(), outcome.metrics().applyMegabytesPerSecond()));
+                    // Reserve 10% for completion
+                    updatePhaseProgress(startPercentage, endPercentage, (double) (index + 1) / count * 0.9);
+                });
+        pipeline.load(files);
 
         updateMessage("Successfully loaded " + loadResults.size() + " of " + total + " changesets.");
         updatePhaseProgress(startPercentage, endPercentage, 1.0);
@@ -1033,6 +1037,11 @@ private void loadChangesets(double startPercentage, double endPercentage,
 
     /**
      * Runs the reasoning process on the loaded data.
+     * <p>
+     * When reuse is enabled (see {@link SyncReasoner}), reasoners are kept across syncs, so once a
+     * reasoner has classified the data store a later sync only hands it the concepts whose stated axioms
+     * changed since then; a full classification runs on the first sync, and whenever the incremental one
+     * is not possible.
      *
      * @param startPercentage the progress percentage at the start of this phase
      * @param endPercentage   the progress percentage at the end of this phase
@@ -1046,7 +1055,7 @@ private void runReasoner(double startPercentage, double endPercentage) {
         updateMessage("Starting reasoning process...");
         updatePhaseProgress(startPercentage, endPercentage, 0.0);
 
-        ImmutableList<ReasonerService> reasoners = loadReasonerServices();
+        ImmutableList<SyncReasoner> reasoners = SyncReasoner.forServices(loadReasonerServices());
         processWithReasoners(reasoners, startPercentage, endPercentage);
 
         updateMessage("Reasoning process completed successfully.");
@@ -1071,13 +1080,13 @@ private ImmutableList<ReasonerService> loadReasonerServices() {
     }
 
     /**
-     * Processes data with the available reasoners.
+     * Processes data with the available reasoners, incrementally where the reasoner is ready for it.
      *
      * @param reasoners       The list of reasoners to use
      * @param startPercentage The start percentage for this phase
      * @param endPercentage   The end percentage for this phase
      */
-    private void processWithReasoners(ImmutableList<ReasonerService> reasoners, double startPercentage, double endPercentage) {
+    private void processWithReasoners(ImmutableList<SyncReasoner> reasoners, double startPercentage, double endPercentage) {
         MutableList<ClassifierResults> resultList = Lists.mutable.empty();
         int reasonerCount = reasoners.size();
 
@@ -1086,7 +1095,8 @@ private void processWithReasoners(ImmutableList<ReasonerService> reasoners, doub
         updatePhaseProgress(startPercentage, endPercentage, 0.1);
 
         for (int i = 0; i < reasonerCount; i++) {
-            ReasonerService rs = reasoners.get(i);
+            SyncReasoner reasoner = reasoners.get(i);
+            ReasonerService rs = reasoner.service();
             LOG.info("Reasoner service: {}", rs);
 
             // Each reasoner gets an equal portion of the reasoning phase (after the 10% loading)
@@ -1094,53 +1104,117 @@ private void processWithReasoners(ImmutableList<ReasonerService> reasoners, doub
             double reasonerStartPercent = reasoningWorkStart + ((remainingReasoning / reasonerCount) * i);
             double reasonerEndPercent = reasoningWorkStart + ((remainingReasoning / reasonerCount) * (i + 1));
 
-            rs.init(Calculators.View.Default(), TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN, TinkarTerm.EL_PLUS_PLUS_INFERRED_AXIOMS_PATTERN);
-
+            // Changes published while this reasoner runs stay pending for the next sync, apart from
+            // its own result writes, which writeResults drops.
+            int[] changedNids = reasoner.drainChanges();
             try {
-                // Extract
-                updateMessage("Extracting data for reasoning...");
-                rs.extractData(new TrackingCallable<Object>() {
-                    @Override
-                    protected Object compute() throws Exception {
-                        return null;
-                    }
-                });
-                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.25);
-
-                // Load
-                updateMessage("Loading data for reasoning...");
-                rs.loadData(new TrackingCallable<Object>() {
-                    @Override
-                    protected Object compute() throws Exception {
-                        return null;
-                    }
-                });
-                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.5);
+                if (rs.isIncrementalReady()
+                        && classifyIncrementally(rs, changedNids, reasonerStartPercent, reasonerEndPercent, resultList)) {
+                    continue;
+                }
+                classifyFully(rs, reasonerStartPercent, reasonerEndPercent, resultList);
+            } catch (Exception ex) {
+                reasoner.restoreChanges(changedNids);
+                LOG.error("Failed to load data for reasoning", ex);
+            }
+        }
+    }
 
-                // Compute
-                updateMessage("Computing inferences...");
-                rs.computeInferences();
-                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.75);
+    /**
+     * Hands the stated axioms of the changed concepts to a reasoner that has already classified the
+     * data store, and writes the inferences that follow.
+     *
+     * @return {@code true} if the reasoner is up to date afterwards, {@code false} if the incremental
+     * classification failed and a full one is needed
+     */
+    private boolean classifyIncrementally(ReasonerService rs, int[] changedNids, double reasonerStartPercent,
+                                          double reasonerEndPercent, MutableList<ClassifierResults> resultList) {
+        try {
+            updateMessage("Finding changed axioms for reasoning...");
+            List<SemanticEntityVersion> updates =
+                    new ArrayList<>(EditedConceptTracker.statedAxiomEdits(changedNids, rs.getViewCalculator()));
+            LOG.info("Incremental classification: {} changed entities, {} stated axiom edits",
+                    changedNids.length, updates.size());
+            if (updates.isEmpty()) {
+                updateMessage("Inferences are up to date.");
+                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 1.0);
+                return true;
+            }
 
-                // Build NNF
-                updateMessage("Building necessary normal form...");
-                rs.buildNecessaryNormalForm(this);
-                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.9);
+            updateMessage("Applying %d changed axioms to reasoner...".formatted(updates.size()));
+            rs.processIncremental(List.of(), updates, this);
+            updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.5);
 
-                // Write inferred results
-                updateMessage("Writing inferred results...");
-                ClassifierResults results = rs.writeInferredResults(this);
-                updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 1.0);
+            updateMessage("Computing inferences...");
+            rs.computeInferences();
+            updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.75);
 
-                LOG.info("After Size of ConceptSet: {}", rs.getReasonerConceptSet().size());
-                LOG.info("ClassifierResults: inferred changes size {}", results.getConceptsWithInferredChanges().size());
-                LOG.info("ClassifierResults: navigation changes size {}", results.getConceptsWithNavigationChanges().size());
-                LOG.info("ClassifierResults: classificationconcept size {}", results.getClassificationConceptSet().size());
-                resultList.add(results);
-            } catch (Exception ex) {
-                LOG.error("Failed to load data for reasoning", ex);
+            writeResults(rs, reasonerStartPercent, reasonerEndPercent, resultList);
+            return true;
+        } catch (Exception ex) {
+            LOG.warn("Incremental classification failed; running a full classification", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Extracts and loads all stated axioms into a reasoner, classifies them, and writes the inferences.
+     */
+    private void classifyFully(ReasonerService rs, double reasonerStartPercent, double reasonerEndPercent,
+                               MutableList<ClassifierResults> resultList) throws Exception {
+        rs.init(Calculators.View.Default(), TinkarTerm.EL_PLUS_PLUS_STATED_AXIOMS_PATTERN, TinkarTerm.EL_PLUS_PLUS_INFERRED_AXIOMS_PATTERN);
+
+        // Extract
+        updateMessage("Extracting data for reasoning...");
+        rs.extractData(new TrackingCallable<Object>() {
+            @Override
+            protected Object compute() throws Exception {
+                return null;
             }
+        });
+        updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.25);
+
+        // Load
+        updateMessage("Loading data for reasoning...");
+        rs.loadData(new TrackingCallable<Object>() {
+            @Override
+            protected Object compute() throws Exception {
+                return null;
+            }
+        });
+        updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.5);
+
+        // Compute
+        updateMessage("Computing inferences...");
+        rs.computeInferences();
+        updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.75);
+
+        writeResults(rs, reasonerStartPercent, reasonerEndPercent, resultList);
+    }
+
+    private void writeResults(ReasonerService rs, double reasonerStartPercent, double reasonerEndPercent,
+                              MutableList<ClassifierResults> resultList) throws Exception {
+        // Build NNF
+        updateMessage("Building necessary normal form...");
+        rs.buildNecessaryNormalForm(this);
+        updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 0.9);
+
+        // Write inferred results
+        updateMessage("Writing inferred results...");
+        ClassifierResults results;
+        SyncReasoner.beginResultWrites();
+        try {
+            results = rs.writeInferredResults(this);
+        } finally {
+            SyncReasoner.endResultWrites(rs.getViewCalculator().logicCoordinateRecord().statedAxiomsPatternNid());
         }
+        updatePhaseProgress(reasonerStartPercent, reasonerEndPercent, 1.0);
+
+        LOG.info("After Size of ConceptSet: {}", rs.getReasonerConceptSet().size());
+        LOG.info("ClassifierResults: inferred changes size {}", results.getConceptsWithInferredChanges().size());
+        LOG.info("ClassifierResults: navigation changes size {}", results.getConceptsWithNavigationChanges().size());
+        LOG.info("ClassifierResults: classificationconcept size {}", results.getClassificationConceptSet().size());
+        resultList.add(results);
     }
 
     /**
@@ -1218,10 +1292,11 @@ private boolean saveCurrentChangeSet() {
     private void pushToRemoteRepository(double startPercentage, double endPercentage)
             throws GitAPIException, IOException {
         try (Git git = Git.open(changeSetFolder.toFile())) {
-            ImmutableList<String> filesToAdd = filesToAdd(changeSetFolder, "ike-cs.zip");
+            ChangesetIndex changesetIndex = ChangesetIndex.forFolder(changeSetFolder);
+            ImmutableList<String> filesToAdd = filesToAdd(changeSetFolder);
 
             if (filesToAdd.isEmpty()) {
-                LOG.info("No changeset files found to add");
+                LOG.info("No changeset files pending push");
                 updateMessage("No changeset files found to push.");
                 updatePhaseProgress(startPercentage, endPercentage, 1.0);
                 return;
@@ -1268,6 +1343,7 @@ private void pushToRemoteRepository(double startPercentage, double endPercentage
             pushCommand.setProgressMonitor(progressMonitor);
             pushCommand.setCredentialsProvider(chainingCredentialsProvider);
             executeWithRetry(() -> { pushCommand.call(); return null; }, "push");
+            changesetIndex.markPushed(filesToAdd.castToList());
             updatePhaseProgress(startPercentage, endPercentage, 0.95);
 
             updateMessage("Changes successfully pushed to remote repository.");
@@ -1293,42 +1369,22 @@ private void appendAheadHintIfAny(StringBuilder msg) {
     }
 
     /**
-     * Identifies files in a directory matching the specified pattern that are valid changesets.
+     * Identifies the valid changesets in a changeset folder that are not yet on the remote. Only
+     * archives that are new or have changed since the last scan are opened; see {@link ChangesetIndex}.
      *
-     * @param directory The directory to search for files
-     * @param pattern   The file extension pattern to match
-     * @return An immutable list of relative paths to valid changeset files
+     * @param directory The changeset folder to search
+     * @return An immutable list of relative paths to the changeset files still to push
      */
-    ImmutableList<String> filesToAdd(Path directory, String pattern) {
+    ImmutableList<String> filesToAdd(Path directory) {
         // TODO: Refactor to return List of Paths and force file separator in JGit commands
-        try (Stream<Path> filesStream = Files.walk(directory)) {
-            return Lists.immutable.ofAll(filesStream
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(pattern))
-                    .filter(this::isValidChangeset)
-                    .map(path -> directory.relativize(path).toString().replace("\\", "/")) // Must enforce '/' file path separator for JGit Add Command
-                    .sorted() // Add natural sorting by file path
-                    .toList());
+        try {
+            return ChangesetIndex.forFolder(directory).pendingChangesets();
         } catch (IOException e) {
             LOG.error("Error searching for files", e);
             return Lists.immutable.empty();
         }
     }
 
-    /**
-     * Validates whether a file is a valid changeset archive.
-     *
-     * @param file The path to the file to check
-     * @return true if the file is a valid changeset, false otherwise
-     */
-    private boolean isValidChangeset(Path file) {
-        try (FileSystem fs = FileSystems.newFileSystem(file)) {
-            return Files.exists(fs.getPath("META-INF", "MANIFEST.MF"));
-        } catch (IOException ex) {
-            return false;
-        }
-    }
-
     // -------------------- Common Helper Methods --------------------
 
     /**
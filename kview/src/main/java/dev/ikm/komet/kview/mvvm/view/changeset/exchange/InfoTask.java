@@ -1,6 +1,7 @@
 package dev.ikm.komet.kview.mvvm.view.changeset.exchange;
 
 import javafx.concurrent.Task;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -42,7 +43,7 @@ public Map<GitPropertyName, String> call() throws Exception {
     /**
      * Fetches information about the Git repository.
      * This method retrieves the repository's remote URL, configured username and email,
-     * and current status (added, uncommitted, and untracked files).
+     * and current status (added, uncommitted, and untracked files, then the changesets not yet pushed).
      *
      * @return A map containing repository information with GitPropertyName keys
      * @throws IOException     If there's an error opening the repository
@@ -82,6 +83,10 @@ private Map<GitPropertyName, String> fetchRepositoryInfo()
             statusItems.addAll(status.getUncommittedChanges());
             statusItems.addAll(status.getUntracked());
             String statusText = statusItems.isEmpty() ? "No changes" : String.join("\n", statusItems);
+            ImmutableList<String> pending = ChangesetIndex.forFolder(changeSetFolder).pendingChangesets();
+            if (!pending.isEmpty()) {
+                statusText += "\n\n%d changesets not yet pushed:\n%s".formatted(pending.size(), pending.makeString("\n"));
+            }
             repoInfo.put(GIT_STATUS, statusText);
         }
 
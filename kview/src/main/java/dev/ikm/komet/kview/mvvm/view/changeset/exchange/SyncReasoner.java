@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.changeset.exchange;
+
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.common.util.broadcast.Subscriber;
+import dev.ikm.tinkar.entity.ConceptEntity;
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.reasoner.service.ReasonerService;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A reasoner kept alive across Git syncs, together with the nids that changed since it last classified.
+ * <p>
+ * A freshly loaded {@link ReasonerService} is never ready for incremental classification, so a sync
+ * that loads a new instance every time pays for a full extract, load and classify of the whole
+ * terminology even when it pulled a handful of changesets. Instances can therefore be reused by name for
+ * as long as the same data store is open. Every entity change published by the store — pulled
+ * changesets and local edits alike — is recorded against each cached reasoner, so the next sync can
+ * hand exactly those concepts to {@link ReasonerService#processIncremental}. The changes a reasoner
+ * publishes while writing its own results are dropped, as they are not stated axioms.
+ * <p>
+ * A cached reasoner keeps its whole classified ontology in memory between syncs, which runs to gigabytes
+ * for SNOMED CT. Reuse is therefore off unless the system property {@value #REUSE_PROPERTY} is
+ * {@code true}; otherwise every sync classifies from scratch and the reasoner is collected afterwards.
+ * Only one reasoner per name is ever kept.
+ * <p>
+ * The changes are kept apart from {@code EditedConceptTracker}, which belongs to the interactive
+ * reasoner, so a sync does not consume edits that the user has not yet classified there.
+ */
+final class SyncReasoner {
+    private static final Logger LOG = LoggerFactory.getLogger(SyncReasoner.class);
+
+    static final String REUSE_PROPERTY = "ike.sync.reasoner.reuse";
+
+    private static final Object lock = new Object();
+    // Reasoners by name; guarded by lock
+    private static final Map<String, SyncReasoner> reasoners = new HashMap<>();
+    // Data store root the cached reasoners were loaded from; guarded by lock
+    private static File dataStoreRoot = null;
+    // Nids published while a reasoner writes its results, or null outside of that; guarded by lock
+    private static MutableIntSet resultWrites = null;
+    private static final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    // Strong reference; the provider only holds its subscribers weakly
+    private static final Subscriber<Integer> subscriber = nid -> {
+        if (nid == Integer.MIN_VALUE) {
+            return; // Sentinel from endLoadPhase — not a real entity
+        }
+        synchronized (lock) {
+            if (resultWrites != null) {
+                resultWrites.add(nid);
+                return;
+            }
+            for (SyncReasoner reasoner : reasoners.values()) {
+                reasoner.changedNids.add(nid);
+            }
+        }
+    };
+
+    private final ReasonerService service;
+    // Nids changed since this reasoner last classified; guarded by lock
+    private final MutableIntSet changedNids = new IntHashSet();
+
+    private SyncReasoner(ReasonerService service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the cached reasoner for each service name, adopting the given service for names not seen
+     * before. The cache is discarded when a different data store has been opened since the last sync.
+     * When reuse is off, the given services are returned as they are and nothing is cached.
+     *
+     * @param services freshly loaded reasoner services
+     * @return one reasoner per service, in the same order
+     */
+    static ImmutableList<SyncReasoner> forServices(ImmutableList<ReasonerService> services) {
+        if (!Boolean.getBoolean(REUSE_PROPERTY)) {
+            synchronized (lock) {
+                reasoners.clear();
+            }
+            return services.collect(SyncReasoner::new);
+        }
+        if (subscribed.compareAndSet(false, true)) {
+            Entity.provider().addSubscriberWithWeakReference(subscriber);
+        }
+        Optional<File> root = ServiceProperties.get(ServiceKeys.DATA_STORE_ROOT);
+        MutableList<SyncReasoner> result = Lists.mutable.empty();
+        synchronized (lock) {
+            if (!Objects.equals(root.orElse(null), dataStoreRoot)) {
+                if (!reasoners.isEmpty()) {
+                    LOG.info("Data store changed; discarding {} cached reasoners", reasoners.size());
+                }
+                reasoners.clear();
+                dataStoreRoot = root.orElse(null);
+            }
+            for (ReasonerService service : services) {
+                result.add(reasoners.computeIfAbsent(service.getName(), name -> new SyncReasoner(service)));
+            }
+        }
+        return result.toImmutable();
+    }
+
+    ReasonerService service() {
+        return service;
+    }
+
+    /**
+     * @return the nids changed since the last call, which are no longer pending afterwards
+     */
+    int[] drainChanges() {
+        synchronized (lock) {
+            int[] nids = changedNids.toArray();
+            changedNids.clear();
+            return nids;
+        }
+    }
+
+    /**
+     * Starts collecting the changes published from here on apart, as the writes of a reasoner's results.
+     * Call {@link #endResultWrites} once the results are written.
+     */
+    static void beginResultWrites() {
+        synchronized (lock) {
+            resultWrites = new IntHashSet();
+        }
+    }
+
+    /**
+     * Records the concepts and stated axiom semantics among the changes published since
+     * {@link #beginResultWrites} against every cached reasoner, and drops the rest. The inferred axioms,
+     * necessary normal forms and stamps the reasoner wrote fall in the latter group; an edit to a stated
+     * axiom made meanwhile stays pending.
+     *
+     * @param statedAxiomsPatternNid the pattern of the stated axioms the reasoners classify
+     */
+    static void endResultWrites(int statedAxiomsPatternNid) {
+        MutableIntSet written;
+        synchronized (lock) {
+            written = resultWrites;
+            resultWrites = null;
+        }
+        if (written == null) {
+            return;
+        }
+        MutableIntSet kept = written.select(nid -> {
+            Entity<?> entity = Entity.getFast(nid);
+            return entity instanceof ConceptEntity<?>
+                    || entity instanceof SemanticEntity<?> semantic && semantic.patternNid() == statedAxiomsPatternNid;
+        });
+        synchronized (lock) {
+            for (SyncReasoner reasoner : reasoners.values()) {
+                reasoner.changedNids.addAll(kept);
+            }
+        }
+        LOG.debug("Dropped {} of {} changes written with the reasoner results", written.size() - kept.size(),
+                written.size());
+    }
+
+    /**
+     * Returns drained nids to the pending set after a classification that did not complete.
+     */
+    void restoreChanges(int[] nids) {
+        synchronized (lock) {
+            changedNids.addAll(nids);
+        }
+    }
+}
@@ -118,6 +118,7 @@
 import dev.ikm.komet.kview.klwindows.ToolCardKlWindow;
 import dev.ikm.komet.kview.klwindows.EntityKlWindowTypes;
 import dev.ikm.komet.kview.klwindows.KlWindowPreferencesUtils;
+import dev.ikm.komet.kview.klwindows.PendingKlWindow;
 import dev.ikm.komet.kview.klwindows.concept.ConceptKlWindow;
 import dev.ikm.komet.kview.klwindows.DynamicCardKlWindow;
 import dev.ikm.komet.layout_engine.host.DynamicComponentCard;
@@ -389,6 +390,12 @@ public class JournalController {
     private ObservableViewNoOverride windowView;
     private ObservableViewNoOverride journalViewCoordAsParent;
     private ViewProperties journalViewProperties;
+
+    /**
+     * Replaces the placeholders of saved windows with the restored windows; {@code null} until
+     * {@link #restoreWindows(WindowSettings, PrefX)} runs.
+     */
+    private JournalWindowRestorer windowRestorer;
     private final HashMap<String, MenuItem> windowTitleToMenuItem = new HashMap<>();
 
     /**
@@ -697,6 +704,7 @@ private String tileLabel(KometPreferences windowNode) {
 
     /** The open card window persisted under the given preferences node name, if any. */
     private Optional<CardKlWindow> findOpenCardWindow(String nodeName) {
+        realizePendingCardWindows();
         return workspace.getWindows().stream()
                 .filter(window -> window instanceof CardKlWindow cardWindow
                         && nodeName.equals(cardWindow.preferencesNodeName()))
@@ -704,6 +712,16 @@ private Optional<CardKlWindow> findOpenCardWindow(String nodeName) {
                 .findFirst();
     }
 
+    /**
+     * Card windows are identified by their provider and preferences node, which a placeholder does
+     * not carry; restore any still-pending card windows before looking them up.
+     */
+    private void realizePendingCardWindows() {
+        if (windowRestorer != null) {
+            windowRestorer.realizeMatching(window -> window.getWindowType() == CardKlWindow.CARD_WINDOW_TYPE);
+        }
+    }
+
     /** Reopens a closed card tile from its surviving preferences node — full state back. */
     private void reopenCardWindow(KometPreferences tile) {
         try {
@@ -767,6 +785,7 @@ private void createToolAreaWindow(KlToolArea.Factory toolAreaFactory) {
      * @param providerClassName the {@code KlCardProvider} implementation class name naming the card kind
      */
     private void focusOrCreateCardWindow(String providerClassName) {
+        realizePendingCardWindows();
         for (ChapterKlWindow<Pane> window : workspace.getWindows()) {
             if (window instanceof CardKlWindow cardWindow
                     && providerClassName.equals(cardWindow.providerClassName())) {
@@ -1323,6 +1342,10 @@ public void shutdown() {
         // cleanup code here...
         LOG.info("Journal Window is shutting down...");
 
+        if (windowRestorer != null) {
+            windowRestorer.cancel();
+        }
+
         // remove the listener, the node and activity streams
         navigatorNode.getController().getTreeView().getSelectionModel().getSelectedItems().removeListener(navigatorNode.getSelectionListener());
         navigatorNode = null;
@@ -1678,6 +1701,18 @@ private void createLidrWindow(ObservableViewNoOverride windowView,
      * @param chapterKlWindow the window to be configured and added to the workspace
      */
     private void setupWorkspaceWindow(ChapterKlWindow<Pane> chapterKlWindow) {
+        setupWorkspaceWindow(chapterKlWindow, workspace.getWindows().size());
+    }
+
+    /**
+     * Configures a window and inserts it into the workspace's windows at {@code index}, which is also
+     * its position in the journal's saved window list.
+     *
+     * @param chapterKlWindow the window to be configured and added to the workspace
+     * @param index           the position of the window in the workspace's windows
+     * @see #setupWorkspaceWindow(ChapterKlWindow)
+     */
+    private void setupWorkspaceWindow(ChapterKlWindow<Pane> chapterKlWindow, int index) {
         // Calls the remove method to remove the windows that were closed by the user.
         chapterKlWindow.setOnClose(() -> {
             if (chapterKlWindow instanceof CardKlWindow) {
@@ -1700,7 +1735,7 @@ private void setupWorkspaceWindow(ChapterKlWindow<Pane> chapterKlWindow) {
         });
 
         // Adding the concept window panel as a child to the workspace.
-        workspace.getWindows().add(chapterKlWindow);
+        workspace.getWindows().add(index, chapterKlWindow);
         chapterKlWindow.onShown();
 
         if (chapterKlWindow instanceof ConceptKlWindow conceptKlWindow) {
@@ -1981,9 +2016,10 @@ public void saveWindows(KometPreferences journalWindowPreferences) {
 
     /**
      * Restores previously saved windows for this journal from the provided settings.
-     * <p>     * This method retrieves the list of saved window IDs from the journal preferences,
-     * then attempts to recreate each window with its saved state and content.
-     * Window restoration statistics are logged for diagnostic purposes.
+     * <p>     * This method retrieves the list of saved window IDs from the journal preferences and
+     * places a {@link PendingKlWindow} at each window's saved bounds. A {@link JournalWindowRestorer}
+     * then recreates the windows with their saved state and content, those in the restored viewport
+     * first, while their entities are read ahead on the Tinkar thread pool.
      *
      * @param journalWindowSettings The settings object containing journal metadata
      * @throws NullPointerException if journalWindowSettings is null
@@ -2020,7 +2056,15 @@ public void restoreWindows(WindowSettings windowSettings, PrefX journalWindowSet
             // Looping through each window in each journal
             final List<String> windowsList = journalPreferences.getList(WINDOW_NAMES);
 
-            // Restore windows
+            // Place a lightweight placeholder for each window at its saved bounds; the windows
+            // themselves are restored afterwards, those in view first.
+            if (windowRestorer != null) {
+                windowRestorer.cancel();
+            }
+            final JournalWindowRestorer restorer = new JournalWindowRestorer(workspace,
+                    pending -> realizeWindow(windowSettings, pending.windowId(), pending.preferences()),
+                    this::setupWorkspaceWindow);
+            windowRestorer = restorer;
             for (String windowId : windowsList) {
                 if (!journalPreferences.nodeExists(windowId)) {
                     LOG.warn("Window preferences not found for window: {}", windowId);
@@ -2029,32 +2073,17 @@ public void restoreWindows(WindowSettings windowSettings, PrefX journalWindowSet
                 final KometPreferences windowPreferences = journalPreferences.node(windowId);
                 windowPreferences.putUuid(JOURNAL_TOPIC, getJournalTopic());
                 try {
-                    if (windowId.startsWith(CardKlWindow.CARD_WINDOW_TYPE.getPrefix())) {
-                        // Plugin-contributed first-class card window: restore via its provider (resolved by
-                        // class name across module layers) from the card's own node. Hand it the live
-                        // journalViewProperties so the restored card tracks journal-coordinate changes.
-                        setupWorkspaceWindow(CardKlWindow.restore(windowPreferences, journalViewProperties));
-                    } else if (windowId.startsWith(ToolCardKlWindow.TOOL_CARD_WINDOW_TYPE.getPrefix())) {
-                        // Non-entity tool-card window: restore via its own static factory, which
-                        // re-instantiates the hosted tool from the card's per-instance node. Hand it the
-                        // live journalViewProperties so the restored card tracks journal-coordinate changes.
-                        setupWorkspaceWindow(ToolCardKlWindow.restore(windowPreferences, journalViewProperties));
-                    } else if (windowId.startsWith(DynamicCardKlWindow.DYNAMIC_CARD_WINDOW_TYPE.getPrefix())) {
-                        // Non-entity dynamic-card window: restore via its own static factory, which
-                        // re-realizes the editor layout for the saved reference component. Hand it the
-                        // live journalViewProperties (not a reconstructed view) so the restored card
-                        // tracks journal-coordinate changes like a freshly created one.
-                        setupWorkspaceWindow(DynamicCardKlWindow.restore(windowPreferences, journalViewProperties));
-                    } else {
-                        // Pass the live journalViewProperties (like the card branch above) so a restored
-                        // entity window derives its coordinate from the live journal, not a reconstruction
-                        // from preferences — keeping the logged-in author (ike-issues#756).
-                        setupWorkspaceWindow(restoreWindow(windowSettings, windowPreferences, journalViewProperties));
+                    restorer.addPending(new PendingKlWindow(windowId, windowPreferences, journalViewProperties));
+                } catch (IllegalArgumentException unreadableState) {
+                    // Without a readable saved state there are no bounds to reserve; restore it now
+                    try {
+                        setupWorkspaceWindow(realizeWindow(windowSettings, windowId, windowPreferences));
+                    } catch (Exception e) {
+                        LOG.error("Error restoring window: {}", windowId, e);
                     }
-                } catch (Exception e) {
-                    LOG.error("Error restoring window: {}", windowId, e);
                 }
             }
+            restorer.prefetch(journalViewProperties.calculator());
 
             // Return to the equivalent place: the desktop region that was showing when the
             // journal was last saved (ike-issues#943). The desktop pane is fixed-size, so the
@@ -2062,17 +2091,55 @@ public void restoreWindows(WindowSettings windowSettings, PrefX journalWindowSet
             // skin and the freshly restored windows have joined layout.
             final double scrollH = journalPreferences.getDouble(JOURNAL_SCROLL_H, -1);
             final double scrollV = journalPreferences.getDouble(JOURNAL_SCROLL_V, -1);
+            // The restorer starts once the viewport is back, so the windows in view come first.
             if (scrollH >= 0 && scrollV >= 0) {
                 Platform.runLater(() -> Platform.runLater(() -> {
                     workspace.setViewportHvalue(scrollH);
                     workspace.setViewportVvalue(scrollV);
+                    restorer.start();
                 }));
+            } else {
+                Platform.runLater(restorer::start);
             }
         } catch (Exception e) {
             LOG.error("Error recreating concept windows for journal '{}'", journalName, e);
         }
     }
 
+    /**
+     * Recreates a saved window from its preferences node, dispatching on the node name's window-type prefix.
+     *
+     * @param windowSettings    the journal's window settings
+     * @param windowId          the name of the window's preferences node within the journal
+     * @param windowPreferences the window's preferences node
+     * @return the restored window, not yet added to the workspace
+     */
+    private ChapterKlWindow<Pane> realizeWindow(WindowSettings windowSettings, String windowId,
+                                                KometPreferences windowPreferences) {
+        if (windowId.startsWith(CardKlWindow.CARD_WINDOW_TYPE.getPrefix())) {
+            // Plugin-contributed first-class card window: restore via its provider (resolved by
+            // class name across module layers) from the card's own node. Hand it the live
+            // journalViewProperties so the restored card tracks journal-coordinate changes.
+            return CardKlWindow.restore(windowPreferences, journalViewProperties);
+        } else if (windowId.startsWith(ToolCardKlWindow.TOOL_CARD_WINDOW_TYPE.getPrefix())) {
+            // Non-entity tool-card window: restore via its own static factory, which
+            // re-instantiates the hosted tool from the card's per-instance node. Hand it the
+            // live journalViewProperties so the restored card tracks journal-coordinate changes.
+            return ToolCardKlWindow.restore(windowPreferences, journalViewProperties);
+        } else if (windowId.startsWith(DynamicCardKlWindow.DYNAMIC_CARD_WINDOW_TYPE.getPrefix())) {
+            // Non-entity dynamic-card window: restore via its own static factory, which
+            // re-realizes the editor layout for the saved reference component. Hand it the
+            // live journalViewProperties (not a reconstructed view) so the restored card
+            // tracks journal-coordinate changes like a freshly created one.
+            return DynamicCardKlWindow.restore(windowPreferences, journalViewProperties);
+        } else {
+            // Pass the live journalViewProperties (like the card branch above) so a restored
+            // entity window derives its coordinate from the live journal, not a reconstruction
+            // from preferences — keeping the logged-in author (ike-issues#756).
+            return restoreWindow(windowSettings, windowPreferences, journalViewProperties);
+        }
+    }
+
     /**
      * Asynchronously saves the current state of all windows in the journal workspace.
      * <p>     * This method provides a non-blocking alternative to {@link #saveWindows(KometPreferences)}
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.journal;
+
+import dev.ikm.komet.kview.controls.KLWorkspace;
+import dev.ikm.komet.kview.klwindows.ChapterKlWindow;
+import dev.ikm.komet.kview.klwindows.PendingKlWindow;
+import dev.ikm.tinkar.common.service.TinkExecutor;
+import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
+import dev.ikm.tinkar.entity.EntityService;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static dev.ikm.komet.kview.controls.KLWorkspace.COLUMNS;
+import static dev.ikm.komet.kview.controls.KLWorkspace.ROWS;
+import static dev.ikm.komet.kview.controls.KLWorkspace.STANDARD_HEIGHT;
+import static dev.ikm.komet.kview.controls.KLWorkspace.STANDARD_WIDTH;
+
+/**
+ * Restores the saved windows of a journal lazily, nearest to the viewport first.
+ * <p>
+ * Every saved window is first added to the workspace as a {@link PendingKlWindow} placeholder that
+ * occupies the window's saved bounds. Once started, the restorer replaces one placeholder with its real
+ * window per turn of the FX event queue, always choosing the placeholder that intersects, or lies
+ * closest to, the part of the desktop currently showing. Scrolling therefore reprioritizes the remaining
+ * windows, and the journal stays responsive while the rest are restored. Pressing on a placeholder
+ * restores that window immediately.
+ * <p>
+ * A restored window takes its placeholder's position in the workspace's window list, so the list, and
+ * with it the window order the journal saves, stays in the saved order whichever window is restored first.
+ * <p>
+ * The entities behind the saved windows are read on the Tinkar thread pool ahead of time, so that
+ * restoring a window on the FX thread finds its entity and descriptions already loaded.
+ * <p>
+ * All methods except those that explicitly say otherwise must be called on the FX thread.
+ */
+public final class JournalWindowRestorer {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalWindowRestorer.class);
+
+    private final ObservableList<ChapterKlWindow<Pane>> windows;
+    private final Supplier<Bounds> viewport;
+    private final Executor fxExecutor;
+    private final Function<PendingKlWindow, ChapterKlWindow<Pane>> realizer;
+    private final ObjIntConsumer<ChapterKlWindow<Pane>> installer;
+    private final List<PendingKlWindow> pending = new ArrayList<>();
+
+    private boolean scheduled = false;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param workspace the workspace the placeholders and restored windows are added to
+     * @param realizer  creates the real window for a placeholder
+     * @param installer inserts a restored window into the workspace's windows at the given index
+     */
+    public JournalWindowRestorer(KLWorkspace workspace,
+                                 Function<PendingKlWindow, ChapterKlWindow<Pane>> realizer,
+                                 ObjIntConsumer<ChapterKlWindow<Pane>> installer) {
+        this(workspace.getWindows(), () -> viewport(workspace), Platform::runLater, realizer, installer);
+    }
+
+    /**
+     * @param windows    the window list the placeholders and restored windows are added to
+     * @param viewport   supplies the part of the desktop currently showing, in desktop coordinates
+     * @param fxExecutor runs each restore step on a later turn of the FX event queue
+     * @param realizer   creates the real window for a placeholder
+     * @param installer  inserts a restored window into {@code windows} at the given index
+     */
+    public JournalWindowRestorer(ObservableList<ChapterKlWindow<Pane>> windows,
+                                 Supplier<Bounds> viewport,
+                                 Executor fxExecutor,
+                                 Function<PendingKlWindow, ChapterKlWindow<Pane>> realizer,
+                                 ObjIntConsumer<ChapterKlWindow<Pane>> installer) {
+        this.windows = windows;
+        this.viewport = viewport;
+        this.fxExecutor = fxExecutor;
+        this.realizer = realizer;
+        this.installer = installer;
+    }
+
+    /**
+     * Adds the placeholder for a saved window to the workspace.
+     *
+     * @param window the placeholder
+     */
+    public void addPending(PendingKlWindow window) {
+        pending.add(window);
+        window.fxObject().addEventHandler(MouseEvent.MOUSE_PRESSED, _ -> realize(window));
+        windows.add(window);
+    }
+
+    /**
+     * Reads the entities of the pending windows on the Tinkar thread pool, those nearest the
+     * viewport first. Returns immediately.
+     *
+     * @param calculator the journal's view calculator, used to load the entities' descriptions
+     */
+    public void prefetch(ViewCalculator calculator) {
+        final int[] nids = pending.stream()
+                .sorted(nearestFirst(viewport.get()))
+                .mapToInt(window -> window.savedState().getEntityNid())
+                .filter(nid -> nid != 0)
+                .toArray();
+        for (int nid : nids) {
+            TinkExecutor.threadPool().execute(() -> {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    EntityService.get().getEntity(nid);
+                    calculator.getDescriptionTextOrNid(nid);
+                } catch (RuntimeException e) {
+                    // The window reports the problem when it is restored
+                    LOG.debug("Unable to prefetch entity {} for journal window", nid, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts replacing placeholders with their windows, one per turn of the FX event queue.
+     */
+    public void start() {
+        schedule();
+    }
+
+    /**
+     * Restores the pending windows matching {@code filter} right away.
+     *
+     * @param filter selects the placeholders to restore
+     */
+    public void realizeMatching(Predicate<PendingKlWindow> filter) {
+        for (PendingKlWindow window : List.copyOf(pending)) {
+            if (filter.test(window)) {
+                realize(window);
+            }
+        }
+    }
+
+    /**
+     * Stops restoring windows. Placeholders that have not been restored remain on the workspace,
+     * so a later save still records their windows.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void schedule() {
+        if (!scheduled && !cancelled && !pending.isEmpty()) {
+            scheduled = true;
+            fxExecutor.execute(this::realizeNext);
+        }
+    }
+
+    private void realizeNext() {
+        scheduled = false;
+        if (cancelled || pending.isEmpty()) {
+            return;
+        }
+        realize(pending.stream().min(nearestFirst(viewport.get())).orElseThrow());
+        schedule();
+    }
+
+    private void realize(PendingKlWindow window) {
+        if (!pending.remove(window)) {
+            return;
+        }
+        final int index = windows.indexOf(window);
+        if (index < 0) {
+            return;
+        }
+        // Free the placeholder's bounds first, so the restored window lands at its saved position
+        windows.remove(index);
+        try {
+            installer.accept(realizer.apply(window), index);
+        } catch (Exception e) {
+            LOG.error("Error restoring window: {}", window.windowId(), e);
+        }
+        if (pending.isEmpty()) {
+            LOG.info("Restored all windows of journal workspace");
+        }
+    }
+
+    /**
+     * @return the part of the workspace desktop currently showing, in desktop coordinates
+     */
+    private static Bounds viewport(KLWorkspace workspace) {
+        final double desktopWidth = STANDARD_WIDTH * COLUMNS;
+        final double desktopHeight = STANDARD_HEIGHT * ROWS;
+        final double viewportWidth = Math.min(workspace.getWidth(), desktopWidth);
+        final double viewportHeight = Math.min(workspace.getHeight(), desktopHeight);
+        final double left = workspace.getViewportHvalue() * (desktopWidth - viewportWidth);
+        final double top = workspace.getViewportVvalue() * (desktopHeight - viewportHeight);
+        return new BoundingBox(left, top, viewportWidth, viewportHeight);
+    }
+
+    /**
+     * Orders placeholders intersecting the viewport before the others, then by the distance between
+     * their centers and the viewport's center.
+     */
+    private static Comparator<PendingKlWindow> nearestFirst(Bounds viewport) {
+        final double centerX = viewport.getCenterX();
+        final double centerY = viewport.getCenterY();
+        return Comparator.comparing((PendingKlWindow window) -> !viewport.intersects(window.savedBounds()))
+                .thenComparingDouble(window -> {
+                    final Bounds bounds = window.savedBounds();
+                    return Math.hypot(bounds.getCenterX() - centerX, bounds.getCenterY() - centerY);
+                });
+    }
+}
@@ -32,6 +32,9 @@
 import dev.ikm.tinkar.coordinate.Calculators;
 import dev.ikm.komet.framework.search.HighlightedSegments;
 import dev.ikm.komet.framework.search.SearchPanelController;
+import dev.ikm.komet.framework.search.SearchPipeline;
+import dev.ikm.tinkar.common.alert.AlertObject;
+import dev.ikm.tinkar.common.alert.AlertStreams;
 import dev.ikm.tinkar.common.service.RemoteConceptSearchService;
 import dev.ikm.tinkar.common.service.ServiceLifecycleManager;
 import dev.ikm.komet.framework.view.ViewProperties;
@@ -90,7 +93,6 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +101,7 @@
 import java.util.OptionalInt;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 
 public class NextGenSearchController {
@@ -153,6 +156,12 @@ public class NextGenSearchController {
      */
     private volatile String currentQueryText = "";
 
+    /**
+     * Runs text queries off the FX thread, superseding the previous query each time a
+     * new search starts, and streams the ranked rows into {@link #searchResultsListView}.
+     */
+    private final SearchPipeline<Object> searchPipeline = new SearchPipeline<>();
+
     @InjectViewModel
     private NextGenSearchViewModel nextGenSearchViewModel;
 
@@ -287,142 +296,179 @@ private void showSearchOptions(ActionEvent event) {
 
     @FXML
     private void doSearch(ActionEvent actionEvent) {
+        searchPipeline.cancel();
         clearView();
         String queryText = searchField.getText().strip();
         currentQueryText = queryText;
         Optional<RemoteConceptSearchService> remoteSearch =
                 ServiceLifecycleManager.get().getRunningService(RemoteConceptSearchService.class);
-        try {
-            if (queryText.startsWith("-") && parseInt(queryText).isPresent()) {
-                addComponentFromNid(queryText);
-            } else if (queryText.startsWith("[") && queryText.endsWith("]")) {
-                queryText = queryText.replace("[", "").replace("]", "");
-                String[] nidStrings = queryText.split(",");
-                for (String nidString : nidStrings) {
-                    addComponentFromNid(nidString.strip());
-                }
-            } else if (queryText.length() == 36 && UuidUtil.isUUID(queryText)) {
-                UuidUtil.getUUID(queryText).ifPresent(uuid -> {
-                    addComponentFromNid(PrimitiveData.nid(PublicIds.of(uuid)));
-                });
-            } else if (remoteSearch.isPresent()) {
-                RemoteConceptSearchService remote = remoteSearch.get();
-                final String remoteQuery = queryText;
-                RemoteConceptSearchService.SortOption sortOption = switch (sortByButton.getText()) {
-                    case BUTTON_TEXT_TOP_COMPONENT_ALPHA -> RemoteConceptSearchService.SortOption.TOP_COMPONENT_ALPHA;
-                    case BUTTON_TEXT_DESCRIPTION_SEMANTIC -> RemoteConceptSearchService.SortOption.SEMANTIC;
-                    case BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA -> RemoteConceptSearchService.SortOption.SEMANTIC_ALPHA;
-                    default -> RemoteConceptSearchService.SortOption.TOP_COMPONENT;
-                };
-                boolean isSemanticMode = sortOption == RemoteConceptSearchService.SortOption.SEMANTIC
-                        || sortOption == RemoteConceptSearchService.SortOption.SEMANTIC_ALPHA;
-                if (isSemanticMode) {
-                    setCurrentSearchResultType(SearchResultType.DESCRIPTION_SEMANTICS);
-                    List<RemoteConceptSearchService.SemanticResult> results =
-                            remote.searchFlat(remoteQuery, MAX_RESULT_SIZE, sortOption);
-                    LOG.info("{} remote flat results returned for query: {} sortBy: {}", results.size(), remoteQuery, sortOption);
-                    List<LatestVersionSearchResult> converted = results.stream()
-                            .map(r -> new LatestVersionSearchResult(
-                                    new Latest<>(SemanticEntityVersion.class),
-                                    0,
-                                    r.score(),
-                                    r.highlightedText()))
-                            .toList();
-                    searchResultsListView.getItems().setAll(converted);
-                } else {
-                    setCurrentSearchResultType(SearchResultType.TOP_COMPONENT);
-                    List<RemoteConceptSearchService.GroupedResult> results =
-                            remote.searchGrouped(remoteQuery, MAX_RESULT_SIZE, sortOption);
-                    LOG.info("{} remote grouped results returned for query: {} sortBy: {}", results.size(), remoteQuery, sortOption);
-                    List<Map.Entry<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>>> entries =
-                            results.stream().map(g -> {
-                                List<UUID> uuids = g.publicId().stream().map(UUID::fromString).toList();
-                                SearchPanelController.NidTextRecord key =
-                                        new SearchPanelController.NidTextRecord(0, g.fullyQualifiedName(), g.active(), uuids);
-                                List<LatestVersionSearchResult> semantics = g.matchingSemantics().stream()
-                                        .map(m -> new LatestVersionSearchResult(
-                                                new Latest<>(SemanticEntityVersion.class),
-                                                0,
-                                                m.score(),
-                                                m.highlightedText()))
-                                        .toList();
-                                return Map.entry(key, semantics);
-                            }).toList();
-                    searchResultsListView.getItems().setAll(entries);
-                }
+        if (queryText.startsWith("-") && parseInt(queryText).isPresent()) {
+            addComponentFromNid(queryText);
+        } else if (queryText.startsWith("[") && queryText.endsWith("]")) {
+            queryText = queryText.replace("[", "").replace("]", "");
+            String[] nidStrings = queryText.split(",");
+            for (String nidString : nidStrings) {
+                addComponentFromNid(nidString.strip());
+            }
+        } else if (queryText.length() == 36 && UuidUtil.isUUID(queryText)) {
+            UuidUtil.getUUID(queryText).ifPresent(uuid -> {
+                addComponentFromNid(PrimitiveData.nid(PublicIds.of(uuid)));
+            });
+        } else {
+            // Capture the sort order on the FX thread; the query and all grouping and
+            // sorting run on the search pipeline so the UI never blocks on a broad query.
+            final String searchText = queryText;
+            final String sortBy = sortByButton.getText();
+            Callable<List<?>> query;
+            if (remoteSearch.isPresent()) {
+                RemoteConceptSearchService.SortOption sortOption = remoteSortOption(sortBy);
+                setCurrentSearchResultType(isSemanticSort(sortOption)
+                        ? SearchResultType.DESCRIPTION_SEMANTICS : SearchResultType.TOP_COMPONENT);
+                query = () -> remoteSearch(remoteSearch.get(), searchText, sortOption);
             } else {
-                List<LatestVersionSearchResult> results = getViewProperties().calculator().search(queryText, MAX_RESULT_SIZE).toList();
-                LOG.info("{} search results returned for query: {}", results.size(), queryText);
-
-                List processedResults;
-                switch (sortByButton.getText()) {
-                    case BUTTON_TEXT_TOP_COMPONENT -> {
-                        setCurrentSearchResultType(SearchResultType.TOP_COMPONENT);
-
-                        // used a linked hash map to maintain insertion order
-                        LinkedHashMap<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>> topItems = new LinkedHashMap<>();
-
-                        // sort by top component score order
-                        results.sort((o1, o2) -> Float.compare(o2.score(), o1.score()));
-
-                        createMapOfEntries(topItems, results);
+                setCurrentSearchResultType(switch (sortBy) {
+                    case BUTTON_TEXT_TOP_COMPONENT, BUTTON_TEXT_TOP_COMPONENT_ALPHA -> SearchResultType.TOP_COMPONENT;
+                    case BUTTON_TEXT_DESCRIPTION_SEMANTIC, BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA -> SearchResultType.DESCRIPTION_SEMANTICS;
+                    default -> throw new RuntimeException("Sort by button text is Invalid and doesn't correspond to any supported search type");
+                });
+                query = () -> localSearch(searchText, sortBy);
+            }
+            searchPipeline.submit(
+                    query,
+                    (page, firstPage, lastPage) -> {
+                        if (firstPage) {
+                            searchResultsListView.getItems().setAll(page);
+                        } else {
+                            searchResultsListView.getItems().addAll(page);
+                        }
+                    },
+                    e -> AlertStreams.getRoot().dispatch(
+                            AlertObject.makeError(e.getClass().getSimpleName() + " during search", searchText, e)));
+        }
+    }
 
-                        // sort children inside each by score
-                        topItems.forEach((k, v) -> v.sort((o1, o2) ->
-                                Float.compare(o2.score(), o1.score())));
+    /**
+     * Maps the text of the sort button to the sort order of a {@link RemoteConceptSearchService}.
+     * Any text other than the sort button choices sorts by top component, as the remote search
+     * always has.
+     *
+     * @param sortBy the text of the sort button
+     * @return the remote sort order
+     */
+    public static RemoteConceptSearchService.SortOption remoteSortOption(String sortBy) {
+        return switch (sortBy) {
+            case BUTTON_TEXT_TOP_COMPONENT_ALPHA -> RemoteConceptSearchService.SortOption.TOP_COMPONENT_ALPHA;
+            case BUTTON_TEXT_DESCRIPTION_SEMANTIC -> RemoteConceptSearchService.SortOption.SEMANTIC;
+            case BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA -> RemoteConceptSearchService.SortOption.SEMANTIC_ALPHA;
+            default -> RemoteConceptSearchService.SortOption.TOP_COMPONENT;
+        };
+    }
 
-                        List<Map.Entry<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>>> myList = new ArrayList<>(topItems.entrySet());
+    /**
+     * @param sortOption a remote sort order
+     * @return true if the remote search returns matched description semantics rather than
+     * top components grouped with their matches
+     */
+    public static boolean isSemanticSort(RemoteConceptSearchService.SortOption sortOption) {
+        return sortOption == RemoteConceptSearchService.SortOption.SEMANTIC
+                || sortOption == RemoteConceptSearchService.SortOption.SEMANTIC_ALPHA;
+    }
 
-                        myList.sort((m1, m2) ->
-                                Float.compare(m2.getValue().getFirst().score(), m1.getValue().getFirst().score()));
+    /**
+     * Queries the running {@link RemoteConceptSearchService}. Runs on the search pipeline,
+     * off the FX thread.
+     */
+    private List<?> remoteSearch(RemoteConceptSearchService remote, String remoteQuery,
+                                 RemoteConceptSearchService.SortOption sortOption) {
+        if (isSemanticSort(sortOption)) {
+            List<RemoteConceptSearchService.SemanticResult> results =
+                    remote.searchFlat(remoteQuery, MAX_RESULT_SIZE, sortOption);
+            LOG.info("{} remote flat results returned for query: {} sortBy: {}", results.size(), remoteQuery, sortOption);
+            return results.stream()
+                    .map(r -> new LatestVersionSearchResult(
+                            new Latest<>(SemanticEntityVersion.class),
+                            0,
+                            r.score(),
+                            r.highlightedText()))
+                    .toList();
+        }
+        List<RemoteConceptSearchService.GroupedResult> results =
+                remote.searchGrouped(remoteQuery, MAX_RESULT_SIZE, sortOption);
+        LOG.info("{} remote grouped results returned for query: {} sortBy: {}", results.size(), remoteQuery, sortOption);
+        return results.stream().map(g -> {
+            List<UUID> uuids = g.publicId().stream().map(UUID::fromString).toList();
+            SearchPanelController.NidTextRecord key =
+                    new SearchPanelController.NidTextRecord(0, g.fullyQualifiedName(), g.active(), uuids);
+            List<LatestVersionSearchResult> semantics = g.matchingSemantics().stream()
+                    .map(m -> new LatestVersionSearchResult(
+                            new Latest<>(SemanticEntityVersion.class),
+                            0,
+                            m.score(),
+                            m.highlightedText()))
+                    .toList();
+            return Map.entry(key, semantics);
+        }).toList();
+    }
 
-                        processedResults = myList;
-                    }
-                    case BUTTON_TEXT_TOP_COMPONENT_ALPHA -> {
-                        setCurrentSearchResultType(SearchResultType.TOP_COMPONENT);
+    /**
+     * Queries the local index through the view calculator, then groups and sorts the
+     * hits for the requested sort order. Runs on the search pipeline, off the FX thread.
+     */
+    private List<?> localSearch(String queryText, String sortBy) throws Exception {
+        List<LatestVersionSearchResult> results = getViewProperties().calculator().search(queryText, MAX_RESULT_SIZE).toList();
+        LOG.info("{} search results returned for query: {}", results.size(), queryText);
 
-                        // sort by natural order
-                        results.sort((o1, o2) -> NaturalOrder.compareStrings(o1.latestVersion().get().fieldValues().get(o1.fieldIndex()).toString(),
-                                o2.latestVersion().get().fieldValues().get(o2.fieldIndex()).toString()));
+        switch (sortBy) {
+            case BUTTON_TEXT_TOP_COMPONENT -> {
+                // used a linked hash map to maintain insertion order
+                LinkedHashMap<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>> topItems = new LinkedHashMap<>();
 
-                        Map<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>> topItems = new HashMap<>();
-                        // create the sort order for the topItems map collection
-                        topItems = new TreeMap<>((o1, o2) -> NaturalOrder.compareStrings(o1.text(), o2.text()));
+                // sort by top component score order
+                results.sort((o1, o2) -> Float.compare(o2.score(), o1.score()));
 
-                        createMapOfEntries(topItems, results);
+                createMapOfEntries(topItems, results);
 
-                        List<Map.Entry<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>>> myList = new ArrayList<>(topItems.entrySet());
+                // sort children inside each by score
+                topItems.forEach((k, v) -> v.sort((o1, o2) ->
+                        Float.compare(o2.score(), o1.score())));
 
-                        // sort the children
-                        myList.forEach(m -> Collections.sort(m.getValue(), (e1, e2) ->
-                                NaturalOrder.compareStrings(formatHighlightedString(e1.highlightedString()), formatHighlightedString(e2.highlightedString()))
-                        ));
+                List<Map.Entry<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>>> myList = new ArrayList<>(topItems.entrySet());
 
-                        processedResults = myList;
-                    }
-                    case BUTTON_TEXT_DESCRIPTION_SEMANTIC -> {
-                        setCurrentSearchResultType(SearchResultType.DESCRIPTION_SEMANTICS);
+                myList.sort((m1, m2) ->
+                        Float.compare(m2.getValue().getFirst().score(), m1.getValue().getFirst().score()));
 
-                        results.sort((o1, o2) -> Float.compare(o2.score(), o1.score()));
+                return myList;
+            }
+            case BUTTON_TEXT_TOP_COMPONENT_ALPHA -> {
+                // sort by natural order
+                results.sort((o1, o2) -> NaturalOrder.compareStrings(o1.latestVersion().get().fieldValues().get(o1.fieldIndex()).toString(),
+                        o2.latestVersion().get().fieldValues().get(o2.fieldIndex()).toString()));
 
-                        processedResults = results;
-                    }
-                    case BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA -> {
-                        setCurrentSearchResultType(SearchResultType.DESCRIPTION_SEMANTICS);
+                // create the sort order for the topItems map collection
+                Map<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>> topItems =
+                        new TreeMap<>((o1, o2) -> NaturalOrder.compareStrings(o1.text(), o2.text()));
 
-                        results.sort((o1, o2) -> NaturalOrder.compareStrings(formatHighlightedString(o1.highlightedString()),
-                                formatHighlightedString(o2.highlightedString())));
+                createMapOfEntries(topItems, results);
 
-                        processedResults = results;
-                    }
-                    default -> throw new RuntimeException("Sort by button text is Invalid and doesn't correspond to any supported search type");
+                List<Map.Entry<SearchPanelController.NidTextRecord, List<LatestVersionSearchResult>>> myList = new ArrayList<>(topItems.entrySet());
 
-                }
+                // sort the children
+                myList.forEach(m -> Collections.sort(m.getValue(), (e1, e2) ->
+                        NaturalOrder.compareStrings(formatHighlightedString(e1.highlightedString()), formatHighlightedString(e2.highlightedString()))
+                ));
 
-                searchResultsListView.getItems().setAll(processedResults);
+                return myList;
+            }
+            case BUTTON_TEXT_DESCRIPTION_SEMANTIC -> {
+                results.sort((o1, o2) -> Float.compare(o2.score(), o1.score()));
+                return results;
+            }
+            case BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA -> {
+                results.sort((o1, o2) -> NaturalOrder.compareStrings(formatHighlightedString(o1.highlightedString()),
+                        formatHighlightedString(o2.highlightedString())));
+                return results;
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            default -> throw new RuntimeException("Sort by button text is Invalid and doesn't correspond to any supported search type");
         }
     }
 
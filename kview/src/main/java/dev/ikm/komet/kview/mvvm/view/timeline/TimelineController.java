@@ -20,13 +20,11 @@
 import dev.ikm.komet.kview.mvvm.model.ChangeCoordinate;
 import dev.ikm.komet.framework.view.ViewProperties;
 import dev.ikm.komet.kview.mvvm.viewmodel.TimelineViewModel;
+import dev.ikm.tinkar.common.service.TinkExecutor;
 import dev.ikm.tinkar.common.util.time.DateTimeUtil;
-import dev.ikm.tinkar.coordinate.stamp.calculator.Latest;
-import dev.ikm.tinkar.coordinate.stamp.change.ChangeChronology;
 import dev.ikm.tinkar.coordinate.stamp.change.VersionChangeRecord;
 import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
 import dev.ikm.tinkar.entity.Entity;
-import dev.ikm.tinkar.entity.SemanticEntityVersion;
 import dev.ikm.tinkar.entity.StampEntity;
 import dev.ikm.tinkar.entity.StampEntityVersion;
 import dev.ikm.tinkar.terms.EntityFacade;
@@ -58,15 +56,11 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static dev.ikm.komet.kview.fxutils.FXUtils.localToParent;
 import static dev.ikm.komet.kview.fxutils.FXUtils.textFontMetricsBounds;
@@ -77,7 +71,7 @@
  * This control is responsible for updating the containing all change chronology dates from one path and multiple
  * extensions (modules) selected. When user clicks on a date point, the left history panel will highlight the change.
  * Also, provided are range buttons to filter changes to be displayed based.
- * TODO refactor (to decouple) pathMap structure and ChangeCoordinate. Make this component reusable in any context.
+ * TODO refactor (to decouple) TimelineIndex and ChangeCoordinate. Make this component reusable in any context.
  */
 public class TimelineController implements BasicController {
 
@@ -169,7 +163,8 @@ void toggleDisplayConfig(ActionEvent event) {
 
                 if (getViewProperties() != null && getMainConcept() != null) {
 
-                    LinkedHashMap<String, List<Integer>> pm =  pathMap.getPathModulesNidOnlyMap();
+                    LinkedHashMap<String, List<Integer>> pm = timelineIndex == null
+                            ? new LinkedHashMap<>() : timelineIndex.pathModules();
 
                     viewModel.setPropertyValue(TimelineViewModel.TimelineProperties.VIEW_PROPERTIES, getViewProperties());
                     viewModel.setPropertyValue(TimelineViewModel.TimelineProperties.AVAILABLE_PATH_MOULES_MAP, pm);
@@ -236,10 +231,16 @@ private void setupPopOver(SimpleBooleanProperty shouldShow) {
      *      [ ] Snomed CT US
      *      [ ] Primordial
      * </pre>
-     * path -> module -> year -> verChangeRecords
-     * Map of path as a key, the value is a Map of module nid (key) and value is a map of year (key) and value is a set of all change chronologies.
+     * Columnar index of all changes of the main concept by time, path and module. Built off the FX thread
+     * whenever the concept or view changes; changing the selected path or modules only redraws from it.
      */
-    private final TimelinePathMap pathMap = new TimelinePathMap();
+    private TimelineIndex timelineIndex;
+
+    /**
+     * Incremented whenever the index is discarded, so a build that finishes after the concept changed is ignored.
+     */
+    private final AtomicLong indexGeneration = new AtomicLong();
+    private boolean indexBuildPending;
 
     public ViewProperties getViewProperties() {
         return viewProperties;
@@ -332,7 +333,9 @@ public void initialize() {
                 String selectedPath = path.getValue();
 
                 updateConfigPathAndModules(selectedPath, snapshot);
-                updateModel(getViewProperties(), getMainConcept());
+                if (timelineIndex == null && !indexBuildPending) {
+                    updateModel(getViewProperties(), getMainConcept());
+                }
                 updateView();
             });
         }));
@@ -508,7 +511,7 @@ private void hidePrototypeControls() {
     }
 
     /**
-     * Clears up pathMap and other ui fields.
+     * Clears up the timeline index and other ui fields.
      * This does not clear the Config info such as configPath and configModuleIds.
      */
     @Override
@@ -516,6 +519,21 @@ public void clearView() {
         // clean up global storage of initial values.
         cleanup();
 
+        clearTimelines();
+    }
+
+    /**
+     * Removes the drawn timelines, keeping the index so they can be redrawn for another path or modules.
+     */
+    private void clearTimelines() {
+        if (allCircleDatePointsSet != null) {
+            allCircleDatePointsSet.clear();
+        }
+        if (slideControlDatePointsInRangeSet != null) {
+            slideControlDatePointsInRangeSet.clear();
+        }
+        datePointSelected.set(null);
+
         // Clear VBox of rows. TODO Make sure to avoid memory leaks.
         timelineYearContainerVBox.getChildren().clear();
         hideDatePointCallout();
@@ -523,12 +541,14 @@ public void clearView() {
     }
 
     /**
-     * Cleanup pathMap and other global variables.
+     * Cleanup the timeline index and other global variables.
      * This does not clear the Config info such as configPath and configModuleIds.
      */
     @Override
     public void cleanup() {
-        pathMap.clear();
+        indexGeneration.incrementAndGet();
+        indexBuildPending = false;
+        timelineIndex = null;
         if (allCircleDatePointsSet != null) {
             allCircleDatePointsSet.clear();
         }
@@ -545,17 +565,49 @@ public void updateModel(ViewProperties viewProperties, EntityFacade mainConcept)
         this.viewProperties = viewProperties;
         this.mainConcept = mainConcept;
         clearView();
-        if ( getMainConcept() != null) {
-            buildAllTimeLineMaps();
-            if (configPath == null || configModuleIds == null) {
-                resetConfigPathAndModules();
-                if (pathMap.keySet().size() > 0){
-                    String configPath = pathMap.keySet().stream().findFirst().get();
-                    List<Integer> configModuleIds = pathMap.getModuleNids(configPath);
-                    updateConfigPathAndModules(configPath, configModuleIds);
-                }
+        if (getViewProperties() != null && getMainConcept() != null) {
+            buildTimelineIndex(getViewProperties().calculator(), getMainConcept().nid());
+        }
+    }
+
+    /**
+     * Builds the timeline index of a concept on the Tinkar thread pool, then installs it and draws the
+     * timelines on the FX thread. A build superseded by another concept, or by {@link #cleanup()}, is discarded.
+     */
+    private void buildTimelineIndex(ViewCalculator viewCalculator, int conceptNid) {
+        final long ticket = indexGeneration.incrementAndGet();
+        indexBuildPending = true;
+        TinkExecutor.threadPool().execute(() -> {
+            try {
+                TimelineIndex index = TimelineIndex.build(viewCalculator, conceptNid);
+                Platform.runLater(() -> {
+                    if (indexGeneration.get() == ticket) {
+                        installTimelineIndex(index);
+                    }
+                });
+            } catch (RuntimeException e) {
+                LOG.error("Unable to build the timeline for nid " + conceptNid, e);
+                Platform.runLater(() -> {
+                    if (indexGeneration.get() == ticket) {
+                        indexBuildPending = false;
+                    }
+                });
+            }
+        });
+    }
+
+    private void installTimelineIndex(TimelineIndex index) {
+        timelineIndex = index;
+        indexBuildPending = false;
+        if (configPath == null || configModuleIds == null) {
+            resetConfigPathAndModules();
+            if (!index.isEmpty()) {
+                String configPath = index.pathNames().getFirst();
+                List<Integer> configModuleIds = index.pathModules().get(configPath);
+                updateConfigPathAndModules(configPath, configModuleIds);
             }
         }
+        updateView();
     }
     public void resetConfigPathAndModules() {
         configPath = null;
@@ -564,10 +616,13 @@ public void resetConfigPathAndModules() {
 
 
     /**
-     * Refreshes view and populates controls with data.
+     * Refreshes view and populates controls with data. Does nothing until the timeline index of the main
+     * concept has been built; the view refreshes itself once it is.
      */
     public void updateView() {
-        if (getViewProperties() == null || getMainConcept() == null) return;
+        if (getViewProperties() == null || getMainConcept() == null || timelineIndex == null) return;
+
+        clearTimelines();
 
         // Draw timelines as expanded
         drawAllTimelines(configPath, configModuleIds);
@@ -580,148 +635,44 @@ public void updateView() {
     }
 
     /**
-     * <code>
-     *   TreeMap<String, TreeMap<String, TreeMap<Integer, TreeSet<VersionChangeRecord>>>> pathMap = new TreeMap<>();
-     * </code>
-     *  path -> module -> year -> verChangeRecords
-     * Creates a master treemap structure
-     *
-     */
-    private void buildAllTimeLineMaps(){
-        // Populate concept versions
-        buildTimelineMap(getMainConcept().nid());
-        // View Calculator
-        ViewCalculator viewCalculator = getViewProperties().calculator();
-
-        // Populate all description semantics of this entity.
-        var descrSemanticEntities = viewCalculator.getDescriptionsForComponent(getMainConcept().nid());
-        // For each populate a row based on changes
-        descrSemanticEntities.forEach(semanticEntity -> buildTimelineMap(semanticEntity.nid()));
-
-        // TODO Axioms (displaying things correctly?)
-        // Inferred Axioms
-        Latest<SemanticEntityVersion> inferredSemanticVersion = viewCalculator.getInferredAxiomSemanticForEntity(getMainConcept().nid());
-        inferredSemanticVersion.ifPresent(semanticEntityVersion -> buildTimelineMap(semanticEntityVersion.nid()));
-
-        // Stated Axioms
-        Latest<SemanticEntityVersion> statedSemanticVersion = viewCalculator.getStatedAxiomSemanticForEntity(getMainConcept().nid());
-        statedSemanticVersion.ifPresent(semanticEntityVersion -> buildTimelineMap(semanticEntityVersion.nid()));
-
-        // show all data for timeline
-        dataDump();
-    }
-
-    /**
-     * <code>
-     *   TreeMap<String, TreeMap<String, TreeMap<Integer, TreeSet<VersionChangeRecord>>>> pathMap = new TreeMap<>();
-     * </code>
-     *  path -> module -> year -> verChangeRecords
-     * Creates a master treemap structure
-     * @param nid The main concept entity. The map will contain paths, each path contains modules, each module contains years, each year contains a change chronology or date point.
-     */
-    private void buildTimelineMap(int nid) {
-        ViewCalculator viewCalculator = getViewProperties().calculator();
-        ChangeChronology changeChronology = viewCalculator.changeChronology(nid);
-        Comparator<VersionChangeRecord> comparator = (o1, o2) -> viewCalculator.stampCalculator().comparePositions(o1.stampNid(), o2.stampNid());
-
-        for (VersionChangeRecord changeRecord:changeChronology.changeRecords()) {
-            StampEntity<? extends StampEntityVersion> stampForChange = Entity.getStamp(changeRecord.stampNid());
-            Calendar calendar = Calendar.getInstance();
-            calendar.setTimeInMillis(stampForChange.time());
-            int moduleNid = stampForChange.moduleNid();
-            String pathName = viewCalculator.getPreferredDescriptionTextWithFallbackOrNid(stampForChange.pathNid());
-            int mYear = calendar.get(Calendar.YEAR);
-
-            if (!pathMap.containsKey(pathName)) {
-                TreeMap<Integer, TreeMap<Integer, TreeSet<VersionChangeRecord>>> moduleMap = new TreeMap<>();
-                this.pathMap.put(pathName, moduleMap);
-            }
-            if (!pathMap.get(pathName).containsKey(moduleNid)) {
-                // add a comparator
-                TreeMap<Integer, TreeSet<VersionChangeRecord>> yearMap = new TreeMap<>();
-                pathMap.get(pathName).put(moduleNid, yearMap);
-            }
-            if (!pathMap.get(pathName).get(moduleNid).containsKey(mYear)) {
-                // add a comparator
-                TreeSet<VersionChangeRecord> changeRecords = new TreeSet<>(comparator);
-                pathMap.get(pathName).get(moduleNid).put(mYear, changeRecords);
-            }
-            pathMap.get(pathName).get(moduleNid).get(mYear).add(changeRecord);
-        }
-    }
-
-    private long truncateTime(long timeMillis) {
-        Calendar cal = Calendar.getInstance(); // locale-specific
-        cal.setTime(new Date(timeMillis));
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
-    }
-    private int parseYear(long timeMillis) {
-        Calendar cal = Calendar.getInstance(); // locale-specific
-        cal.setTime(new Date(timeMillis));
-        return cal.get(Calendar.YEAR);
-    }
-    /**
-     * Latest date is first.
      * 1. unique points IMPORTANT TO KNOW: Algorithm is only using date precision.
      * 2. positions of points order
      * Query all dates of all extensions distinct number of
-     * @param pathSelected - A selected path to traverse
+     * @param pathOrdinal - The ordinal of the selected path in the timeline index
      * @param modulesSelected selected modules (extensions).
-     * @return A List of ordered long unique values representing truncated date milliseconds values (epoch).
+     * @return An ascending array of unique values representing truncated date milliseconds values (epoch).
      */
-    private TreeSet<Long> determineNumOfUniqueDatePoints(String pathSelected, List<Integer> modulesSelected){
-
-        // A map of epoch millis (truncated time precision) value of boolean denotes true when a change has a date point,
-        // otherwise all extensions don't have changes. We need to create a space to denote nothing happened that year.
-        TreeSet<Long> datePoints = new TreeSet<>();
-        TreeSet<Integer> availableYears = new TreeSet<>();
-
-        for (Integer moduleId : modulesSelected) {
-            if (pathMap.get(pathSelected) == null || pathMap.get(pathSelected).get(moduleId) == null) {
-                String errorMsg = "Path: %s and Module: %s not found. Module id = %s".formatted(pathSelected,
-                        getViewProperties().calculator().getPreferredDescriptionTextWithFallbackOrNid(moduleId),
-                        moduleId);
-                LOG.warn(errorMsg);
-                continue;
-//                throw new RuntimeException(errorMsg);
-            }
-
-            pathMap.get(pathSelected)
-                    .get(moduleId)
-                    .values().forEach(versionChangeRecords -> versionChangeRecords.forEach(versionChangeRecord -> {
-                        StampEntity<? extends StampEntityVersion> stampForChange = Entity.getStamp(versionChangeRecord.stampNid());
-                        long time = truncateTime(stampForChange.time());
-                        datePoints.add(time);
-                        availableYears.add(parseYear(time));
-                    }));
-        }
-        if (datePoints.size() < 2) {
+    private long[] determineUniqueDatePoints(int pathOrdinal, int[] modulesSelected) {
+        long[] datePoints = timelineIndex.datePoints(pathOrdinal, modulesSelected);
+        if (datePoints.length < 2) {
             return datePoints;
         }
-        int firstYear = parseYear(datePoints.first());
-        int endYear = parseYear(datePoints.last());
+        int firstYear = timelineIndex.yearOf(datePoints[0]);
+        int endYear = timelineIndex.yearOf(datePoints[datePoints.length - 1]);
 
-        int nowYear = parseYear(System.currentTimeMillis());
+        int nowYear = timelineIndex.yearOf(System.currentTimeMillis());
         if (endYear > nowYear) {
             endYear = nowYear;
         }
         if (firstYear > 1970 && endYear > firstYear) {
-            LOG.info("====> IntStream.range(%s, %s);".formatted(firstYear, endYear));
-            IntStream yearRange = IntStream.range(firstYear, endYear);
-            Set<Integer> allYears = yearRange.boxed().collect(Collectors.toSet());
+            LOG.info("====> Filling missing years [%s, %s)".formatted(firstYear, endYear));
             // Fill in missing years for extensions (modules) not having date points.
-            TreeSet<Integer> missingYears = new TreeSet<>(allYears.stream().filter(year -> !availableYears.contains(year)).toList());
-            missingYears.forEach(year -> {
-                String dateInString = year + "0101";
-                LocalDate localDate = LocalDate.parse(dateInString, DateTimeFormatter.BASIC_ISO_DATE);
-                Instant instant = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-                long timeInMillis = truncateTime(instant.toEpochMilli());
-                datePoints.add(timeInMillis);
-            });
+            boolean[] availableYears = new boolean[endYear - firstYear];
+            for (long datePoint : datePoints) {
+                int year = timelineIndex.yearOf(datePoint);
+                if (year < endYear) {
+                    availableYears[year - firstYear] = true;
+                }
+            }
+            long[] filled = Arrays.copyOf(datePoints, datePoints.length + availableYears.length);
+            int count = datePoints.length;
+            for (int i = 0; i < availableYears.length; i++) {
+                if (!availableYears[i]) {
+                    filled[count++] = timelineIndex.startOfYear(firstYear + i);
+                }
+            }
+            datePoints = Arrays.copyOf(filled, count);
+            Arrays.sort(datePoints);
         }
 
         return datePoints;
@@ -729,10 +680,12 @@ private TreeSet<Long> determineNumOfUniqueDatePoints(String pathSelected, List<I
     private void drawAllTimelines(String pathSelected, List<Integer> modulesSelected) {
         if (pathSelected == null || modulesSelected == null || modulesSelected.size() ==0) return;
         ViewCalculator viewCalculator = getViewProperties().calculator();
-        TreeSet<Long> uniqueDatePoints = determineNumOfUniqueDatePoints(pathSelected, modulesSelected);
-        List<Long> dateYearList = uniqueDatePoints.descendingSet().stream().toList();
+        int pathOrdinal = timelineIndex.pathOrdinal(pathSelected);
+        int[] moduleNids = modulesSelected.stream().mapToInt(Integer::intValue).toArray();
+        // Ascending; the latest date is drawn first.
+        long[] uniqueDatePoints = determineUniqueDatePoints(pathOrdinal, moduleNids);
 
-        int numOfUniqueDatePoints = uniqueDatePoints.size();
+        int numOfUniqueDatePoints = uniqueDatePoints.length;
         int startY = 50;
         int padding = 4;
         int endSpace = 10;
@@ -755,7 +708,7 @@ private void drawAllTimelines(String pathSelected, List<Integer> modulesSelected
         for (int i = 0; i < modulesSelected.size(); i++) {
             Group timelineGroup = new Group(); // one timeline for all years represented
             timelineColumns.getChildren().add(timelineGroup);
-            int indexColumn = pathMap.getModuleNids(pathSelected).indexOf(modulesSelected.get(i));
+            int indexColumn = timelineIndex.moduleOrdinal(pathOrdinal, moduleNids[i]);
             if (indexColumn < 0) {
                 String errorMsg = "Path: %s and Module: %s not found. Module id = %s".formatted(pathSelected,
                         viewCalculator.getPreferredDescriptionTextWithFallbackOrNid(modulesSelected.get(i)),
@@ -774,42 +727,29 @@ private void drawAllTimelines(String pathSelected, List<Integer> modulesSelected
 
             LOG.info("Path: %s Module: %s%n".formatted(pathSelected,
                     viewCalculator.getPreferredDescriptionTextWithFallbackOrNid(modulesSelected.get(i))));
-            final int moduleNid = modulesSelected.get(i);
-            pathMap.get(pathSelected)
-                    .get(modulesSelected.get(i))
-                    .forEach((year, changeSet) -> {
-                        // TODO when a date is the same on another module we need them to align across all points.
-                        int length = changeSet.size() * timelineSegmentLength;
-                        timeLine.endYProperty().add(length);
-                        VersionChangeRecord[] versionChangeRecords = changeSet.toArray(new VersionChangeRecord[0]);
-                        for (VersionChangeRecord change : versionChangeRecords) {
-                            StampEntity<StampEntityVersion> stampForChange = Entity.getStamp(change.stampNid());
-                            String dateStr = ("   Date: " + DateTimeUtil.format(stampForChange.time(), DATE_POINT_FORMATTER));
-                            LOG.info(dateStr + " nid of changeChron -> " + change.stampNid());
-                            Circle datePoint = new Circle();
-                            datePoint.setUserData(new ChangeCoordinate(pathSelected, moduleNid, change));
-                            datePoint.setRadius(6);
-
-                            // start + endSpace + endSpace + ((circleHeight + padding ) * find index (date)
-                            datePoint.setCenterY(startY + endSpace + endSpace + ((circleHeight + padding) * dateYearList.indexOf(truncateTime(stampForChange.time()))));
-                            datePoint.getStyleClass().addAll("timeline-year-date-point", columnColor);
-                            timelineGroup.getChildren().add(datePoint);
-                            datePoint.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseClick);
-
-                            // add to the main Set of Circle's as a lookup.
-                            allCircleDatePointsSet.add(datePoint);
-                        }
-                    });
+            final int moduleNid = moduleNids[i];
+            // TODO when a date is the same on another module we need them to align across all points.
+            for (int row : timelineIndex.rows(pathOrdinal, moduleNid, Long.MIN_VALUE, Long.MAX_VALUE)) {
+                String dateStr = ("   Date: " + DateTimeUtil.format(timelineIndex.time(row), DATE_POINT_FORMATTER));
+                LOG.info(dateStr + " nid of changeChron -> " + timelineIndex.stampNid(row));
+                Circle datePoint = new Circle();
+                datePoint.setUserData(new ChangeCoordinate(pathSelected, moduleNid, timelineIndex.changeRecord(row)));
+                datePoint.setRadius(6);
+
+                // start + endSpace + endSpace + ((circleHeight + padding ) * find index (date)
+                int dateIndex = numOfUniqueDatePoints - 1 - Arrays.binarySearch(uniqueDatePoints, timelineIndex.day(row));
+                datePoint.setCenterY(startY + endSpace + endSpace + ((circleHeight + padding) * dateIndex));
+                datePoint.getStyleClass().addAll("timeline-year-date-point", columnColor);
+                timelineGroup.getChildren().add(datePoint);
+                datePoint.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseClick);
+
+                // add to the main Set of Circle's as a lookup.
+                allCircleDatePointsSet.add(datePoint);
+            }
         }
     }
 
     public void dataDump() {
-            /*
-             * <code>
-             *   TreeMap<String, TreeMap<String, TreeMap<Integer, TreeSet<VersionChangeRecord>>>> pathMap = new TreeMap<>();
-             * </code>
-             *  path -> module -> year -> verChangeRecords
-             */
             // give me a path and modules of all changes for all years.
             if (getViewProperties() == null) {
                 LOG.info("No Concept has been selected.");
@@ -817,21 +757,25 @@ public void dataDump() {
             }
             ViewCalculator viewCalculator = getViewProperties().calculator();
 
-            pathMap.forEach((path, moduleTree) -> {
-                LOG.info("Path: " + path);
-                moduleTree.forEach((module, yearTree) -> {
-                    String moduleName = viewCalculator.getPreferredDescriptionTextWithFallbackOrNid(module);
-                    LOG.info(" Module: " + moduleName);
-                    yearTree.descendingMap().forEach((year, listChanges) -> {
-                        LOG.info("  Year: " + year);
-                        for (VersionChangeRecord change : listChanges.descendingSet()) {
-                            StampEntity<StampEntityVersion> stampForChange = Entity.getStamp(change.stampNid());
-                            String dataStr = "   Date: " + DateTimeUtil.format(stampForChange.time(), DATE_POINT_FORMATTER);
-                            LOG.info(dataStr + " nid of changeChron -> " + change.stampNid());
+            if (timelineIndex != null) {
+                for (String path : timelineIndex.pathNames()) {
+                    LOG.info("Path: " + path);
+                    int pathOrdinal = timelineIndex.pathOrdinal(path);
+                    for (int module : timelineIndex.moduleNids(pathOrdinal)) {
+                        String moduleName = viewCalculator.getPreferredDescriptionTextWithFallbackOrNid(module);
+                        LOG.info(" Module: " + moduleName);
+                        int[] rows = timelineIndex.rows(pathOrdinal, module, Long.MIN_VALUE, Long.MAX_VALUE);
+                        for (int i = rows.length - 1; i >= 0; i--) {
+                            int row = rows[i];
+                            if (i == rows.length - 1 || timelineIndex.year(row) != timelineIndex.year(rows[i + 1])) {
+                                LOG.info("  Year: " + timelineIndex.year(row));
+                            }
+                            String dataStr = "   Date: " + DateTimeUtil.format(timelineIndex.time(row), DATE_POINT_FORMATTER);
+                            LOG.info(dataStr + " nid of changeChron -> " + timelineIndex.stampNid(row));
                         }
-                    });
-                });
-            });
+                    }
+                }
+            }
 
             // Show viewable rectangular region
             LOG.info("Detect box (Range): " + rangeViewRectangleProp.get());
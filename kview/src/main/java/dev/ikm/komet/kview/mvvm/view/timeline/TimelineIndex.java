@@ -0,0 +1,415 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.timeline;
+
+import dev.ikm.tinkar.coordinate.stamp.calculator.Latest;
+import dev.ikm.tinkar.coordinate.stamp.change.VersionChangeRecord;
+import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
+import dev.ikm.tinkar.entity.StampEntity;
+import dev.ikm.tinkar.entity.StampEntityVersion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar index of the change records shown on the timeline of one concept.
+ * <p>
+ * Every change of the concept, its descriptions and its stated and inferred axioms becomes a row held in
+ * parallel primitive arrays: the stamp time, the start of that day and its year in the index time zone,
+ * the path (as an ordinal into the sorted path names), the module nid and the stamp nid. Rows are sorted
+ * by time, and changes sharing a time, path and module are collapsed into one row, as they are one date
+ * point on the timeline.
+ * <p>
+ * The index is built once per concept, off the JavaFX application thread, reading each stamp once.
+ * Filtering by path, module and date range then scans the arrays without allocating per record, so
+ * changing the filter does not touch the entity store again.
+ */
+public final class TimelineIndex {
+
+    private final ZoneId zone;
+    private final String[] pathNames;
+    private final int[][] moduleNidsByPath;
+    private final long[] time;
+    private final long[] day;
+    private final int[] year;
+    private final int[] path;
+    private final int[] moduleNid;
+    private final int[] stampNid;
+    private final VersionChangeRecord[] changeRecords;
+
+    private TimelineIndex(ZoneId zone, String[] pathNames, int[][] moduleNidsByPath, long[] time, long[] day,
+                          int[] year, int[] path, int[] moduleNid, int[] stampNid,
+                          VersionChangeRecord[] changeRecords) {
+        this.zone = zone;
+        this.pathNames = pathNames;
+        this.moduleNidsByPath = moduleNidsByPath;
+        this.time = time;
+        this.day = day;
+        this.year = year;
+        this.path = path;
+        this.moduleNid = moduleNid;
+        this.stampNid = stampNid;
+        this.changeRecords = changeRecords;
+    }
+
+    /**
+     * Builds the index for a concept from the change chronologies of the concept, its descriptions and
+     * its stated and inferred axioms. Reads the entity store; do not call on the JavaFX application thread.
+     *
+     * @param viewCalculator the calculator of the view the timeline belongs to
+     * @param conceptNid     the concept shown on the timeline
+     * @return the index of all changes of the concept
+     */
+    public static TimelineIndex build(ViewCalculator viewCalculator, int conceptNid) {
+        Map<Integer, StampEntity<? extends StampEntityVersion>> stamps = new HashMap<>();
+        Map<Integer, String> pathNames = new HashMap<>();
+        Builder builder = new Builder(ZoneId.systemDefault());
+        IntConsumer addChronology = nid -> {
+            for (VersionChangeRecord changeRecord : viewCalculator.changeChronology(nid).changeRecords()) {
+                StampEntity<? extends StampEntityVersion> stamp =
+                        stamps.computeIfAbsent(changeRecord.stampNid(), Entity::getStamp);
+                String pathName = pathNames.computeIfAbsent(stamp.pathNid(),
+                        viewCalculator::getPreferredDescriptionTextWithFallbackOrNid);
+                builder.add(changeRecord, stamp.nid(), stamp.time(), pathName, stamp.moduleNid());
+            }
+        };
+
+        addChronology.accept(conceptNid);
+        viewCalculator.getDescriptionsForComponent(conceptNid)
+                .forEach(semanticEntity -> addChronology.accept(semanticEntity.nid()));
+        Latest<SemanticEntityVersion> inferredSemanticVersion = viewCalculator.getInferredAxiomSemanticForEntity(conceptNid);
+        inferredSemanticVersion.ifPresent(semanticEntityVersion -> addChronology.accept(semanticEntityVersion.nid()));
+        Latest<SemanticEntityVersion> statedSemanticVersion = viewCalculator.getStatedAxiomSemanticForEntity(conceptNid);
+        statedSemanticVersion.ifPresent(semanticEntityVersion -> addChronology.accept(semanticEntityVersion.nid()));
+        return builder.build();
+    }
+
+    /**
+     * @return the number of rows (date points) in the index
+     */
+    public int size() {
+        return time.length;
+    }
+
+    public boolean isEmpty() {
+        return time.length == 0;
+    }
+
+    /**
+     * @return the time zone used to truncate times to days and years
+     */
+    public ZoneId zone() {
+        return zone;
+    }
+
+    /**
+     * @return the names of all paths with changes, sorted
+     */
+    public List<String> pathNames() {
+        return List.of(pathNames);
+    }
+
+    /**
+     * @param pathName the name of a path
+     * @return the ordinal of the path in {@link #pathNames()}, or -1 if there are no changes on it
+     */
+    public int pathOrdinal(String pathName) {
+        if (pathName == null) {
+            return -1;
+        }
+        int ordinal = Arrays.binarySearch(pathNames, pathName);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    /**
+     * @param pathOrdinal the ordinal of a path
+     * @return the nids of the modules with changes on the path, sorted
+     */
+    public int[] moduleNids(int pathOrdinal) {
+        return pathOrdinal < 0 ? new int[0] : moduleNidsByPath[pathOrdinal].clone();
+    }
+
+    /**
+     * @param pathOrdinal the ordinal of a path
+     * @param moduleNid   the nid of a module
+     * @return the position of the module in {@link #moduleNids(int)}, or -1 if it has no changes on the path
+     */
+    public int moduleOrdinal(int pathOrdinal, int moduleNid) {
+        if (pathOrdinal < 0) {
+            return -1;
+        }
+        int ordinal = Arrays.binarySearch(moduleNidsByPath[pathOrdinal], moduleNid);
+        return ordinal < 0 ? -1 : ordinal;
+    }
+
+    /**
+     * @return the sorted path names, each with the sorted nids of the modules that have changes on it
+     */
+    public LinkedHashMap<String, List<Integer>> pathModules() {
+        LinkedHashMap<String, List<Integer>> pathModules = new LinkedHashMap<>();
+        for (int i = 0; i < pathNames.length; i++) {
+            pathModules.put(pathNames[i], Arrays.stream(moduleNidsByPath[i]).boxed().toList());
+        }
+        return pathModules;
+    }
+
+    public long time(int row) {
+        return time[row];
+    }
+
+    /**
+     * @return the epoch millisecond at the start of the day of the change
+     */
+    public long day(int row) {
+        return day[row];
+    }
+
+    public int year(int row) {
+        return year[row];
+    }
+
+    public int pathOrdinalOf(int row) {
+        return path[row];
+    }
+
+    public int moduleNid(int row) {
+        return moduleNid[row];
+    }
+
+    public int stampNid(int row) {
+        return stampNid[row];
+    }
+
+    public VersionChangeRecord changeRecord(int row) {
+        return changeRecords[row];
+    }
+
+    /**
+     * @param epochMillis an instant
+     * @return the year of the instant in the index time zone
+     */
+    public int yearOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).getYear();
+    }
+
+    /**
+     * @param year a year
+     * @return the epoch millisecond at the start of the first day of the year in the index time zone
+     */
+    public long startOfYear(int year) {
+        return LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the rows of one module on a path whose time lies in {@code [fromMillis, toMillis]}, oldest first.
+     *
+     * @param pathOrdinal the ordinal of the path
+     * @param moduleNid   the nid of the module
+     * @param fromMillis  the earliest time, inclusive
+     * @param toMillis    the latest time, inclusive
+     * @return the matching rows
+     */
+    public int[] rows(int pathOrdinal, int moduleNid, long fromMillis, long toMillis) {
+        if (pathOrdinal < 0 || fromMillis > toMillis) {
+            return new int[0];
+        }
+        int[] rows = new int[time.length];
+        int count = 0;
+        for (int row = firstAtOrAfter(fromMillis); row < time.length && time[row] <= toMillis; row++) {
+            if (path[row] == pathOrdinal && this.moduleNid[row] == moduleNid) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns the distinct days with a change by any of {@code moduleNids} on a path, as epoch milliseconds
+     * at the start of each day, oldest first.
+     *
+     * @param pathOrdinal the ordinal of the path
+     * @param moduleNids  the nids of the modules
+     * @return the distinct days, ascending
+     */
+    public long[] datePoints(int pathOrdinal, int[] moduleNids) {
+        if (pathOrdinal < 0) {
+            return new long[0];
+        }
+        long[] days = new long[time.length];
+        int count = 0;
+        for (int row = 0; row < time.length; row++) {
+            if (path[row] == pathOrdinal && contains(moduleNids, moduleNid[row])
+                    && (count == 0 || days[count - 1] != day[row])) {
+                // rows are sorted by time, so days are non-decreasing
+                days[count++] = day[row];
+            }
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    private int firstAtOrAfter(long fromMillis) {
+        int low = 0;
+        int high = time.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (time[mid] < fromMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accumulates changes and sorts them into a {@link TimelineIndex}.
+     */
+    public static final class Builder {
+        private final ZoneId zone;
+        private final Map<String, Integer> pathIds = new HashMap<>();
+        private final List<String> pathNames = new ArrayList<>();
+        private final List<VersionChangeRecord> changeRecords = new ArrayList<>();
+        private long[] time = new long[64];
+        private int[] path = new int[64];
+        private int[] moduleNid = new int[64];
+        private int[] stampNid = new int[64];
+        private int size;
+
+        /**
+         * @param zone the time zone used to truncate times to days and years
+         */
+        public Builder(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        /**
+         * @param changeRecord the change
+         * @param stampNid     the nid of the stamp of the change
+         * @param time         the time of the stamp
+         * @param pathName     the name of the path of the stamp
+         * @param moduleNid    the module of the stamp
+         * @return this builder
+         */
+        public Builder add(VersionChangeRecord changeRecord, int stampNid, long time, String pathName, int moduleNid) {
+            if (size == this.time.length) {
+                int capacity = size * 2;
+                this.time = Arrays.copyOf(this.time, capacity);
+                this.path = Arrays.copyOf(this.path, capacity);
+                this.moduleNid = Arrays.copyOf(this.moduleNid, capacity);
+                this.stampNid = Arrays.copyOf(this.stampNid, capacity);
+            }
+            Integer pathId = pathIds.get(pathName);
+            if (pathId == null) {
+                pathId = pathNames.size();
+                pathIds.put(pathName, pathId);
+                pathNames.add(pathName);
+            }
+            this.time[size] = time;
+            this.path[size] = pathId;
+            this.moduleNid[size] = moduleNid;
+            this.stampNid[size] = stampNid;
+            changeRecords.add(changeRecord);
+            size++;
+            return this;
+        }
+
+        public TimelineIndex build() {
+            String[] sortedPathNames = pathNames.toArray(String[]::new);
+            Arrays.sort(sortedPathNames);
+            int[] pathOrdinal = new int[sortedPathNames.length];
+            for (int ordinal = 0; ordinal < sortedPathNames.length; ordinal++) {
+                pathOrdinal[pathIds.get(sortedPathNames[ordinal])] = ordinal;
+            }
+
+            // Stable sort, so the first change added for a time, path and module is the one kept.
+            Integer[] order = new Integer[size];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> {
+                int compare = Long.compare(time[a], time[b]);
+                if (compare == 0) {
+                    compare = Integer.compare(pathOrdinal[path[a]], pathOrdinal[path[b]]);
+                }
+                if (compare == 0) {
+                    compare = Integer.compare(moduleNid[a], moduleNid[b]);
+                }
+                return compare;
+            });
+
+            long[] sortedTime = new long[size];
+            long[] sortedDay = new long[size];
+            int[] sortedYear = new int[size];
+            int[] sortedPath = new int[size];
+            int[] sortedModuleNid = new int[size];
+            int[] sortedStampNid = new int[size];
+            VersionChangeRecord[] sortedChangeRecords = new VersionChangeRecord[size];
+            int count = 0;
+            for (int i : order) {
+                int ordinal = pathOrdinal[path[i]];
+                if (count > 0 && sortedTime[count - 1] == time[i] && sortedPath[count - 1] == ordinal
+                        && sortedModuleNid[count - 1] == moduleNid[i]) {
+                    continue;
+                }
+                sortedTime[count] = time[i];
+                if (count > 0 && sortedTime[count - 1] == time[i]) {
+                    sortedDay[count] = sortedDay[count - 1];
+                    sortedYear[count] = sortedYear[count - 1];
+                } else {
+                    LocalDate date = Instant.ofEpochMilli(time[i]).atZone(zone).toLocalDate();
+                    sortedDay[count] = date.atStartOfDay(zone).toInstant().toEpochMilli();
+                    sortedYear[count] = date.getYear();
+                }
+                sortedPath[count] = ordinal;
+                sortedModuleNid[count] = moduleNid[i];
+                sortedStampNid[count] = stampNid[i];
+                sortedChangeRecords[count] = changeRecords.get(i);
+                count++;
+            }
+            final int rows = count;
+            int[][] moduleNidsByPath = new int[sortedPathNames.length][];
+            Arrays.setAll(moduleNidsByPath, ordinal -> IntStream.range(0, rows)
+                    .filter(row -> sortedPath[row] == ordinal)
+                    .map(row -> sortedModuleNid[row])
+                    .distinct()
+                    .sorted()
+                    .toArray());
+            return new TimelineIndex(zone, sortedPathNames, moduleNidsByPath,
+                    Arrays.copyOf(sortedTime, count), Arrays.copyOf(sortedDay, count),
+                    Arrays.copyOf(sortedYear, count), Arrays.copyOf(sortedPath, count),
+                    Arrays.copyOf(sortedModuleNid, count), Arrays.copyOf(sortedStampNid, count),
+                    Arrays.copyOf(sortedChangeRecords, count));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.controls.skin;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowSpatialIndexTest {
+
+    private static final double CELL = 100;
+
+    private static Bounds box(double x, double y, double width, double height) {
+        return new BoundingBox(x, y, width, height);
+    }
+
+    @Test
+    void windowsSharingAnEdgeIntersect() {
+        WindowSpatialIndex<String> index = new WindowSpatialIndex<>(CELL);
+        // "left" ends exactly on a cell boundary where "right" begins
+        index.put("left", box(0, 0, 100, 50));
+        index.put("right", box(100, 0, 80, 50));
+        index.put("below", box(0, 50, 100, 50));
+
+        assertEquals(List.of("left", "right"), index.intersectingKeys(100, 0, 100, 0));
+        assertEquals(List.of("left", "below"), index.intersectingKeys(0, 50, 0, 50));
+        assertTrue(index.anyIntersecting(180, 50, 300, 300), "touching a corner counts");
+        assertFalse(index.anyIntersecting(180.5, 0, 300, 300));
+        assertTrue(index.intersectingKeys(181, 101, 500, 500).isEmpty());
+    }
+
+    @Test
+    void queriesMatchAFullScan() {
+        WindowSpatialIndex<Integer> index = new WindowSpatialIndex<>(CELL);
+        Bounds[] windows = new Bounds[40];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = box((i * 73) % 900 - 200, (i * 151) % 700 - 100, 40 + (i * 37) % 260, 30 + (i * 53) % 180);
+            index.put(i, windows[i]);
+        }
+        for (int qx = -300; qx < 900; qx += 97) {
+            for (int qy = -200; qy < 700; qy += 89) {
+                Bounds query = box(qx, qy, 150, 120);
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < windows.length; i++) {
+                    if (windows[i].intersects(query)) {
+                        expected.add(i);
+                    }
+                }
+                List<Integer> actual = index.intersectingKeys(query.getMinX(), query.getMinY(),
+                        query.getMaxX(), query.getMaxY());
+                assertEquals(Set.copyOf(expected), Set.copyOf(actual), "query " + query);
+                assertEquals(expected.size(), actual.size(), "no window is reported twice");
+                assertEquals(!expected.isEmpty(), index.anyIntersecting(query.getMinX(), query.getMinY(),
+                        query.getMaxX(), query.getMaxY()));
+            }
+        }
+    }
+
+    @Test
+    void unboundedQueriesAreClippedToTheOccupiedCells() {
+        WindowSpatialIndex<String> index = new WindowSpatialIndex<>(CELL);
+        index.put("near", box(0, 0, 50, 50));
+        index.put("far", box(1_000_000, 10, 50, 50));
+        index.put("negative", box(-2_000_000, -500, 50, 50));
+
+        // a full-width row band, as used for row placement
+        assertEquals(Set.of("near", "far"), Set.copyOf(index.intersectingKeys(
+                Double.NEGATIVE_INFINITY, 0, Double.POSITIVE_INFINITY, 60)));
+        assertEquals(Set.of("near", "far", "negative"), Set.copyOf(index.intersectingKeys(
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY)));
+        assertEquals(List.of("far"), index.intersectingKeys(500, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY));
+        assertFalse(index.anyIntersecting(Double.NEGATIVE_INFINITY, 1000, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void unsizedWindowsAreTrackedThroughMovesAndRemoval() {
+        WindowSpatialIndex<String> index = new WindowSpatialIndex<>(CELL);
+        assertFalse(index.hasUnsized());
+
+        // added to the desktop but not laid out yet
+        index.put("a", box(10, 10, 0, 0));
+        index.put("b", box(20, 20, 0, 0));
+        assertTrue(index.hasUnsized());
+
+        index.put("a", box(10, 10, 300, 200));
+        assertTrue(index.hasUnsized(), "b is still unsized");
+        index.put("a", box(10, 10, 300, 200));
+        assertTrue(index.hasUnsized(), "re-putting the same bounds changes nothing");
+
+        index.remove("b");
+        assertFalse(index.hasUnsized());
+
+        index.put("a", box(10, 10, 300, 0));
+        assertTrue(index.hasUnsized(), "a zero height is unsized too");
+        index.clear();
+        assertFalse(index.hasUnsized());
+    }
+
+    @Test
+    void movedWindowsLeaveTheirOldCells() {
+        WindowSpatialIndex<String> index = new WindowSpatialIndex<>(CELL);
+        index.put("a", box(0, 0, 250, 250));
+        index.put("b", box(400, 400, 50, 50));
+        assertEquals(List.of("a"), index.intersectingKeys(200, 200, 210, 210));
+
+        index.put("a", box(1000, 0, 50, 50));
+        assertTrue(index.intersectingKeys(0, 0, 300, 300).isEmpty());
+        assertEquals(List.of("a"), index.intersectingKeys(1000, 0, 1000, 0));
+        assertEquals(box(1000, 0, 50, 50), index.bounds("a"));
+
+        index.remove("a");
+        index.remove("a");
+        assertFalse(index.contains("a"));
+        assertNull(index.bounds("a"));
+        assertTrue(index.intersectingKeys(1000, 0, 1050, 50).isEmpty());
+        assertEquals(Set.of("b"), index.keys());
+        assertEquals(1, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.anyIntersecting(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void cellSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new WindowSpatialIndex<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new WindowSpatialIndex<String>(Double.NaN));
+    }
+}
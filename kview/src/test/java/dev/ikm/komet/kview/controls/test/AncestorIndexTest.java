@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.controls.test;
+
+import dev.ikm.komet.kview.controls.AncestorIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AncestorIndexTest {
+
+    private static final int ROOT = 1;
+    private static final int A = 2;
+    private static final int B = 3;
+    private static final int C = 4;
+    private static final int D = 5;
+    private static final int E = 6;
+    private static final int F = 7;
+    private static final int G = 8;
+    private static final int H = 9;
+
+    /**
+     * <pre><code>
+     *     ROOT --- A --- C --- D
+     *       \  \    \   /     /
+     *        \  \    E /     /
+     *         \  B ----     /
+     *          ----------- F
+     * </code></pre>
+     * C has parents A and B, F has parents ROOT and C.
+     */
+    private final Map<Integer, int[]> parents = new HashMap<>(Map.of(
+            ROOT, new int[0],
+            A, new int[]{ROOT},
+            B, new int[]{ROOT},
+            C, new int[]{A, B},
+            D, new int[]{C},
+            E, new int[]{A},
+            F, new int[]{ROOT, C}));
+    private final Map<Integer, Integer> parentLookups = new HashMap<>();
+
+    private AncestorIndex newIndex() {
+        return new AncestorIndex(nid -> {
+            parentLookups.merge(nid, 1, Integer::sum);
+            return parents.getOrDefault(nid, new int[0]);
+        }, nid -> "Concept " + nid);
+    }
+
+    @Test
+    public void depthsCountEdgesToTheRoot() {
+        AncestorIndex index = newIndex();
+        assertEquals(0, index.getMaxDepth(ROOT));
+        assertEquals(3, index.getMaxDepth(D));
+        assertEquals(3, index.getMinDepth(D));
+        assertEquals(2, index.getMaxDepth(E));
+        assertEquals(3, index.getMaxDepth(F));
+        assertEquals(1, index.getMinDepth(F));
+    }
+
+    @Test
+    public void shortestLineageStartsAtTheRootAndPrefersEarlierParents() {
+        AncestorIndex index = newIndex();
+        assertArrayEquals(new int[]{ROOT, A, C}, index.getShortestLineage(D, -1));
+        assertArrayEquals(new int[]{ROOT}, index.getShortestLineage(F, -1));
+        assertArrayEquals(new int[]{ROOT, A, C}, index.getShortestLineage(F, C));
+        assertArrayEquals(new int[0], index.getShortestLineage(F, E));
+        assertArrayEquals(new int[0], index.getShortestLineage(ROOT, -1));
+    }
+
+    @Test
+    public void ancestorsAreDistinctAndParentsAreFetchedOnce() {
+        AncestorIndex index = newIndex();
+        assertArrayEquals(new int[]{ROOT, A, B, C}, index.getAncestorNids(D));
+        assertArrayEquals(new int[]{ROOT, A, B, C}, index.getAncestorNids(F));
+        assertTrue(index.isAncestor(D, B));
+        assertFalse(index.isAncestor(D, E));
+        assertEquals("Concept " + C, index.getDescription(C));
+        parentLookups.values().forEach(count -> assertEquals(1, count.intValue()));
+
+        parents.put(D, new int[]{E});
+        assertEquals(3, index.getMaxDepth(D));
+        index.invalidate();
+        assertArrayEquals(new int[]{ROOT, A, E}, index.getShortestLineage(D, -1));
+        assertEquals(2, parentLookups.get(D).intValue());
+    }
+
+    @Test
+    public void cyclesAreBrokenAndSharedAncestorsDoNotMultiplyPaths() {
+        // 40 layers of two concepts, each with both concepts of the layer above as parents: 2^40 lineages
+        for (int layer = 1; layer <= 40; layer++) {
+            int[] above = layer == 1 ? new int[]{ROOT} : new int[]{100 + 2 * (layer - 1), 101 + 2 * (layer - 1)};
+            parents.put(100 + 2 * layer, above);
+            parents.put(101 + 2 * layer, above);
+        }
+        parents.put(A, new int[]{ROOT, E});
+        AncestorIndex index = newIndex();
+        assertEquals(40, index.getMaxDepth(180));
+        assertEquals(40, index.getMinDepth(181));
+        assertEquals(79, index.getAncestorNids(181).length);
+        assertEquals(40, index.getShortestLineage(180, -1).length);
+        assertEquals(2, index.getMaxDepth(E));
+        assertEquals(1, index.getMinDepth(A));
+    }
+
+    @Test
+    public void aConceptWhoseOnlyParentClosesACycleIsNotARoot() {
+        // G and H are each other's parents, and H is also a child of A; the walk from H reaches G with H
+        // still being resolved
+        parents.put(G, new int[]{H});
+        parents.put(H, new int[]{G, A});
+        AncestorIndex index = newIndex();
+        assertEquals(2, index.getMinDepth(H));
+        assertEquals(3, index.getMinDepth(G));
+        assertEquals(3, index.getMaxDepth(G));
+        assertArrayEquals(new int[]{ROOT, A, H}, index.getShortestLineage(G, -1));
+        assertArrayEquals(new int[]{ROOT, A}, index.getShortestLineage(H, -1));
+        assertArrayEquals(new int[]{ROOT, A, H}, index.getAncestorNids(G));
+    }
+
+    @Test
+    public void conceptsBelowACycleDoNotTakeAMemberAsARoot() {
+        // G and H are each other's parents and only H is a child of A; the walk from D goes through E to H,
+        // and reaches G from H while H is still being resolved, before D looks at G as a parent
+        parents.put(D, new int[]{G, E});
+        parents.put(E, new int[]{H});
+        parents.put(G, new int[]{H});
+        parents.put(H, new int[]{G, A});
+        AncestorIndex index = newIndex();
+        assertEquals(3, index.getMinDepth(E));
+        assertEquals(4, index.getMinDepth(D));
+        assertArrayEquals(new int[]{ROOT, A, H, G}, index.getShortestLineage(D, -1));
+        assertEquals(3, index.getMinDepth(G));
+        assertArrayEquals(new int[]{ROOT, A, H}, index.getShortestLineage(G, -1));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.data.persistence.test;
+
+import dev.ikm.komet.kview.data.persistence.DescriptionImport;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Line format of {@link DescriptionImport}; writing is covered by {@link DescriptionImportThroughputTest}.
+ */
+class DescriptionImportTest {
+
+    private static final UUID CONCEPT = UUID.fromString("2f1b6d3e-6b0e-4a4f-9a47-0f6f0c7cf0a1");
+
+    @Test
+    void parsesNamedDescriptionTypes() {
+        DescriptionImport.Row row = DescriptionImport.Row.parse(CONCEPT + "\tfqn\tGlucose [Mass/volume] in Serum");
+
+        assertEquals(CONCEPT, row.concept());
+        assertArrayEquals(TinkarTerm.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE.asUuidArray(), row.descriptionType().asUuidArray());
+        assertEquals("Glucose [Mass/volume] in Serum", row.text());
+        assertArrayEquals(TinkarTerm.REGULAR_NAME_DESCRIPTION_TYPE.asUuidArray(),
+                DescriptionImport.Row.parse(CONCEPT + "\tREGULAR\tGlucose").descriptionType().asUuidArray());
+    }
+
+    @Test
+    void parsesDescriptionTypeUuidsAndKeepsTabsInText() {
+        UUID type = UUID.fromString("8bfba944-3965-3946-9bcb-1e80a5da63a2");
+
+        DescriptionImport.Row row = DescriptionImport.Row.parse(" " + CONCEPT + " \t" + type + "\tleft\tright ");
+
+        assertEquals(CONCEPT, row.concept());
+        assertArrayEquals(new UUID[]{type}, row.descriptionType().asUuidArray());
+        assertEquals("left\tright", row.text());
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> DescriptionImport.Row.parse(CONCEPT + "\tFQN"));
+        assertThrows(IllegalArgumentException.class, () -> DescriptionImport.Row.parse(CONCEPT + "\tFQN\t "));
+        assertThrows(IllegalArgumentException.class, () -> DescriptionImport.Row.parse("not-a-uuid\tFQN\tGlucose"));
+        assertThrows(IllegalArgumentException.class, () -> DescriptionImport.Row.parse(CONCEPT + "\tSYNONYM\tGlucose"));
+    }
+
+    @Test
+    void reportsThroughput() {
+        assertEquals(2_000d, new DescriptionImport.Result(1_000, 1_000, 500_000_000L).entitiesPerSecond());
+        assertEquals(0d, new DescriptionImport.Result(0, 0, 0).entitiesPerSecond());
+    }
+}
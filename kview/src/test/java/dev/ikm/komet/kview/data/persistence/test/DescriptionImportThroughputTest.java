@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.data.persistence.test;
+
+import dev.ikm.komet.kview.data.persistence.DescriptionImport;
+import dev.ikm.komet.kview.data.persistence.STAMPWriter;
+import dev.ikm.komet.kview.data.schema.STAMPDetail;
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes a generated description file through {@link DescriptionImport} into an ephemeral, empty store and
+ * reports the throughput for a batch size of one and for the default session batch size.
+ */
+class DescriptionImportThroughputTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DescriptionImportThroughputTest.class);
+
+    private static final int CONCEPTS = 2_000;
+    private static final int DESCRIPTIONS_PER_CONCEPT = 3;
+
+    private PublicId stamp;
+
+    @BeforeAll
+    static void startEphemeralStore() throws Exception {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT,
+                Files.createTempDirectory("description-import-test").toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    static void stopStore() {
+        PrimitiveData.stop();
+    }
+
+    @BeforeEach
+    void writeStamp() {
+        stamp = PublicIds.newRandom();
+        new STAMPWriter(stamp).write(new STAMPDetail(TinkarTerm.ACTIVE_STATE.publicId(), System.currentTimeMillis(),
+                TinkarTerm.USER.publicId(), TinkarTerm.PRIMORDIAL_MODULE.publicId(), TinkarTerm.DEVELOPMENT_PATH.publicId()));
+    }
+
+    @Test
+    void importsEachDescriptionAsItIsRead() throws IOException {
+        assertImports(new DescriptionImport(stamp), "batch size 1");
+    }
+
+    @Test
+    void importsInSessionBatches() throws IOException {
+        assertImports(new DescriptionImport(stamp, 1024), "batch size 1024");
+    }
+
+    private static void assertImports(DescriptionImport descriptionImport, String label) throws IOException {
+        UUID[] concepts = new UUID[CONCEPTS];
+        StringBuilder file = new StringBuilder("# concept\ttype\ttext\n");
+        for (int i = 0; i < CONCEPTS; i++) {
+            concepts[i] = UUID.randomUUID();
+            file.append(concepts[i]).append("\tFQN\tAnalyte ").append(i).append(" [Mass/volume] in Serum\n");
+            for (int j = 1; j < DESCRIPTIONS_PER_CONCEPT; j++) {
+                file.append(concepts[i]).append("\tREGULAR\tAnalyte ").append(i).append(" synonym ").append(j).append('\n');
+            }
+        }
+
+        DescriptionImport.Result result = descriptionImport.importFrom(new StringReader(file.toString()));
+
+        LOG.info("{}: {} entities in {} ms, {} entities/s", label, result.entities(),
+                result.elapsedNanos() / 1_000_000, Math.round(result.entitiesPerSecond()));
+        assertEquals((long) CONCEPTS * DESCRIPTIONS_PER_CONCEPT, result.rows());
+        assertEquals((long) CONCEPTS * (DESCRIPTIONS_PER_CONCEPT + 1), result.entities(),
+                "every concept is created once, alongside its descriptions");
+        assertTrue(result.entitiesPerSecond() > 0);
+        for (UUID concept : concepts) {
+            int nid = EntityService.get().nidForPublicId(PublicIds.of(concept));
+            assertTrue(EntityService.get().getEntity(PublicIds.of(concept).asUuidList()).isPresent());
+            assertEquals(DESCRIPTIONS_PER_CONCEPT, EntityService.get()
+                    .semanticNidsForComponentOfPattern(nid, TinkarTerm.DESCRIPTION_PATTERN.nid()).length);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.data.persistence.test;
+
+import dev.ikm.komet.kview.data.persistence.ConceptWriter;
+import dev.ikm.komet.kview.data.persistence.STAMPWriter;
+import dev.ikm.komet.kview.data.persistence.SemanticWriter;
+import dev.ikm.komet.kview.data.persistence.WriteSession;
+import dev.ikm.komet.kview.data.schema.STAMPDetail;
+import dev.ikm.tinkar.common.id.PublicId;
+import dev.ikm.tinkar.common.id.PublicIds;
+import dev.ikm.tinkar.common.service.CachingService;
+import dev.ikm.tinkar.common.service.PrimitiveData;
+import dev.ikm.tinkar.common.service.ServiceKeys;
+import dev.ikm.tinkar.common.service.ServiceProperties;
+import dev.ikm.tinkar.entity.EntityService;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batching and nid resolution of {@link WriteSession}, against an ephemeral, empty store.
+ */
+class WriteSessionTest {
+
+    private PublicId stamp;
+
+    @BeforeAll
+    static void startEphemeralStore() throws Exception {
+        CachingService.clearAll();
+        ServiceProperties.set(ServiceKeys.DATA_STORE_ROOT,
+                Files.createTempDirectory("write-session-test").toFile());
+        PrimitiveData.selectControllerByName("Load Ephemeral Store");
+        PrimitiveData.start();
+    }
+
+    @AfterAll
+    static void stopStore() {
+        PrimitiveData.stop();
+    }
+
+    @BeforeEach
+    void writeStamp() {
+        stamp = PublicIds.newRandom();
+        new STAMPWriter(stamp).write(new STAMPDetail(TinkarTerm.ACTIVE_STATE.publicId(), System.currentTimeMillis(),
+                TinkarTerm.USER.publicId(), TinkarTerm.PRIMORDIAL_MODULE.publicId(), TinkarTerm.DEVELOPMENT_PATH.publicId()));
+    }
+
+    @Test
+    void entitiesArePutOnceABatchIsFull() {
+        PublicId first = PublicIds.newRandom();
+        PublicId second = PublicIds.newRandom();
+        PublicId third = PublicIds.newRandom();
+        PublicId fourth = PublicIds.newRandom();
+
+        try (WriteSession session = new WriteSession(stamp, 3)) {
+            ConceptWriter conceptWriter = new ConceptWriter(session);
+            conceptWriter.write(first);
+            conceptWriter.write(second);
+            assertFalse(exists(first), "queued until the batch is full");
+            assertFalse(exists(second));
+            assertEquals(0, session.written());
+
+            conceptWriter.write(third);
+            assertTrue(exists(first));
+            assertTrue(exists(second));
+            assertTrue(exists(third));
+            assertEquals(3, session.written());
+
+            conceptWriter.write(fourth);
+            assertFalse(exists(fourth));
+        }
+        assertTrue(exists(fourth), "closing puts the partial batch");
+    }
+
+    @Test
+    void writersWithoutASessionPutEachEntityAsItIsBuilt() {
+        PublicId concept = PublicIds.newRandom();
+        new ConceptWriter(stamp).write(concept);
+        assertTrue(exists(concept));
+
+        PublicId description = PublicIds.newRandom();
+        new SemanticWriter(stamp).description(description, concept,
+                TinkarTerm.REGULAR_NAME_DESCRIPTION_TYPE.publicId(), "Written at once");
+        assertTrue(exists(description));
+    }
+
+    @Test
+    void semanticsReferenceTheResolvedNids() {
+        PublicId concept = PublicIds.newRandom();
+        PublicId description = PublicIds.newRandom();
+
+        try (WriteSession session = new WriteSession(stamp)) {
+            new ConceptWriter(session).write(concept);
+            new SemanticWriter(session).description(description, concept,
+                    TinkarTerm.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE.publicId(), "Glucose [Mass/volume] in Serum");
+            assertFalse(exists(description), "not visible until the session is closed");
+        }
+
+        SemanticEntity<?> semantic = (SemanticEntity<?>) EntityService.get().getEntityFast(
+                EntityService.get().nidForPublicId(description));
+        assertEquals(TinkarTerm.DESCRIPTION_PATTERN.nid(), semantic.patternNid());
+        assertEquals(EntityService.get().nidForPublicId(concept), semantic.referencedComponentNid());
+        SemanticEntityVersion version = semantic.versions().get(0);
+        assertEquals(EntityService.get().nidForPublicId(stamp), version.stampNid());
+        assertEquals("Glucose [Mass/volume] in Serum", version.fieldValues().get(1));
+    }
+
+    @Test
+    void nidsMatchTheEntityService() {
+        UUID uuid = UUID.randomUUID();
+        UUID additionalUuid = UUID.randomUUID();
+
+        try (WriteSession session = new WriteSession(stamp)) {
+            assertEquals(EntityService.get().nidForPublicId(stamp), session.stampNid());
+
+            int nid = session.nid(PublicIds.of(uuid));
+            assertEquals(EntityService.get().nidForPublicId(PublicIds.of(uuid)), nid);
+            assertEquals(nid, session.nid(PublicIds.of(uuid)), "a new public id with the same UUID resolves the same");
+
+            // Every UUID of a public id with several is registered with the entity service
+            int multipleNid = session.nid(PublicIds.of(UUID.randomUUID(), additionalUuid));
+            assertEquals(multipleNid, EntityService.get().nidForPublicId(PublicIds.of(additionalUuid)));
+        }
+    }
+
+    @Test
+    void batchSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new WriteSession(stamp, 0));
+    }
+
+    private static boolean exists(PublicId publicId) {
+        return EntityService.get().getEntity(publicId.asUuidList()).isPresent();
+    }
+}
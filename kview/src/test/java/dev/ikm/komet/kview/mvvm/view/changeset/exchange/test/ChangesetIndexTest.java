@@ -0,0 +1,147 @@
+package dev.ikm.komet.kview.mvvm.view.changeset.exchange.test;
+
+import dev.ikm.komet.kview.mvvm.view.changeset.exchange.ChangesetIndex;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangesetIndexTest {
+
+    @Test
+    public void onlyValidChangesetsAreListedAndEachArchiveIsOpenedOnce(@TempDir Path folder) throws IOException {
+        Files.createDirectories(folder.resolve(".git"));
+        changeset(folder.resolve("b ike-cs.zip"), true);
+        changeset(folder.resolve("user/a ike-cs.zip"), true);
+        changeset(folder.resolve("partial ike-cs.zip"), false);
+        Files.writeString(folder.resolve("README.md"), "readme");
+        List<Path> opened = new ArrayList<>();
+        ChangesetIndex index = index(folder, opened);
+
+        assertEquals(List.of("b ike-cs.zip", "user/a ike-cs.zip"), index.validChangesets().castToList());
+        assertEquals(3, opened.size());
+
+        opened.clear();
+        assertEquals(List.of("b ike-cs.zip", "user/a ike-cs.zip"), index.validChangesets().castToList());
+        assertTrue(opened.isEmpty(), "unchanged archives should not be opened again");
+
+        changeset(folder.resolve("c ike-cs.zip"), true);
+        assertEquals(List.of("b ike-cs.zip", "c ike-cs.zip", "user/a ike-cs.zip"), index.validChangesets().castToList());
+        assertEquals(List.of(folder.resolve("c ike-cs.zip")), opened);
+    }
+
+    @Test
+    public void theIndexIsPersistedInTheGitDirectory(@TempDir Path folder) throws IOException {
+        Files.createDirectories(folder.resolve(".git"));
+        changeset(folder.resolve("a ike-cs.zip"), true);
+        changeset(folder.resolve("b ike-cs.zip"), true);
+        List<Path> opened = new ArrayList<>();
+        index(folder, opened).validChangesets();
+        assertTrue(Files.isRegularFile(folder.resolve(".git").resolve(ChangesetIndex.FILE_NAME)));
+
+        opened.clear();
+        assertEquals(List.of("a ike-cs.zip", "b ike-cs.zip"), index(folder, opened).validChangesets().castToList());
+        assertTrue(opened.isEmpty(), "a new index should reuse the persisted verdicts");
+    }
+
+    @Test
+    public void pushedChangesetsAreNoLongerPendingUntilTheyChange(@TempDir Path folder) throws IOException {
+        Files.createDirectories(folder.resolve(".git"));
+        Path a = changeset(folder.resolve("a ike-cs.zip"), true);
+        changeset(folder.resolve("b ike-cs.zip"), true);
+        List<Path> opened = new ArrayList<>();
+        ChangesetIndex index = index(folder, opened);
+
+        assertEquals(List.of("a ike-cs.zip", "b ike-cs.zip"), index.pendingChangesets().castToList());
+        index.markPushed(List.of("a ike-cs.zip"));
+        assertEquals(List.of("b ike-cs.zip"), index.pendingChangesets().castToList());
+        assertEquals(List.of("b ike-cs.zip"), index(folder, opened).pendingChangesets().castToList(),
+                "the pushed flag should survive a restart");
+
+        opened.clear();
+        changeset(a, true);
+        Files.setLastModifiedTime(a, FileTime.fromMillis(Files.getLastModifiedTime(a).toMillis() + 10_000));
+        assertEquals(List.of("a ike-cs.zip", "b ike-cs.zip"), index.pendingChangesets().castToList());
+        assertEquals(List.of(a), opened);
+    }
+
+    @Test
+    public void deletedArchivesDropOutAndSingleArchivesCanBeChecked(@TempDir Path folder) throws IOException {
+        Files.createDirectories(folder.resolve(".git"));
+        Path a = changeset(folder.resolve("a ike-cs.zip"), true);
+        changeset(folder.resolve("b ike-cs.zip"), false);
+        List<Path> opened = new ArrayList<>();
+        ChangesetIndex index = index(folder, opened);
+
+        assertTrue(index.isValid("a ike-cs.zip"));
+        assertFalse(index.isValid("b ike-cs.zip"));
+        assertFalse(index.isValid("missing ike-cs.zip"));
+        assertEquals(List.of("a ike-cs.zip"), index.validChangesets().castToList());
+        assertEquals(2, opened.size(), "archives checked one at a time should not be opened again by a scan");
+
+        Files.delete(a);
+        assertTrue(index.validChangesets().isEmpty());
+    }
+
+    @Test
+    public void changesetsAlreadyOnTheRemoteAreNotPendingWhenFirstIndexed(@TempDir Path folder) throws Exception {
+        try (Git git = Git.init().setDirectory(folder.toFile()).setInitialBranch("main").call()) {
+            changeset(folder.resolve("user/pushed ike-cs.zip"), true);
+            git.add().addFilepattern("user/pushed ike-cs.zip").call();
+            RevCommit commit = git.commit().setMessage("pushed before the index existed")
+                    .setAuthor("Test", "test@example.com").setCommitter("Test", "test@example.com")
+                    .setSign(false).call();
+            RefUpdate remoteBranch = git.getRepository().updateRef("refs/remotes/origin/main");
+            remoteBranch.setNewObjectId(commit);
+            remoteBranch.update();
+        }
+        changeset(folder.resolve("user/local ike-cs.zip"), true);
+
+        ChangesetIndex index = new ChangesetIndex(folder, folder.resolve(".git").resolve(ChangesetIndex.FILE_NAME),
+                ChangesetIndex::hasManifest, () -> ChangesetIndex.remoteChangesets(folder));
+
+        assertEquals(List.of("user/local ike-cs.zip", "user/pushed ike-cs.zip"), index.validChangesets().castToList());
+        assertEquals(List.of("user/local ike-cs.zip"), index.pendingChangesets().castToList());
+    }
+
+    private static ChangesetIndex index(Path folder, List<Path> opened) {
+        Predicate<Path> validator = file -> {
+            opened.add(file);
+            return ChangesetIndex.hasManifest(file);
+        };
+        return new ChangesetIndex(folder, folder.resolve(".git").resolve(ChangesetIndex.FILE_NAME), validator);
+    }
+
+    private static Path changeset(Path file, boolean withManifest) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            if (withManifest) {
+                zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+                zip.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("entities.pb"));
+            zip.write(new byte[]{1, 2, 3});
+            zip.closeEntry();
+        }
+        return file;
+    }
+}
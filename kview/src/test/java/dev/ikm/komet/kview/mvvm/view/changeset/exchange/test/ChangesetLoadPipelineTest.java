@@ -0,0 +1,137 @@
+package dev.ikm.komet.kview.mvvm.view.changeset.exchange.test;
+
+import dev.ikm.komet.kview.mvvm.view.changeset.exchange.ChangesetLoadPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangesetLoadPipelineTest {
+
+    @Test
+    public void appliesEveryFileInTheGivenOrder(@TempDir Path folder) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(changeset(folder, "User (SOLOR) 202508%02dT123305EDT ike-cs.zip".formatted(i + 1), 1 + i * 1000));
+        }
+        List<String> applied = new CopyOnWriteArrayList<>();
+        List<Integer> reported = new ArrayList<>();
+
+        List<ChangesetLoadPipeline.Outcome<String>> outcomes = new ChangesetLoadPipeline<String>(
+                file -> {
+                    applied.add(file.getName());
+                    return file.getName();
+                },
+                () -> false,
+                (index, total, outcome) -> reported.add(index),
+                3).load(files);
+
+        assertEquals(files.stream().map(file -> file.getFileName().toString()).toList(), applied);
+        assertEquals(20, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(ChangesetLoadPipeline.Outcome::succeeded));
+        assertEquals(outcomes.get(5).file().getFileName().toString(), outcomes.get(5).result().orElseThrow());
+        assertEquals(IntStream.range(0, 20).boxed().toList(), reported);
+        assertTrue(outcomes.get(19).metrics().uncompressedBytes() > outcomes.get(0).metrics().uncompressedBytes(),
+                "each file's metrics should describe that file");
+    }
+
+    @Test
+    public void aTruncatedArchiveIsReportedWithoutBeingAppliedAndTheRestStillLoad(@TempDir Path folder) throws IOException {
+        Path first = changeset(folder, "a ike-cs.zip", 1000);
+        Path truncated = changeset(folder, "b ike-cs.zip", 100_000);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        Path last = changeset(folder, "c ike-cs.zip", 1000);
+        List<File> applied = new ArrayList<>();
+
+        List<ChangesetLoadPipeline.Outcome<File>> outcomes = new ChangesetLoadPipeline<File>(
+                file -> {
+                    applied.add(file);
+                    return file;
+                },
+                () -> false,
+                (index, total, outcome) -> { },
+                2).load(List.of(first, truncated, last));
+
+        assertEquals(List.of(first.toFile(), last.toFile()), applied);
+        assertTrue(outcomes.get(0).succeeded());
+        assertFalse(outcomes.get(1).succeeded());
+        assertTrue(outcomes.get(2).succeeded());
+    }
+
+    @Test
+    public void aFailedApplyIsReportedAndTheRestStillLoad(@TempDir Path folder) throws IOException {
+        Path first = changeset(folder, "a ike-cs.zip", 10);
+        Path second = changeset(folder, "b ike-cs.zip", 10);
+
+        List<ChangesetLoadPipeline.Outcome<String>> outcomes = new ChangesetLoadPipeline<String>(
+                file -> {
+                    if (file.getName().startsWith("a")) {
+                        throw new IllegalStateException("store rejected " + file.getName());
+                    }
+                    return file.getName();
+                },
+                () -> false,
+                (index, total, outcome) -> { }).load(List.of(first, second));
+
+        assertTrue(outcomes.get(0).failure().orElseThrow() instanceof IllegalStateException);
+        assertEquals("b ike-cs.zip", outcomes.get(1).result().orElseThrow());
+    }
+
+    @Test
+    public void cancellationStopsBeforeTheNextFile(@TempDir Path folder) throws IOException {
+        List<Path> files = List.of(changeset(folder, "a ike-cs.zip", 10), changeset(folder, "b ike-cs.zip", 10),
+                changeset(folder, "c ike-cs.zip", 10));
+        List<String> applied = new ArrayList<>();
+
+        List<ChangesetLoadPipeline.Outcome<String>> outcomes = new ChangesetLoadPipeline<String>(
+                file -> {
+                    applied.add(file.getName());
+                    return file.getName();
+                },
+                () -> applied.size() >= 2,
+                (index, total, outcome) -> { }).load(files);
+
+        assertEquals(List.of("a ike-cs.zip", "b ike-cs.zip"), applied);
+        assertEquals(2, outcomes.size());
+    }
+
+    @Test
+    public void readAheadMustBePositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChangesetLoadPipeline<String>(file -> "", () -> false, (index, total, outcome) -> { }, 0));
+    }
+
+    private static Path changeset(Path folder, String name, int records) throws IOException {
+        Path file = folder.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("Entities"));
+            for (int i = 0; i < records; i++) {
+                // incompressible enough that truncating the file really cuts into this entry
+                zip.write(Integer.toHexString(i * 0x9E3779B1).getBytes(StandardCharsets.UTF_8));
+            }
+            zip.closeEntry();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.journal.test;
+
+import dev.ikm.komet.kview.klwindows.ChapterKlWindow;
+import dev.ikm.komet.kview.klwindows.EntityKlWindowState;
+import dev.ikm.komet.kview.klwindows.EntityKlWindowType;
+import dev.ikm.komet.kview.klwindows.EntityKlWindowTypes;
+import dev.ikm.komet.kview.klwindows.PendingKlWindow;
+import dev.ikm.komet.kview.mvvm.view.journal.JournalWindowRestorer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.Event;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the order in which {@link JournalWindowRestorer} restores saved windows, and that each restored
+ * window takes its placeholder's place in the window list.
+ */
+@ExtendWith(ApplicationExtension.class)
+public class JournalWindowRestorerUTestFX {
+
+    private final ObservableList<ChapterKlWindow<Pane>> windows = FXCollections.observableArrayList();
+    private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+    private final List<String> realized = new ArrayList<>();
+    private Bounds viewport;
+    private JournalWindowRestorer restorer;
+
+    @BeforeEach
+    void setup() {
+        viewport = new BoundingBox(1000, 1000, 800, 600);
+        restorer = new JournalWindowRestorer(windows, () -> viewport, fxQueue::add,
+                pending -> {
+                    realized.add(pending.windowId());
+                    // A second pending window stands in for the restored window
+                    return new PendingKlWindow(pending.windowId(), null, pending.savedState(), null);
+                },
+                (window, index) -> windows.add(index, window));
+    }
+
+    @Test
+    public void windowsNearestTheViewportAreRestoredFirst() {
+        restorer.addPending(pending("far", 0, 0));
+        restorer.addPending(pending("farthest", 4000, 4000));
+        restorer.addPending(pending("right", 2000, 1100));
+        restorer.addPending(pending("inView", 1200, 1100));
+
+        restorer.start();
+        runNext();
+        runNext();
+        assertEquals(List.of("inView", "right"), realized);
+
+        // Scrolling reprioritizes the windows still pending
+        viewport = new BoundingBox(3800, 3800, 800, 600);
+        runNext();
+        runNext();
+        assertEquals(List.of("inView", "right", "farthest", "far"), realized);
+        assertTrue(fxQueue.isEmpty(), "nothing is scheduled once every window is restored");
+    }
+
+    @Test
+    public void restoredWindowsKeepTheSavedOrder() {
+        List<PendingKlWindow> placeholders = List.of(pending("a", 4000, 4000), pending("b", 0, 0),
+                pending("c", 1200, 1100), pending("d", 2000, 1100));
+        placeholders.forEach(restorer::addPending);
+        List<UUID> savedOrder = windows.stream().map(ChapterKlWindow::getWindowTopic).toList();
+
+        restorer.start();
+        while (!fxQueue.isEmpty()) {
+            runNext();
+            assertEquals(savedOrder, windows.stream().map(ChapterKlWindow::getWindowTopic).toList(),
+                    "after restoring " + realized);
+        }
+
+        assertEquals(List.of("c", "d", "b", "a"), realized);
+        for (int i = 0; i < placeholders.size(); i++) {
+            assertNotSame(placeholders.get(i), windows.get(i), "placeholder " + i + " was replaced");
+        }
+    }
+
+    @Test
+    public void pressingAPlaceholderRestoresItAtOnce() {
+        PendingKlWindow inView = pending("inView", 1200, 1100);
+        PendingKlWindow far = pending("far", 4000, 4000);
+        restorer.addPending(inView);
+        restorer.addPending(far);
+
+        Event.fireEvent(far.fxObject(), new MouseEvent(MouseEvent.MOUSE_PRESSED, 0, 0, 0, 0,
+                MouseButton.PRIMARY, 1, false, false, false, false, true, false, false,
+                false, false, false, null));
+
+        assertEquals(List.of("far"), realized);
+        assertSame(inView, windows.get(0));
+        assertNotSame(far, windows.get(1));
+
+        // Pressing it again, or restoring it by type, does not restore it twice
+        Event.fireEvent(far.fxObject(), new MouseEvent(MouseEvent.MOUSE_PRESSED, 0, 0, 0, 0,
+                MouseButton.PRIMARY, 1, false, false, false, false, true, false, false,
+                false, false, false, null));
+        restorer.realizeMatching(_ -> true);
+        assertEquals(List.of("far", "inView"), realized);
+    }
+
+    @Test
+    public void matchingPlaceholdersAreRestoredInPlace() {
+        restorer.addPending(pending("concept", 1200, 1100));
+        restorer.addPending(pending("pattern", 4000, 4000, EntityKlWindowTypes.PATTERN));
+        restorer.addPending(pending("concept2", 0, 0));
+
+        restorer.realizeMatching(window -> window.getWindowType() == EntityKlWindowTypes.PATTERN);
+
+        assertEquals(List.of("pattern"), realized);
+        assertEquals(3, windows.size());
+        assertTrue(fxQueue.isEmpty(), "restoring on demand does not start the restorer");
+    }
+
+    @Test
+    public void cancellingLeavesThePlaceholdersInPlace() {
+        PendingKlWindow first = pending("first", 1200, 1100);
+        PendingKlWindow second = pending("second", 0, 0);
+        restorer.addPending(first);
+        restorer.addPending(second);
+
+        restorer.start();
+        restorer.cancel();
+        runNext();
+
+        assertTrue(realized.isEmpty());
+        assertEquals(List.of(first, second), windows);
+        assertTrue(fxQueue.isEmpty());
+    }
+
+    @Test
+    public void aWindowThatFailsToRestoreDoesNotStopTheOthers() {
+        JournalWindowRestorer failing = new JournalWindowRestorer(windows, () -> viewport, fxQueue::add,
+                pending -> {
+                    realized.add(pending.windowId());
+                    if (pending.windowId().equals("broken")) {
+                        throw new IllegalStateException("cannot restore " + pending.windowId());
+                    }
+                    return new PendingKlWindow(pending.windowId(), null, pending.savedState(), null);
+                },
+                (window, index) -> windows.add(index, window));
+        failing.addPending(pending("broken", 1200, 1100));
+        failing.addPending(pending("fine", 0, 0));
+
+        failing.start();
+        runNext();
+        runNext();
+
+        assertEquals(List.of("broken", "fine"), realized);
+        assertEquals(1, windows.size());
+        assertTrue(fxQueue.isEmpty());
+    }
+
+    private void runNext() {
+        fxQueue.remove().run();
+    }
+
+    private static PendingKlWindow pending(String windowId, double x, double y) {
+        return pending(windowId, x, y, EntityKlWindowTypes.CONCEPT);
+    }
+
+    private static PendingKlWindow pending(String windowId, double x, double y, EntityKlWindowType type) {
+        EntityKlWindowState state = EntityKlWindowState.builder()
+                .windowId(UUID.randomUUID())
+                .windowType(type)
+                .position(x, y)
+                .size(400, 300)
+                .build();
+        return new PendingKlWindow(windowId, null, state, null);
+    }
+}
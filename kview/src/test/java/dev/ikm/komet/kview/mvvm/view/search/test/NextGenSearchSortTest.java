@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.search.test;
+
+import dev.ikm.tinkar.common.service.RemoteConceptSearchService.SortOption;
+import org.junit.jupiter.api.Test;
+
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.BUTTON_TEXT_DESCRIPTION_SEMANTIC;
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA;
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.BUTTON_TEXT_TOP_COMPONENT;
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.BUTTON_TEXT_TOP_COMPONENT_ALPHA;
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.isSemanticSort;
+import static dev.ikm.komet.kview.mvvm.view.search.NextGenSearchController.remoteSortOption;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The sort order a remote search is run with for each choice of the sort button.
+ */
+public class NextGenSearchSortTest {
+
+    @Test
+    public void eachSortButtonChoiceSelectsItsRemoteSortOrder() {
+        assertEquals(SortOption.TOP_COMPONENT, remoteSortOption(BUTTON_TEXT_TOP_COMPONENT));
+        assertEquals(SortOption.TOP_COMPONENT_ALPHA, remoteSortOption(BUTTON_TEXT_TOP_COMPONENT_ALPHA));
+        assertEquals(SortOption.SEMANTIC, remoteSortOption(BUTTON_TEXT_DESCRIPTION_SEMANTIC));
+        assertEquals(SortOption.SEMANTIC_ALPHA, remoteSortOption(BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA));
+    }
+
+    @Test
+    public void anyOtherTextSortsRemoteResultsByTopComponent() {
+        assertEquals(SortOption.TOP_COMPONENT, remoteSortOption(""));
+        assertEquals(SortOption.TOP_COMPONENT, remoteSortOption("SORT BY"));
+        assertFalse(isSemanticSort(remoteSortOption("")));
+    }
+
+    @Test
+    public void onlyTheDescriptionSemanticChoicesReturnSemantics() {
+        assertFalse(isSemanticSort(remoteSortOption(BUTTON_TEXT_TOP_COMPONENT)));
+        assertFalse(isSemanticSort(remoteSortOption(BUTTON_TEXT_TOP_COMPONENT_ALPHA)));
+        assertTrue(isSemanticSort(remoteSortOption(BUTTON_TEXT_DESCRIPTION_SEMANTIC)));
+        assertTrue(isSemanticSort(remoteSortOption(BUTTON_TEXT_DESCRIPTION_SEMANTIC_ALPHA)));
+    }
+}
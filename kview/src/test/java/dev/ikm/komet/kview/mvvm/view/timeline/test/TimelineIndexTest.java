@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.kview.mvvm.view.timeline.test;
+
+import dev.ikm.komet.kview.mvvm.view.timeline.TimelineIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimelineIndexTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final int CORE = 11;
+    private static final int EXTENSION = 12;
+
+    @Test
+    public void rowsAreSortedByTimeAndDuplicatePositionsCollapse() {
+        TimelineIndex index = new TimelineIndex.Builder(ZONE)
+                .add(null, 3, millis(2021, 5, 1, 9), "Main", CORE)
+                .add(null, 1, millis(2019, 2, 3, 8), "Main", CORE)
+                .add(null, 2, millis(2020, 7, 4, 12), "Development", EXTENSION)
+                // a description committed with the concept shares its stamp
+                .add(null, 1, millis(2019, 2, 3, 8), "Main", CORE)
+                .build();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("Development", "Main"), index.pathNames());
+        assertEquals(1, index.stampNid(0));
+        assertEquals(2, index.stampNid(1));
+        assertEquals(3, index.stampNid(2));
+        assertEquals(2019, index.year(0));
+        assertEquals(millis(2019, 2, 3, 0), index.day(0));
+        assertEquals(index.pathOrdinal("Development"), index.pathOrdinalOf(1));
+        assertEquals(-1, index.pathOrdinal("Unknown"));
+    }
+
+    @Test
+    public void pathsListTheirModulesInOrder() {
+        TimelineIndex index = new TimelineIndex.Builder(ZONE)
+                .add(null, 1, millis(2019, 1, 1, 8), "Main", EXTENSION)
+                .add(null, 2, millis(2019, 1, 2, 8), "Main", CORE)
+                .add(null, 3, millis(2019, 1, 3, 8), "Development", EXTENSION)
+                .build();
+
+        LinkedHashMap<String, List<Integer>> expected = new LinkedHashMap<>();
+        expected.put("Development", List.of(EXTENSION));
+        expected.put("Main", List.of(CORE, EXTENSION));
+        assertEquals(expected, index.pathModules());
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(index.pathModules().keySet()));
+        int main = index.pathOrdinal("Main");
+        assertEquals(0, index.moduleOrdinal(main, CORE));
+        assertEquals(1, index.moduleOrdinal(main, EXTENSION));
+        assertEquals(-1, index.moduleOrdinal(index.pathOrdinal("Development"), CORE));
+    }
+
+    @Test
+    public void rowsAreFilteredByPathModuleAndDateRange() {
+        TimelineIndex index = new TimelineIndex.Builder(ZONE)
+                .add(null, 1, millis(2019, 1, 1, 8), "Main", CORE)
+                .add(null, 2, millis(2020, 1, 1, 8), "Main", EXTENSION)
+                .add(null, 3, millis(2021, 1, 1, 8), "Main", CORE)
+                .add(null, 4, millis(2022, 1, 1, 8), "Development", CORE)
+                .add(null, 5, millis(2023, 1, 1, 8), "Main", CORE)
+                .build();
+        int main = index.pathOrdinal("Main");
+
+        assertArrayEquals(new int[] {1, 3, 5}, stamps(index, index.rows(main, CORE, Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertArrayEquals(new int[] {3}, stamps(index, index.rows(main, CORE, millis(2020, 1, 1, 0), millis(2022, 12, 31, 0))));
+        assertArrayEquals(new int[] {1}, stamps(index, index.rows(main, CORE, millis(2019, 1, 1, 8), millis(2019, 1, 1, 8))));
+        assertArrayEquals(new int[0], index.rows(-1, CORE, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void datePointsAreDistinctDaysOfTheSelectedModules() {
+        TimelineIndex index = new TimelineIndex.Builder(ZONE)
+                .add(null, 1, millis(2019, 1, 1, 8), "Main", CORE)
+                .add(null, 2, millis(2019, 1, 1, 17), "Main", EXTENSION)
+                .add(null, 3, millis(2019, 3, 1, 8), "Main", EXTENSION)
+                .add(null, 4, millis(2019, 4, 1, 8), "Main", CORE)
+                .add(null, 5, millis(2019, 5, 1, 8), "Development", CORE)
+                .build();
+        int main = index.pathOrdinal("Main");
+
+        assertArrayEquals(new long[] {millis(2019, 1, 1, 0), millis(2019, 3, 1, 0), millis(2019, 4, 1, 0)},
+                index.datePoints(main, new int[] {CORE, EXTENSION}));
+        assertArrayEquals(new long[] {millis(2019, 1, 1, 0), millis(2019, 4, 1, 0)},
+                index.datePoints(main, new int[] {CORE}));
+        assertEquals(millis(2019, 1, 1, 0), index.startOfYear(2019));
+        assertEquals(2019, index.yearOf(millis(2019, 12, 31, 23)));
+    }
+
+    private static int[] stamps(TimelineIndex index, int[] rows) {
+        int[] stamps = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            stamps[i] = index.stampNid(rows[i]);
+        }
+        return stamps;
+    }
+
+    private static long millis(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -22,6 +22,8 @@
     requires dev.ikm.komet.framework;
     requires dev.ikm.komet.kview;
     requires dev.ikm.tinkar.entity;
+    requires dev.ikm.tinkar.common;
+    requires dev.ikm.tinkar.terms;
     requires org.carlfx.axonic;
     requires org.carlfx.cognitive;
 
@@ -36,6 +38,7 @@
     requires org.junit.jupiter.params;
     requires org.junit.jupiter.api;
     requires one.jpro.platform.auth.core;
+    requires org.eclipse.jgit;
     opens dev.ikm.komet.kview.state.test to org.junit.platform.commons;
 
     exports dev.ikm.komet.kview.state.test;
@@ -45,5 +48,23 @@
     exports dev.ikm.komet.kview.mvvm.view.changeset.exchange.test;
     opens dev.ikm.komet.kview.mvvm.view.changeset.exchange.test;
 
+    exports dev.ikm.komet.kview.mvvm.view.timeline.test;
+    opens dev.ikm.komet.kview.mvvm.view.timeline.test;
+
+    exports dev.ikm.komet.kview.mvvm.view.journal.test;
+    opens dev.ikm.komet.kview.mvvm.view.journal.test;
+
+    exports dev.ikm.komet.kview.mvvm.view.search.test;
+    opens dev.ikm.komet.kview.mvvm.view.search.test;
+
+    exports dev.ikm.komet.kview.controls.test;
+    opens dev.ikm.komet.kview.controls.test;
+
+    exports dev.ikm.komet.kview.controls.skin;
+    opens dev.ikm.komet.kview.controls.skin;
+
+    exports dev.ikm.komet.kview.data.persistence.test;
+    opens dev.ikm.komet.kview.data.persistence.test;
+
     uses dev.ikm.tinkar.events.EvtBus;
 }
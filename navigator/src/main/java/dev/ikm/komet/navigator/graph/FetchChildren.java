@@ -20,35 +20,73 @@
 import dev.ikm.tinkar.common.alert.AlertStreams;
 import dev.ikm.tinkar.common.service.TinkExecutor;
 import dev.ikm.tinkar.common.service.TrackingCallable;
-import dev.ikm.tinkar.common.util.thread.TaskCountManager;
+import dev.ikm.tinkar.common.util.text.NaturalOrder;
 import dev.ikm.tinkar.coordinate.navigation.calculator.Edge;
 import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
 import dev.ikm.tinkar.entity.ConceptEntity;
 import dev.ikm.tinkar.entity.Entity;
 import dev.ikm.tinkar.terms.ConceptFacade;
 import javafx.application.Platform;
-import org.eclipse.collections.api.collection.ImmutableCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
 
 /**
- *
+ * Loads the children of a vertex in the graph navigator.
+ * <p>
+ * Children are processed in chunks of {@link #CHUNK_SIZE} edges rather than one thread pool task per
+ * child, so expanding a concept with tens of thousands of children does not flood the pool. The load
+ * runs in two passes:
+ * <ol>
+ *     <li>the description text of every child is resolved, chunk by chunk in parallel, and the children
+ *     are sorted once on that text, in the same order {@link MultiParentVertexImpl#compareTo} uses. The
+ *     resolved text is handed to each vertex, so it is not looked up a second time;</li>
+ *     <li>vertices are built, with their defined and multi-parent flags, chunk by chunk in sorted order.
+ *     The first chunk is built on this thread and shown as soon as it is ready; later chunks are
+ *     appended to the tree as they complete, so the visible page appears before the rest finishes.</li>
+ * </ol>
+ * Cancelling the fetcher, or replacing it with a new fetcher for the same parent, also cancels any chunk
+ * tasks still queued in the pool.
  */
 public class FetchChildren extends TrackingCallable<Void> {
     private static final Logger LOG = LoggerFactory.getLogger(FetchChildren.class);
     private static final AtomicInteger FETCHER_SEQUENCE = new AtomicInteger(1);
     private static final ConcurrentHashMap<Integer, FetchChildren> FETCHER_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * Number of child edges handled by one thread pool task; also the size of the first page shown.
+     */
+    public static final int CHUNK_SIZE = 256;
+
+    static final Comparator<ChildKey> CHILD_ORDER = (k1, k2) -> {
+        int compare = NaturalOrder.compareStrings(k1.text(), k2.text());
+        if (compare != 0) {
+            return compare;
+        }
+        return Integer.compare(k1.nid(), k2.nid());
+    };
+
     private final CountDownLatch childrenLoadedLatch;
     private final MultiParentVertexImpl parentGraphItem;
     private final int fetcherId = FETCHER_SEQUENCE.incrementAndGet();
     private final String parentName;
     private final ViewCalculator viewCalculator;
+    private final Queue<Future<?>> outstandingChunks = new ConcurrentLinkedQueue<>();
     private int childrenFound = 0;
 
     public FetchChildren(CountDownLatch childrenLoadedLatch,
@@ -67,7 +105,7 @@ public FetchChildren(CountDownLatch childrenLoadedLatch,
         FetchChildren oldFetcher = FETCHER_MAP.put(parentGraphItem.getValue().nid(), this);
 
         if (oldFetcher != null) {
-            oldFetcher.cancel();  //Interrupts are bad for code that uses NIO.
+            oldFetcher.cancelFetch();  //Interrupts are bad for code that uses NIO.
         }
     }
 
@@ -79,80 +117,181 @@ public Void compute() throws Exception {
             if (conceptFacade == null) {
                 LOG.debug("addChildren(): ConceptEntity={}", conceptFacade);
             } else {  // if (ConceptEntity != null)
-                // Gather the children
-                ConcurrentSkipListSet<MultiParentVertexImpl> childrenToAdd = new ConcurrentSkipListSet<>();
                 Navigator navigator = parentGraphItem.getGraphController().getNavigator();
                 ObservableView observableView = parentGraphItem.getGraphController().getObservableView();
-                ImmutableCollection<Edge> children = navigator.getChildEdges(conceptFacade.nid());
+                Edge[] children = navigator.getChildEdges(conceptFacade.nid()).toArray(new Edge[0]);
+                int chunkCount = chunkCount(children.length);
 
-                addToTotalWork(children.size() + 1);
+                addToTotalWork(totalWork(chunkCount));
 
-                TaskCountManager taskCountManager = TaskCountManager.get();
-                for (Edge childLink : children) {
-                    taskCountManager.acquire();
-                    TinkExecutor.threadPool().execute(() -> {
+                // Pass 1: resolve sort keys in parallel, then sort once.
+                int[] childNids = new int[children.length];
+                for (int i = 0; i < children.length; i++) {
+                    childNids[i] = children[i].destinationNid();
+                }
+                ChildKey[] keys = resolveSortKeys(childNids, observableView::getDescriptionTextOrNid,
+                        TinkExecutor.threadPool(), outstandingChunks, this::isCancelled, this::completedUnitOfWork);
+                if (keys == null) return null;
+
+                // Pass 2: build vertices chunk by chunk in sorted order, streaming each chunk to the tree.
+                List<Future<List<MultiParentVertexImpl>>> vertexChunks = new ArrayList<>(chunkCount);
+                for (int chunk = 1; chunk < chunkCount; chunk++) {
+                    final int from = chunk * CHUNK_SIZE;
+                    final int to = Math.min(from + CHUNK_SIZE, keys.length);
+                    Future<List<MultiParentVertexImpl>> vertexChunk =
+                            TinkExecutor.threadPool().submit(() -> buildChildren(navigator, children, keys, from, to));
+                    outstandingChunks.add(vertexChunk);
+                    vertexChunks.add(vertexChunk);
+                }
+                List<MultiParentVertexImpl> firstPage = buildChildren(navigator, children, keys, 0, Math.min(CHUNK_SIZE, keys.length));
+                completedUnitOfWork();
+                if (isCancelled()) return null;
+                childrenFound = firstPage.size();
+                Platform.runLater(() -> {
+                    if (!FetchChildren.this.isCancelled()) {
+                        LOG.trace("Adding first children for: " + parentGraphItem.getValue().nid()
+                                + " from: " + fetcherId);
+                        parentGraphItem.getChildren().setAll(firstPage);
                         try {
-                            ConceptEntity childChronology = Entity.getFast(childLink.destinationNid());
-                            MultiParentVertexImpl childItem = new MultiParentVertexImpl(childChronology, parentGraphItem.getGraphController(), childLink.typeNids(), null);
-                            try {
-                                childItem.setDefined(this.viewCalculator.hasSufficientSet(childChronology));
-                            } catch (Throwable e) {
-                                // TODO remove when better handling for: More than one set of axioms for concept: ConceptRecord{SNOMED CT July 2002 Release: 20020731 [R] <-2142333838>
-                                // dev.ikm.tinkar.coordinate.logic.calculator.LogicCalculatorWithCache.hasSufficientSet(LogicCalculatorWithCache.java:101)
-                                AlertStreams.dispatchToRoot(e);
-                            }
-                            childItem.toString();
-                            childItem.setMultiParent(navigator.getParentNids(childLink.destinationNid()).length > 1);
-                            childItem.isLeaf();
-
-                            if (childItem.shouldDisplay()) {
-                                childrenToAdd.add(childItem);
-                            } else {
-                                LOG.debug(
-                                        "item.shouldDisplay() == false: not adding " + childItem.getConceptPublicId() + " as child of "
-                                                + parentGraphItem.getConceptPublicId());
-                            }
-                        } finally {
-                            taskCountManager.release();
+                            parentGraphItem.setExpanded(true);
+                        } catch (IllegalStateException e) {
+                            LOG.error("IllegalStateException checking leaf", e);
                         }
-                    });
-
+                    }
+                });
+                for (Future<List<MultiParentVertexImpl>> vertexChunk : vertexChunks) {
+                    List<MultiParentVertexImpl> page = vertexChunk.get();
                     completedUnitOfWork();
                     if (isCancelled()) return null;
+                    childrenFound += page.size();
+                    Platform.runLater(() -> {
+                        if (!FetchChildren.this.isCancelled()) {
+                            parentGraphItem.getChildren().addAll(page);
+                        }
+                    });
                 }
-                taskCountManager.waitForCompletion();
-                if (isCancelled()) return null;
-                Platform.runLater(
-                        () -> {
-                            if (!FetchChildren.this.isCancelled()) {
-                                LOG.trace("Adding children for: " + parentGraphItem.getValue().nid()
-                                        + " from: " + fetcherId);
-                                parentGraphItem.getChildren().setAll(childrenToAdd);
-                                try {
-                                    parentGraphItem.setExpanded(true);
-                                } catch (IllegalStateException e) {
-                                    LOG.error("IllegalStateException checking leaf", e);
-                                }
-                                completedUnitOfWork();
-                            }
-
-                        });
-
-                childrenFound = childrenToAdd.size();
+                Platform.runLater(() -> {
+                    if (!FetchChildren.this.isCancelled()) {
+                        completedUnitOfWork();
+                    }
+                });
             }
             updateTitle("Fetched " + childrenFound + " children for " + this.parentName);
             updateMessage("In " + durationString());
             return null;
         } finally {
             childrenLoadedLatch.countDown();
-            FETCHER_MAP.remove(parentGraphItem.getValue().nid());
+            FETCHER_MAP.remove(parentGraphItem.getValue().nid(), this);
             if (FetchChildren.this.isCancelled()) {
+                cancelOutstandingChunks();
                 LOG.debug("Canceled Adding children for: " + parentGraphItem.getValue().nid()
                         + " from: " + fetcherId);
             } else {
                 LOG.trace("Finished Adding children for: " + parentGraphItem.getValue().nid()
                         + " from: " + fetcherId);
             }
+            outstandingChunks.clear();
+        }
+    }
+
+    /**
+     * Cancels this fetcher and the chunk tasks it has submitted to the thread pool, so chunks
+     * nobody will display are not built.
+     */
+    private void cancelFetch() {
+        cancel();
+        cancelOutstandingChunks();
+    }
+
+    private void cancelOutstandingChunks() {
+        for (Future<?> chunk : outstandingChunks) {
+            chunk.cancel(false);
         }
     }
+
+    /**
+     * Builds the displayable vertices for {@code keys[from, to)}, preserving their order.
+     */
+    private List<MultiParentVertexImpl> buildChildren(Navigator navigator, Edge[] children, ChildKey[] keys, int from, int to) {
+        List<MultiParentVertexImpl> childrenToAdd = new ArrayList<>(to - from);
+        for (int i = from; i < to && !isCancelled(); i++) {
+            Edge childLink = children[keys[i].index()];
+            ConceptEntity childChronology = Entity.getFast(childLink.destinationNid());
+            MultiParentVertexImpl childItem = new MultiParentVertexImpl(childChronology,
+                    parentGraphItem.getGraphController(), childLink.typeNids(), null, keys[i].text());
+            try {
+                childItem.setDefined(this.viewCalculator.hasSufficientSet(childChronology));
+            } catch (Throwable e) {
+                // TODO remove when better handling for: More than one set of axioms for concept: ConceptRecord{SNOMED CT July 2002 Release: 20020731 [R] <-2142333838>
+                // dev.ikm.tinkar.coordinate.logic.calculator.LogicCalculatorWithCache.hasSufficientSet(LogicCalculatorWithCache.java:101)
+                AlertStreams.dispatchToRoot(e);
+            }
+            childItem.setMultiParent(navigator.getParentNids(childLink.destinationNid()).length > 1);
+            childItem.isLeaf();
+
+            if (childItem.shouldDisplay()) {
+                childrenToAdd.add(childItem);
+            } else {
+                LOG.debug(
+                        "item.shouldDisplay() == false: not adding " + childItem.getConceptPublicId() + " as child of "
+                                + parentGraphItem.getConceptPublicId());
+            }
+        }
+        return childrenToAdd;
+    }
+
+    /**
+     * Number of {@link #CHUNK_SIZE} chunks needed for {@code childCount} children.
+     */
+    static int chunkCount(int childCount) {
+        return (childCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Units of work reported for a fetch of {@code chunkCount} chunks: one per key chunk, one per
+     * vertex chunk (the first page is always built, even when there are no children), and one for
+     * the final FX update.
+     */
+    static long totalWork(int chunkCount) {
+        return chunkCount + Math.max(chunkCount, 1) + 1L;
+    }
+
+    /**
+     * Resolves the description text of every child, one {@link #CHUNK_SIZE} chunk per pool task, and
+     * returns the keys sorted in display order. Each submitted task is added to {@code submitted} so the
+     * caller can cancel it.
+     *
+     * @return the sorted keys, or {@code null} if {@code cancelled} became true before all chunks finished
+     */
+    static ChildKey[] resolveSortKeys(int[] childNids, IntFunction<String> describer, ExecutorService pool,
+                                      Collection<Future<?>> submitted, BooleanSupplier cancelled,
+                                      Runnable chunkCompleted) throws InterruptedException, ExecutionException {
+        ChildKey[] keys = new ChildKey[childNids.length];
+        int chunkCount = chunkCount(childNids.length);
+        List<Future<?>> keyChunks = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int from = chunk * CHUNK_SIZE;
+            final int to = Math.min(from + CHUNK_SIZE, childNids.length);
+            Future<?> keyChunk = pool.submit(() -> {
+                for (int i = from; i < to && !cancelled.getAsBoolean(); i++) {
+                    keys[i] = new ChildKey(i, childNids[i], describer.apply(childNids[i]));
+                }
+            });
+            submitted.add(keyChunk);
+            keyChunks.add(keyChunk);
+        }
+        for (Future<?> keyChunk : keyChunks) {
+            if (cancelled.getAsBoolean()) return null;
+            keyChunk.get();
+            chunkCompleted.run();
+        }
+        if (cancelled.getAsBoolean()) return null;
+        Arrays.sort(keys, CHILD_ORDER);
+        return keys;
+    }
+
+    /**
+     * A child to display: its position in the child edge array, its nid, and its resolved description text.
+     */
+    record ChildKey(int index, int nid, String text) {}
 }
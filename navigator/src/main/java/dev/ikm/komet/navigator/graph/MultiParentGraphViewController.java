@@ -111,6 +111,7 @@ public class MultiParentGraphViewController implements RefreshListener {
     private final LayoutAnimator topPaneAnimator = new LayoutAnimator();
     private final LayoutAnimator alertsAnimator = new LayoutAnimator();
     private final SimpleObjectProperty<Navigator> navigatorProperty = new SimpleObjectProperty<>();
+    private volatile RootPathFinder rootPathFinder;
     private final UUID uuid = UUID.randomUUID();
 
     /** Maintains a mapping between tree items and their corresponding visual cell components. */
@@ -961,6 +962,7 @@ private void refreshTaxonomy() {
             Dialogs.showErrorDialog("Error computing view navigator", "Do you have more that one premise type selected?", ex, topGridPane.getScene().getWindow());
         }
         this.navigatorProperty.set(navigator);
+        this.rootPathFinder = new RootPathFinder(navigator);
         this.rootTreeItem.clearChildren();
         if (this.navigatorProperty.get().getRootNids().length > 1) {
             LOG.error("To many roots: " + this.navigatorProperty.get().getRootNids());
@@ -1001,6 +1003,14 @@ public Navigator getNavigator() {
         return navigatorProperty.get();
     }
 
+    /**
+     * @return the path finder for the current navigator; replaced, and its memoized
+     * routes discarded, each time the taxonomy is refreshed
+     */
+    public RootPathFinder getRootPathFinder() {
+        return rootPathFinder;
+    }
+
     public BorderPane getPane() {
         return topBorderPane;
     }
@@ -92,10 +92,20 @@ public MultiParentVertexImpl(int conceptNid, MultiParentGraphViewController grap
 
     public MultiParentVertexImpl(ConceptEntity conceptEntity
             , MultiParentGraphViewController graphController, IntIdSet typeNids, Node graphic) {
+        this(conceptEntity, graphController, typeNids, graphic, null);
+    }
+
+    /**
+     * Creates a vertex whose description text has already been resolved by the caller, so
+     * {@link #toString()} and {@link #compareTo} do not look it up again.
+     */
+    MultiParentVertexImpl(ConceptEntity conceptEntity
+            , MultiParentGraphViewController graphController, IntIdSet typeNids, Node graphic, String descriptionText) {
         super(conceptEntity, graphic);
         this.graphController = graphController;
         this.nid = conceptEntity.nid();
         this.typeNids = typeNids;
+        this.conceptDescriptionText = descriptionText;
     }
 
     private static int getConceptNid(TreeItem<ConceptEntity> item) {
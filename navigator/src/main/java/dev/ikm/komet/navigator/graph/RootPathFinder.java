@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.navigator.graph;
+
+import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.stack.primitive.MutableIntStack;
+import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.IntStacks;
+
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Finds the path from a concept to a taxonomy root that "show in taxonomy" expands.
+ * <p>
+ * The best path is the one that ends at the preferred root (normally {@link TinkarTerm#SOLOR_CONCEPT})
+ * and, among those, has the smallest sum of child counts along the way, so the tree expands through
+ * the narrowest branches. If no path reaches the preferred root, the cheapest path to any root wins.
+ * <p>
+ * Rather than enumerating every path to the root, which explodes combinatorially on polyhierarchical
+ * content, the finder memoizes the best route to the root for every ancestor it visits. Each ancestor
+ * and each parent edge is examined once, common sub-DAGs are shared across queries, and child counts
+ * are only fetched once per concept. A finder is bound to one {@link Navigator}; the graph view
+ * replaces it whenever the taxonomy is refreshed, which discards the memoized tables.
+ * <p>
+ * Parent cycles, which should not occur in a classified taxonomy, are first resolved by ignoring the
+ * edge that closes the cycle, which is only right for the concept the walk entered the cycle at; the
+ * others would come out as dead ends or through a worse exit. Those routes are not memoized as they are:
+ * once the walk leaves the cycle, the routes of its concepts are recomputed over all of their parents.
+ * A concept that cannot reach a root at all is a dead end, which loses to any path that does.
+ */
+public class RootPathFinder {
+
+    private final IntFunction<int[]> parentNids;
+    private final IntUnaryOperator childCount;
+    private final int preferredRootNid;
+
+    private final MutableIntObjectMap<Route> routes = IntObjectMaps.mutable.empty();
+    private final MutableIntIntMap childCounts = IntIntMaps.mutable.empty();
+
+    public RootPathFinder(Navigator navigator) {
+        this(navigator::getParentNids,
+                nid -> navigator.getViewCalculator().unsortedUnversionedChildrenOf(nid).size(),
+                TinkarTerm.SOLOR_CONCEPT.nid());
+    }
+
+    /**
+     * @param parentNids       supplies the parents of a concept
+     * @param childCount       supplies the number of children of a concept
+     * @param preferredRootNid the root that paths should end at when one is reachable
+     */
+    public RootPathFinder(IntFunction<int[]> parentNids, IntUnaryOperator childCount, int preferredRootNid) {
+        this.parentNids = parentNids;
+        this.childCount = childCount;
+        this.preferredRootNid = preferredRootNid;
+    }
+
+    /**
+     * @param conceptNid the concept to find a path for
+     * @return the nids on the best path, starting with {@code conceptNid} and ending with a root
+     */
+    public synchronized int[] findPathToRoot(int conceptNid) {
+        resolve(conceptNid);
+        MutableIntList path = IntLists.mutable.empty();
+        Route route = routes.get(conceptNid);
+        int nid = conceptNid;
+        while (true) {
+            path.add(nid);
+            if (route.isRoot()) {
+                return path.toArray();
+            }
+            nid = route.next();
+            route = routes.get(nid);
+        }
+    }
+
+    /**
+     * @param conceptNid the concept to find a path for
+     * @return the number of edges between {@code conceptNid} and the root along the best path
+     */
+    public synchronized int depth(int conceptNid) {
+        resolve(conceptNid);
+        return routes.get(conceptNid).depth();
+    }
+
+    /**
+     * Discards all memoized routes and child counts.
+     */
+    public synchronized void invalidate() {
+        routes.clear();
+        childCounts.clear();
+    }
+
+    /**
+     * Iterative post-order walk over the unresolved ancestors of {@code conceptNid}; a concept is
+     * resolved once all of its parents are. The concepts being resolved are numbered in the order the
+     * walk reaches them. A concept that skips a parent on the walk, or takes its parent's route while
+     * that parent is still in a cycle, is held in the cycle with the lowest number it depends on, until
+     * the concept with that number is resolved and closes it.
+     */
+    private void resolve(int conceptNid) {
+        if (routes.containsKey(conceptNid)) {
+            return;
+        }
+        MutableIntStack stack = IntStacks.mutable.empty();
+        MutableIntIntMap reachOrder = IntIntMaps.mutable.empty();
+        int reached = 0;
+        MutableIntIntMap lowestOrder = IntIntMaps.mutable.empty();
+        MutableIntList cycle = IntLists.mutable.empty();
+        stack.push(conceptNid);
+        while (stack.notEmpty()) {
+            int nid = stack.peek();
+            if (routes.containsKey(nid)) {
+                stack.pop();
+                continue;
+            }
+            if (!reachOrder.containsKey(nid)) {
+                reachOrder.put(nid, reached++);
+                boolean pushed = false;
+                for (int parentNid : parentNids.apply(nid)) {
+                    if (!routes.containsKey(parentNid) && !reachOrder.containsKey(parentNid)) {
+                        stack.push(parentNid);
+                        pushed = true;
+                    }
+                }
+                if (pushed) {
+                    continue;
+                }
+            }
+            stack.pop();
+            int order = reachOrder.get(nid);
+            int lowest = order;
+            for (int parentNid : parentNids.apply(nid)) {
+                lowest = Math.min(lowest, reachOrder.getIfAbsent(parentNid,
+                        lowestOrder.getIfAbsent(parentNid, order)));
+            }
+            routes.put(nid, bestRoute(nid, reachOrder));
+            reachOrder.remove(nid);
+            if (lowest < order) {
+                lowestOrder.put(nid, lowest);
+                cycle.add(nid);
+            } else if (cycle.notEmpty() && lowestOrder.get(cycle.getLast()) >= order) {
+                MutableIntList members = IntLists.mutable.with(nid);
+                while (cycle.notEmpty() && lowestOrder.get(cycle.getLast()) >= order) {
+                    int member = cycle.removeAtIndex(cycle.size() - 1);
+                    lowestOrder.remove(member);
+                    members.add(member);
+                }
+                settle(members);
+            }
+        }
+    }
+
+    private Route bestRoute(int nid, MutableIntIntMap reachOrder) {
+        long weight = childCounts.getIfAbsentPut(nid, () -> childCount.applyAsInt(nid));
+        Route best = null;
+        int bestParent = 0;
+        boolean skipped = false;
+        for (int parentNid : parentNids.apply(nid)) {
+            if (reachOrder.containsKey(parentNid)) {
+                // the edge closes a cycle back to a concept still being resolved
+                skipped = true;
+                continue;
+            }
+            Route candidate = routes.get(parentNid);
+            if (best == null || candidate.isBetterThan(best)) {
+                best = candidate;
+                bestParent = parentNid;
+            }
+        }
+        if (best == null) {
+            // with every parent skipped, the concept is a dead end in the cycle rather than a root
+            return new Route(0, true, !skipped, nid == preferredRootNid, weight, 0);
+        }
+        return new Route(bestParent, false, best.reachesRoot(), best.reachesPreferredRoot(),
+                weight + best.cost(), best.depth() + 1);
+    }
+
+    /**
+     * Recomputes the routes of the concepts of a closed cycle, taking the parent edges within the cycle
+     * into account, by relaxing them until no route improves. Child counts are not negative, so the best
+     * route never runs around the cycle and the routes end up pointing at a root or a dead end.
+     */
+    private void settle(MutableIntList members) {
+        MutableIntSet memberSet = members.toSet();
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < members.size(); i++) {
+                int nid = members.get(i);
+                Route route = routes.get(nid);
+                for (int parentNid : parentNids.apply(nid)) {
+                    if (memberSet.contains(parentNid)) {
+                        Route parent = routes.get(parentNid);
+                        Route candidate = new Route(parentNid, false, parent.reachesRoot(),
+                                parent.reachesPreferredRoot(), childCounts.get(nid) + parent.cost(), parent.depth() + 1);
+                        if (candidate.isBetterThan(route)) {
+                            route = candidate;
+                            routes.put(nid, route);
+                            improved = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private record Route(int next, boolean isRoot, boolean reachesRoot, boolean reachesPreferredRoot,
+                         long cost, int depth) {
+        boolean isBetterThan(Route other) {
+            if (reachesRoot != other.reachesRoot) {
+                return reachesRoot;
+            }
+            if (reachesPreferredRoot != other.reachesPreferredRoot) {
+                return reachesPreferredRoot;
+            }
+            return cost < other.cost;
+        }
+    }
+}
@@ -15,28 +15,15 @@
  */
 package dev.ikm.komet.navigator.graph;
 
- import dev.ikm.komet.navigator.graph.MultiParentGraphViewController;
- import dev.ikm.tinkar.common.id.IntIdList;
- import dev.ikm.tinkar.common.id.IntIds;
- import dev.ikm.tinkar.common.service.PrimitiveData;
- import javafx.application.Platform;
- import org.eclipse.collections.api.factory.Lists;
- import org.eclipse.collections.api.list.ImmutableList;
- import org.eclipse.collections.api.list.MutableList;
- import org.eclipse.collections.api.list.primitive.MutableIntList;
-import org.eclipse.collections.impl.factory.primitive.IntLists;
-import dev.ikm.tinkar.common.alert.AlertObject;
+import dev.ikm.tinkar.common.id.IntIdList;
+import dev.ikm.tinkar.common.id.IntIds;
+import dev.ikm.tinkar.common.service.PrimitiveData;
 import dev.ikm.tinkar.common.service.TrackingCallable;
-import dev.ikm.tinkar.entity.ConceptEntity;
-import dev.ikm.tinkar.entity.Entity;
-import dev.ikm.tinkar.terms.TinkarTerm;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
-import java.util.Optional;
- import java.util.SortedSet;
- import java.util.TreeSet;
 
 /**
  * 
@@ -60,63 +47,13 @@ public ShowConceptInGraphTask(MultiParentGraphViewController multiParentGraphVie
     protected Void compute() throws Exception {
         // await() init() completion.
 
-        IntIdList pathSeed = IntIds.list.of(conceptNid);
-        ImmutableList<IntIdList> pathsToRoot = findPathsToRoot(conceptNid, Lists.immutable.of(pathSeed));
-
-        SortedSet<PathToRootWithScore> sortedListsForReturn = new TreeSet<>();
-        for (IntIdList pathToRoot: pathsToRoot) {
-            int score = 0;
-            for (int pathConceptNid: pathToRoot.toArray()) {
-                IntIdList childCount = multiParentGraphView.getNavigator().getViewCalculator().unsortedUnversionedChildrenOf(pathConceptNid);
-                score += childCount.size();
-            }
-            sortedListsForReturn.add(new PathToRootWithScore(pathToRoot, score));
-        }
-        // TODO: One of the sortedListsForReturn for Urine Homocystine Measurement, did not end at Solor (ended earlier)
-        // Need to understand why. Workaround for now. Possibly data error in the parent for Amino acids measurement.
-        // 17:26:33,328 [INFO  ] t.navigator.graph.ShowConceptInGraphTask - Calculated root path: [Amino acids measurement, Homocystine measurement, Urine homocystine measurement]
-        // There are other options in the list that include SOLOR_CONCEPT, so we will find the lowest score that ends with
-        // Solor concept
-        IntIdList bestPath = sortedListsForReturn.first().pathToRoot;
-        if (bestPath.get(bestPath.size()-1) != TinkarTerm.SOLOR_CONCEPT.nid()) {
-            for (PathToRootWithScore pathToRootWithScore: sortedListsForReturn) {
-                if (pathToRootWithScore.pathToRoot.get(pathToRootWithScore.pathToRoot.size()-1)
-                        == TinkarTerm.SOLOR_CONCEPT.nid()) {
-                    bestPath = pathToRootWithScore.pathToRoot;
-                    break;
-                }
-            }
-        }
+        // The finder memoizes the best route to the root per ancestor, so polyhierarchical
+        // content no longer enumerates every path; see RootPathFinder for the scoring rules.
+        int[] pathToRoot = multiParentGraphView.getRootPathFinder().findPathToRoot(conceptNid);
 
-
-        final IntIdList reversedPathToRoot = IntIds.list.of(IntLists.mutable.of(bestPath.toArray()).reverseThis().toArray());
+        final IntIdList reversedPathToRoot = IntIds.list.of(IntLists.mutable.of(pathToRoot).reverseThis().toArray());
         LOG.atInfo().log(() -> String.format("Calculated root path: " + Arrays.toString(PrimitiveData.textList(reversedPathToRoot.toArray()).toArray())));
         this.multiParentGraphView.expandAndSelect(reversedPathToRoot);
         return null;
     }
-
-    private ImmutableList<IntIdList> findPathsToRoot(int conceptNid, ImmutableList<IntIdList> incomingLists) {
-        int[] parentNids = multiParentGraphView.getNavigator().getParentNids(conceptNid);
-        if (parentNids.length == 0) {
-            return incomingLists; // Nothing to add
-        }
-        MutableList<IntIdList> listsForReturn = Lists.mutable.ofInitialCapacity(incomingLists.size() * parentNids.length);
-
-        for (int parentNid: parentNids) {
-            MutableList<IntIdList> listsWithAddedParent = Lists.mutable.ofInitialCapacity(incomingLists.size());
-            for (IntIdList incomingList: incomingLists) {
-                listsWithAddedParent.add(incomingList.with(parentNid));
-            }
-            listsForReturn.addAll(findPathsToRoot(parentNid, listsWithAddedParent.toImmutableList()).castToList());
-        }
-        return listsForReturn.toImmutableList();
-    }
-
-    private record PathToRootWithScore(IntIdList pathToRoot, int score) implements Comparable<PathToRootWithScore> {
-
-        @Override
-        public int compareTo(PathToRootWithScore o) {
-            return Integer.compare(this.score, o.score);
-        }
-    }
 }
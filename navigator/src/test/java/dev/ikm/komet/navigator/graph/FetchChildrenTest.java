@@ -15,11 +15,118 @@
  */
 package dev.ikm.komet.navigator.graph;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("FetchChildren")
 public class FetchChildrenTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Splits children into chunks of CHUNK_SIZE")
+    void chunkCount() {
+        assertEquals(0, FetchChildren.chunkCount(0));
+        assertEquals(1, FetchChildren.chunkCount(1));
+        assertEquals(1, FetchChildren.chunkCount(FetchChildren.CHUNK_SIZE));
+        assertEquals(2, FetchChildren.chunkCount(FetchChildren.CHUNK_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Reports exactly the units of work it completes, including for a leaf")
+    void totalWork() {
+        // No children: no key chunks, the (empty) first page, and the FX update.
+        assertEquals(2, FetchChildren.totalWork(0));
+        assertEquals(3, FetchChildren.totalWork(1));
+        assertEquals(7, FetchChildren.totalWork(3));
+    }
+
+    @Test
+    @DisplayName("Resolves every description once and sorts by text, then nid")
+    void resolvesAndSortsAcrossChunks() throws Exception {
+        int childCount = FetchChildren.CHUNK_SIZE * 2 + 17;
+        int[] nids = new int[childCount];
+        for (int i = 0; i < childCount; i++) {
+            nids[i] = -(i + 1);
+        }
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger chunksCompleted = new AtomicInteger();
+        List<Future<?>> submitted = new ArrayList<>();
+
+        FetchChildren.ChildKey[] keys = FetchChildren.resolveSortKeys(nids,
+                nid -> {
+                    lookups.incrementAndGet();
+                    // Two children per text, so ties fall back to nid order.
+                    return "concept " + (-nid / 2);
+                },
+                pool, submitted, () -> false, chunksCompleted::incrementAndGet);
+
+        assertEquals(childCount, keys.length);
+        assertEquals(childCount, lookups.get());
+        assertEquals(FetchChildren.chunkCount(childCount), chunksCompleted.get());
+        assertEquals(FetchChildren.chunkCount(childCount), submitted.size());
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(FetchChildren.CHILD_ORDER.compare(keys[i - 1], keys[i]) < 0,
+                    "keys out of order at " + i + ": " + keys[i - 1] + " / " + keys[i]);
+        }
+        for (FetchChildren.ChildKey key : keys) {
+            assertEquals(nids[key.index()], key.nid());
+        }
+        // "concept 2" sorts after "concept 1" and before "concept 10" in natural order.
+        assertEquals("concept 0", keys[0].text());
+        assertEquals("concept 1", keys[1].text());
+        assertEquals("concept 2", keys[3].text());
+    }
+
     @Test
-    public void testSimple() {
-        assert true;
+    @DisplayName("Handles a concept with no children")
+    void noChildren() throws Exception {
+        AtomicInteger chunksCompleted = new AtomicInteger();
+        FetchChildren.ChildKey[] keys = FetchChildren.resolveSortKeys(new int[0], nid -> "",
+                pool, new ArrayList<>(), () -> false, chunksCompleted::incrementAndGet);
+        assertEquals(0, keys.length);
+        assertEquals(0, chunksCompleted.get());
+    }
+
+    @Test
+    @DisplayName("Stops resolving and returns null once cancelled")
+    void cancelled() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger lookups = new AtomicInteger();
+        List<Future<?>> submitted = new ArrayList<>();
+        int childCount = FetchChildren.CHUNK_SIZE * 8;
+
+        FetchChildren.ChildKey[] keys = FetchChildren.resolveSortKeys(new int[childCount],
+                nid -> {
+                    if (lookups.incrementAndGet() == 10) {
+                        cancelled.set(true);
+                    }
+                    return "";
+                },
+                pool, submitted, cancelled::get, () -> {});
+
+        assertNull(keys);
+        for (Future<?> future : submitted) {
+            future.cancel(false);
+        }
+        assertTrue(lookups.get() < childCount);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.navigator.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@link RootPathFinder} with the path enumeration that {@link ShowConceptInGraphTask}
+ * used previously, on a synthetic DAG made of stacked diamonds: every concept in a layer has both
+ * concepts of the layer above as parents, so the number of paths doubles with each layer.
+ */
+@DisplayName("RootPathFinder Performance Demonstration Tests")
+@Tag("performance")
+class RootPathFinderPerformanceTest {
+
+    private static final int LAYERS = 18;
+    private static final int ROOT = 0;
+
+    /** Layer {@code n} holds concepts {@code 2n - 1} and {@code 2n}; layer 0 is the root. */
+    private static int[] parents(int nid) {
+        if (nid == ROOT) {
+            return new int[0];
+        }
+        int layer = (nid + 1) / 2;
+        if (layer == 1) {
+            return new int[]{ROOT};
+        }
+        return new int[]{2 * layer - 3, 2 * layer - 2};
+    }
+
+    private static int childCount(int nid) {
+        return nid % 7;
+    }
+
+    @Test
+    @DisplayName("Memoized search matches path enumeration without enumerating paths")
+    void testAgainstPathEnumeration() {
+        int leaf = 2 * LAYERS;
+
+        long enumerationStart = System.nanoTime();
+        List<int[]> paths = new ArrayList<>();
+        enumerate(leaf, new int[]{leaf}, paths);
+        long bestScore = Long.MAX_VALUE;
+        for (int[] path : paths) {
+            long score = 0;
+            for (int nid : path) {
+                score += childCount(nid);
+            }
+            bestScore = Math.min(bestScore, score);
+        }
+        long enumerationTime = System.nanoTime() - enumerationStart;
+
+        long finderStart = System.nanoTime();
+        int[] best = new RootPathFinder(RootPathFinderPerformanceTest::parents,
+                RootPathFinderPerformanceTest::childCount, ROOT).findPathToRoot(leaf);
+        long finderTime = System.nanoTime() - finderStart;
+
+        long finderScore = 0;
+        for (int nid : best) {
+            finderScore += childCount(nid);
+        }
+        assertEquals(1L << (LAYERS - 1), paths.size());
+        assertEquals(bestScore, finderScore);
+        assertEquals(LAYERS + 1, best.length);
+
+        System.out.println("Paths enumerated: " + paths.size());
+        System.out.println("Path enumeration time: " + enumerationTime / 1_000_000.0 + " ms");
+        System.out.println("RootPathFinder time: " + finderTime / 1_000_000.0 + " ms");
+        System.out.println("Speedup: " + (double) enumerationTime / finderTime + "x");
+    }
+
+    private static void enumerate(int nid, int[] path, List<int[]> paths) {
+        int[] parentNids = parents(nid);
+        if (parentNids.length == 0) {
+            paths.add(path);
+            return;
+        }
+        for (int parentNid : parentNids) {
+            int[] extended = Arrays.copyOf(path, path.length + 1);
+            extended[path.length] = parentNid;
+            enumerate(parentNid, extended, paths);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.navigator.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("RootPathFinder")
+class RootPathFinderTest {
+
+    private static final int ROOT = 1;
+    private static final int OTHER_ROOT = 2;
+
+    private final Map<Integer, int[]> parents = new HashMap<>();
+    private final Map<Integer, Integer> childCounts = new HashMap<>();
+
+    private RootPathFinder finder() {
+        return new RootPathFinder(nid -> parents.getOrDefault(nid, new int[0]),
+                nid -> childCounts.getOrDefault(nid, 0), ROOT);
+    }
+
+    @Test
+    @DisplayName("Chooses the path through the narrowest branches")
+    void choosesCheapestPath() {
+        // 5 -> 3 -> 1 and 5 -> 4 -> 1, where 3 has many children
+        parents.put(5, new int[]{3, 4});
+        parents.put(3, new int[]{ROOT});
+        parents.put(4, new int[]{ROOT});
+        childCounts.put(3, 100);
+        childCounts.put(4, 2);
+
+        assertArrayEquals(new int[]{5, 4, ROOT}, finder().findPathToRoot(5));
+    }
+
+    @Test
+    @DisplayName("Prefers the preferred root over a cheaper path to another root")
+    void prefersPreferredRoot() {
+        parents.put(5, new int[]{OTHER_ROOT, 3});
+        parents.put(3, new int[]{ROOT});
+        childCounts.put(3, 100);
+
+        assertArrayEquals(new int[]{5, 3, ROOT}, finder().findPathToRoot(5));
+    }
+
+    @Test
+    @DisplayName("Falls back to the cheapest root when the preferred root is unreachable")
+    void fallsBackToAnyRoot() {
+        parents.put(5, new int[]{3});
+        parents.put(3, new int[]{OTHER_ROOT});
+
+        assertArrayEquals(new int[]{5, 3, OTHER_ROOT}, finder().findPathToRoot(5));
+        assertEquals(2, finder().depth(5));
+    }
+
+    @Test
+    @DisplayName("Terminates on a parent cycle")
+    void breaksCycles() {
+        parents.put(5, new int[]{3});
+        parents.put(3, new int[]{4, ROOT});
+        parents.put(4, new int[]{3});
+
+        assertArrayEquals(new int[]{5, 3, ROOT}, finder().findPathToRoot(5));
+    }
+
+    @Test
+    @DisplayName("A concept whose only parent closes a cycle is not remembered as a root")
+    void cycleMembersAreResolvedFromTheirOwnSide() {
+        parents.put(5, new int[]{3});
+        parents.put(3, new int[]{4, ROOT});
+        parents.put(4, new int[]{3});
+        RootPathFinder finder = finder();
+
+        assertArrayEquals(new int[]{5, 3, ROOT}, finder.findPathToRoot(5));
+        assertArrayEquals(new int[]{4, 3, ROOT}, finder.findPathToRoot(4));
+        assertEquals(2, finder.depth(4));
+        assertArrayEquals(new int[]{3, ROOT}, finder.findPathToRoot(3));
+    }
+
+    @Test
+    @DisplayName("Every concept of a cycle leaves it through the cycle's exit")
+    void cycleMembersShareTheExit() {
+        // 3 and 4 are each other's parents; only 4 reaches a root, so 3's path runs through 4
+        parents.put(5, new int[]{3});
+        parents.put(3, new int[]{4});
+        parents.put(4, new int[]{3, OTHER_ROOT});
+        RootPathFinder finder = finder();
+
+        assertArrayEquals(new int[]{5, 3, 4, OTHER_ROOT}, finder.findPathToRoot(5));
+        assertArrayEquals(new int[]{4, OTHER_ROOT}, finder.findPathToRoot(4));
+        assertArrayEquals(new int[]{3, 4, OTHER_ROOT}, finder.findPathToRoot(3));
+        assertEquals(3, finder.depth(5));
+    }
+
+    @Test
+    @DisplayName("A cycle entered away from its exit is still left through the exit")
+    void cycleEnteredAwayFromItsExit() {
+        // 4 and 5 are each other's parents and 5 leads to the root; the walk from 3 reaches 5 through 6
+        // first, so 4 is first seen with its only parent still being resolved
+        parents.put(3, new int[]{4, 6});
+        parents.put(6, new int[]{5});
+        parents.put(4, new int[]{5});
+        parents.put(5, new int[]{4, 7});
+        parents.put(7, new int[]{ROOT});
+        childCounts.put(6, 3);
+        RootPathFinder finder = finder();
+
+        assertArrayEquals(new int[]{3, 4, 5, 7, ROOT}, finder.findPathToRoot(3));
+        assertArrayEquals(new int[]{4, 5, 7, ROOT}, finder.findPathToRoot(4));
+    }
+
+    @Test
+    @DisplayName("Root concept is its own path")
+    void rootPath() {
+        assertArrayEquals(new int[]{ROOT}, finder().findPathToRoot(ROOT));
+        assertEquals(0, finder().depth(ROOT));
+    }
+}
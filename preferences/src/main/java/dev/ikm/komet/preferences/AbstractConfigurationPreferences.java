@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.preferences;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.prefs.AbstractPreferences;
+
+/**
+ * A configuration preference node, stored with the data store whichever backend persists it.
+ * {@link KometPreferencesWrapper} presents any of them as {@link KometPreferences}.
+ */
+public abstract class AbstractConfigurationPreferences
+        extends AbstractPreferences {
+
+    protected AbstractConfigurationPreferences(AbstractConfigurationPreferences parent, String name) {
+        super(parent, name);
+    }
+
+    public Object getLock() {
+        return lock;
+    }
+
+    /** The filesystem directory for this node (see {@link KometPreferences#directory()}). */
+    public abstract Optional<Path> directory();
+
+    @Override
+    public boolean isRemoved() {
+        return super.isRemoved();
+    }
+}
@@ -42,12 +42,16 @@
  * 
  */
 public class KometPreferencesImpl
-        extends AbstractPreferences {
+        extends AbstractConfigurationPreferences {
     private static final Logger LOG = LoggerFactory.getLogger(KometPreferencesImpl.class);
 
     public static final String DB_PREFERENCES_FOLDER = "preferences";
-    public static final KometPreferencesImpl preferencesImpl = new KometPreferencesImpl();
-    public static final KometPreferencesWrapper preferencesWrapper = new KometPreferencesWrapper(preferencesImpl);
+    static final String PREFERENCES_FILE_NAME = "preferences.xml";
+
+    // Opened on first use, so selecting the log-structured backend never reads the XML store
+    private static final Object rootLock = new Object();
+    private static KometPreferencesImpl preferencesImpl;
+    private static KometPreferencesWrapper preferencesWrapper;
     //~--- fieldValues --------------------------------------------------------------
     private final ConcurrentSkipListMap<String, String> preferencesTree = new ConcurrentSkipListMap<>();
     private final File directory;
@@ -58,6 +62,17 @@
 
     private KometPreferencesImpl() {
         super(null, "");
+        this.directory = configurationDirectory();
+        LOG.info("Opening configuration preferences from location: " + this.directory.getAbsolutePath());
+        this.preferencesFile = new File(this.directory, PREFERENCES_FILE_NAME);
+        this.temporaryFile = new File(this.directory, "preferences-tmp.xml");
+        init();
+    }
+
+    /**
+     * @return the folder holding the configuration preferences of the current data store
+     */
+    static File configurationDirectory() {
         // The default is RELATIVE, so it resolves against user.dir. That is right for a Maven
         // build or an IDE run, where user.dir is the module directory and preferences land under
         // target/ for `mvn clean` to remove. It is wrong for a packaged application: a jpackage
@@ -74,11 +89,7 @@ private KometPreferencesImpl() {
                     workingDirectory.getAbsolutePath(), defaultRoot.getAbsolutePath());
         }
         File configuredRoot = ServiceProperties.get(ServiceKeys.DATA_STORE_ROOT, defaultRoot);
-        this.directory = new File(configuredRoot, DB_PREFERENCES_FOLDER);
-        LOG.info("Opening configuration preferences from location: " + this.directory.getAbsolutePath());
-        this.preferencesFile = new File(this.directory, "preferences.xml");
-        this.temporaryFile = new File(this.directory, "preferences-tmp.xml");
-        init();
+        return new File(configuredRoot, DB_PREFERENCES_FOLDER);
     }
 
     private void init() {
@@ -119,7 +130,7 @@ private KometPreferencesImpl(KometPreferencesImpl parent, String name) {
         }
 
         this.directory = new File(parent.directory, name);
-        this.preferencesFile = new File(this.directory, "preferences.xml");
+        this.preferencesFile = new File(this.directory, PREFERENCES_FILE_NAME);
         this.temporaryFile = new File(this.directory, "preferences-tmp.xml");
         init();
     }
@@ -135,16 +146,35 @@ public static boolean isValidPath(String path) {
 
     /**
      * The public mechanism to get a handle to a preferences store that stores its data inside the datastore folder.
+     * When the {@code log} backend is selected (see {@link LogStructuredPreferences#BACKEND_PROPERTY}), the
+     * preferences are kept in a single binary log rather than one XML file per node.
      *
-     * @return This class, wrapped by a {@link KometPreferencesWrapper}
+     * @return This class, or the log-structured backend, wrapped by a {@link KometPreferencesWrapper}
      */
     public static KometPreferences getConfigurationRootPreferences() {
-        return preferencesWrapper;
+        if (LogStructuredPreferences.SELECTED) {
+            return LogStructuredPreferences.getConfigurationRootPreferences();
+        }
+        synchronized (rootLock) {
+            if (preferencesWrapper == null) {
+                preferencesImpl = new KometPreferencesImpl();
+                preferencesWrapper = new KometPreferencesWrapper(preferencesImpl);
+            }
+            return preferencesWrapper;
+        }
     }
     //~--- methods -------------------------------------------------------------
 
     public static void reloadConfigurationPreferences() {
-        recursiveInit(preferencesImpl);
+        if (LogStructuredPreferences.SELECTED) {
+            LogStructuredPreferences.reloadConfigurationPreferences();
+            return;
+        }
+        synchronized (rootLock) {
+            if (preferencesImpl != null) {
+                recursiveInit(preferencesImpl);
+            }
+        }
     }
 
     private static void recursiveInit(KometPreferencesImpl preferences) {
@@ -154,10 +184,6 @@ private static void recursiveInit(KometPreferencesImpl preferences) {
         }
     }
 
-    public Object getLock() {
-        return lock;
-    }
-
     @Override
     protected void putSpi(String key, String value) {
         preferencesTree.put(key, value);
@@ -200,6 +226,7 @@ protected void removeNodeSpi()
     }
 
     /** The filesystem directory backing this node (see {@link KometPreferences#directory()}). */
+    @Override
     public Optional<Path> directory() {
         return Optional.of(directory.toPath());
     }
@@ -275,9 +302,4 @@ protected void flushSpi()
             throws BackingStoreException {
         writeToDisk();
     }
-
-    @Override
-    public boolean isRemoved() {
-        return super.isRemoved();
-    }
 }
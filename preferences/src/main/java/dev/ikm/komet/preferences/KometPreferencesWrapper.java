@@ -29,9 +29,9 @@
  * 
  */
 public class KometPreferencesWrapper implements KometPreferences {
-    final KometPreferencesImpl delegate;
+    final AbstractConfigurationPreferences delegate;
 
-    public KometPreferencesWrapper(KometPreferencesImpl delegate) {
+    public KometPreferencesWrapper(AbstractConfigurationPreferences delegate) {
         this.delegate = delegate;
     }
 
@@ -132,12 +132,12 @@ public String[] childrenNames() throws BackingStoreException {
 
     @Override
     public KometPreferences parent() {
-        return new KometPreferencesWrapper((KometPreferencesImpl) delegate.parent());
+        return new KometPreferencesWrapper((AbstractConfigurationPreferences) delegate.parent());
     }
 
     @Override
     public KometPreferences node(String pathName) {
-        return new KometPreferencesWrapper((KometPreferencesImpl) delegate.node(pathName));
+        return new KometPreferencesWrapper((AbstractConfigurationPreferences) delegate.node(pathName));
     }
 
     @Override
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.preferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * Configuration preferences kept in a single {@link PreferencesLog} instead of one XML file per node.
+ * <p>
+ * Journals with many windows create hundreds of small nodes. The XML backend rewrites a node's whole
+ * DOM-serialized file on every flush and parses one file per node on startup; this backend appends
+ * only the changed entries, writes all nodes flushed together in one batch, and starts by replaying
+ * one sequential file. Node objects are still created only when a caller first asks for them.
+ * <p>
+ * Select it by starting the application with {@code -D}{@value #BACKEND_PROPERTY}{@code =log}. The
+ * first start imports the existing XML tree; see {@link PreferencesLog} for the file format and
+ * compaction, which can be tuned with {@code ike.preferences.log.compaction.records}.
+ */
+public class LogStructuredPreferences
+        extends AbstractConfigurationPreferences {
+    private static final Logger LOG = LoggerFactory.getLogger(LogStructuredPreferences.class);
+
+    public static final String BACKEND_PROPERTY = "ike.preferences.backend";
+
+    static final boolean SELECTED = "log".equalsIgnoreCase(System.getProperty(BACKEND_PROPERTY, ""));
+
+    private static final Object rootLock = new Object();
+    private static KometPreferencesWrapper rootWrapper;
+
+    private final PreferencesLog log;
+    private final File directory;
+
+    /**
+     * @param log       the log holding the tree
+     * @param directory the folder for files that nodes keep alongside their preferences
+     */
+    LogStructuredPreferences(PreferencesLog log, File directory) {
+        super(null, "");
+        this.log = log;
+        this.directory = directory;
+    }
+
+    private LogStructuredPreferences(LogStructuredPreferences parent, String name) {
+        super(parent, name);
+        if (!KometPreferencesImpl.isValidPath(name)) {
+            throw new IllegalStateException("Name is not a valid file name or path: " + name);
+        }
+        this.log = parent.log;
+        this.directory = new File(parent.directory, name);
+        this.newNode = !log.nodeExists(absolutePath());
+        log.createNodeIfAbsent(absolutePath());
+    }
+
+    static KometPreferences getConfigurationRootPreferences() {
+        synchronized (rootLock) {
+            if (rootWrapper == null) {
+                File directory = KometPreferencesImpl.configurationDirectory();
+                LOG.info("Opening configuration preferences log in: " + directory.getAbsolutePath());
+                try {
+                    PreferencesLog log = PreferencesLog.open(directory.toPath().resolve(PreferencesLog.FILE_NAME),
+                            Integer.getInteger("ike.preferences.log.compaction.records",
+                                    PreferencesLog.DEFAULT_COMPACTION_RECORDS));
+                    rootWrapper = new KometPreferencesWrapper(new LogStructuredPreferences(log, directory));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to open configuration preferences in " + directory, e);
+                }
+            }
+            return rootWrapper;
+        }
+    }
+
+    static void reloadConfigurationPreferences() {
+        synchronized (rootLock) {
+            if (rootWrapper == null) {
+                return;
+            }
+            try {
+                ((LogStructuredPreferences) rootWrapper.delegate).log.reload();
+            } catch (IOException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    protected void putSpi(String key, String value) {
+        log.put(absolutePath(), key, value);
+    }
+
+    @Override
+    protected String getSpi(String key) {
+        return log.get(absolutePath(), key);
+    }
+
+    @Override
+    protected void removeSpi(String key) {
+        log.remove(absolutePath(), key);
+    }
+
+    @Override
+    protected void removeNodeSpi() {
+        log.removeNode(absolutePath());
+        // Flat files kept alongside the node share its lifecycle
+        File[] files = directory.listFiles(File::isFile);
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /** The folder for files this node keeps alongside its preferences (see {@link KometPreferences#directory()}). */
+    @Override
+    public Optional<Path> directory() {
+        return Optional.of(directory.toPath());
+    }
+
+    @Override
+    protected String[] keysSpi() {
+        return log.keys(absolutePath());
+    }
+
+    @Override
+    protected String[] childrenNamesSpi() {
+        return log.childrenNames(absolutePath());
+    }
+
+    @Override
+    protected LogStructuredPreferences childSpi(String name) {
+        return new LogStructuredPreferences(this, name);
+    }
+
+    @Override
+    public String toString() {
+        return "Configuration Preference Node: " + this.absolutePath();
+    }
+
+    @Override
+    protected void syncSpi()
+            throws BackingStoreException {
+        commit();
+    }
+
+    @Override
+    protected void flushSpi()
+            throws BackingStoreException {
+        commit();
+    }
+
+    private void commit() throws BackingStoreException {
+        try {
+            log.commit();
+        } catch (IOException e) {
+            throw new BackingStoreException(e);
+        }
+    }
+}
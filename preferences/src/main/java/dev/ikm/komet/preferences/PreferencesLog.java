@@ -0,0 +1,563 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.preferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+/**
+ * A whole tree of configuration preferences in one append-only binary file, {@value #FILE_NAME}.
+ * <p>
+ * Every change to a node is applied to the in-memory tree at once and queued as a record; a flush
+ * writes everything queued so far, from all nodes, with one write and one {@code force}. Flushes that
+ * arrive while another is writing wait for it and return without writing if it already carried their
+ * records, so flushing a whole subtree node by node costs one write. Once the file holds more than
+ * {@code compactionRecords} records and at least twice as many as the tree it describes, it is
+ * replaced by a snapshot of the tree.
+ * <p>
+ * The file starts with a magic number and a format version, followed by records framed as a length,
+ * a CRC-32C of the payload and the payload: an operation code, the node's absolute path and, for
+ * operations on values, the key and value. Opening the file replays it; a record cut short by a crash,
+ * one whose checksum does not match, or one that cannot be decoded ends the replay, and it is truncated
+ * away together with everything after it. When the file does not exist yet, the XML tree that
+ * {@link KometPreferencesImpl} keeps in the same folder is imported; the XML files are left in place.
+ */
+final class PreferencesLog implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(PreferencesLog.class);
+
+    static final String FILE_NAME = "preferences.log";
+
+    static final int DEFAULT_COMPACTION_RECORDS = 10_000;
+
+    private static final int MAGIC = 0x4B504C47; // "KPLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private static final byte CREATE_NODE = 1;
+    private static final byte REMOVE_NODE = 2;
+    private static final byte PUT = 3;
+    private static final byte REMOVE = 4;
+
+    private static final String ROOT = "/";
+
+    private final Path file;
+    private final int compactionRecords;
+
+    private final Object lock = new Object();
+    // Node entries and child names by absolute node path; guarded by lock
+    private final Map<String, SortedMap<String, String>> nodes = new HashMap<>();
+    private final Map<String, SortedSet<String>> children = new HashMap<>();
+    // Framed records not yet written; guarded by lock
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private int pendingRecords = 0;
+    private long appendedSequence = 0;
+
+    // Orders writes to the file; taken before lock, never after
+    private final Object commitLock = new Object();
+    // guarded by commitLock
+    private FileChannel channel;
+    private long committedSequence = 0;
+    private long recordsInFile = 0;
+
+    private PreferencesLog(Path file, int compactionRecords) {
+        this.file = file;
+        this.compactionRecords = compactionRecords;
+    }
+
+    /**
+     * Opens the log, creating it — from the XML tree in the same folder, if there is one — when it
+     * does not exist.
+     *
+     * @param file              the log file
+     * @param compactionRecords the number of records below which the file is never compacted
+     */
+    static PreferencesLog open(Path file, int compactionRecords) throws IOException {
+        PreferencesLog log = new PreferencesLog(file, compactionRecords);
+        synchronized (log.commitLock) {
+            log.load();
+        }
+        return log;
+    }
+
+    /**
+     * Discards the in-memory tree, including changes not yet flushed, and replays the file again.
+     */
+    void reload() throws IOException {
+        synchronized (commitLock) {
+            closeChannel();
+            load();
+        }
+    }
+
+    private void load() throws IOException {
+        synchronized (lock) {
+            nodes.clear();
+            children.clear();
+            pending.reset();
+            pendingRecords = 0;
+            createNode(ROOT);
+        }
+        Files.createDirectories(file.getParent());
+        if (Files.exists(file) && !hasHeader()) {
+            Path unreadable = file.resolveSibling(FILE_NAME + ".unreadable");
+            LOG.warn("{} is not a preferences log in a known format; moving it to {}", file, unreadable);
+            Files.move(file, unreadable, StandardCopyOption.REPLACE_EXISTING);
+        }
+        boolean snapshot;
+        if (Files.exists(file)) {
+            recordsInFile = replay();
+            snapshot = recordsInFile > compactionRecords && recordsInFile > 2L * liveRecords();
+        } else {
+            migrateXmlTree(file.getParent());
+            snapshot = true;
+        }
+        if (snapshot) {
+            compact();
+        }
+        openChannel();
+    }
+
+    private boolean hasHeader() throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of records replayed
+     */
+    private long replay() throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(Channels.newInputStream(in), 1 << 16));
+            data.skipNBytes(8); // header, checked by hasHeader
+            long offset = 8;
+            long records = 0;
+            CRC32C crc = new CRC32C();
+            try {
+                while (true) {
+                    int length = data.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    int checksum = data.readInt();
+                    byte[] payload = new byte[length];
+                    data.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    try {
+                        synchronized (lock) {
+                            apply(payload);
+                        }
+                    } catch (IOException e) {
+                        LOG.warn("Unreadable record at offset {} of {}: {}", offset, file, e.getMessage());
+                        break;
+                    }
+                    records++;
+                    offset += 8 + length;
+                }
+            } catch (EOFException e) {
+                // end of log
+            }
+            if (offset < in.size()) {
+                LOG.warn("Discarding {} bytes of incomplete records at the end of {}", in.size() - offset, file);
+                in.truncate(offset);
+            }
+            LOG.info("Replayed {} records for {} preference nodes from {}", records, nodes.size(), file);
+            return records;
+        }
+    }
+
+    /**
+     * Applies one record to the tree, leaving the tree unchanged if the record cannot be decoded.
+     */
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte operation = in.readByte();
+        String path = in.readUTF();
+        switch (operation) {
+            case CREATE_NODE -> createNode(path);
+            case REMOVE_NODE -> removeSubtree(path);
+            case PUT -> {
+                String key = in.readUTF();
+                String value = in.readUTF();
+                node(path).put(key, value);
+            }
+            case REMOVE -> {
+                String key = in.readUTF();
+                node(path).remove(key);
+            }
+            default -> throw new IOException("Unknown preferences log operation " + operation + " in " + file);
+        }
+    }
+
+    private void migrateXmlTree(Path xmlRoot) throws IOException {
+        int[] migrated = {0};
+        Files.walkFileTree(xmlRoot, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                String path = nodePath(xmlRoot.relativize(dir));
+                synchronized (lock) {
+                    createNode(path);
+                }
+                Path xml = dir.resolve(KometPreferencesImpl.PREFERENCES_FILE_NAME);
+                if (Files.isRegularFile(xml)) {
+                    Map<String, String> entries = new TreeMap<>();
+                    try (InputStream in = Files.newInputStream(xml)) {
+                        XmlForKometPreferences.importMap(in, entries);
+                    } catch (Exception e) {
+                        LOG.warn("Unable to migrate preferences from " + xml, e);
+                    }
+                    synchronized (lock) {
+                        node(path).putAll(entries);
+                    }
+                    migrated[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (migrated[0] > 0) {
+            LOG.info("Migrated {} XML preference nodes from {} to {}", migrated[0], xmlRoot, file);
+        }
+    }
+
+    private static String nodePath(Path relativeDirectory) {
+        String relative = relativeDirectory.toString().replace(File.separatorChar, '/');
+        return relative.isEmpty() ? ROOT : ROOT + relative;
+    }
+
+    // -------------------- tree operations, called with lock held --------------------
+
+    private boolean createNode(String path) {
+        if (nodes.containsKey(path)) {
+            return false;
+        }
+        nodes.put(path, new TreeMap<>());
+        children.put(path, new TreeSet<>());
+        if (!path.equals(ROOT)) {
+            int slash = path.lastIndexOf('/');
+            String parent = slash == 0 ? ROOT : path.substring(0, slash);
+            createNode(parent);
+            children.get(parent).add(path.substring(slash + 1));
+        }
+        return true;
+    }
+
+    private void removeSubtree(String path) {
+        SortedSet<String> names = children.remove(path);
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            removeSubtree(childPath(path, name));
+        }
+        nodes.remove(path);
+        if (!path.equals(ROOT)) {
+            int slash = path.lastIndexOf('/');
+            SortedSet<String> siblings = children.get(slash == 0 ? ROOT : path.substring(0, slash));
+            if (siblings != null) {
+                siblings.remove(path.substring(slash + 1));
+            }
+        }
+    }
+
+    private SortedMap<String, String> node(String path) {
+        createNode(path);
+        return nodes.get(path);
+    }
+
+    private static String childPath(String path, String name) {
+        return path.equals(ROOT) ? ROOT + name : path + "/" + name;
+    }
+
+    private long liveRecords() {
+        synchronized (lock) {
+            long records = nodes.size();
+            for (SortedMap<String, String> entries : nodes.values()) {
+                records += entries.size();
+            }
+            return records;
+        }
+    }
+
+    private void append(byte operation, String path, String key, String value) {
+        try {
+            frame(payload(operation, path, key, value), new DataOutputStream(pending));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingRecords++;
+        appendedSequence++;
+    }
+
+    private static void frame(byte[] payload, DataOutputStream out) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    // -------------------- node access --------------------
+
+    boolean nodeExists(String path) {
+        synchronized (lock) {
+            return nodes.containsKey(path);
+        }
+    }
+
+    void createNodeIfAbsent(String path) {
+        synchronized (lock) {
+            if (createNode(path)) {
+                append(CREATE_NODE, path, null, null);
+            }
+        }
+    }
+
+    void removeNode(String path) {
+        synchronized (lock) {
+            removeSubtree(path);
+            append(REMOVE_NODE, path, null, null);
+        }
+    }
+
+    void put(String path, String key, String value) {
+        synchronized (lock) {
+            node(path).put(key, value);
+            append(PUT, path, key, value);
+        }
+    }
+
+    void remove(String path, String key) {
+        synchronized (lock) {
+            if (node(path).remove(key) != null) {
+                append(REMOVE, path, key, null);
+            }
+        }
+    }
+
+    String get(String path, String key) {
+        synchronized (lock) {
+            SortedMap<String, String> entries = nodes.get(path);
+            return entries == null ? null : entries.get(key);
+        }
+    }
+
+    String[] keys(String path) {
+        synchronized (lock) {
+            SortedMap<String, String> entries = nodes.get(path);
+            return entries == null ? new String[0] : entries.keySet().toArray(new String[0]);
+        }
+    }
+
+    String[] childrenNames(String path) {
+        synchronized (lock) {
+            SortedSet<String> names = children.get(path);
+            return names == null ? new String[0] : names.toArray(new String[0]);
+        }
+    }
+
+    // -------------------- writing --------------------
+
+    /**
+     * Writes every change queued before the call, together with any queued by other threads since,
+     * and forces it to the storage device.
+     */
+    void commit() throws IOException {
+        long target;
+        synchronized (lock) {
+            target = appendedSequence;
+        }
+        synchronized (commitLock) {
+            if (committedSequence >= target) {
+                return;
+            }
+            byte[] batch;
+            int batchRecords;
+            long batchSequence;
+            synchronized (lock) {
+                batch = pending.toByteArray();
+                batchRecords = pendingRecords;
+                batchSequence = appendedSequence;
+                pending.reset();
+                pendingRecords = 0;
+            }
+            if (channel == null) {
+                openChannel();
+            }
+            long start = channel.size();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                requeue(batch, batchRecords);
+                try {
+                    channel.truncate(start);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            committedSequence = batchSequence;
+            recordsInFile += batchRecords;
+            if (recordsInFile > compactionRecords && recordsInFile > 2L * liveRecords()) {
+                closeChannel();
+                compact();
+                openChannel();
+            }
+        }
+    }
+
+    private void requeue(byte[] batch, int batchRecords) {
+        synchronized (lock) {
+            byte[] later = pending.toByteArray();
+            pending.reset();
+            pending.writeBytes(batch);
+            pending.writeBytes(later);
+            pendingRecords += batchRecords;
+        }
+    }
+
+    /**
+     * Replaces the file with a snapshot of the tree. The snapshot includes the changes queued when it
+     * is taken, which are therefore dropped from the queue once the snapshot is in place.
+     */
+    private void compact() throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(snapshot);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        long records = 0;
+        int coveredBytes;
+        int coveredRecords;
+        long coveredSequence;
+        synchronized (lock) {
+            // A parent's path is a prefix of its children's, so sorting creates parents first
+            for (String path : new TreeSet<>(nodes.keySet())) {
+                frame(payload(CREATE_NODE, path, null, null), out);
+                records++;
+                for (Map.Entry<String, String> entry : nodes.get(path).entrySet()) {
+                    frame(payload(PUT, path, entry.getKey(), entry.getValue()), out);
+                    records++;
+                }
+            }
+            coveredBytes = pending.size();
+            coveredRecords = pendingRecords;
+            coveredSequence = appendedSequence;
+        }
+        Path temporaryFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel temporary = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot.toByteArray());
+            while (buffer.hasRemaining()) {
+                temporary.write(buffer);
+            }
+            temporary.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (lock) {
+            byte[] later = Arrays.copyOfRange(pending.toByteArray(), coveredBytes, pending.size());
+            pending.reset();
+            pending.writeBytes(later);
+            pendingRecords -= coveredRecords;
+        }
+        committedSequence = coveredSequence;
+        recordsInFile = records;
+        LOG.info("Compacted {} to {} records ({} bytes)", file, records, snapshot.size());
+    }
+
+    private static byte[] payload(byte operation, String path, String key, String value) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(operation);
+        out.writeUTF(path);
+        if (key != null) {
+            out.writeUTF(key);
+        }
+        if (value != null) {
+            out.writeUTF(value);
+        }
+        return payload.toByteArray();
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * @return the number of records currently in the file
+     */
+    long recordsInFile() {
+        synchronized (commitLock) {
+            return recordsInFile;
+        }
+    }
+
+    /**
+     * Writes any queued changes and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        commit();
+        synchronized (commitLock) {
+            closeChannel();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.preferences;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.prefs.BackingStoreException;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogStructuredPreferencesTest {
+
+    @Test
+    public void flushedPreferencesSurviveAReopen(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            root.put("theme", "dark");
+            KometPreferences window = root.node("journals/journal-1/window-1");
+            window.put("x", "10");
+            window.put("y", "20");
+            window.remove("y");
+            root.node("journals/journal-2").put("title", "Second");
+            root.node("journals/journal-2").removeNode();
+            root.flush();
+        }
+
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            assertEquals("dark", root.get("theme", null));
+            assertArrayEquals(new String[]{"journal-1"}, root.node("journals").childrenNames());
+            KometPreferences window = root.node("journals/journal-1/window-1");
+            assertEquals("10", window.get("x", null));
+            assertNull(window.get("y", null));
+            assertFalse(root.nodeExists("journals/journal-2"));
+        }
+    }
+
+    @Test
+    public void unflushedChangesAreNotWritten(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            root.put("kept", "yes");
+            root.flush();
+            root.put("lost", "yes");
+            log.reload();
+            assertEquals("yes", root.get("kept", null));
+            assertNull(root.get("lost", null));
+        }
+    }
+
+    @Test
+    public void aTornRecordIsDiscarded(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            root.put("a", "1");
+            root.flush();
+            root.put("b", "2");
+            root.flush();
+        }
+        Path file = folder.resolve(PreferencesLog.FILE_NAME);
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            assertEquals("1", root.get("a", null));
+            assertNull(root.get("b", null));
+            root.put("c", "3");
+            root.flush();
+        }
+        try (PreferencesLog log = open(folder, 1_000)) {
+            assertEquals("3", root(log, folder).get("c", null), "records appended after the truncation should replay");
+        }
+    }
+
+    @Test
+    public void aRecordWithAnUnknownOperationEndsTheReplay(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            root.put("a", "1");
+            root.flush();
+        }
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeByte(99);
+            out.writeUTF("/");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.toByteArray());
+        Path file = folder.resolve(PreferencesLog.FILE_NAME);
+        long validSize = Files.size(file);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            out.write(payload.toByteArray());
+        }
+
+        try (PreferencesLog log = open(folder, 1_000)) {
+            assertEquals("1", root(log, folder).get("a", null));
+            assertEquals(validSize, Files.size(file), "the unreadable record should be truncated away");
+        }
+    }
+
+    @Test
+    public void rewritesAreCompactedAway(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 50)) {
+            KometPreferences node = root(log, folder).node("window");
+            for (int i = 0; i < 1_000; i++) {
+                node.putInt("x", i);
+                node.flush();
+            }
+            assertTrue(log.recordsInFile() <= 100, "records in file: " + log.recordsInFile());
+        }
+        try (PreferencesLog log = open(folder, 50)) {
+            assertEquals(999, root(log, folder).node("window").getInt("x", -1));
+        }
+    }
+
+    @Test
+    public void concurrentFlushesShareWrites(@TempDir Path folder) throws Exception {
+        try (PreferencesLog log = open(folder, 100_000)) {
+            KometPreferences root = root(log, folder);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    KometPreferences node = root.node("node-" + t);
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 200; i++) {
+                            node.putInt("key-" + i, i);
+                            node.flush();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        try (PreferencesLog log = open(folder, 100_000)) {
+            KometPreferences root = root(log, folder);
+            for (int t = 0; t < 8; t++) {
+                assertEquals(200, root.node("node-" + t).keys().length);
+                assertEquals(199, root.node("node-" + t).getInt("key-199", -1));
+            }
+        }
+    }
+
+    @Test
+    public void theXmlTreeIsImportedOnFirstOpen(@TempDir Path folder) throws Exception {
+        writeXml(folder, Map.of("theme", "light"));
+        writeXml(folder.resolve("journals").resolve("journal-1"), Map.of("title", "First", "width", "800"));
+        Files.createDirectories(folder.resolve("empty"));
+
+        try (PreferencesLog log = open(folder, 1_000)) {
+            KometPreferences root = root(log, folder);
+            assertEquals("light", root.get("theme", null));
+            assertEquals("First", root.node("journals/journal-1").get("title", null));
+            assertEquals("800", root.node("journals/journal-1").get("width", null));
+            assertTrue(root.nodeExists("empty"));
+            root.put("theme", "dark");
+            root.flush();
+        }
+        assertTrue(Files.exists(folder.resolve(KometPreferencesImpl.PREFERENCES_FILE_NAME)), "the XML tree is left in place");
+
+        try (PreferencesLog log = open(folder, 1_000)) {
+            assertEquals("dark", root(log, folder).get("theme", null), "the XML tree is only imported once");
+        }
+    }
+
+    private static PreferencesLog open(Path folder, int compactionRecords) throws IOException {
+        return PreferencesLog.open(folder.resolve(PreferencesLog.FILE_NAME), compactionRecords);
+    }
+
+    private static KometPreferences root(PreferencesLog log, Path folder) {
+        return new KometPreferencesWrapper(new LogStructuredPreferences(log, folder.toFile()));
+    }
+
+    private static void writeXml(Path directory, Map<String, String> entries) throws IOException, BackingStoreException {
+        Files.createDirectories(directory);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(KometPreferencesImpl.PREFERENCES_FILE_NAME))) {
+            XmlForKometPreferences.exportMap(out, entries);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.progress;
+
+import dev.ikm.komet.framework.ExplorationNodeAbstract;
+import dev.ikm.komet.framework.concurrent.ExecutorStats;
+import dev.ikm.komet.framework.concurrent.ExecutorStatsService;
+import dev.ikm.komet.framework.view.ViewProperties;
+import dev.ikm.komet.preferences.KometPreferences;
+import dev.ikm.tinkar.terms.EntityFacade;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.ToolBar;
+import javafx.scene.layout.BorderPane;
+import javafx.util.Duration;
+import org.eclipse.collections.api.list.ImmutableList;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Shows queue depth, task counts and task latencies of the application executors, refreshed once a
+ * second while the node is showing. Latency percentiles and the per task type table are only filled
+ * while "Record latencies" is checked.
+ */
+public class ExecutorStatsNode extends ExplorationNodeAbstract {
+    protected static final String STYLE_ID = "executor-stats-node";
+    protected static final String TITLE = "Executors";
+
+    private final Optional<ExecutorStatsService> statsService = ExecutorStatsService.find();
+    private final TableView<ExecutorStats> executorTable = new TableView<>();
+    private final TableView<ExecutorStats.TaskTypeStats> taskTypeTable = new TableView<>();
+    private final CheckBox detailCheckBox = new CheckBox("Record latencies");
+    private final BorderPane root = new BorderPane();
+    private final Timeline refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> refresh()));
+
+    {
+        executorTable.getColumns().setAll(
+                column("Executor", ExecutorStats::name),
+                column("Active", ExecutorStats::active),
+                column("Queued", ExecutorStats::queued),
+                column("Submitted", ExecutorStats::submitted),
+                column("Completed", ExecutorStats::completed),
+                column("Failed", ExecutorStats::failed),
+                column("Wait mean µs", stats -> stats.wait().meanUs()),
+                column("Wait p99 µs", stats -> stats.wait().p99Us()),
+                column("Wait max µs", stats -> stats.wait().maxUs()),
+                column("Run mean µs", stats -> stats.run().meanUs()),
+                column("Run p99 µs", stats -> stats.run().p99Us()),
+                column("Run max µs", stats -> stats.run().maxUs()));
+        taskTypeTable.getColumns().setAll(
+                column("Task type", ExecutorStats.TaskTypeStats::taskType),
+                column("Count", taskType -> taskType.run().count()),
+                column("Wait mean µs", taskType -> taskType.wait().meanUs()),
+                column("Wait p99 µs", taskType -> taskType.wait().p99Us()),
+                column("Run mean µs", taskType -> taskType.run().meanUs()),
+                column("Run p99 µs", taskType -> taskType.run().p99Us()),
+                column("Run max µs", taskType -> taskType.run().maxUs()));
+        executorTable.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) ->
+                taskTypeTable.getItems().setAll(newValue == null ? List.of() : newValue.taskTypes().castToList()));
+
+        Button resetButton = new Button("Reset");
+        statsService.ifPresentOrElse(service -> {
+            detailCheckBox.setSelected(service.isDetailEnabled());
+            detailCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> service.setDetailEnabled(newValue));
+            resetButton.setOnAction(event -> {
+                service.reset();
+                refresh();
+            });
+            SplitPane tables = new SplitPane(executorTable, taskTypeTable);
+            tables.setOrientation(Orientation.VERTICAL);
+            root.setCenter(tables);
+        }, () -> {
+            detailCheckBox.setDisable(true);
+            resetButton.setDisable(true);
+            root.setCenter(new Label("No executor statistics are available"));
+        });
+        root.setTop(new ToolBar(detailCheckBox, resetButton));
+
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+        root.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                refreshTimeline.stop();
+            } else if (statsService.isPresent()) {
+                refresh();
+                refreshTimeline.play();
+            }
+        });
+    }
+
+    public ExecutorStatsNode(ViewProperties viewProperties, KometPreferences nodePreferences) {
+        super(viewProperties, nodePreferences);
+    }
+
+    private static <S, T> TableColumn<S, T> column(String title, Function<S, T> value) {
+        TableColumn<S, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(value.apply(cellData.getValue())));
+        return column;
+    }
+
+    private void refresh() {
+        statsService.ifPresent(service -> {
+            ImmutableList<ExecutorStats> stats = service.stats();
+            String selected = executorTable.getSelectionModel().getSelectedItem() == null
+                    ? null : executorTable.getSelectionModel().getSelectedItem().name();
+            executorTable.getItems().setAll(stats.castToList());
+            detailCheckBox.setSelected(service.isDetailEnabled());
+            if (selected != null) {
+                stats.detectOptional(executor -> executor.name().equals(selected))
+                        .ifPresent(executor -> executorTable.getSelectionModel().select(executor));
+            }
+        });
+    }
+
+    @Override
+    public String getDefaultTitle() {
+        return TITLE;
+    }
+
+    @Override
+    public void handleActivity(ImmutableList<EntityFacade> entities) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void revertAdditionalPreferences() {
+
+    }
+
+    @Override
+    public String getStyleId() {
+        return STYLE_ID;
+    }
+
+    @Override
+    protected void saveAdditionalPreferences() {
+
+    }
+
+    @Override
+    public Node getNode() {
+        return root;
+    }
+
+    @Override
+    public void close() {
+        refreshTimeline.stop();
+    }
+
+    @Override
+    public boolean canClose() {
+        return true;
+    }
+
+    @Override
+    public Class factoryClass() {
+        return ExecutorStatsNodeFactory.class;
+    }
+}
@@ -14,8 +14,10 @@
  * limitations under the License.
  */
 import dev.ikm.komet.framework.KometNodeFactory;
+import dev.ikm.komet.framework.concurrent.ExecutorStatsService;
 import dev.ikm.komet.framework.concurrent.TaskListsService;
 import dev.ikm.komet.progress.CompletionNodeFactory;
+import dev.ikm.komet.progress.ExecutorStatsNodeFactory;
 import dev.ikm.komet.progress.ProgressNodeFactory;
 
 module dev.ikm.komet.progress {
@@ -27,7 +29,8 @@
     requires org.kordamp.ikonli.javafx;
 
     provides KometNodeFactory
-            with ProgressNodeFactory, CompletionNodeFactory;
+            with ProgressNodeFactory, CompletionNodeFactory, ExecutorStatsNodeFactory;
 
     uses TaskListsService;
+    uses ExecutorStatsService;
 }
\ No newline at end of file
@@ -24,6 +24,7 @@
 import dev.ikm.elk.snomed.interval.Interval;
 import dev.ikm.komet.framework.panel.axiom.AxiomSubjectRecord;
 import dev.ikm.komet.framework.performance.impl.ObservationRecord;
+import dev.ikm.komet.framework.view.ViewProperties;
 import dev.ikm.komet.rules.actions.axiom.AddDataPropertySet;
 import dev.ikm.komet.rules.actions.axiom.AddFeature;
 import dev.ikm.komet.rules.actions.axiom.AddIntervalRole;
@@ -49,6 +50,8 @@
 import dev.ikm.komet.rules.actions.axiom.ChooseConcreteOperatorMenu;
 import dev.ikm.komet.rules.actions.axiom.RemoveAxiomAction;
 import dev.ikm.komet.rules.actions.axiom.SetValueMenu;
+import dev.ikm.tinkar.coordinate.edit.EditCoordinate;
+import dev.ikm.tinkar.coordinate.view.calculator.ViewCalculator;
 import dev.ikm.tinkar.ext.lang.owl.IntervalUtil;
 import dev.ikm.tinkar.terms.TinkarTerm;
 import javafx.scene.control.MenuItem;
@@ -147,10 +150,14 @@ public void axiomIsSet(ObservationRecord $observation) {
 			@MethodPredicate(method = "isAxiomConcept", args = { "$observation" }) })
 	public void axiomIsConceptAxiom(ObservationRecord $observation, RhsContext ctx) {
 		if ($observation.subject() instanceof AxiomSubjectRecord axiomSubjectRecord) {
-			addConsequenceMenu(new ChooseConceptMenu("Choose replacement is-a", calculator(),
-					axiomSubjectRecord.nodeForPopover(), viewProperties(), o -> {
+			// The menu is built when shown, after the rules have fired; capture what it needs now.
+			ViewCalculator calculator = calculator();
+			ViewProperties viewProperties = viewProperties();
+			EditCoordinate editCoordinate = editCoordinate();
+			addConsequenceMenu("Choose replacement is-a", () -> new ChooseConceptMenu("Choose replacement is-a",
+					calculator, axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
 						ChangeConcept changeConcept = new ChangeConcept("Change is-a", o, axiomSubjectRecord,
-								calculator(), editCoordinate());
+								calculator, editCoordinate);
 						changeConcept.doAction();
 					}));
 		}
@@ -185,21 +192,23 @@ public void axiomIsRoleGroup(ObservationRecord $observation, RhsContext ctx) {
 	public void axiomIsRoleButNotARoleGroup(ObservationRecord $observation) {
 
 		if ($observation.subject() instanceof AxiomSubjectRecord axiomSubjectRecord) {
+			ViewCalculator calculator = calculator();
+			ViewProperties viewProperties = viewProperties();
+			EditCoordinate editCoordinate = editCoordinate();
 
-			addConsequenceMenu(new ChooseConceptMenu("Choose role type", calculator(),
-					axiomSubjectRecord.nodeForPopover(), viewProperties(), o -> {
+			addConsequenceMenu("Choose role type", () -> new ChooseConceptMenu("Choose role type", calculator,
+					axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
 						ChangeRoleType changeRoleType = new ChangeRoleType("Change role type", o, axiomSubjectRecord,
-								calculator(), editCoordinate());
+								calculator, editCoordinate);
 						changeRoleType.doAction();
-					}),
+					}));
 
-					new ChooseConceptMenu("Choose role restriction", calculator(), axiomSubjectRecord.nodeForPopover(),
-							viewProperties(), o -> {
-								ChangeRoleRestriction changeRoleRestriction = new ChangeRoleRestriction(
-										"Change role restriction", o, axiomSubjectRecord, calculator(),
-										editCoordinate());
-								changeRoleRestriction.doAction();
-							}));
+			addConsequenceMenu("Choose role restriction", () -> new ChooseConceptMenu("Choose role restriction",
+					calculator, axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
+						ChangeRoleRestriction changeRoleRestriction = new ChangeRoleRestriction(
+								"Change role restriction", o, axiomSubjectRecord, calculator, editCoordinate);
+						changeRoleRestriction.doAction();
+					}));
 		}
 	}
 
@@ -213,25 +222,27 @@ public void axiomIsRoleButNotARoleGroup(ObservationRecord $observation) {
 	public void axiomIsIntervalRole(ObservationRecord $observation) {
 
 		if ($observation.subject() instanceof AxiomSubjectRecord axiomSubjectRecord) {
+			ViewCalculator calculator = calculator();
+			ViewProperties viewProperties = viewProperties();
+			EditCoordinate editCoordinate = editCoordinate();
 
-			addConsequenceMenu(new ChooseConceptMenu("Choose interval role type", calculator(),
-					axiomSubjectRecord.nodeForPopover(), viewProperties(), o -> {
+			addConsequenceMenu("Choose interval role type", () -> new ChooseConceptMenu("Choose interval role type",
+					calculator, axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
 						ChangeIntervalRoleType changeRoleType = new ChangeIntervalRoleType("Change interval role type",
-								o, axiomSubjectRecord, calculator(), editCoordinate());
+								o, axiomSubjectRecord, calculator, editCoordinate);
 						changeRoleType.doAction();
-					}),
-					// Alternative to inline block below
-					// new ChangeIntervalValuesMenu("Change interval values", calculator(),
-					// editCoordinate(),
-					// axiomSubjectRecord),
+					}));
+			// Alternative to inline block below
+			// new ChangeIntervalValuesMenu("Change interval values", calculator(),
+			// editCoordinate(),
+			// axiomSubjectRecord),
 
-					new ChooseConceptMenu("Choose unit of measure", calculator(), axiomSubjectRecord.nodeForPopover(),
-							viewProperties(), o -> {
-								ChangeIntervalRoleUnitOfMeasure changeUnitOfMeasure = new ChangeIntervalRoleUnitOfMeasure(
-										"Change unit of measure", o, axiomSubjectRecord, calculator(),
-										editCoordinate());
-								changeUnitOfMeasure.doAction();
-							}));
+			addConsequenceMenu("Choose unit of measure", () -> new ChooseConceptMenu("Choose unit of measure",
+					calculator, axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
+						ChangeIntervalRoleUnitOfMeasure changeUnitOfMeasure = new ChangeIntervalRoleUnitOfMeasure(
+								"Change unit of measure", o, axiomSubjectRecord, calculator, editCoordinate);
+						changeUnitOfMeasure.doAction();
+					}));
 
 			{
 				Interval interval = IntervalUtil.makeInterval(axiomSubjectRecord.getAxiomVertex());
@@ -260,19 +271,26 @@ public void axiomIsIntervalRole(ObservationRecord $observation) {
 	public void axiomIsFeature(ObservationRecord $observation) {
 
 		if ($observation.subject() instanceof AxiomSubjectRecord axiomSubjectRecord) {
+			ViewCalculator calculator = calculator();
+			ViewProperties viewProperties = viewProperties();
+			EditCoordinate editCoordinate = editCoordinate();
 
-			addConsequenceMenu(new ChooseConceptMenu("Choose concrete role type", calculator(),
-					axiomSubjectRecord.nodeForPopover(), viewProperties(), o -> {
+			addConsequenceMenu("Choose concrete role type", () -> new ChooseConceptMenu("Choose concrete role type",
+					calculator, axiomSubjectRecord.nodeForPopover(), viewProperties, o -> {
 						ChangeFeatureType changeFeatureType = new ChangeFeatureType("Change concrete role type", o,
-								axiomSubjectRecord, calculator(), editCoordinate());
+								axiomSubjectRecord, calculator, editCoordinate);
 						changeFeatureType.doAction();
-					}),
+					}));
 
-					new ChooseConcreteOperatorMenu("Choose comparison", calculator(), o -> {
+			addConsequenceMenu("Choose comparison", () -> new ChooseConcreteOperatorMenu("Choose comparison",
+					calculator, o -> {
 						ChangeFeatureOperator changeFeatureOperator = new ChangeFeatureOperator("Change comparison", o,
-								axiomSubjectRecord, calculator(), editCoordinate());
+								axiomSubjectRecord, calculator, editCoordinate);
 						changeFeatureOperator.doAction();
-					}), new SetValueMenu("Set value", calculator(), editCoordinate(), axiomSubjectRecord));
+					}));
+
+			addConsequenceMenu("Set value", () -> new SetValueMenu("Set value", calculator, editCoordinate,
+					axiomSubjectRecord));
 		}
 	}
 }
\ No newline at end of file
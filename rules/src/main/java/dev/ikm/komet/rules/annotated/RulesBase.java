@@ -38,6 +38,7 @@
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static dev.ikm.komet.rules.evrete.EvreteRulesService.*;
 
@@ -100,6 +101,21 @@ protected void addConsequenceMenu(Menu... menus) {
         }
     }
 
+    /**
+     * Adds a submenu that is built when it is shown, on the JavaFX application thread. Unlike a menu
+     * built while the rules fire, the consequence can be memoized and shown again. The factory runs after
+     * the rules have finished, so it must capture the calculator, view properties and edit coordinate it
+     * needs rather than calling {@link #calculator()} and the like.
+     *
+     * @param text        the text of the menu
+     * @param menuFactory builds the menu
+     */
+    protected void addConsequenceMenu(String text, Supplier<Menu> menuFactory) {
+        // As we now use a shared method, the stacktrace index is now 2 instead of 1
+        String ruleMethod = Thread.currentThread().getStackTrace()[2].toString();
+        Objects.requireNonNull(consequences).add(new ConsequenceMenu(UUID.randomUUID(), ruleMethod, text, menuFactory));
+    }
+
     /**
      * Condition method on {@link ObservationRecord} that returns true if
      * the given observation's subject is a {@link AxiomSubjectRecord} and not a definition root.
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2015 Integrated Knowledge Management (support@ikm.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.ikm.komet.rules.evrete;
+
+import dev.ikm.komet.framework.performance.Statement;
+import dev.ikm.komet.framework.rulebase.Consequence;
+import dev.ikm.komet.framework.view.ViewProperties;
+import dev.ikm.tinkar.coordinate.edit.EditCoordinateRecord;
+import dev.ikm.tinkar.coordinate.view.ViewCoordinateRecord;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes the consequences of firing the rules for a set of statements, so reopening the same context
+ * menu does not start a new session.
+ * <p>
+ * Entries are keyed by the statements, the view properties the generated actions are bound to, and the
+ * view and edit coordinates in effect when the rules fired. Each entry also records the nids its
+ * statements are about; a change to any of those entities evicts it. The least recently used entry is
+ * evicted once the cache holds {@code maximumSize} entries.
+ * <p>
+ * Keys refer to their view properties weakly, so the cache does not keep a closed window's view reachable;
+ * entries for view properties that were collected are purged on the next write. Consequences may still
+ * refer to the view they were generated for, so owners that dispose their view properties should also call
+ * {@link #viewDisposed} to release them at once.
+ * <p>
+ * Consequences computed while an entity changed are not stored, since the rules may have read the entity
+ * before the change. Results that cannot be reused are recorded without consequences, so callers can tell
+ * that evaluating them ahead of time is pointless.
+ */
+final class ConsequenceCache {
+
+    /**
+     * @param knowledgeBaseName the knowledge base the statements were presented to
+     * @param statements        the statements, compared by value
+     * @param view              the view properties the generated actions are bound to
+     * @param viewCoordinate    the view coordinate in effect when the rules fired
+     * @param editCoordinate    the edit coordinate in effect when the rules fired
+     */
+    record Key(String knowledgeBaseName, ImmutableList<Statement> statements, ViewReference view,
+               ViewCoordinateRecord viewCoordinate, EditCoordinateRecord editCoordinate) {
+    }
+
+    /**
+     * A weak reference to view properties that compares them by identity. Once they are collected, the
+     * reference is equal only to itself.
+     */
+    static final class ViewReference extends WeakReference<ViewProperties> {
+        private final int hash;
+
+        private ViewReference(ViewProperties viewProperties, ReferenceQueue<ViewProperties> queue) {
+            super(viewProperties, queue);
+            this.hash = System.identityHashCode(viewProperties);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ViewReference other) || hash != other.hash) {
+                return false;
+            }
+            ViewProperties viewProperties = get();
+            return viewProperties != null && viewProperties == other.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private record Entry(ImmutableList<Consequence<?>> consequences, int[] nids) {
+    }
+
+    private final int maximumSize;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final MutableIntObjectMap<MutableSet<Key>> keysByNid = IntObjectMaps.mutable.empty();
+    private final ReferenceQueue<ViewProperties> collectedViews = new ReferenceQueue<>();
+    private long changeCount;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    ConsequenceCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return a key for the consequences of presenting {@code statements} with {@code viewProperties}
+     */
+    Key key(String knowledgeBaseName, ImmutableList<Statement> statements, ViewProperties viewProperties,
+            ViewCoordinateRecord viewCoordinate, EditCoordinateRecord editCoordinate) {
+        return new Key(knowledgeBaseName, statements, new ViewReference(viewProperties, collectedViews),
+                viewCoordinate, editCoordinate);
+    }
+
+    /**
+     * @return the cached consequences for {@code key}, or {@code null} if there are none
+     */
+    synchronized ImmutableList<Consequence<?>> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.consequences() == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.consequences();
+    }
+
+    /**
+     * @return {@code true} if the result for {@code key} is cached, or known not to be reusable
+     */
+    synchronized boolean contains(Key key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return a token to pass to {@link #put}, marking the point at which the rules started firing
+     */
+    synchronized long changeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Stores the consequences for {@code key}, unless an entity changed since {@code changeCountAtStart}.
+     *
+     * @param key                the key the consequences were computed for
+     * @param nids               the entities the statements are about
+     * @param consequences       the consequences, or {@code null} if they cannot be reused
+     * @param changeCountAtStart the value of {@link #changeCount()} before the rules fired
+     */
+    synchronized void put(Key key, int[] nids, ImmutableList<Consequence<?>> consequences, long changeCountAtStart) {
+        if (changeCount != changeCountAtStart) {
+            discarded.increment();
+            return;
+        }
+        purgeCollectedViews();
+        // Removed first so the map holds this key, the instance indexed below, rather than an equal one
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            unindex(key, previous.nids());
+        }
+        entries.put(key, new Entry(consequences, nids));
+        for (int nid : nids) {
+            keysByNid.getIfAbsentPut(nid, Sets.mutable::empty).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maximumSize) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted.getKey(), evicted.getValue().nids());
+        }
+    }
+
+    /**
+     * Evicts every entry whose statements are about {@code nid}.
+     */
+    synchronized void entityChanged(int nid) {
+        changeCount++;
+        MutableSet<Key> keys = keysByNid.remove(nid);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                invalidated.increment();
+                unindex(key, entry.nids());
+            }
+        }
+    }
+
+    /**
+     * Evicts every entry for {@code viewProperties}, which their owner is disposing.
+     */
+    synchronized void viewDisposed(ViewProperties viewProperties) {
+        removeEntriesIf(view -> view.get() == viewProperties);
+    }
+
+    synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    synchronized void clear() {
+        changeCount++;
+        entries.clear();
+        keysByNid.clear();
+    }
+
+    private void purgeCollectedViews() {
+        boolean collected = false;
+        while (collectedViews.poll() != null) {
+            collected = true;
+        }
+        if (collected) {
+            removeEntriesIf(view -> view.get() == null);
+        }
+    }
+
+    private void removeEntriesIf(Predicate<ViewReference> viewPredicate) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (viewPredicate.test(entry.getKey().view())) {
+                iterator.remove();
+                unindex(entry.getKey(), entry.getValue().nids());
+            }
+        }
+    }
+
+    private void unindex(Key key, int[] nids) {
+        for (int nid : nids) {
+            MutableSet<Key> keys = keysByNid.get(nid);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByNid.remove(nid);
+            }
+        }
+    }
+
+    EvreteRulesService.CacheStats stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new EvreteRulesService.CacheStats(hits.sum(), misses.sum(), invalidated.sum(), discarded.sum(), size);
+    }
+}
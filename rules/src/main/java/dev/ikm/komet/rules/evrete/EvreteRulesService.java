@@ -15,8 +15,10 @@
  */
 package dev.ikm.komet.rules.evrete;
 
+import dev.ikm.komet.framework.panel.axiom.AxiomSubjectRecord;
 import dev.ikm.komet.framework.performance.Statement;
 import dev.ikm.komet.framework.rulebase.Consequence;
+import dev.ikm.komet.framework.rulebase.ConsequenceMenu;
 import dev.ikm.komet.framework.rulebase.RuleProvider;
 import dev.ikm.komet.framework.rulebase.RuleService;
 import dev.ikm.tinkar.common.service.PluggableService;
@@ -25,11 +27,20 @@
 import dev.ikm.komet.rules.annotated.ComponentFocusRules;
 import dev.ikm.komet.rules.annotated.NewConceptRules;
 import dev.ikm.komet.rules.annotated.NewPatternRules;
+import dev.ikm.tinkar.common.service.TinkExecutor;
 import dev.ikm.tinkar.common.sets.ConcurrentHashSet;
+import dev.ikm.tinkar.common.util.broadcast.Subscriber;
 import dev.ikm.tinkar.coordinate.edit.EditCoordinate;
+import dev.ikm.tinkar.entity.Entity;
+import dev.ikm.tinkar.entity.EntityVersion;
+import dev.ikm.tinkar.entity.SemanticEntity;
+import dev.ikm.tinkar.entity.SemanticEntityVersion;
+import dev.ikm.tinkar.terms.EntityFacade;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.evrete.Configuration;
 import org.evrete.KnowledgeService;
 import org.evrete.api.ActivationMode;
@@ -44,17 +55,49 @@
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Rule service backed by the Evrete engine.
+ * <p>
+ * The consequences of each {@link #execute} call are memoized when every statement is about an entity
+ * (an entity, an entity version or an axiom of a semantic). Reopening the same context menu then skips
+ * the stateless session entirely. Entries are keyed by the statements and the view and edit coordinates,
+ * and are evicted when one of the entities the statements are about changes, or a semantic that references
+ * one of them. They are also released when their view properties are disposed or collected. A {@link ConsequenceMenu}
+ * builds its menu when it is shown, so it can be cached like any other consequence; only a menu that was
+ * already built while the rules fired prevents caching, as a menu belongs to the popup it was shown in.
+ * <p>
+ * The cache holds {@value #DEFAULT_CACHE_SIZE} entries by default; set the system property
+ * {@code ike.rules.cache.size} to change that, or to 0 to disable caching. Background pre-evaluation
+ * through {@link #preEvaluate} can be turned off with {@code ike.rules.preevaluate=false}.
+ */
 public class EvreteRulesService implements RuleService {
     public static final String ENV_CONSEQUENCES = "ENV_CONSEQUENCES";
     public static final String ENV_VIEW_PROPERTIES = "ENV_VIEW_PROPERTIES";
     public static final String ENV_EDIT_COORDINATE = "ENV_EDIT_COORDINATE";
 
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
     private static final Logger LOG = LoggerFactory.getLogger(EvreteRulesService.class);
 
     private final Knowledge knowledge;
+    private final ConsequenceCache consequenceCache;
+    private final boolean preEvaluationEnabled =
+            Boolean.parseBoolean(System.getProperty("ike.rules.preevaluate", "true"));
+    private final Set<ConsequenceCache.Key> preEvaluating = ConcurrentHashMap.newKeySet();
+    /** Strong reference — the entity provider holds its subscribers weakly. */
+    private final Subscriber<Integer> entityChangeSubscriber;
 
     public EvreteRulesService() throws IOException {
+        this(Integer.getInteger("ike.rules.cache.size", DEFAULT_CACHE_SIZE));
+    }
+
+    /**
+     * @param cacheSize the number of rule evaluations to memoize, or 0 to fire the rules on every call
+     */
+    public EvreteRulesService(int cacheSize) throws IOException {
         Instant t0 = Instant.now();
         Configuration conf = new Configuration();
 
@@ -95,6 +138,14 @@ public EvreteRulesService() throws IOException {
             LOG.info("Imported {} plugin-contributed rule class(es) via RuleProvider", pluginRuleCount);
         }
         this.knowledge = knowledgeBase;
+        if (cacheSize > 0) {
+            this.consequenceCache = new ConsequenceCache(cacheSize);
+            this.entityChangeSubscriber = this::entityChanged;
+            Entity.provider().addSubscriberWithWeakReference(entityChangeSubscriber);
+        } else {
+            this.consequenceCache = null;
+            this.entityChangeSubscriber = null;
+        }
         Instant t1 = Instant.now();
 
         // Log the timing. With literal conditions disabled, the cold start time
@@ -106,7 +157,88 @@ public EvreteRulesService() throws IOException {
     public ImmutableList<Consequence<?>> execute(String knowledgeBaseName,
                                                  ImmutableList<Statement> statements,
                                                  ViewProperties viewProperties, EditCoordinate editCoordinate) {
+        int[] nids = consequenceCache == null ? null : involvedNids(statements);
+        if (nids == null || viewProperties == null || editCoordinate == null) {
+            return fire(statements, viewProperties, editCoordinate);
+        }
+        ConsequenceCache.Key key = consequenceCache.key(knowledgeBaseName, statements, viewProperties,
+                viewProperties.calculator().viewCoordinateRecord(), editCoordinate.toEditCoordinateRecord());
+        ImmutableList<Consequence<?>> consequences = consequenceCache.get(key);
+        if (consequences == null) {
+            long changeCount = consequenceCache.changeCount();
+            consequences = fire(statements, viewProperties, editCoordinate);
+            // A menu built while the rules fired can only be shown once; remember that the result cannot be reused.
+            consequenceCache.put(key, nids,
+                    consequences.anySatisfy(EvreteRulesService::isSingleUse) ? null : consequences, changeCount);
+        }
+        return consequences;
+    }
+
+    /**
+     * Fires the rules for {@code statements} on the Tinkar thread pool and caches the consequences, unless
+     * they are cached already or are being evaluated.
+     */
+    @Override
+    public void preEvaluate(String knowledgeBaseName,
+                            ImmutableList<Statement> statements,
+                            ViewProperties viewProperties, EditCoordinate editCoordinate) {
+        if (!preEvaluationEnabled || consequenceCache == null || viewProperties == null || editCoordinate == null
+                || involvedNids(statements) == null) {
+            return;
+        }
+        ConsequenceCache.Key key = consequenceCache.key(knowledgeBaseName, statements, viewProperties,
+                viewProperties.calculator().viewCoordinateRecord(), editCoordinate.toEditCoordinateRecord());
+        if (consequenceCache.contains(key) || !preEvaluating.add(key)) {
+            return;
+        }
+        TinkExecutor.threadPool().execute(() -> {
+            try {
+                execute(knowledgeBaseName, statements, viewProperties, editCoordinate);
+            } catch (RuntimeException e) {
+                LOG.debug("Pre-evaluation of rules failed; they will fire again when requested", e);
+            } finally {
+                preEvaluating.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Discards the consequences memoized for {@code viewProperties}.
+     */
+    @Override
+    public void viewDisposed(ViewProperties viewProperties) {
+        if (consequenceCache != null) {
+            consequenceCache.viewDisposed(viewProperties);
+        }
+    }
 
+    /**
+     * Discards all memoized consequences.
+     */
+    public void invalidateCache() {
+        if (consequenceCache != null) {
+            consequenceCache.clear();
+        }
+    }
+
+    /**
+     * @return a snapshot of the consequence cache counters, all zero when caching is disabled
+     */
+    public CacheStats cacheStats() {
+        return consequenceCache == null ? new CacheStats(0, 0, 0, 0, 0) : consequenceCache.stats();
+    }
+
+    private void entityChanged(int nid) {
+        consequenceCache.entityChanged(nid);
+        // Rules about a component also read the semantics that reference it, such as its membership in the
+        // base model patterns, but a change to such a semantic is published under the semantic's nid only.
+        if (!consequenceCache.isEmpty() && Entity.getFast(nid) instanceof SemanticEntity<?> semantic) {
+            consequenceCache.entityChanged(semantic.referencedComponentNid());
+        }
+    }
+
+    private ImmutableList<Consequence<?>> fire(ImmutableList<Statement> statements,
+                                               ViewProperties viewProperties, EditCoordinate editCoordinate) {
         StatelessSession session = this.knowledge.newStatelessSession(ActivationMode.CONTINUOUS);
 
         // Create a collector for resulting consequences
@@ -131,4 +263,47 @@ public ImmutableList<Consequence<?>> execute(String knowledgeBaseName,
         globalActionList.sort(Comparable::compareTo);
         return globalActionList.toImmutableList();
     }
-}
\ No newline at end of file
+
+    private static boolean isSingleUse(Consequence<?> consequence) {
+        return consequence instanceof ConsequenceMenu consequenceMenu && !consequenceMenu.isReusable();
+    }
+
+    /**
+     * @return the nids of the entities the statements are about, or {@code null} if a statement is about
+     * something else, in which case its consequences are not cached
+     */
+    private static int[] involvedNids(ImmutableList<Statement> statements) {
+        MutableIntSet nids = IntSets.mutable.empty();
+        for (Statement statement : statements) {
+            switch (statement.subject()) {
+                case AxiomSubjectRecord axiomSubject when axiomSubject.semanticContainingAxiom() != null ->
+                        addNids(nids, axiomSubject.semanticContainingAxiom().getVersionRecord());
+                case EntityVersion version -> addNids(nids, version);
+                case EntityFacade entity -> nids.add(entity.nid());
+                case null, default -> {
+                    return null;
+                }
+            }
+        }
+        return nids.toArray();
+    }
+
+    private static void addNids(MutableIntSet nids, EntityVersion version) {
+        nids.add(version.nid());
+        if (version instanceof SemanticEntityVersion semanticVersion) {
+            nids.add(semanticVersion.referencedComponentNid());
+        }
+    }
+
+    /**
+     * Counters for the consequence cache.
+     *
+     * @param hits        calls answered from the cache
+     * @param misses      calls that fired the rules
+     * @param invalidated entries evicted because an entity they are about changed
+     * @param discarded   results not cached because an entity changed while the rules fired
+     * @param size        entries currently cached
+     */
+    public record CacheStats(long hits, long misses, long invalidated, long discarded, int size) {
+    }
+}